@@ -13,9 +13,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.config.SslConfigs;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
@@ -35,8 +37,12 @@ import java.util.stream.Collectors;
  * Producers, Schema Registry clients, and Kafka Connect clients. Subclasses must implement
  * the abstract methods to provide cluster-specific configuration properties.
  *
- * <p>All clients are cached per cluster ID to avoid unnecessary reconnections. The cache
- * can be cleared globally via {@link #close()} or per-cluster via {@link #close(String)}.
+ * <p>All clients are cached per cluster ID to avoid unnecessary reconnections. Consumers are
+ * leased from a per-cluster {@link ConsumerPool} and go back to it when closed; consumers of
+ * a consumer group are not pooled. Producers are shared per cluster and configuration overlay
+ * through a {@link ProducerCache}; transactional producers are not shared. Additional properties
+ * apply only to the client they are passed for. The cache can be cleared globally via {@link #close()} or per-cluster via
+ * {@link #close(String)}.
  *
  * @see KafkaManager
  */
@@ -44,7 +50,9 @@ public abstract class AbstractKafkaManager implements KafkaManager {
 
     private final Map<String, Admin> adminClients = new ConcurrentHashMap<>();
     private final Map<String, Properties> consumerProperties = new ConcurrentHashMap<>();
+    private final Map<String, ConsumerPool> consumerPools = new ConcurrentHashMap<>();
     private final Map<String, Properties> producerProperties = new ConcurrentHashMap<>();
+    private final Map<String, ProducerCache> producerCaches = new ConcurrentHashMap<>();
     private final Map<String, SchemaRegistryClient> schemaRegistryClients = new ConcurrentHashMap<>();
     private final Map<String, Map<String, KafkaConnectClient>> connectClients = new ConcurrentHashMap<>();
 
@@ -65,8 +73,17 @@ public abstract class AbstractKafkaManager implements KafkaManager {
 
     @Override
     public Consumer<byte[], byte[]> getConsumer(String clusterId, Properties additionalProperties) {
-        var properties = consumerProperties.computeIfAbsent(clusterId, id -> getConsumerProperties(clusterId));
-        properties.putAll(additionalProperties);
+        if (additionalProperties.containsKey(ConsumerConfig.GROUP_ID_CONFIG)) {
+            return createConsumer(clusterId, additionalProperties);
+        }
+        return consumerPools.computeIfAbsent(clusterId, id -> new ConsumerPool(overlay -> createConsumer(clusterId, overlay)))
+                .borrow(additionalProperties);
+    }
+
+    private Consumer<byte[], byte[]> createConsumer(String clusterId, Properties overlay) {
+        var properties = new Properties();
+        properties.putAll(consumerProperties.computeIfAbsent(clusterId, id -> getConsumerProperties(clusterId)));
+        properties.putAll(overlay);
         return new KafkaConsumer<>(properties, new ByteArrayDeserializer(), new ByteArrayDeserializer());
     }
 
@@ -77,8 +94,17 @@ public abstract class AbstractKafkaManager implements KafkaManager {
 
     @Override
     public Producer<byte[], byte[]> getProducer(String clusterId, Properties additionalProperties) {
-        var properties = producerProperties.computeIfAbsent(clusterId, id -> getProducerProperties(clusterId));
-        properties.putAll(additionalProperties);
+        if (additionalProperties.containsKey(ProducerConfig.TRANSACTIONAL_ID_CONFIG)) {
+            return createProducer(clusterId, additionalProperties);
+        }
+        return producerCaches.computeIfAbsent(clusterId, id -> new ProducerCache(overlay -> createProducer(clusterId, overlay)))
+                .get(additionalProperties);
+    }
+
+    private Producer<byte[], byte[]> createProducer(String clusterId, Properties overlay) {
+        var properties = new Properties();
+        properties.putAll(producerProperties.computeIfAbsent(clusterId, id -> getProducerProperties(clusterId)));
+        properties.putAll(overlay);
         return new KafkaProducer<>(properties, new ByteArraySerializer(), new ByteArraySerializer());
     }
 
@@ -179,7 +205,11 @@ public abstract class AbstractKafkaManager implements KafkaManager {
         adminClients.values().forEach(it -> it.close(Duration.ofMillis(5000)));
         adminClients.clear();
         consumerProperties.clear();
+        consumerPools.values().forEach(ConsumerPool::close);
+        consumerPools.clear();
         producerProperties.clear();
+        producerCaches.values().forEach(ProducerCache::close);
+        producerCaches.clear();
         schemaRegistryClients.values().forEach(SchemaRegistryClient::reset);
         schemaRegistryClients.clear();
         connectClients.clear();
@@ -189,7 +219,9 @@ public abstract class AbstractKafkaManager implements KafkaManager {
     public void close(String clusterId) {
         Optional.ofNullable(adminClients.remove(clusterId)).ifPresent(it -> it.close(Duration.ofMillis(5000)));
         consumerProperties.remove(clusterId);
+        Optional.ofNullable(consumerPools.remove(clusterId)).ifPresent(ConsumerPool::close);
         producerProperties.remove(clusterId);
+        Optional.ofNullable(producerCaches.remove(clusterId)).ifPresent(ProducerCache::close);
         Optional.ofNullable(schemaRegistryClients.remove(clusterId)).ifPresent(SchemaRegistryClient::reset);
         connectClients.remove(clusterId);
     }
@@ -0,0 +1,199 @@
+package com.prafka.core.manager;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Pool of idle byte array consumers of a single cluster.
+ *
+ * <p>Consumers are grouped by their configuration overlay, so a lease never sees settings
+ * of another caller. A lease is returned to the pool when it is closed: its assignment is
+ * dropped and it is kept for the next caller with the same overlay, saving the metadata
+ * bootstrap and the SASL/SSL handshakes of a new consumer. Consumers that threw, were woken
+ * up, or stayed idle longer than the idle timeout are closed instead. Idle consumers are also
+ * evicted on a timer, so a cluster that is no longer used does not keep its broker connections
+ * open. A lease that is garbage collected without being closed is reported and its consumer is
+ * closed.
+ */
+class ConsumerPool implements AutoCloseable {
+
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    static final int MAX_IDLE_PER_OVERLAY = 4;
+    static final Duration MIN_EVICTION_PERIOD = Duration.ofMillis(100);
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerPool.class);
+    private static final Cleaner cleaner = Cleaner.create();
+    private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("consumer-pool-evictor").daemon().factory());
+
+    private final Function<Properties, Consumer<byte[], byte[]>> factory;
+    private final long idleTimeoutNanos;
+    private final Map<Map<String, String>, Deque<IdleConsumer>> idleConsumers = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> eviction;
+    private volatile boolean closed;
+
+    ConsumerPool(Function<Properties, Consumer<byte[], byte[]>> factory) {
+        this(factory, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    ConsumerPool(Function<Properties, Consumer<byte[], byte[]>> factory, Duration idleTimeout) {
+        this.factory = factory;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        var period = Math.max(idleTimeoutNanos, MIN_EVICTION_PERIOD.toNanos());
+        this.eviction = evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    Consumer<byte[], byte[]> borrow(Properties overlay) {
+        if (closed) throw new IllegalStateException("Consumer pool is closed");
+        evictIdle();
+        var key = toKey(overlay);
+        var idle = idleConsumers.computeIfAbsent(key, it -> new ConcurrentLinkedDeque<>()).pollFirst();
+        var consumer = idle != null ? idle.consumer() : factory.apply(toProperties(key));
+        var lease = new Lease(key, consumer);
+        var proxy = (Consumer<byte[], byte[]>) Proxy.newProxyInstance(Consumer.class.getClassLoader(), new Class<?>[]{Consumer.class}, lease);
+        lease.cleanable = cleaner.register(proxy, lease::leaked);
+        return proxy;
+    }
+
+    int idleCount() {
+        return idleConsumers.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        eviction.cancel(false);
+        idleConsumers.values().forEach(idle -> {
+            IdleConsumer it;
+            while ((it = idle.pollFirst()) != null) discard(it.consumer());
+        });
+        idleConsumers.clear();
+    }
+
+    private void giveBack(Map<String, String> key, Consumer<byte[], byte[]> consumer) {
+        try {
+            consumer.unsubscribe();
+        } catch (Exception e) {
+            discard(consumer);
+            return;
+        }
+        var idle = idleConsumers.computeIfAbsent(key, it -> new ConcurrentLinkedDeque<>());
+        if (closed || idle.size() >= MAX_IDLE_PER_OVERLAY) {
+            discard(consumer);
+            return;
+        }
+        var entry = new IdleConsumer(consumer, System.nanoTime());
+        idle.offerFirst(entry);
+        if (closed && idle.remove(entry)) discard(consumer);
+    }
+
+    private void evictIdle() {
+        if (closed) return;
+        var now = System.nanoTime();
+        idleConsumers.values().forEach(idle -> idle.removeIf(it -> {
+            if (now - it.returnedAt() < idleTimeoutNanos) return false;
+            discard(it.consumer());
+            return true;
+        }));
+    }
+
+    private static void discard(Consumer<byte[], byte[]> consumer) {
+        try {
+            consumer.close();
+        } catch (Exception e) {
+            log.debug("Failed to close pooled consumer", e);
+        }
+    }
+
+    private static Map<String, String> toKey(Properties overlay) {
+        var key = new TreeMap<String, String>();
+        if (overlay != null) overlay.forEach((k, v) -> key.put(String.valueOf(k), String.valueOf(v)));
+        return Collections.unmodifiableMap(key);
+    }
+
+    private static Properties toProperties(Map<String, String> key) {
+        var properties = new Properties();
+        properties.putAll(key);
+        return properties;
+    }
+
+    private record IdleConsumer(Consumer<byte[], byte[]> consumer, long returnedAt) {
+    }
+
+    /**
+     * Invocation handler of a leased consumer. Holds no reference to its proxy, so the proxy
+     * can be collected and reported when the caller forgets to close it.
+     */
+    private class Lease implements InvocationHandler {
+
+        private final Map<String, String> key;
+        private final Consumer<byte[], byte[]> consumer;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final Exception origin = log.isDebugEnabled() ? new Exception("Consumer leased here") : null;
+        private volatile boolean broken;
+        private Cleaner.Cleanable cleanable;
+
+        Lease(Map<String, String> key, Consumer<byte[], byte[]> consumer) {
+            this.key = key;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    release();
+                    return null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConsumer(" + consumer + ")";
+                }
+                case "wakeup" -> broken = true;
+            }
+            if (released.get()) throw new IllegalStateException("This consumer has already been closed.");
+            try {
+                return method.invoke(consumer, args);
+            } catch (InvocationTargetException e) {
+                broken = true;
+                throw e.getCause();
+            }
+        }
+
+        private void release() {
+            if (!released.compareAndSet(false, true)) return;
+            if (broken) discard(consumer);
+            else giveBack(key, consumer);
+            cleanable.clean();
+        }
+
+        private void leaked() {
+            if (!released.compareAndSet(false, true)) return;
+            log.warn("Consumer was not closed before being garbage collected, overlay: {}", key.keySet(), origin);
+            discard(consumer);
+        }
+    }
+}
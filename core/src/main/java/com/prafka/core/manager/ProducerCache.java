@@ -0,0 +1,142 @@
+package com.prafka.core.manager;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.ApiException;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Long-lived byte array producers of a single cluster.
+ *
+ * <p>Producers are thread safe, so one producer is shared by all callers with the same configuration
+ * overlay (e.g. the acks, compression and idempotence profile of a produced record). Sharing saves the
+ * metadata bootstrap, the idempotent producer id request and the SASL/SSL handshakes on every send, and
+ * lets concurrent sends be batched together. Callers get a view of the shared producer whose {@code close}
+ * does nothing; the producer itself is closed with the cache. A producer that failed with an error that
+ * leaves it unusable, e.g. it was closed, fenced or hit a fatal idempotence error, is dropped and the next
+ * caller gets a new one. Errors of a single call, such as an interrupted send or a record that could not be
+ * serialized, leave the producer to the other callers.
+ */
+class ProducerCache implements AutoCloseable {
+
+    static final Duration CLOSE_TIMEOUT = Duration.ofMillis(5000);
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerCache.class);
+
+    private final Function<Properties, Producer<byte[], byte[]>> factory;
+    private final Map<Map<String, String>, Producer<byte[], byte[]>> producers = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    ProducerCache(Function<Properties, Producer<byte[], byte[]>> factory) {
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    Producer<byte[], byte[]> get(Properties overlay) {
+        if (closed) throw new IllegalStateException("Producer cache is closed");
+        var key = toKey(overlay);
+        var producer = producers.computeIfAbsent(key, it -> factory.apply(toProperties(it)));
+        return (Producer<byte[], byte[]>) Proxy.newProxyInstance(Producer.class.getClassLoader(), new Class<?>[]{Producer.class}, new SharedProducer(key, producer));
+    }
+
+    int size() {
+        return producers.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        producers.values().forEach(ProducerCache::discard);
+        producers.clear();
+    }
+
+    private void evict(Map<String, String> key, Producer<byte[], byte[]> producer) {
+        if (producers.remove(key, producer)) discard(producer);
+    }
+
+    /**
+     * Whether the given error leaves the producer unusable for every caller.
+     */
+    static boolean isFatal(Throwable error) {
+        if (error instanceof InterruptException || error instanceof SerializationException) return false;
+        if (error instanceof ProducerFencedException || error instanceof OutOfOrderSequenceException) return true;
+        // other API errors such as a timeout or a too large record concern a single request
+        if (error instanceof ApiException) return false;
+        return error instanceof IllegalStateException || error instanceof KafkaException;
+    }
+
+    private static void discard(Producer<byte[], byte[]> producer) {
+        try {
+            producer.close(CLOSE_TIMEOUT);
+        } catch (Exception e) {
+            log.debug("Failed to close cached producer", e);
+        }
+    }
+
+    private static Map<String, String> toKey(Properties overlay) {
+        var key = new TreeMap<String, String>();
+        if (overlay != null) overlay.forEach((k, v) -> key.put(String.valueOf(k), String.valueOf(v)));
+        return Collections.unmodifiableMap(key);
+    }
+
+    private static Properties toProperties(Map<String, String> key) {
+        var properties = new Properties();
+        properties.putAll(key);
+        return properties;
+    }
+
+    /**
+     * Invocation handler of a caller's view of a shared producer.
+     */
+    private class SharedProducer implements InvocationHandler {
+
+        private final Map<String, String> key;
+        private final Producer<byte[], byte[]> producer;
+
+        SharedProducer(Map<String, String> key, Producer<byte[], byte[]> producer) {
+            this.key = key;
+            this.producer = producer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    return null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "SharedProducer(" + producer + ")";
+                }
+            }
+            try {
+                return method.invoke(producer, args);
+            } catch (InvocationTargetException e) {
+                if (isFatal(e.getCause())) evict(key, producer);
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -3,9 +3,14 @@ package com.prafka.core.manager;
 import com.google.protobuf.Message;
 import com.prafka.core.model.SerdeType;
 import com.prafka.core.service.AbstractService;
+import com.prafka.core.util.StreamUtils;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
@@ -13,18 +18,23 @@ import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializer;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaSerializer;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufDeserializer;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufSerializer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.SeekableByteArrayInput;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.serialization.Serializer;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,7 +50,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * </ul>
  *
  * <p>Deserializers are cached per cluster and key/value type to optimize performance.
- * Serializers are created fresh for each request as they may hold mutable state.
+ * Serializers for a Schema Registry subject are cached together with the resolved latest schema
+ * of the subject (see {@link #subjectSer}); other serializers are created fresh for each request.
+ *
+ * <p>Schema lookups by id on the consume path go through a per-cluster circuit breaker (see {@link #schemaById}),
+ * so an unavailable Schema Registry does not stall every consumed record until the HTTP timeout.
  *
  * @see SerdeType
  */
@@ -51,6 +65,22 @@ public class SerDeManager extends AbstractService implements Closeable {
     private static final Map<Pair<String, Boolean>, Deserializer<Object>> AVRO_DESER = new ConcurrentHashMap<>();
     private static final Map<Pair<String, Boolean>, Deserializer<Object>> JSON_DESER = new ConcurrentHashMap<>();
     private static final Map<Pair<String, Boolean>, Deserializer<Message>> PROTOBUF_DESER = new ConcurrentHashMap<>();
+    static final Map<Triple<String, String, Boolean>, SubjectSerializer> SUBJECT_SER = new ConcurrentHashMap<>();
+    private static final Map<String, CircuitBreaker> SCHEMA_REGISTRY_CIRCUIT = new ConcurrentHashMap<>();
+    private static final Map<Pair<String, Integer>, Long> UNRESOLVED_SCHEMA_ID = new ConcurrentHashMap<>();
+    private static final CircuitBreakerConfig SCHEMA_REGISTRY_CIRCUIT_CONFIG = CircuitBreakerConfig.custom()
+            .slidingWindowSize(5)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .slowCallDurationThreshold(Duration.ofSeconds(3))
+            .slowCallRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofSeconds(30))
+            .permittedNumberOfCallsInHalfOpenState(1)
+            // a missing schema is an answer of a healthy registry, only server errors and I/O failures count
+            .recordException(it -> !(it instanceof RestClientException e) || e.getStatus() >= 500)
+            .build();
+    static final long SUBJECT_SER_TTL_MS = 30_000;
+    static final long UNRESOLVED_SCHEMA_ID_TTL_MS = 10_000;
     private static final Map<SerdeType, Serde<?>> STANDARD_SERDE = Map.of(
             SerdeType.STRING, new Serdes.StringSerde(),
             SerdeType.BYTES, new Serdes.BytesSerde(),
@@ -81,6 +111,96 @@ public class SerDeManager extends AbstractService implements Closeable {
         return instance;
     }
 
+    /**
+     * Returns the latest schema of the subject together with a configured serializer for it.
+     *
+     * <p>The pair is cached per cluster, subject and key/value type, so serializing many records for the
+     * same subject costs no registry round trips. Once the entry is older than {@value #SUBJECT_SER_TTL_MS} ms
+     * the latest version is looked up again: the entry is kept if the schema id did not change and rebuilt
+     * otherwise. The lookup runs outside the map lock; if it fails, the expired entry keeps being served and
+     * the error is logged. Schema changes made through the application evict the entry right away
+     * (see {@link #evictSubjectSer}).
+     */
+    public SubjectSerializer subjectSer(String clusterId, String subject, boolean isKey) {
+        var key = Triple.of(clusterId, subject, isKey);
+        var cached = SUBJECT_SER.get(key);
+        if (cached != null && !cached.isExpired()) return cached;
+        SubjectSerializer refreshed;
+        try {
+            refreshed = lookUpSubjectSer(clusterId, subject, isKey, cached);
+        } catch (RuntimeException e) {
+            if (cached == null) throw e;
+            log.error("Failed to refresh the latest schema of subject {}, using schema id {}", subject, cached.id(), e);
+            return cached;
+        }
+        // keep an entry another caller refreshed in the meantime
+        return SUBJECT_SER.compute(key, (it, current) -> current != null && current != cached && !current.isExpired() ? current : refreshed);
+    }
+
+    private SubjectSerializer lookUpSubjectSer(String clusterId, String subject, boolean isKey, SubjectSerializer cached) {
+        var metadata = StreamUtils.tryReturn(() -> schemaRegistryClient(clusterId).getLatestSchemaMetadata(subject));
+        var expiresAt = System.currentTimeMillis() + SUBJECT_SER_TTL_MS;
+        if (cached != null && cached.id() == metadata.getId()) {
+            return new SubjectSerializer(cached.schema(), cached.id(), cached.serializer(), expiresAt);
+        }
+        var schema = StreamUtils.tryReturn(() -> schemaRegistryClient(clusterId).getSchemaBySubjectAndId(subject, metadata.getId()));
+        return new SubjectSerializer(schema, metadata.getId(), schemaSer(clusterId, schema, isKey), expiresAt);
+    }
+
+    public void evictSubjectSer(String clusterId, String subject) {
+        SUBJECT_SER.remove(Triple.of(clusterId, subject, true));
+        SUBJECT_SER.remove(Triple.of(clusterId, subject, false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Serializer<Object> schemaSer(String clusterId, ParsedSchema schema, boolean isKey) {
+        return switch (schema) {
+            case AvroSchema ignored -> avroSer(clusterId, isKey);
+            case JsonSchema jsonSchema -> jsonSer(clusterId, jsonSchema, isKey);
+            case ProtobufSchema ignored -> (Serializer<Object>) (Serializer<?>) protobufSer(clusterId, isKey);
+            default -> throw new IllegalArgumentException("Unsupported schema type: " + schema.schemaType());
+        };
+    }
+
+    /**
+     * Looks up a schema by id for deserialization, failing fast when the Schema Registry is unavailable.
+     *
+     * <p>Lookups of a cluster share a circuit breaker that opens after failed or slow calls and lets a single
+     * probe through every 30 seconds, and an id that could not be resolved is not looked up again for
+     * {@value #UNRESOLVED_SCHEMA_ID_TTL_MS} ms. A degraded registry therefore costs one timeout per scan
+     * instead of one per record; the records are shown undecoded meanwhile.
+     *
+     * @return the schema, or empty when it is unknown or the registry is unavailable
+     */
+    public Optional<ParsedSchema> schemaById(String clusterId, int schemaId) {
+        var key = Pair.of(clusterId, schemaId);
+        var unresolvedUntil = UNRESOLVED_SCHEMA_ID.get(key);
+        if (unresolvedUntil != null) {
+            if (System.currentTimeMillis() < unresolvedUntil) return Optional.empty();
+            UNRESOLVED_SCHEMA_ID.remove(key, unresolvedUntil);
+        }
+        try {
+            return Optional.of(schemaRegistryCircuit(clusterId).executeCheckedSupplier(() -> schemaRegistryClient(clusterId).getSchemaById(schemaId)));
+        } catch (CallNotPermittedException e) {
+            return Optional.empty();
+        } catch (Throwable e) {
+            UNRESOLVED_SCHEMA_ID.put(key, System.currentTimeMillis() + UNRESOLVED_SCHEMA_ID_TTL_MS);
+            logDebugError(e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the state of the circuit breaker guarding schema lookups of the cluster.
+     */
+    public CircuitBreaker.State schemaRegistryState(String clusterId) {
+        return schemaRegistryCircuit(clusterId).getState();
+    }
+
+    private CircuitBreaker schemaRegistryCircuit(String clusterId) {
+        return SCHEMA_REGISTRY_CIRCUIT.computeIfAbsent(clusterId, it -> CircuitBreaker.of("schema-registry-" + it, SCHEMA_REGISTRY_CIRCUIT_CONFIG));
+    }
+
     public <T> Serializer<T> standardSer(SerdeType type) {
         //noinspection unchecked
         return (Serializer<T>) STANDARD_SERDE.get(type).serializer();
@@ -127,6 +247,9 @@ public class SerDeManager extends AbstractService implements Closeable {
         AVRO_DESER.clear();
         JSON_DESER.clear();
         PROTOBUF_DESER.clear();
+        SUBJECT_SER.clear();
+        SCHEMA_REGISTRY_CIRCUIT.clear();
+        UNRESOLVED_SCHEMA_ID.clear();
     }
 
     @Override
@@ -137,12 +260,26 @@ public class SerDeManager extends AbstractService implements Closeable {
         closeDeserIfPresent(JSON_DESER.remove(Pair.of(clusterId, false)));
         closeDeserIfPresent(PROTOBUF_DESER.remove(Pair.of(clusterId, true)));
         closeDeserIfPresent(PROTOBUF_DESER.remove(Pair.of(clusterId, false)));
+        // serializers are not closed, closing them would close the shared schema registry client
+        SUBJECT_SER.keySet().removeIf(it -> it.getLeft().equals(clusterId));
+        SCHEMA_REGISTRY_CIRCUIT.remove(clusterId);
+        UNRESOLVED_SCHEMA_ID.keySet().removeIf(it -> it.getLeft().equals(clusterId));
     }
 
     private void closeDeserIfPresent(Deserializer<?> deser) {
         Optional.ofNullable(deser).ifPresent(Deserializer::close);
     }
 
+    /**
+     * Latest schema of a subject, resolved at most once per TTL, with a serializer configured for it.
+     */
+    public record SubjectSerializer(ParsedSchema schema, int id, Serializer<Object> serializer, long expiresAt) {
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
     private static class AvroEmbeddedSerde extends Serdes.WrapperSerde<String> {
 
         public AvroEmbeddedSerde() {
@@ -1,5 +1,8 @@
 package com.prafka.core.model;
 
+import lombok.Builder;
+
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,10 +12,45 @@ import java.util.Optional;
  * <p>Defines the starting position, maximum results, partition selection, serialization types
  * for key and value, and optional filter expressions to apply during consumption.
  *
+ * <p>When {@code scan} is enabled, consumption is not limited to a fixed number of polls: the whole
+ * offset range is walked until {@code maxResults} matching records are found or the end is reached.
+ * Starting from {@code END}, the range is the newest {@code maxResults} offsets split over the partitions.
+ * Scanned partitions are split across {@code parallelism} worker consumers ({@code 0} means one
+ * worker per available processor).
+ *
+ * <p>An optional {@code to} bound limits consumption to records up to an offset or timestamp (inclusive).
+ *
+ * <p>{@code preFilters} are checked against the raw serialized record before anything else; records
+ * that do not satisfy all of them are skipped without being deserialized.
+ *
+ * <p>A {@code keyLookup} finds all records with one key: the key is serialized with {@code keySerde}
+ * and, unless the topic is written with a custom partitioner, only the partition the default
+ * partitioner maps it to is scanned.
+ *
+ * <p>{@code columns} are field paths of the key or value, e.g. {@code value.customerId}, extracted into
+ * {@link Record#getColumns()}. When columns are set only their fields are decoded while consuming; the
+ * whole key and value are decoded on first access, e.g. by a filter expression or the record view.
+ *
  * @see SerdeType
  */
+@Builder(toBuilder = true)
 public record ConsumeFilter(From from, int maxResults, List<Integer> partitions, SerdeType keySerde,
-                            SerdeType valueSerde, List<Expression> expressions) {
+                            SerdeType valueSerde, List<Expression> expressions, boolean scan, int parallelism,
+                            List<PreFilter> preFilters, KeyLookup keyLookup, To to, List<String> columns) {
+
+    public ConsumeFilter {
+        if (preFilters == null) preFilters = List.of();
+        if (columns == null) columns = List.of();
+    }
+
+    /**
+     * Filter without scan, pre-filters, key lookup, upper bound or columns; {@code parallelism} is {@code 0}
+     * (one worker per processor) as for the builder.
+     */
+    public ConsumeFilter(From from, int maxResults, List<Integer> partitions, SerdeType keySerde,
+                         SerdeType valueSerde, List<Expression> expressions) {
+        this(from, maxResults, partitions, keySerde, valueSerde, expressions, false, 0, List.of(), null, null, List.of());
+    }
 
     public record From(Type type, Optional<Long> offset, Optional<Long> timestamp) {
 
@@ -22,9 +60,93 @@ public record ConsumeFilter(From from, int maxResults, List<Integer> partitions,
             OFFSET,    // show messages from specific offset
             DATETIME,  // show messages from specific date
             TIMESTAMP, // show messages from specific timestamp
+            FOLLOW,    // show new messages as they arrive
+        }
+    }
+
+    /**
+     * Upper bound of the consumed range, resolved per partition into a stop offset.
+     */
+    public record To(Type type, Optional<Long> offset, Optional<Long> timestamp) {
+
+        public enum Type {
+            OFFSET,    // up to specific offset
+            DATETIME,  // up to specific date
+            TIMESTAMP, // up to specific timestamp
+        }
+    }
+
+    /**
+     * Filter expression evaluated against each consumed record. Records matching any active
+     * expression are returned. The language defaults to JavaScript for templates saved before
+     * compiled Java expressions were available.
+     */
+    public record Expression(String name, String code, boolean isActive, Language language) {
+
+        public Expression {
+            if (language == null) language = Language.JAVASCRIPT;
+        }
+
+        public Expression(String name, String code, boolean isActive) {
+            this(name, code, isActive, Language.JAVASCRIPT);
+        }
+
+        public enum Language {
+            JAVASCRIPT, // evaluated by the Nashorn script engine
+            JAVA,       // compiled to bytecode once per consume
+        }
+    }
+
+    /**
+     * Condition on the raw serialized record. Strings are compared as UTF-8 bytes of the serialized
+     * key, value or header, so they only match payloads serialized as plain strings or JSON.
+     * Range bounds are inclusive, a {@code null} bound is open.
+     *
+     * <p>{@code FIELD_*} conditions test one field of a JSON key or value: {@code name} is a JSON path whose
+     * first segment selects the side, e.g. {@code value.order.status} or {@code key.items[0].id}, and
+     * {@code value} is the literal. The path is resolved by scanning the serialized bytes, not by parsing
+     * the payload. Strings are compared after unescaping; numbers, booleans and {@code null} by their JSON
+     * text; {@code FIELD_RANGE} compares numbers against {@code min} and {@code max}.
+     */
+    public record PreFilter(Type type, String name, String value, Long min, Long max) {
+
+        public static PreFilter keyEquals(String key) {
+            return new PreFilter(Type.KEY_EQUALS, null, key, null, null);
+        }
+
+        public static PreFilter headerEquals(String name, String value) {
+            return new PreFilter(Type.HEADER_EQUALS, name, value, null, null);
+        }
+
+        public static PreFilter keyBytesEquals(byte[] key) {
+            return new PreFilter(Type.KEY_BYTES_EQUALS, null, key == null ? null : Base64.getEncoder().encodeToString(key), null, null);
+        }
+
+        public static PreFilter field(Type type, String path, String literal) {
+            return new PreFilter(type, path, literal, null, null);
+        }
+
+        public enum Type {
+            KEY_EQUALS,       // serialized key equals value
+            KEY_BYTES_EQUALS, // serialized key equals base64 decoded value
+            KEY_PREFIX,       // serialized key starts with value
+            VALUE_CONTAINS,   // serialized value contains value
+            HEADER_PRESENT,   // header with name exists
+            HEADER_EQUALS,    // header with name equals value
+            TIMESTAMP_RANGE,  // timestamp between min and max
+            SIZE_RANGE,       // serialized key plus value size between min and max
+            FIELD_EQUALS,     // field at path name equals value
+            FIELD_NOT_EQUALS, // field at path name is absent or differs from value
+            FIELD_CONTAINS,   // string field at path name contains value
+            FIELD_PRESENT,    // field at path name exists and is not null
+            FIELD_RANGE,      // number field at path name between min and max
         }
     }
 
-    public record Expression(String name, String code, boolean isActive) {
+    /**
+     * Lookup of all records with the given key. Set {@code customPartitioner} when producers do not use
+     * the default murmur2 key partitioning, then every selected partition is scanned.
+     */
+    public record KeyLookup(String key, boolean customPartitioner) {
     }
 }
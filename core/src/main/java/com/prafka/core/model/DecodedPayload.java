@@ -0,0 +1,134 @@
+package com.prafka.core.model;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.prafka.core.util.JsonFactory;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Deserialized key or value of a consumed record.
+ *
+ * <p>Payloads decoded with a schema (Avro, JSON Schema, Protobuf) are kept as a JSON tree built directly
+ * from the deserialized object; other payloads are kept as text. Filters, the records table and export
+ * read the form they need: the text of a tree is only written on first access, and the tree of a JSON
+ * text is only parsed on first access. Both are cached. A {@linkplain #deferred deferred} payload is not
+ * decoded at all until one of its forms is read.
+ *
+ * <p>Payloads are safe to read from several threads: a deferred payload is decoded once, by the first
+ * reader, and the others wait for it.
+ *
+ * @see Record
+ */
+public final class DecodedPayload {
+
+    private boolean decodedTree;
+    private volatile Supplier<DecodedPayload> decoder;
+    private String text;
+    private JsonElement tree;
+    private volatile boolean treeResolved;
+
+    private DecodedPayload(String text, JsonElement tree) {
+        this.decodedTree = tree != null;
+        this.text = text;
+        this.tree = tree;
+        this.treeResolved = decodedTree;
+    }
+
+    public static DecodedPayload ofText(String text) {
+        return new DecodedPayload(text, null);
+    }
+
+    public static DecodedPayload ofTree(JsonElement tree) {
+        return new DecodedPayload(null, tree);
+    }
+
+    /**
+     * Returns a payload decoded by {@code decoder} on first access, for records that may never be read whole.
+     */
+    public static DecodedPayload deferred(Supplier<DecodedPayload> decoder) {
+        var payload = new DecodedPayload(null, null);
+        payload.decoder = decoder;
+        return payload;
+    }
+
+    public String text() {
+        resolve();
+        if (text == null && tree != null) text = JsonFactory.gsonDefault.toJson(tree);
+        return text;
+    }
+
+    /**
+     * Returns the payload as a JSON tree, when it was decoded into one or is a JSON object or array.
+     */
+    public Optional<JsonElement> tree() {
+        resolve();
+        if (!treeResolved) {
+            synchronized (this) {
+                if (!treeResolved) {
+                    if (isJson(text)) {
+                        try {
+                            tree = JsonParser.parseString(text);
+                        } catch (Exception ignored) {
+                            // not valid JSON after all, stays text
+                        }
+                    }
+                    treeResolved = true;
+                }
+            }
+        }
+        return Optional.ofNullable(tree);
+    }
+
+    /**
+     * Whether the payload is a JSON object or array, without parsing a JSON text.
+     */
+    public boolean isJson() {
+        resolve();
+        if (treeResolved && tree != null) return tree.isJsonObject() || tree.isJsonArray();
+        return isJson(text);
+    }
+
+    /**
+     * Whether the payload was decoded into a tree, in which case its text is already compact JSON.
+     */
+    public boolean isDecodedTree() {
+        resolve();
+        return decodedTree;
+    }
+
+    private void resolve() {
+        if (decoder == null) return;
+        synchronized (this) {
+            var current = decoder;
+            if (current == null) return;
+            var decoded = current.get();
+            decoded.resolve();
+            decodedTree = decoded.decodedTree;
+            text = decoded.text;
+            tree = decoded.tree;
+            treeResolved = decoded.treeResolved;
+            // cleared last, the volatile write publishes the fields to readers that skip the lock
+            decoder = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+
+    static boolean isJson(String payload) {
+        if (payload == null) return false;
+        // same as checking the trimmed payload, without copying it
+        var begin = 0;
+        var end = payload.length() - 1;
+        while (begin <= end && payload.charAt(begin) <= ' ') begin++;
+        while (end > begin && payload.charAt(end) <= ' ') end--;
+        if (begin >= end) return false;
+        var first = payload.charAt(begin);
+        var last = payload.charAt(end);
+        return (first == '[' && last == ']') || (first == '{' && last == '}');
+    }
+}
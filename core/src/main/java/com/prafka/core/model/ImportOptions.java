@@ -0,0 +1,43 @@
+package com.prafka.core.model;
+
+import lombok.Builder;
+
+/**
+ * Options for importing records from a file into a Kafka topic.
+ *
+ * <p>{@code keySerde} and {@code valueSerde} select how the imported key and value are serialized;
+ * Schema Registry payloads use the latest schema of the topic key/value subject. The producer settings
+ * ({@code lingerMs}, {@code batchSize}, {@code maxInFlightRequests}, compression and acks) tune the single
+ * producer used for the whole import. Idempotence is only enabled when it is allowed by the other settings,
+ * i.e. acks is {@code all} and there are at most 5 requests in flight.
+ *
+ * <p>{@code keepPartition}, {@code keepTimestamp} and {@code keepHeaders} replay the partition, timestamp
+ * and headers stored in the file instead of letting the producer assign them.
+ *
+ * @see ImportProgress
+ */
+@Builder(toBuilder = true)
+public record ImportOptions(SerdeType keySerde, SerdeType valueSerde, NewRecord.CompressionType compression,
+                            NewRecord.Asks asks, boolean idempotence, int lingerMs, int batchSize,
+                            int maxInFlightRequests, boolean keepPartition, boolean keepTimestamp, boolean keepHeaders) {
+
+    public static final ImportOptions DEFAULT = ImportOptions.builder()
+            .compression(NewRecord.CompressionType.LZ4)
+            .idempotence(true)
+            .lingerMs(20)
+            .batchSize(256 * 1024)
+            .maxInFlightRequests(5)
+            .keepHeaders(true)
+            .build();
+
+    public ImportOptions {
+        if (keySerde == null) keySerde = SerdeType.STRING;
+        if (valueSerde == null) valueSerde = SerdeType.STRING;
+        if (compression == null) compression = NewRecord.CompressionType.NONE;
+        if (asks == null) asks = NewRecord.Asks.ALL;
+        if (lingerMs < 0) lingerMs = 0;
+        if (batchSize <= 0) batchSize = 16 * 1024;
+        if (maxInFlightRequests <= 0) maxInFlightRequests = 5;
+        if (asks != NewRecord.Asks.ALL || maxInFlightRequests > 5) idempotence = false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.prafka.core.model;
+
+/**
+ * Snapshot of the progress of a record import into a topic.
+ *
+ * <p>{@code readRecords} counts the lines read from the file, {@code sentRecords} the records acknowledged
+ * by the brokers and {@code failedRecords} the lines that could not be parsed, serialized or produced.
+ * {@code lastError} holds the message of the most recent failure, if any.
+ *
+ * @see ImportOptions
+ */
+public record ImportProgress(long readRecords, long sentRecords, long failedRecords, long sentBytes, long elapsedMs,
+                             boolean completed, String lastError) {
+
+    public long recordsPerSecond() {
+        return elapsedMs == 0 ? 0 : sentRecords * 1000 / elapsedMs;
+    }
+
+    public long bytesPerSecond() {
+        return elapsedMs == 0 ? 0 : sentBytes * 1000 / elapsedMs;
+    }
+}
@@ -0,0 +1,29 @@
+package com.prafka.core.model;
+
+import java.util.List;
+
+/**
+ * Key distribution of a scanned topic: how many distinct keys it has, which keys are the hottest and how
+ * records and keys spread over the partitions.
+ *
+ * <p>Distinct keys are estimated within {@code distinctKeysError} (relative standard error) and key counts
+ * may overcount by up to {@code countError} records, in exchange for fixed memory however many records
+ * are scanned. Records without a key are counted as null keys only.
+ */
+public record KeyProfile(long records, long nullKeys, long distinctKeys, double distinctKeysError, long countError,
+                         List<HotKey> hotKeys, List<Partition> partitions) {
+
+    /**
+     * @param key       the key as text, or hex prefixed with {@code 0x} when it isn't printable UTF-8
+     * @param partition the partition of one of the records of the key, its only partition with the default partitioner
+     */
+    public record HotKey(String key, int partition, long count) {
+    }
+
+    /**
+     * @param hotKey      the hottest key of the partition, null when all its records have no key
+     * @param hotKeyCount the number of records of the hottest key in the whole topic, as of its last record in the partition
+     */
+    public record Partition(int id, long records, long nullKeys, long distinctKeys, long keyBytes, String hotKey, long hotKeyCount) {
+    }
+}
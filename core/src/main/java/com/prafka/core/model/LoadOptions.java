@@ -0,0 +1,53 @@
+package com.prafka.core.model;
+
+import lombok.Builder;
+
+/**
+ * Options for generating load on a Kafka topic.
+ *
+ * <p>Keys and values are either rendered from a template or, when the template is {@code null}, taken
+ * from a pool of {@code payloadPoolSize} random payloads generated and serialized up front, so payload
+ * generation does not limit the send rate. Schema Registry payloads are generated from the registered schema
+ * of the topic subject. Templates may contain the placeholders {@code {{seq}}}
+ * (record sequence number), {@code {{thread}}}, {@code {{timestamp}}}, {@code {{uuid}}} and
+ * {@code {{random}}} (random int).
+ *
+ * <p>Records are sent from {@code threads} threads, each with its own producer, at {@code targetRate}
+ * records per second in total, or as fast as the producers accept them when it is {@code 0}. The run
+ * stops after {@code maxRecords} records or {@code durationMs} milliseconds, whichever comes first;
+ * {@code 0} means no limit. The producer settings are the same as for an {@link ImportOptions import}.
+ *
+ * @see LoadProgress
+ */
+@Builder(toBuilder = true)
+public record LoadOptions(SerdeType keySerde, SerdeType valueSerde, String keyTemplate, String valueTemplate,
+                          int payloadPoolSize, int threads, long targetRate, long maxRecords, long durationMs,
+                          NewRecord.CompressionType compression, NewRecord.Asks asks, boolean idempotence,
+                          int lingerMs, int batchSize, int maxInFlightRequests) {
+
+    public static final LoadOptions DEFAULT = LoadOptions.builder()
+            .keySerde(SerdeType.UUID)
+            .valueSerde(SerdeType.JSON)
+            .maxRecords(100_000)
+            .compression(NewRecord.CompressionType.LZ4)
+            .idempotence(true)
+            .lingerMs(5)
+            .batchSize(64 * 1024)
+            .build();
+
+    public LoadOptions {
+        if (keySerde == null) keySerde = SerdeType.STRING;
+        if (valueSerde == null) valueSerde = SerdeType.STRING;
+        if (payloadPoolSize <= 0) payloadPoolSize = 1000;
+        if (threads <= 0) threads = 1;
+        if (targetRate < 0) targetRate = 0;
+        if (maxRecords < 0) maxRecords = 0;
+        if (durationMs < 0) durationMs = 0;
+        if (compression == null) compression = NewRecord.CompressionType.NONE;
+        if (asks == null) asks = NewRecord.Asks.ALL;
+        if (lingerMs < 0) lingerMs = 0;
+        if (batchSize <= 0) batchSize = 16 * 1024;
+        if (maxInFlightRequests <= 0) maxInFlightRequests = 5;
+        if (asks != NewRecord.Asks.ALL || maxInFlightRequests > 5) idempotence = false;
+    }
+}
@@ -0,0 +1,25 @@
+package com.prafka.core.model;
+
+import com.prafka.core.util.LatencyHistogram;
+
+/**
+ * Snapshot of the progress of a load generation run.
+ *
+ * <p>{@code sentRecords} counts the records handed to the producers, {@code ackedRecords} and
+ * {@code ackedBytes} the records acknowledged by the brokers, and {@code failedRecords} the records
+ * that could not be generated or produced. {@code latency} holds the send-to-ack latency percentiles
+ * in microseconds since the start of the run.
+ *
+ * @see LoadOptions
+ */
+public record LoadProgress(long sentRecords, long ackedRecords, long failedRecords, long ackedBytes, long elapsedMs,
+                           LatencyHistogram.Snapshot latency, boolean completed, String lastError) {
+
+    public long recordsPerSecond() {
+        return elapsedMs == 0 ? 0 : ackedRecords * 1000 / elapsedMs;
+    }
+
+    public long bytesPerSecond() {
+        return elapsedMs == 0 ? 0 : ackedBytes * 1000 / elapsedMs;
+    }
+}
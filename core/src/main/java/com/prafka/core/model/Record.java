@@ -1,8 +1,10 @@
 package com.prafka.core.model;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.prafka.core.util.CollectionUtils;
 import com.prafka.core.util.JsonFactory;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.commons.lang3.RegExUtils;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -11,16 +13,25 @@ import org.apache.kafka.common.record.TimestampType;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Represents a Kafka record (message) with its key, value, headers, and metadata.
  *
  * <p>This class wraps consumed records and provides both raw and formatted versions
  * of the key and value. JSON content is automatically detected and can be retrieved
- * in compressed (single-line) or pretty-printed format.
+ * in compressed (single-line) or pretty-printed format. Only the decoded key and value
+ * are kept; the compressed and pretty-printed forms are built on first access and cached,
+ * so large result sets do not pay for formatting rows that are never displayed. Payloads
+ * decoded into a JSON tree are formatted from the tree, without parsing any JSON text.
+ *
+ * <p>Records consumed with projected columns carry the extracted field values in {@code columns}, in the
+ * order of {@link ConsumeFilter#columns()}, and deferred payloads that are only decoded when read.
  *
  * @see ConsumerRecord
+ * @see DecodedPayload
  * @see NewRecord
  */
 @Getter
@@ -31,43 +42,56 @@ public class Record {
     private final String topicName;
     private final int partition;
     private final long offset;
-    private final String key;
+    @Getter(AccessLevel.NONE)
+    private final DecodedPayload keyPayload;
     private final int keySize;
     private final boolean keyIsNull;
-    private final boolean keyIsJson;
-    private final String keyCompressed;
-    private final String keyFormatted;
-    private final String value;
+    @Getter(AccessLevel.NONE)
+    private String keyCompressed;
+    @Getter(AccessLevel.NONE)
+    private String keyFormatted;
+    @Getter(AccessLevel.NONE)
+    private final DecodedPayload valuePayload;
     private final int valueSize;
     private final boolean valueIsNull;
-    private final boolean valueIsJson;
-    private final String valueCompressed;
-    private final String valueFormatted;
+    @Getter(AccessLevel.NONE)
+    private String valueCompressed;
+    @Getter(AccessLevel.NONE)
+    private String valueFormatted;
     private final Map<String, String> headers;
+    private final List<Object> columns;
     private final boolean last;
 
     public Record(ConsumerRecord<byte[], byte[]> source, String key, String value) {
+        this(source, DecodedPayload.ofText(key), DecodedPayload.ofText(value));
+    }
+
+    public Record(ConsumerRecord<byte[], byte[]> source, DecodedPayload key, DecodedPayload value) {
+        this(source, key, value, List.of());
+    }
+
+    public Record(ConsumerRecord<byte[], byte[]> source, DecodedPayload key, DecodedPayload value, List<Object> columns) {
         timestamp = source.timestamp();
         timestampType = source.timestampType();
         topicName = source.topic();
         partition = source.partition();
         offset = source.offset();
-        this.key = key;
+        keyPayload = key;
         keySize = Math.max(source.serializedKeySize(), 0);
         keyIsNull = source.key() == null;
-        keyIsJson = isJson(key);
-        keyCompressed = toCompressed(key, keyIsJson);
-        keyFormatted = toFormatted(key, keyIsJson);
-        this.value = value;
+        valuePayload = value;
         valueSize = Math.max(source.serializedValueSize(), 0);
         valueIsNull = source.value() == null;
-        valueIsJson = isJson(value);
-        valueCompressed = toCompressed(value, valueIsJson);
-        valueFormatted = toFormatted(value, valueIsJson);
-        headers = new HashMap<>();
-        for (var header : source.headers().toArray()) {
-            headers.putIfAbsent(header.key(), new String(header.value()));
+        var sourceHeaders = source.headers().toArray();
+        if (sourceHeaders.length == 0) {
+            headers = Collections.emptyMap();
+        } else {
+            headers = new HashMap<>();
+            for (var header : sourceHeaders) {
+                headers.putIfAbsent(header.key(), new String(header.value()));
+            }
         }
+        this.columns = columns;
         last = false;
     }
 
@@ -77,19 +101,14 @@ public class Record {
         topicName = metadata.topic();
         partition = metadata.partition();
         offset = metadata.offset();
-        key = source.getKey();
+        keyPayload = DecodedPayload.ofText(source.getKey());
         keySize = metadata.serializedKeySize();
         keyIsNull = source.getKeySerde() == SerdeType.NULL;
-        keyIsJson = isJson(key);
-        keyCompressed = toCompressed(source.getKey(), keyIsJson);
-        keyFormatted = toFormatted(source.getKey(), keyIsJson);
-        value = source.getValue();
+        valuePayload = DecodedPayload.ofText(source.getValue());
         valueSize = metadata.serializedValueSize();
         valueIsNull = source.getValueSerde() == SerdeType.NULL;
-        valueIsJson = isJson(value);
-        valueCompressed = toCompressed(source.getValue(), valueIsJson);
-        valueFormatted = toFormatted(source.getValue(), valueIsJson);
         headers = source.getHeaders();
+        columns = List.of();
         last = false;
     }
 
@@ -101,31 +120,74 @@ public class Record {
         topicName = null;
         partition = 0;
         offset = 0;
-        key = null;
+        keyPayload = DecodedPayload.ofText(null);
         keySize = 0;
         keyIsNull = true;
-        keyIsJson = false;
         keyCompressed = null;
         keyFormatted = null;
-        value = null;
+        valuePayload = DecodedPayload.ofText(null);
         valueSize = 0;
         valueIsNull = true;
-        valueIsJson = false;
         valueCompressed = null;
         valueFormatted = null;
         headers = Collections.emptyMap();
+        columns = List.of();
         last = true;
     }
 
+    public String getKey() {
+        return keyPayload.text();
+    }
+
+    public String getValue() {
+        return valuePayload.text();
+    }
+
+    public boolean isKeyIsJson() {
+        return keyPayload.isJson();
+    }
+
+    public boolean isValueIsJson() {
+        return valuePayload.isJson();
+    }
+
+    public Optional<JsonElement> getKeyTree() {
+        return isKeyIsJson() ? keyPayload.tree() : Optional.empty();
+    }
+
+    public Optional<JsonElement> getValueTree() {
+        return isValueIsJson() ? valuePayload.tree() : Optional.empty();
+    }
+
+    public String getKeyCompressed() {
+        if (keyCompressed == null && getKey() != null) keyCompressed = toCompressed(keyPayload, isKeyIsJson());
+        return keyCompressed;
+    }
+
+    public String getKeyFormatted() {
+        if (keyFormatted == null && getKey() != null) keyFormatted = toFormatted(keyPayload, isKeyIsJson());
+        return keyFormatted;
+    }
+
+    public String getValueCompressed() {
+        if (valueCompressed == null && getValue() != null) valueCompressed = toCompressed(valuePayload, isValueIsJson());
+        return valueCompressed;
+    }
+
+    public String getValueFormatted() {
+        if (valueFormatted == null && getValue() != null) valueFormatted = toFormatted(valuePayload, isValueIsJson());
+        return valueFormatted;
+    }
+
     public Map<Object, Object> toDto() {
         return CollectionUtils.mapOf(
                 "topic", topicName,
                 "partition", getPartition(),
                 "offset", getOffset(),
                 "timestamp", getTimestamp(),
-                "key", keyIsNull ? null : (keyIsJson ? JsonFactory.gsonDefault.fromJson(getKeyCompressed(), JsonFactory.MAP_STING_OBJECT_TYPE) : getKeyFormatted()),
+                "key", keyIsNull ? null : (isKeyIsJson() ? toMap(keyPayload) : getKeyFormatted()),
                 "keySize", getKeySize(),
-                "value", valueIsNull ? null : (valueIsJson ? JsonFactory.gsonDefault.fromJson(getValueCompressed(), JsonFactory.MAP_STING_OBJECT_TYPE) : getValueFormatted()),
+                "value", valueIsNull ? null : (isValueIsJson() ? toMap(valuePayload) : getValueFormatted()),
                 "valueSize", getValueSize(),
                 "headers", getHeaders()
         );
@@ -135,13 +197,16 @@ public class Record {
         return RegExUtils.removeAll(payload.trim(), "[\r\n]");
     }
 
-    private static boolean isJson(String payload) {
-        var trimmed = trim(payload);
-        return (trimmed.startsWith("[") && trimmed.endsWith("]")) || (trimmed.startsWith("{") && trimmed.endsWith("}"));
+    private static Map<String, Object> toMap(DecodedPayload payload) {
+        var tree = payload.tree();
+        if (tree.isPresent()) return JsonFactory.gsonDefault.fromJson(tree.get(), JsonFactory.MAP_STING_OBJECT_TYPE);
+        return JsonFactory.gsonDefault.fromJson(trim(payload.text()), JsonFactory.MAP_STING_OBJECT_TYPE);
     }
 
-    private static String toCompressed(String payload, boolean isJson) {
-        var trimmed = trim(payload);
+    private static String toCompressed(DecodedPayload payload, boolean isJson) {
+        // a decoded tree is written as compact JSON already
+        if (payload.isDecodedTree()) return payload.text();
+        var trimmed = trim(payload.text());
         if (isJson) {
             try {
                 return JsonFactory.gsonDefault.toJson(JsonParser.parseString(trimmed));
@@ -152,14 +217,11 @@ public class Record {
         return trimmed;
     }
 
-    private static String toFormatted(String payload, boolean isJson) {
+    private static String toFormatted(DecodedPayload payload, boolean isJson) {
         if (isJson) {
-            try {
-                return JsonFactory.gsonPretty.toJson(JsonParser.parseString(payload));
-            } catch (Exception ignored) {
-                return payload;
-            }
+            var tree = payload.tree();
+            if (tree.isPresent()) return JsonFactory.gsonPretty.toJson(tree.get());
         }
-        return payload;
+        return payload.text();
     }
 }
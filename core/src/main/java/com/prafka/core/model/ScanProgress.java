@@ -0,0 +1,47 @@
+package com.prafka.core.model;
+
+import java.util.List;
+
+/**
+ * Snapshot of the progress of a record scan over a topic.
+ *
+ * <p>Contains per-partition positions relative to the scanned offset range, along with
+ * overall counters used to derive throughput (records and bytes per second).
+ *
+ * @see ConsumeFilter
+ */
+public record ScanProgress(List<Partition> partitions, long scannedRecords, long scannedBytes, long matchedRecords,
+                           long elapsedMs, boolean completed) {
+
+    public record Partition(int id, long startOffset, long stopOffset, long position) {
+
+        public long scanned() {
+            return Math.min(Math.max(position - startOffset, 0), total());
+        }
+
+        public long total() {
+            return Math.max(stopOffset - startOffset, 0);
+        }
+    }
+
+    public long scannedOffsets() {
+        return partitions.stream().mapToLong(Partition::scanned).sum();
+    }
+
+    public long totalOffsets() {
+        return partitions.stream().mapToLong(Partition::total).sum();
+    }
+
+    public double percent() {
+        var total = totalOffsets();
+        return total == 0 ? 100 : scannedOffsets() * 100.0 / total;
+    }
+
+    public long recordsPerSecond() {
+        return elapsedMs == 0 ? 0 : scannedRecords * 1000 / elapsedMs;
+    }
+
+    public long bytesPerSecond() {
+        return elapsedMs == 0 ? 0 : scannedBytes * 1000 / elapsedMs;
+    }
+}
@@ -12,7 +12,8 @@ import java.util.Map;
  * Represents a Kafka topic with its partitions and metadata.
  *
  * <p>Contains topic information including the unique ID, name, partition details
- * (with offset ranges and replica assignments), and whether the topic is internal.
+ * (with offset ranges and replica assignments), and whether the topic is internal. Partitions whose
+ * offsets could not be resolved, e.g. without a leader, can't be read and are taken as empty.
  *
  * @see TopicDescription
  */
@@ -30,7 +31,10 @@ public class Topic {
         partitions = source.partitions().stream()
                 .map(partitionInfo -> {
                     var tp = new TopicPartition(name, partitionInfo.partition());
-                    return new Partition(partitionInfo, tp, beginOffsetMap.get(tp), endOffsetMap.get(tp));
+                    var beginOffset = beginOffsetMap.get(tp);
+                    var endOffset = endOffsetMap.get(tp);
+                    if (beginOffset == null || endOffset == null) return new Partition(partitionInfo, tp, 0, 0);
+                    return new Partition(partitionInfo, tp, beginOffset, endOffset);
                 })
                 .toList();
         internal = source.isInternal();
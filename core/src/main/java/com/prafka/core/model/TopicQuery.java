@@ -0,0 +1,107 @@
+package com.prafka.core.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQL-like query over the records of one topic, as parsed by {@link com.prafka.core.util.TopicQueryParser}.
+ *
+ * <p>Fields are {@code timestamp}, {@code partition}, {@code offset} and JSON paths into the key or value,
+ * e.g. {@code value.merchant} or {@code key.items[0].id}. A query either lists fields, or aggregates them,
+ * optionally per {@code groupBy} fields. {@code orderBy} refers to the selected columns by index.
+ *
+ * @see TopicQueryResult
+ */
+public record TopicQuery(List<Select> select, Optional<Expr> where, List<Field> groupBy, List<Order> orderBy,
+                         Optional<Integer> limit) {
+
+    public boolean isAggregate() {
+        return !groupBy.isEmpty() || select.stream().anyMatch(it -> it.function() != null);
+    }
+
+    /**
+     * Selected column: a field or expression, or an aggregate function of one ({@code argument} is {@code null}
+     * for {@code COUNT(*)}).
+     */
+    public record Select(Function function, Expr argument, String name) {
+    }
+
+    public record Order(int column, boolean descending) {
+    }
+
+    public enum Function {
+        COUNT, SUM, AVG, MIN, MAX
+    }
+
+    public sealed interface Expr permits Field, Literal, Arithmetic, Compare, In, IsNull, And, Or, Not {
+    }
+
+    public record Field(String path) implements Expr {
+
+        public boolean isPayload() {
+            return !path.equals("timestamp") && !path.equals("partition") && !path.equals("offset");
+        }
+    }
+
+    /**
+     * Constant: {@link Long}, {@link Double}, {@link String}, {@link Boolean} or {@code null}.
+     */
+    public record Literal(Object value) implements Expr {
+    }
+
+    public record Arithmetic(Expr left, char operator, Expr right) implements Expr {
+
+        /**
+         * Applies the operator ({@code + - * /}) to two values, {@code null} unless both are numbers. Longs stay
+         * longs except for division.
+         */
+        public Object apply(Object left, Object right) {
+            if (!(left instanceof Number l) || !(right instanceof Number r)) return null;
+            if (l instanceof Long a && r instanceof Long b && operator != '/') {
+                return switch (operator) {
+                    case '+' -> a + b;
+                    case '-' -> a - b;
+                    default -> a * b;
+                };
+            }
+            return switch (operator) {
+                case '+' -> l.doubleValue() + r.doubleValue();
+                case '-' -> l.doubleValue() - r.doubleValue();
+                case '*' -> l.doubleValue() * r.doubleValue();
+                default -> r.doubleValue() == 0 ? null : l.doubleValue() / r.doubleValue();
+            };
+        }
+    }
+
+    public record Compare(Expr left, Operator operator, Expr right) implements Expr {
+
+        public enum Operator {
+            EQ, NE, LT, LE, GT, GE, LIKE;
+
+            public Operator flip() {
+                return switch (this) {
+                    case LT -> GT;
+                    case LE -> GE;
+                    case GT -> LT;
+                    case GE -> LE;
+                    default -> this;
+                };
+            }
+        }
+    }
+
+    public record In(Expr operand, List<Expr> values) implements Expr {
+    }
+
+    public record IsNull(Expr operand) implements Expr {
+    }
+
+    public record And(Expr left, Expr right) implements Expr {
+    }
+
+    public record Or(Expr left, Expr right) implements Expr {
+    }
+
+    public record Not(Expr operand) implements Expr {
+    }
+}
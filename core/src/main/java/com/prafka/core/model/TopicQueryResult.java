@@ -0,0 +1,12 @@
+package com.prafka.core.model;
+
+import java.util.List;
+
+/**
+ * Result table of a {@link TopicQuery}: column names and rows of values, with the number of records read
+ * and the number of records that matched the {@code WHERE} condition. {@code truncated} is set when a query
+ * without {@code LIMIT} had more rows or groups than the default row limit returns.
+ */
+public record TopicQueryResult(List<String> columns, List<List<Object>> rows, long scannedRecords, long matchedRecords,
+                               boolean truncated) {
+}
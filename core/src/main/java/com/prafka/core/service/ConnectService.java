@@ -32,11 +32,10 @@ public class ConnectService extends AbstractService {
 
     public CompletableFuture<List<Connector.Name>> getAllNames(String clusterId) {
         return supplyAsync(() -> connectClients(clusterId))
-                .thenCompose(clients -> clients.entrySet().stream()
+                .thenCompose(clients -> StreamUtils.flattenFutureLists(clients.entrySet().stream()
                         .map(entry -> supplyAsync(() -> entry.getValue().getConnectors().stream().map(it -> new Connector.Name(entry.getKey(), it)).toList())
                                 .exceptionally(it -> Collections.emptyList()))
-                        .reduce(StreamUtils.combineFutureList())
-                        .orElseGet(StreamUtils.completeFutureEmptyList()));
+                        .toList()));
     }
 
     public CompletableFuture<List<Connector.Name>> getAllNames(String clusterId, String connectId) {
@@ -109,11 +108,10 @@ public class ConnectService extends AbstractService {
 
     public CompletableFuture<AllConnectorsSummary> getAllConnectorsSummary(String clusterId) {
         return supplyAsync(() -> connectClients(clusterId))
-                .thenCompose(clients -> clients.values().stream()
-                        .map(connectClient -> supplyAsync(() -> connectClient.getConnectorsWithExpandedStatus().getAllStatuses().stream().toList())
-                                .exceptionally(it -> Collections.emptyList()))
-                        .reduce(StreamUtils.combineFutureList())
-                        .orElseGet(StreamUtils.completeFutureEmptyList())
+                .thenCompose(clients -> StreamUtils.flattenFutureLists(clients.values().stream()
+                                .map(connectClient -> supplyAsync(() -> connectClient.getConnectorsWithExpandedStatus().getAllStatuses().stream().toList())
+                                        .exceptionally(it -> Collections.emptyList()))
+                                .toList())
                         .thenApply(list -> new AllConnectorsSummary(
                                 list.size(),
                                 list.stream().filter(it -> Connector.State.valueOf(it.getConnector().get("state")) == Connector.State.RUNNING).count(),
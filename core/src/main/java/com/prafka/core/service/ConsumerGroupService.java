@@ -3,6 +3,7 @@ package com.prafka.core.service;
 import com.prafka.core.model.ConsumerGroup;
 import com.prafka.core.model.Node;
 import com.prafka.core.util.StreamUtils;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.apache.kafka.clients.admin.ConsumerGroupDescription;
@@ -17,6 +18,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing Kafka consumer groups.
@@ -31,6 +33,13 @@ import java.util.stream.Collectors;
 @Singleton
 public class ConsumerGroupService extends AbstractService {
 
+    private final OffsetService offsetService;
+
+    @Inject
+    public ConsumerGroupService(OffsetService offsetService) {
+        this.offsetService = offsetService;
+    }
+
     public CompletableFuture<Collection<ConsumerGroup>> getAll(String clusterId) {
         return adminClient(clusterId)
                 .listConsumerGroups()
@@ -54,35 +63,35 @@ public class ConsumerGroupService extends AbstractService {
     }
 
     public CompletableFuture<Map<String, ConsumerGroup>> getAll(String clusterId, List<String> groupIdList) {
-        return adminClient(clusterId)
-                .describeConsumerGroups(groupIdList)
-                .describedGroups()
-                .values().stream()
-                .map(StreamUtils::mapKafkaFutureToList)
-                .reduce(StreamUtils.combineFutureList())
-                .orElseGet(StreamUtils.completeFutureEmptyList())
+        return StreamUtils.collectKafkaFutures(adminClient(clusterId).describeConsumerGroups(groupIdList).describedGroups().values())
                 .thenCompose(consumerGroupList -> {
                     var consumerGroupMap = consumerGroupList.stream().collect(Collectors.toMap(ConsumerGroupDescription::groupId, Function.identity()));
                     var listConsumerGroupOffsets = adminClient(clusterId)
                             .listConsumerGroupOffsets(consumerGroupMap.keySet().stream().collect(Collectors.toMap(Function.identity(), it -> new ListConsumerGroupOffsetsSpec())));
-                    return consumerGroupMap.keySet().stream()
-                            .map(groupId ->
-                                    listConsumerGroupOffsets
-                                            .partitionsToOffsetAndMetadata(groupId)
-                                            .toCompletionStage()
-                                            .thenApplyAsync(groupOffsetMap -> {
-                                                try (var consumer = consumer(clusterId)) {
-                                                    var beginOffsetMap = consumer.beginningOffsets(groupOffsetMap.keySet());
-                                                    var endOffsetMap = consumer.endOffsets(groupOffsetMap.keySet());
-                                                    var consumerGroup = new ConsumerGroup(consumerGroupMap.get(groupId), groupOffsetMap, beginOffsetMap, endOffsetMap);
-                                                    return Collections.singletonList(consumerGroup);
-                                                }
-                                            })
-                                            .exceptionally(e -> Collections.emptyList())
-                                            .toCompletableFuture()
-                            )
-                            .reduce(StreamUtils.combineFutureList())
-                            .orElseGet(StreamUtils.completeFutureEmptyList());
+                    var groupOffsetFutures = consumerGroupMap.keySet().stream()
+                            .map(groupId -> listConsumerGroupOffsets.partitionsToOffsetAndMetadata(groupId)
+                                    .toCompletionStage()
+                                    .thenApply(groupOffsetMap -> Map.entry(groupId, groupOffsetMap)))
+                            .toList();
+                    return StreamUtils.collectSuccessfulFutures(groupOffsetFutures)
+                            .thenCompose(groupOffsetList -> {
+                                var topicPartitionSet = groupOffsetList.stream().flatMap(it -> it.getValue().keySet().stream()).collect(Collectors.toSet());
+                                // a failed offset lookup fails the whole call instead of dropping the lag of every group
+                                var beginOffsetFuture = offsetService.getBeginOffsets(clusterId, topicPartitionSet);
+                                var endOffsetFuture = offsetService.getEndOffsets(clusterId, topicPartitionSet);
+                                return beginOffsetFuture.thenCombine(endOffsetFuture, (beginOffsetMap, endOffsetMap) ->
+                                        groupOffsetList.stream()
+                                                .flatMap(it -> {
+                                                    try {
+                                                        return Stream.of(new ConsumerGroup(consumerGroupMap.get(it.getKey()), it.getValue(), beginOffsetMap, endOffsetMap));
+                                                    } catch (RuntimeException e) {
+                                                        log.warn("Offsets of consumer group {} could not be resolved, the group is left out", it.getKey(), e);
+                                                        return Stream.empty();
+                                                    }
+                                                })
+                                                .toList()
+                                );
+                            });
                 })
                 .thenApply(groupList -> groupList.stream()
                         .map(group -> Map.entry(group.getId(), group))
@@ -171,14 +180,10 @@ public class ConsumerGroupService extends AbstractService {
             );
         }
         if ((filter.strategy() == ConsumerGroup.OffsetStrategy.DATETIME || filter.strategy() == ConsumerGroup.OffsetStrategy.TIMESTAMP) && filter.timestamp().isPresent()) {
-            return CompletableFuture.supplyAsync(() -> {
-                try (var consumer = consumer(clusterId)) {
-                    var partitionTimestampMap = offsets.keySet().stream()
-                            .collect(Collectors.toMap(Function.identity(), it -> filter.timestamp().get()));
-                    return consumer.offsetsForTimes(partitionTimestampMap).entrySet().stream()
-                            .collect(Collectors.toMap(Map.Entry::getKey, it -> (it.getValue() != null) ? it.getValue().offset() : offsets.get(it.getKey()).current()));
-                }
-            });
+            return offsetService.getOffsetsForTimestamp(clusterId, offsets.keySet(), filter.timestamp().get())
+                    .thenApply(offsetMap -> offsets.entrySet().stream()
+                            .collect(Collectors.toMap(Map.Entry::getKey, it -> offsetMap.getOrDefault(it.getKey(), it.getValue().current())))
+                    );
         }
         throw new IllegalStateException();
     }
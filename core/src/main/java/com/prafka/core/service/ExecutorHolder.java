@@ -9,15 +9,18 @@ import java.util.concurrent.Executors;
  * Holds shared thread pool executors for asynchronous service operations.
  *
  * <p>Provides dedicated thread pools for Schema Registry and Kafka Connect operations
- * to prevent blocking the main thread during HTTP-based client calls.
+ * to prevent blocking the main thread during HTTP-based client calls, and a pool
+ * for the worker consumers of partition-parallel record scans.
  */
 public class ExecutorHolder {
 
     public static final ExecutorService schemaRegistryExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
     public static final ExecutorService connectExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    public static final ExecutorService consumeExecutor = Executors.newCachedThreadPool();
 
     public static void close() {
         ExecutorUtils.closeExecutor(schemaRegistryExecutor);
         ExecutorUtils.closeExecutor(connectExecutor);
+        ExecutorUtils.closeExecutor(consumeExecutor);
     }
 }
@@ -1,6 +1,9 @@
 package com.prafka.core.service;
 
+import com.prafka.core.manager.SerDeManager;
 import com.prafka.core.util.StreamUtils;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
@@ -14,12 +17,22 @@ import java.util.concurrent.TimeoutException;
  *
  * <p>Checks the availability of the Kafka cluster, Schema Registry, and Kafka Connect
  * instances. Each check includes a timeout to prevent blocking on unresponsive services.
+ * The result also carries the state of the circuit breaker guarding Schema Registry lookups
+ * on the consume path, which stays open for a while after the registry recovers.
  */
 @Named
 @Singleton
 public class HealthCheckService extends AbstractService {
 
-    public record HealthCheckResult(Item cluster, Optional<Item> schemaRegistry, Optional<Map<String, Item>> connects) {
+    private final SerDeManager serDeManager;
+
+    @Inject
+    public HealthCheckService(SerDeManager serDeManager) {
+        this.serDeManager = serDeManager;
+    }
+
+    public record HealthCheckResult(Item cluster, Optional<Item> schemaRegistry, Optional<CircuitBreaker.State> schemaRegistryCircuit,
+                                    Optional<Map<String, Item>> connects) {
         public record Item(boolean available, Throwable error) {
         }
     }
@@ -30,18 +43,17 @@ public class HealthCheckService extends AbstractService {
         futures.add(schemaRegistryIsAvailable(clusterId));
         var connectIds = kafkaManager.connectsIsDefined(clusterId) ? connectClients(clusterId).keySet().stream().toList() : Collections.<String>emptyList();
         connectIds.forEach(it -> futures.add(connectIsAvailable(clusterId, it)));
-        return futures.stream()
-                .map(it -> it.thenApply(Collections::singletonList))
-                .reduce(StreamUtils.combineFutureList())
-                .orElseGet(StreamUtils.completeFutureEmptyList())
+        return StreamUtils.collectFutures(futures)
                 .thenApply(list -> {
                     var connects = new HashMap<String, HealthCheckResult.Item>();
                     for (int i = 0; i < connectIds.size(); i++) {
                         connects.put(connectIds.get(i), list.get(i + 2));
                     }
+                    var schemaRegistryIsDefined = kafkaManager.schemaRegistryIsDefined(clusterId);
                     return new HealthCheckResult(
                             list.get(0),
-                            kafkaManager.schemaRegistryIsDefined(clusterId) ? Optional.of(list.get(1)) : Optional.empty(),
+                            schemaRegistryIsDefined ? Optional.of(list.get(1)) : Optional.empty(),
+                            schemaRegistryIsDefined ? Optional.of(serDeManager.schemaRegistryState(clusterId)) : Optional.empty(),
                             kafkaManager.connectsIsDefined(clusterId) ? Optional.of(connects) : Optional.empty()
                     );
                 });
@@ -0,0 +1,183 @@
+package com.prafka.core.service;
+
+import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.KeyProfile;
+import com.prafka.core.model.ScanProgress;
+import com.prafka.core.util.CountMinSketch;
+import com.prafka.core.util.HyperLogLog;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Service for profiling the keys of a topic: distinct keys, hottest keys and their spread over partitions.
+ *
+ * <p>Records are scanned with {@link RecordService#scanRaw} and only their serialized keys are looked at, so
+ * nothing is deserialized. Each key is hashed once and the hash feeds a {@link HyperLogLog} for the distinct
+ * keys of the topic and of its partition, and a {@link CountMinSketch} whose estimates keep a heap of the
+ * {@code topK} hottest keys. Keys are only formatted when they enter the heap, so memory stays fixed
+ * however many records and keys the topic has.
+ */
+@Named
+@Singleton
+public class KeyProfileService extends AbstractService {
+
+    static final int PRECISION = 14;
+    static final int PARTITION_PRECISION = 12;
+    static final int SKETCH_DEPTH = 4;
+    static final int SKETCH_WIDTH = 1 << 16;
+    private static final int MAX_KEY_LENGTH = 256;
+
+    private final RecordService recordService;
+
+    @Inject
+    public KeyProfileService(RecordService recordService) {
+        this.recordService = recordService;
+    }
+
+    /**
+     * Profiles the keys of the records matching the filter, at most {@code maxResults} of them. Cancelling
+     * returns the profile of the records read so far.
+     */
+    public CompletableFuture<KeyProfile> profile(String clusterId, String topicName, ConsumeFilter filter, int topK,
+                                                 Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
+        return CompletableFuture.supplyAsync(() -> {
+            var profiler = new Profiler(topK);
+            recordService.scanRaw(clusterId, topicName, filter.toBuilder().scan(true).build(), profiler::add, onProgress, cancel);
+            return profiler.result();
+        }, ExecutorHolder.consumeExecutor);
+    }
+
+    static final class Profiler {
+
+        private final HyperLogLog distinctKeys = new HyperLogLog(PRECISION);
+        private final CountMinSketch keyCounts = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+        private final Map<Integer, PartitionProfile> partitions = new TreeMap<>();
+        private final TopKeys topKeys;
+        private long records;
+        private long nullKeys;
+
+        Profiler(int topK) {
+            topKeys = new TopKeys(topK);
+        }
+
+        void add(ConsumerRecord<byte[], byte[]> record) {
+            records++;
+            var partition = partitions.computeIfAbsent(record.partition(), it -> new PartitionProfile());
+            partition.records++;
+            var key = record.key();
+            if (key == null) {
+                nullKeys++;
+                partition.nullKeys++;
+                return;
+            }
+            var hash = HyperLogLog.hash(key);
+            distinctKeys.add(hash);
+            partition.distinctKeys.add(hash);
+            partition.keyBytes += key.length;
+            var count = keyCounts.add(hash);
+            topKeys.offer(hash, key, record.partition(), count);
+            if (count > partition.hotKeyCount) {
+                if (partition.hotKeyHash != hash || partition.hotKey == null) partition.hotKey = formatKey(key);
+                partition.hotKeyHash = hash;
+                partition.hotKeyCount = count;
+            }
+        }
+
+        KeyProfile result() {
+            var hotKeys = topKeys.sorted().stream()
+                    .map(it -> new KeyProfile.HotKey(it.key, it.partition, it.count))
+                    .toList();
+            var partitionList = partitions.entrySet().stream()
+                    .map(it -> {
+                        var partition = it.getValue();
+                        return new KeyProfile.Partition(it.getKey(), partition.records, partition.nullKeys, partition.distinctKeys.estimate(),
+                                partition.keyBytes, partition.hotKey, partition.hotKeyCount);
+                    })
+                    .toList();
+            var countError = (long) Math.ceil(Math.E / SKETCH_WIDTH * (records - nullKeys));
+            return new KeyProfile(records, nullKeys, distinctKeys.estimate(), distinctKeys.standardError(), countError, hotKeys, partitionList);
+        }
+    }
+
+    private static final class PartitionProfile {
+        private final HyperLogLog distinctKeys = new HyperLogLog(PARTITION_PRECISION);
+        private long records;
+        private long nullKeys;
+        private long keyBytes;
+        private String hotKey;
+        private long hotKeyHash;
+        private long hotKeyCount;
+    }
+
+    /**
+     * The {@code capacity} keys with the highest estimated counts, in a min-heap by count indexed by key hash.
+     */
+    private static final class TopKeys {
+
+        private final int capacity;
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final PriorityQueue<Entry> heap = new PriorityQueue<>(Comparator.<Entry>comparingLong(it -> it.count));
+
+        private TopKeys(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void offer(long hash, byte[] key, int partition, long count) {
+            if (capacity <= 0) return;
+            // estimates only grow, so a key below the smallest tracked count isn't tracked either
+            if (entries.size() >= capacity && count <= heap.element().count) return;
+            var entry = entries.get(hash);
+            if (entry != null) {
+                heap.remove(entry);
+                entry.count = count;
+                heap.add(entry);
+                return;
+            }
+            if (entries.size() >= capacity) entries.remove(heap.remove().hash);
+            entry = new Entry(hash, formatKey(key), partition, count);
+            entries.put(hash, entry);
+            heap.add(entry);
+        }
+
+        private List<Entry> sorted() {
+            return heap.stream().sorted(Comparator.<Entry>comparingLong(it -> it.count).reversed()).toList();
+        }
+    }
+
+    private static final class Entry {
+        private final long hash;
+        private final String key;
+        private final int partition;
+        private long count;
+
+        private Entry(long hash, String key, int partition, long count) {
+            this.hash = hash;
+            this.key = key;
+            this.partition = partition;
+            this.count = count;
+        }
+    }
+
+    static String formatKey(byte[] key) {
+        var bytes = key.length > MAX_KEY_LENGTH ? Arrays.copyOf(key, MAX_KEY_LENGTH) : key;
+        var text = RecordDeserializationService.isPrintableUtf8(key)
+                ? new String(bytes, StandardCharsets.UTF_8)
+                : "0x" + HexFormat.of().formatHex(bytes);
+        return bytes == key ? text : text + "…";
+    }
+}
@@ -0,0 +1,130 @@
+package com.prafka.core.service;
+
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.kafka.clients.admin.ListOffsetsOptions;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.common.IsolationLevel;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for resolving partition offsets with the cached Admin client.
+ *
+ * <p>Requests for the same cluster and offset spec that arrive within a short window are merged,
+ * so the union of their partitions is resolved by a single {@code listOffsets} call and no
+ * consumer is created. Offsets are read committed, so the end offset is the last stable offset of a
+ * partition with open transactions, as for a consumer. Partitions that could not be resolved, and partitions without an offset
+ * for the requested timestamp, are absent from the result; the returned future fails only when
+ * none of the requested partitions could be resolved.
+ */
+@Named
+@Singleton
+public class OffsetService extends AbstractService {
+
+    private static final long BATCH_WINDOW_MS = 5;
+    private static final long EARLIEST = -2;
+    private static final long LATEST = -1;
+
+    private final Map<BatchKey, Batch> pendingBatches = new ConcurrentHashMap<>();
+
+    public CompletableFuture<Map<TopicPartition, Long>> getBeginOffsets(String clusterId, Collection<TopicPartition> partitions) {
+        return resolve(clusterId, EARLIEST, partitions);
+    }
+
+    public CompletableFuture<Map<TopicPartition, Long>> getEndOffsets(String clusterId, Collection<TopicPartition> partitions) {
+        return resolve(clusterId, LATEST, partitions);
+    }
+
+    public CompletableFuture<Map<TopicPartition, Long>> getOffsetsForTimestamp(String clusterId, Collection<TopicPartition> partitions, long timestamp) {
+        if (timestamp < 0) throw new IllegalArgumentException("Timestamp must not be negative: " + timestamp);
+        return resolve(clusterId, timestamp, partitions);
+    }
+
+    private CompletableFuture<Map<TopicPartition, Long>> resolve(String clusterId, long spec, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) return CompletableFuture.completedFuture(Collections.emptyMap());
+        var key = new BatchKey(clusterId, spec);
+        while (true) {
+            var batch = pendingBatches.computeIfAbsent(key, it -> {
+                var newBatch = new Batch();
+                CompletableFuture.delayedExecutor(BATCH_WINDOW_MS, TimeUnit.MILLISECONDS).execute(() -> flush(it, newBatch));
+                return newBatch;
+            });
+            if (batch.add(partitions)) return batch.result.thenApply(result -> result.select(partitions));
+        }
+    }
+
+    private void flush(BatchKey key, Batch batch) {
+        pendingBatches.remove(key, batch);
+        var partitions = batch.close();
+        try {
+            var offsetSpec = toOffsetSpec(key.spec());
+            var listOffsets = adminClient(key.clusterId())
+                    .listOffsets(partitions.stream().collect(Collectors.toMap(Function.identity(), it -> offsetSpec)), new ListOffsetsOptions(IsolationLevel.READ_COMMITTED));
+            var offsets = new ConcurrentHashMap<TopicPartition, Long>();
+            var errors = new ConcurrentHashMap<TopicPartition, Throwable>();
+            var futures = partitions.stream()
+                    .map(tp -> listOffsets.partitionResult(tp)
+                            .toCompletionStage()
+                            .toCompletableFuture()
+                            .handle((info, e) -> {
+                                if (e != null) errors.put(tp, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                                else offsets.put(tp, info.offset());
+                                return null;
+                            }))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).thenRun(() -> batch.result.complete(new BatchResult(offsets, errors)));
+        } catch (Throwable e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private static OffsetSpec toOffsetSpec(long spec) {
+        if (spec == EARLIEST) return OffsetSpec.earliest();
+        if (spec == LATEST) return OffsetSpec.latest();
+        return OffsetSpec.forTimestamp(spec);
+    }
+
+    private record BatchKey(String clusterId, long spec) {
+    }
+
+    private static class Batch {
+
+        private final Set<TopicPartition> partitions = new HashSet<>();
+        private final CompletableFuture<BatchResult> result = new CompletableFuture<>();
+        private boolean closed;
+
+        synchronized boolean add(Collection<TopicPartition> partitions) {
+            if (closed) return false;
+            this.partitions.addAll(partitions);
+            return true;
+        }
+
+        synchronized Set<TopicPartition> close() {
+            closed = true;
+            return partitions;
+        }
+    }
+
+    private record BatchResult(Map<TopicPartition, Long> offsets, Map<TopicPartition, Throwable> errors) {
+
+        Map<TopicPartition, Long> select(Collection<TopicPartition> partitions) {
+            var result = new HashMap<TopicPartition, Long>();
+            Throwable error = null;
+            for (var tp : partitions) {
+                var offset = offsets.get(tp);
+                if (offset != null && offset >= 0) result.put(tp, offset);
+                if (offset == null && error == null) error = errors.get(tp);
+            }
+            if (result.isEmpty() && error != null) throw new CompletionException(error);
+            return result;
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package com.prafka.core.service;
 
-import com.google.protobuf.util.JsonFormat;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.ibm.icu.text.CharsetDetector;
 import com.ibm.icu.text.CharsetMatch;
 import com.prafka.core.manager.SerDeManager;
+import com.prafka.core.model.DecodedPayload;
 import com.prafka.core.model.Schema;
 import com.prafka.core.model.SerdeType;
 import com.prafka.core.model.Topic;
 import com.prafka.core.util.CollectionUtils;
+import com.prafka.core.util.FieldProjection;
+import com.prafka.core.util.JsonTreeUtils;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
+import io.confluent.kafka.schemaregistry.protobuf.MessageIndexes;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.protocol.ByteBufferAccessor;
 import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.record.TimestampType;
 import org.apache.kafka.common.requests.OffsetCommitRequest;
 import org.apache.kafka.coordinator.group.generated.GroupMetadataKey;
 import org.apache.kafka.coordinator.group.generated.GroupMetadataValue;
@@ -26,11 +35,15 @@ import org.apache.kafka.coordinator.transaction.generated.TransactionLogKey;
 import org.apache.kafka.coordinator.transaction.generated.TransactionLogValue;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.prafka.core.util.JsonFactory.gsonDefault;
 
@@ -41,6 +54,14 @@ import static com.prafka.core.util.JsonFactory.gsonDefault;
  * internal Kafka topics (__consumer_offsets, __transaction_state), and standard deserializers.
  * Falls back to UTF-8 string or hex dump for unknown formats.
  *
+ * <p>In auto mode the format of keys and values is learned per topic: once the same format was detected
+ * for {@value #FORMAT_INFERENCE_RECORDS} records in a row, the following records are decoded with it
+ * directly, skipping the statistical charset detection. A record that does not match the learned format
+ * goes through the full detection again and restarts the learning.
+ *
+ * <p>Projected columns are read straight from the serialized payloads by a {@link FieldProjection}, without
+ * decoding the whole key and value.
+ *
  * @see SerdeType
  * @see SerDeManager
  */
@@ -48,31 +69,106 @@ import static com.prafka.core.util.JsonFactory.gsonDefault;
 @Singleton
 public class RecordDeserializationService extends AbstractService {
 
+    static final int FORMAT_INFERENCE_RECORDS = 16;
+    private static final int SCHEMA_ID_HEADER_LENGTH = 5; // magic byte and schema id
+
     private final SerDeManager serDeManager;
+    private final Map<Triple<String, String, Boolean>, FormatInference> formatInferences = new ConcurrentHashMap<>();
 
     @Inject
     public RecordDeserializationService(SerDeManager serDeManager) {
         this.serDeManager = serDeManager;
     }
 
+    /**
+     * Forgets the payload formats learned for the topics of the cluster, e.g. when it is switched or edited.
+     */
+    public void close(String clusterId) {
+        formatInferences.keySet().removeIf(it -> it.getLeft().equals(clusterId));
+    }
+
     public Pair<String, String> deserialize(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, SerdeType keySerde, SerdeType valueSerde) {
+        var decoded = decode(clusterId, topic, record, keySerde, valueSerde);
+        return Pair.of(decoded.getKey().text(), decoded.getValue().text());
+    }
+
+    /**
+     * Deserializes the key and value like {@link #deserialize}, keeping payloads decoded with a schema as
+     * JSON trees, so that filters, the records table and export do not parse their JSON text again.
+     */
+    public Pair<DecodedPayload, DecodedPayload> decode(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, SerdeType keySerde, SerdeType valueSerde) {
         return Pair.of(
-                deserialize(clusterId, topic, record, keySerde, valueSerde, true),
-                deserialize(clusterId, topic, record, keySerde, valueSerde, false)
+                decode(clusterId, topic, record, keySerde, valueSerde, true),
+                decode(clusterId, topic, record, keySerde, valueSerde, false)
         );
     }
 
-    private String deserialize(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, SerdeType keySerde, SerdeType valueSerde, boolean isKey) {
+    /**
+     * Like {@link #decode}, but each payload is only decoded when it is first read. The payload is decoded
+     * on the reading thread, which may look its schema up in the Schema Registry.
+     *
+     * <p>Each payload keeps only its own bytes and the headers until it is decoded, not the consumer record;
+     * payloads of internal topics also keep the other side, which they are decoded by.
+     */
+    public Pair<DecodedPayload, DecodedPayload> decodeDeferred(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, SerdeType keySerde, SerdeType valueSerde) {
+        var key = record.key();
+        var value = record.value();
+        var headers = record.headers();
+        var internal = topic.isInternal();
+        return Pair.of(
+                DecodedPayload.deferred(() -> decode(clusterId, topic, payloadRecord(topic, key, internal ? value : null, headers), keySerde, valueSerde, true)),
+                DecodedPayload.deferred(() -> decode(clusterId, topic, payloadRecord(topic, internal ? key : null, value, headers), keySerde, valueSerde, false))
+        );
+    }
+
+    private static ConsumerRecord<byte[], byte[]> payloadRecord(Topic topic, byte[] key, byte[] value, Headers headers) {
+        return new ConsumerRecord<>(topic.getName(), 0, 0, ConsumerRecord.NO_TIMESTAMP, TimestampType.NO_TIMESTAMP_TYPE,
+                -1, -1, key, value, headers, Optional.empty());
+    }
+
+    /**
+     * Extracts the projected columns of a record, decoding only the fields on their paths. Schema Registry
+     * payloads are read with their Avro or Protobuf schema, other payloads as JSON; columns that can't be
+     * read are {@code null}.
+     */
+    public List<Object> project(String clusterId, ConsumerRecord<byte[], byte[]> record, SerdeType keySerde, SerdeType valueSerde, FieldProjection projection) {
+        var values = new Object[projection.columns().size()];
+        project(clusterId, record.key(), keySerde, true, projection, values);
+        project(clusterId, record.value(), valueSerde, false, projection, values);
+        return Arrays.asList(values);
+    }
+
+    private void project(String clusterId, byte[] payload, SerdeType serde, boolean isKey, FieldProjection projection, Object[] values) {
+        if (payload == null || !projection.hasColumns(isKey)) return;
+        if (serde != SerdeType.AUTO && serde != SerdeType.JSON && serde != SerdeType.STRING) return;
+        try {
+            var schemaId = serde == SerdeType.AUTO && kafkaManager.schemaRegistryIsDefined(clusterId) ? getSchemaId(payload) : null;
+            var schema = schemaId == null ? null : serDeManager.schemaById(clusterId, schemaId).orElse(null);
+            if (schema instanceof AvroSchema avroSchema) {
+                projection.readAvro(payload, SCHEMA_ID_HEADER_LENGTH, avroSchema.rawSchema(), isKey, values);
+            } else if (schema instanceof ProtobufSchema protobufSchema) {
+                var buffer = ByteBuffer.wrap(payload, SCHEMA_ID_HEADER_LENGTH, payload.length - SCHEMA_ID_HEADER_LENGTH);
+                var descriptor = protobufSchema.toDescriptor(protobufSchema.toMessageName(MessageIndexes.readFrom(buffer)));
+                projection.readProtobuf(payload, buffer.position(), descriptor, isKey, values);
+            } else {
+                projection.readJson(payload, schema == null ? 0 : SCHEMA_ID_HEADER_LENGTH, isKey, values);
+            }
+        } catch (Exception e) {
+            logDebugError(e);
+        }
+    }
+
+    private DecodedPayload decode(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, SerdeType keySerde, SerdeType valueSerde, boolean isKey) {
         var payload = isKey ? record.key() : record.value();
-        if (payload == null) return "null";
+        if (payload == null) return DecodedPayload.ofText("null");
 
         var payloadSerde = isKey ? keySerde : valueSerde;
         if (payloadSerde != SerdeType.AUTO) {
             try {
-                return serDeManager.standardDeser(payloadSerde).deserialize(topic.getName(), record.headers(), payload).toString();
+                return DecodedPayload.ofText(serDeManager.standardDeser(payloadSerde).deserialize(topic.getName(), record.headers(), payload).toString());
             } catch (SerializationException e) {
                 var msg = e.getMessage();
-                return msg == null ? "null" : msg;
+                return DecodedPayload.ofText(msg == null ? "null" : msg);
             }
         }
 
@@ -91,10 +187,21 @@ public class RecordDeserializationService extends AbstractService {
             }
         }
 
+        var inferenceKey = Triple.of(clusterId, topic.getName(), isKey);
+        var inference = formatInferences.get(inferenceKey);
+        if (inference != null && inference.isLearned()) {
+            var deserialized = deserializeByFormat(clusterId, topic, payload, isKey, inference.format());
+            if (deserialized.isPresent()) {
+                return deserialized.get();
+            }
+            formatInferences.remove(inferenceKey, inference);
+        }
+
         var schemaId = getSchemaId(payload);
         if (schemaId != null && kafkaManager.schemaRegistryIsDefined(clusterId)) {
             var deserialized = deserializeBySchemaRegistry(clusterId, topic, payload, isKey, schemaId);
             if (deserialized.isPresent()) {
+                learnFormat(inferenceKey, PayloadFormat.SCHEMA_REGISTRY);
                 return deserialized.get();
             }
         }
@@ -102,27 +209,50 @@ public class RecordDeserializationService extends AbstractService {
         // todo add support for xml, smile, messagepack, custom
 
         if (isUtf8(payload)) {
-            return new String(payload);
+            learnFormat(inferenceKey, PayloadFormat.UTF8);
+            return DecodedPayload.ofText(new String(payload));
         }
 
-        return HexFormat.ofDelimiter(" ").formatHex(payload);
+        learnFormat(inferenceKey, PayloadFormat.HEX);
+        return DecodedPayload.ofText(HexFormat.ofDelimiter(" ").formatHex(payload));
+    }
+
+    private void learnFormat(Triple<String, String, Boolean> inferenceKey, PayloadFormat format) {
+        formatInferences.compute(inferenceKey, (key, current) ->
+                current != null && current.format() == format ? current.next() : new FormatInference(format, 1));
+    }
+
+    /**
+     * Decodes the payload with the learned format, empty when the payload does not match it. Text and binary
+     * payloads are told apart by a strict UTF-8 check, which is exact for the payloads the charset detection
+     * accepted while learning and cheap enough for every record.
+     */
+    private Optional<DecodedPayload> deserializeByFormat(String clusterId, Topic topic, byte[] payload, boolean isKey, PayloadFormat format) {
+        var schemaId = kafkaManager.schemaRegistryIsDefined(clusterId) ? getSchemaId(payload) : null;
+        return switch (format) {
+            case SCHEMA_REGISTRY -> schemaId == null ? Optional.empty() : deserializeBySchemaRegistry(clusterId, topic, payload, isKey, schemaId);
+            case UTF8 -> schemaId == null && isPrintableUtf8(payload) ? Optional.of(DecodedPayload.ofText(new String(payload))) : Optional.empty();
+            case HEX -> schemaId == null && !isPrintableUtf8(payload) ? Optional.of(DecodedPayload.ofText(HexFormat.ofDelimiter(" ").formatHex(payload))) : Optional.empty();
+        };
     }
 
-    private Optional<String> deserializeBySchemaRegistry(String clusterId, Topic topic, byte[] payload, boolean isKey, int schemaId) {
+    private Optional<DecodedPayload> deserializeBySchemaRegistry(String clusterId, Topic topic, byte[] payload, boolean isKey, int schemaId) {
+        var schema = serDeManager.schemaById(clusterId, schemaId).orElse(null);
+        if (schema == null) return Optional.empty();
         try {
-            var schema = schemaRegistryClient(clusterId).getSchemaById(schemaId);
             switch (Schema.Type.valueOf(schema.schemaType())) {
                 case AVRO -> {
                     var deserialized = serDeManager.avroDeser(clusterId, isKey).deserialize(topic.getName(), payload);
-                    return Optional.of(new String(AvroSchemaUtils.toJson(deserialized)));
+                    return Optional.of(DecodedPayload.ofTree(JsonTreeUtils.fromAvro(deserialized, AvroSchemaUtils.getSchema(deserialized))));
                 }
                 case JSON -> {
                     var deserialized = serDeManager.jsonDeser(clusterId, isKey).deserialize(topic.getName(), payload);
-                    return Optional.of(String.valueOf(deserialized));
+                    if (deserialized instanceof JsonNode node) return Optional.of(DecodedPayload.ofTree(JsonTreeUtils.fromJackson(node)));
+                    return Optional.of(DecodedPayload.ofText(String.valueOf(deserialized)));
                 }
                 case PROTOBUF -> {
                     var deserialized = serDeManager.protobufDeser(clusterId, isKey).deserialize(topic.getName(), payload);
-                    return Optional.of(JsonFormat.printer().print(deserialized));
+                    return Optional.of(DecodedPayload.ofTree(JsonTreeUtils.fromProtobuf(deserialized)));
                 }
             }
         } catch (Exception e) {
@@ -131,7 +261,7 @@ public class RecordDeserializationService extends AbstractService {
         return Optional.empty();
     }
 
-    private Optional<String> deserializeByConsumerOffsets(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, boolean isKey) {
+    private Optional<DecodedPayload> deserializeByConsumerOffsets(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, boolean isKey) {
         try {
             var keyBuffer = ByteBuffer.wrap(record.key());
             var keyVersion = keyBuffer.getShort();
@@ -145,14 +275,14 @@ public class RecordDeserializationService extends AbstractService {
             }
             if (isKey) {
                 if (key instanceof OffsetCommitKey offsetKey) {
-                    return Optional.of(toJson(CollectionUtils.mapOf(
+                    return Optional.of(toTree(CollectionUtils.mapOf(
                             "version", keyVersion,
                             "group", offsetKey.group(),
                             "topic", offsetKey.topic(),
                             "partition", offsetKey.partition()
                     )));
                 }
-                return Optional.of(toJson(CollectionUtils.mapOf("version", keyVersion, "key", ((GroupMetadataKey) key).group())));
+                return Optional.of(toTree(CollectionUtils.mapOf("version", keyVersion, "key", ((GroupMetadataKey) key).group())));
             }
 
             var valueBuffer = ByteBuffer.wrap(record.value());
@@ -160,7 +290,7 @@ public class RecordDeserializationService extends AbstractService {
             if (keyVersion >= OffsetCommitKey.LOWEST_SUPPORTED_VERSION && keyVersion <= OffsetCommitKey.HIGHEST_SUPPORTED_VERSION) {
                 if (valueVersion >= OffsetCommitValue.LOWEST_SUPPORTED_VERSION && valueVersion <= OffsetCommitValue.HIGHEST_SUPPORTED_VERSION) {
                     var value = new OffsetCommitValue(new ByteBufferAccessor(valueBuffer), valueVersion);
-                    return Optional.of(toJson(CollectionUtils.mapOf(
+                    return Optional.of(toTree(CollectionUtils.mapOf(
                             "offset", value.offset(),
                             "leaderEpoch", (value.leaderEpoch() == RecordBatch.NO_PARTITION_LEADER_EPOCH) ? null : value.leaderEpoch(),
                             "metadata", value.metadata(),
@@ -174,7 +304,7 @@ public class RecordDeserializationService extends AbstractService {
             if (keyVersion >= GroupMetadataKey.LOWEST_SUPPORTED_VERSION && keyVersion <= GroupMetadataKey.HIGHEST_SUPPORTED_VERSION) {
                 if (valueVersion >= GroupMetadataValue.LOWEST_SUPPORTED_VERSION && valueVersion <= GroupMetadataValue.HIGHEST_SUPPORTED_VERSION) {
                     var value = new GroupMetadataValue(new ByteBufferAccessor(valueBuffer), valueVersion);
-                    return Optional.of(toJson(CollectionUtils.mapOf(
+                    return Optional.of(toTree(CollectionUtils.mapOf(
                             "group", ((GroupMetadataKey) key).group(),
                             "generation", value.generation(),
                             "protocolType", value.protocolType(),
@@ -202,7 +332,7 @@ public class RecordDeserializationService extends AbstractService {
         return Optional.empty();
     }
 
-    private Optional<String> deserializeByTransactionState(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, boolean isKey) {
+    private Optional<DecodedPayload> deserializeByTransactionState(String clusterId, Topic topic, ConsumerRecord<byte[], byte[]> record, boolean isKey) {
         try {
             var keyBuffer = ByteBuffer.wrap(record.key());
             var keyVersion = keyBuffer.getShort();
@@ -213,7 +343,7 @@ public class RecordDeserializationService extends AbstractService {
                 throw new IllegalStateException();
             }
             if (isKey) {
-                return Optional.of(toJson(CollectionUtils.mapOf("version", keyVersion, "transactionalId", key.transactionalId())));
+                return Optional.of(toTree(CollectionUtils.mapOf("version", keyVersion, "transactionalId", key.transactionalId())));
             }
 
             var valueBuffer = ByteBuffer.wrap(record.value());
@@ -226,7 +356,7 @@ public class RecordDeserializationService extends AbstractService {
                                         .map(partitionId -> CollectionUtils.mapOf("topic", partitionsSchema.topic(), "partition", partitionId))
                         )
                         .toList();
-                return Optional.of(toJson(CollectionUtils.mapOf(
+                return Optional.of(toTree(CollectionUtils.mapOf(
                         "transactionalId", key.transactionalId(),
                         "producerId", value.producerId(),
                         "previousProducerId", value.previousProducerId(),
@@ -282,15 +412,52 @@ public class RecordDeserializationService extends AbstractService {
         return false;
     }
 
-    private String toJson(Map<?, ?> map) {
-        return gsonDefault.toJson(map);
+    static boolean isPrintableUtf8(byte[] payload) {
+        var ascii = true;
+        for (byte b : payload) {
+            // bytes of multibyte sequences are never below 0x80, so control characters can be checked on the raw bytes
+            if (b < 0) ascii = false;
+            else if ((b < 0x20 && b != '\t' && b != '\n' && b != '\r') || b == 0x7f) return false;
+        }
+        if (ascii) return true;
+        try {
+            StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(payload));
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
     }
 
-    public Object tryToMap(String json) {
-        try {
-            return gsonDefault.fromJson(json, Map.class);
-        } catch (Exception e) {
-            return json;
+    private static DecodedPayload toTree(Map<?, ?> map) {
+        return DecodedPayload.ofTree(gsonDefault.toJsonTree(map));
+    }
+
+    /**
+     * Returns a JSON object payload as a map, e.g. for script filters, or the payload text otherwise.
+     */
+    public Object tryToMap(DecodedPayload payload) {
+        var tree = payload.tree();
+        if (tree.isPresent() && tree.get().isJsonObject()) {
+            try {
+                return gsonDefault.fromJson(tree.get(), Map.class);
+            } catch (Exception ignored) {
+            }
+        }
+        return payload.text();
+    }
+
+    private enum PayloadFormat {
+        SCHEMA_REGISTRY, UTF8, HEX
+    }
+
+    private record FormatInference(PayloadFormat format, int records) {
+
+        FormatInference next() {
+            return records >= FORMAT_INFERENCE_RECORDS ? this : new FormatInference(format, records + 1);
+        }
+
+        boolean isLearned() {
+            return records >= FORMAT_INFERENCE_RECORDS;
         }
     }
 }
@@ -0,0 +1,331 @@
+package com.prafka.core.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.Record;
+import com.prafka.core.model.ScanProgress;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.lang3.Strings;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import static com.prafka.core.util.JsonFactory.gsonDefault;
+
+/**
+ * Service for exporting records to a file.
+ *
+ * <p>Records are written as the consume delivers them, through a buffered and optionally compressed
+ * stream, so only the records of the current poll and the write buffer are held on the heap.
+ * Supported formats are newline-delimited JSON, CSV with a header row, and Avro object container
+ * files. GZIP and Zstandard compress the whole NDJSON or CSV stream; Avro files use the matching
+ * block codec instead, so they stay readable by standard Avro tools.
+ */
+@Named
+@Singleton
+public class RecordExportService extends AbstractService {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String[] CSV_HEADER = {"topic", "partition", "offset", "timestamp", "key", "keySize", "value", "valueSize", "headers"};
+    private static final Schema AVRO_SCHEMA = SchemaBuilder.record("Record").namespace("com.prafka.export").fields()
+            .requiredString("topic")
+            .requiredInt("partition")
+            .requiredLong("offset")
+            .requiredLong("timestamp")
+            .optionalString("key")
+            .requiredInt("keySize")
+            .optionalString("value")
+            .requiredInt("valueSize")
+            .name("headers").type().map().values().stringType().noDefault()
+            .endRecord();
+
+    private final RecordService recordService;
+
+    @Inject
+    public RecordExportService(RecordService recordService) {
+        this.recordService = recordService;
+    }
+
+    public enum Format {
+        NDJSON, CSV, AVRO;
+
+        /**
+         * Resolves the format from a file name such as {@code messages.csv.gz}, NDJSON by default.
+         */
+        public static Format of(Path path) {
+            var name = stripCompression(path.getFileName().toString());
+            if (Strings.CI.endsWith(name, ".csv")) return CSV;
+            if (Strings.CI.endsWith(name, ".avro")) return AVRO;
+            return NDJSON;
+        }
+    }
+
+    public enum Compression {
+        NONE, GZIP, ZSTD;
+
+        public static Compression of(Path path) {
+            var name = path.getFileName().toString();
+            if (Strings.CI.endsWith(name, ".gz")) return GZIP;
+            if (Strings.CI.endsWith(name, ".zst")) return ZSTD;
+            return NONE;
+        }
+    }
+
+    /**
+     * Consumes the topic in scan mode and writes every matching record to the file.
+     *
+     * <p>The filter is applied as for {@link RecordService#consume}; its {@code maxResults} limits the
+     * number of exported records. {@code FOLLOW} is not supported since it has no end. If writing fails
+     * the consume is cancelled and the returned future completes with the I/O error.
+     *
+     * @return the number of exported records
+     */
+    public CompletableFuture<Long> export(String clusterId, String topicName, ConsumeFilter filter, Path path, Format format,
+                                          Compression compression, Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
+        if (filter.from().type() == ConsumeFilter.From.Type.FOLLOW) {
+            throw new IllegalArgumentException("Follow mode can't be exported");
+        }
+        var scanFilter = filter.toBuilder().scan(true).columns(List.of()).build();
+        return CompletableFuture.supplyAsync(() -> {
+            var error = new AtomicReference<IOException>();
+            try (var writer = createWriter(path, format, compression)) {
+                recordService.consume(clusterId, topicName, scanFilter, record -> {
+                    if (record.isLast() || error.get() != null) return;
+                    try {
+                        writer.write(record);
+                    } catch (IOException e) {
+                        error.compareAndSet(null, e);
+                        cancel.set(true);
+                    }
+                }, onProgress, cancel);
+                if (error.get() != null) throw error.get();
+                return writer.getCount();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, ExecutorHolder.consumeExecutor);
+    }
+
+    /**
+     * Writes already consumed records, e.g. the window of a follow consume, to the file.
+     *
+     * @return the number of exported records
+     */
+    public CompletableFuture<Long> export(Collection<Record> records, Path path, Format format, Compression compression) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (var writer = createWriter(path, format, compression)) {
+                for (var record : records) {
+                    writer.write(record);
+                }
+                return writer.getCount();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, ExecutorHolder.consumeExecutor);
+    }
+
+    private static RecordWriter createWriter(Path path, Format format, Compression compression) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRecordWriter(open(path, compression));
+            case CSV -> new CsvRecordWriter(open(path, compression));
+            case AVRO -> new AvroRecordWriter(open(path, Compression.NONE), switch (compression) {
+                case NONE -> CodecFactory.nullCodec();
+                case GZIP -> CodecFactory.deflateCodec(CodecFactory.DEFAULT_DEFLATE_LEVEL);
+                case ZSTD -> CodecFactory.zstandardCodec(CodecFactory.DEFAULT_ZSTANDARD_LEVEL);
+            });
+        };
+    }
+
+    private static OutputStream open(Path path, Compression compression) throws IOException {
+        var out = Files.newOutputStream(path);
+        try {
+            return switch (compression) {
+                case NONE -> new BufferedOutputStream(out, BUFFER_SIZE);
+                case GZIP -> new BufferedOutputStream(new GZIPOutputStream(out, BUFFER_SIZE), BUFFER_SIZE);
+                case ZSTD -> new BufferedOutputStream(new ZstdOutputStream(out), BUFFER_SIZE);
+            };
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    private static String stripCompression(String name) {
+        if (Strings.CI.endsWith(name, ".gz")) return name.substring(0, name.length() - 3);
+        if (Strings.CI.endsWith(name, ".zst")) return name.substring(0, name.length() - 4);
+        return name;
+    }
+
+    /**
+     * Writes records one at a time; calls are serialized since scan workers deliver records concurrently.
+     */
+    private abstract static class RecordWriter implements Closeable {
+
+        private long count;
+
+        synchronized void write(Record record) throws IOException {
+            doWrite(record);
+            count++;
+        }
+
+        synchronized long getCount() {
+            return count;
+        }
+
+        protected abstract void doWrite(Record record) throws IOException;
+    }
+
+    private static class NdjsonRecordWriter extends RecordWriter {
+
+        private final Writer writer;
+
+        NdjsonRecordWriter(OutputStream out) {
+            writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected void doWrite(Record record) throws IOException {
+            // a new JsonWriter per line, it has no buffer of its own and allows a single top-level value only
+            var json = new JsonWriter(writer);
+            json.beginObject();
+            json.name("topic").value(record.getTopicName());
+            json.name("partition").value(record.getPartition());
+            json.name("offset").value(record.getOffset());
+            json.name("timestamp").value(record.getTimestamp());
+            json.name("key");
+            writePayload(json, record.isKeyIsNull() ? null : record.getKey(), record.getKeyTree());
+            json.name("keySize").value(record.getKeySize());
+            json.name("value");
+            writePayload(json, record.isValueIsNull() ? null : record.getValue(), record.getValueTree());
+            json.name("valueSize").value(record.getValueSize());
+            json.name("headers").beginObject();
+            for (var header : record.getHeaders().entrySet()) {
+                json.name(header.getKey()).value(header.getValue());
+            }
+            json.endObject();
+            json.endObject();
+            writer.write('\n');
+        }
+
+        private static void writePayload(JsonWriter json, String payload, Optional<JsonElement> tree) throws IOException {
+            if (payload == null) {
+                json.nullValue();
+            } else if (tree.isPresent()) {
+                gsonDefault.toJson(tree.get(), json);
+            } else {
+                // plain text, or not valid JSON after all
+                json.value(payload);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class CsvRecordWriter extends RecordWriter {
+
+        private final Writer writer;
+
+        CsvRecordWriter(OutputStream out) throws IOException {
+            writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writeRow(CSV_HEADER);
+        }
+
+        @Override
+        protected void doWrite(Record record) throws IOException {
+            writeRow(
+                    record.getTopicName(),
+                    String.valueOf(record.getPartition()),
+                    String.valueOf(record.getOffset()),
+                    String.valueOf(record.getTimestamp()),
+                    record.isKeyIsNull() ? null : record.getKeyCompressed(),
+                    String.valueOf(record.getKeySize()),
+                    record.isValueIsNull() ? null : record.getValueCompressed(),
+                    String.valueOf(record.getValueSize()),
+                    record.getHeaders().isEmpty() ? null : gsonDefault.toJson(record.getHeaders())
+            );
+        }
+
+        private void writeRow(String... cells) throws IOException {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) writer.write(',');
+                writeCell(cells[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(String cell) throws IOException {
+            if (cell == null) return;
+            if (cell.indexOf(',') < 0 && cell.indexOf('"') < 0 && cell.indexOf('\n') < 0 && cell.indexOf('\r') < 0) {
+                writer.write(cell);
+                return;
+            }
+            writer.write('"');
+            writer.write(cell.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class AvroRecordWriter extends RecordWriter {
+
+        private final DataFileWriter<GenericRecord> writer;
+        private final GenericRecord avroRecord = new GenericData.Record(AVRO_SCHEMA);
+
+        AvroRecordWriter(OutputStream out, CodecFactory codec) throws IOException {
+            writer = new DataFileWriter<GenericRecord>(new GenericDatumWriter<>(AVRO_SCHEMA)).setCodec(codec);
+            try {
+                writer.create(AVRO_SCHEMA, out);
+            } catch (IOException e) {
+                out.close();
+                throw e;
+            }
+        }
+
+        @Override
+        protected void doWrite(Record record) throws IOException {
+            avroRecord.put("topic", record.getTopicName());
+            avroRecord.put("partition", record.getPartition());
+            avroRecord.put("offset", record.getOffset());
+            avroRecord.put("timestamp", record.getTimestamp());
+            avroRecord.put("key", record.isKeyIsNull() ? null : record.getKey());
+            avroRecord.put("keySize", record.getKeySize());
+            avroRecord.put("value", record.isValueIsNull() ? null : record.getValue());
+            avroRecord.put("valueSize", record.getValueSize());
+            avroRecord.put("headers", record.getHeaders());
+            writer.append(avroRecord);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.prafka.core.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.prafka.core.model.ImportOptions;
+import com.prafka.core.model.ImportProgress;
+import com.prafka.core.model.NewRecord;
+import com.prafka.core.model.SerdeType;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Service for importing records from a file into a topic.
+ *
+ * <p>The file is newline-delimited JSON in the shape written by {@link RecordExportService} and
+ * {@link com.prafka.core.model.Record#toDto()}, optionally GZIP or Zstandard compressed. Lines are read
+ * and sent one by one through the cached producer of the import settings, so records are batched
+ * and compressed according to the {@link ImportOptions}; when its buffer is full the producer blocks the
+ * reader, which keeps memory bounded regardless of the file size. Lines that can't be parsed, serialized
+ * or produced are counted as failed without stopping the import.
+ */
+@Named
+@Singleton
+public class RecordImportService extends AbstractService {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long REPORT_INTERVAL_MS = 1000;
+
+    private final RecordSerializationService serializationService;
+
+    @Inject
+    public RecordImportService(RecordSerializationService serializationService) {
+        this.serializationService = serializationService;
+    }
+
+    /**
+     * Imports all records of the file into the topic.
+     *
+     * <p>Progress is reported about once per second and once more when the import completes. Setting
+     * {@code cancel} stops reading the file, records already handed to the producer are still sent.
+     *
+     * @return the final progress of the import
+     */
+    public CompletableFuture<ImportProgress> importFromFile(String clusterId, String topicName, Path path, ImportOptions options,
+                                                            Consumer<ImportProgress> onProgress, AtomicBoolean cancel) {
+        return CompletableFuture.supplyAsync(() -> {
+            var tracker = new ImportProgressTracker();
+            var producer = producer(clusterId, producerProperties(options));
+            try (var reader = open(path, RecordExportService.Compression.of(path))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (cancel.get()) break;
+                    if (StringUtils.isBlank(line)) continue;
+                    tracker.read.increment();
+                    try {
+                        var producerRecord = serializationService.serialize(clusterId, topicName, toNewRecord(topicName, line, options));
+                        producer.send(producerRecord, (metadata, exception) -> {
+                            if (exception != null) {
+                                tracker.onError(exception);
+                            } else {
+                                tracker.sent.increment();
+                                tracker.sentBytes.add(Math.max(metadata.serializedKeySize(), 0) + Math.max(metadata.serializedValueSize(), 0));
+                            }
+                        });
+                    } catch (Exception e) {
+                        logDebugError(e);
+                        tracker.onError(e);
+                    }
+                    tracker.report(onProgress, false);
+                }
+                producer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return tracker.report(onProgress, true);
+        }, ExecutorHolder.consumeExecutor);
+    }
+
+    private static Properties producerProperties(ImportOptions options) {
+        var properties = new Properties();
+        properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, options.compression().getValue());
+        properties.put(ProducerConfig.ACKS_CONFIG, options.asks().getValue());
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, options.idempotence());
+        properties.put(ProducerConfig.LINGER_MS_CONFIG, options.lingerMs());
+        properties.put(ProducerConfig.BATCH_SIZE_CONFIG, options.batchSize());
+        properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, options.maxInFlightRequests());
+        return properties;
+    }
+
+    private static NewRecord toNewRecord(String topicName, String line, ImportOptions options) {
+        var json = JsonParser.parseString(line).getAsJsonObject();
+        var record = new NewRecord();
+        record.setKey(payload(json.get("key")));
+        record.setKeySerde(record.getKey() == null ? SerdeType.NULL : options.keySerde());
+        if (options.keySerde() == SerdeType.SCHEMA_REGISTRY) record.setKeySchemaSubject(Optional.of(topicName + "-key"));
+        record.setValue(payload(json.get("value")));
+        record.setValueSerde(record.getValue() == null ? SerdeType.NULL : options.valueSerde());
+        if (options.valueSerde() == SerdeType.SCHEMA_REGISTRY) record.setValueSchemaSubject(Optional.of(topicName + "-value"));
+        if (options.keepPartition() && isNumber(json, "partition")) record.setPartition(Optional.of(json.get("partition").getAsInt()));
+        if (options.keepTimestamp() && isNumber(json, "timestamp")) record.setTimestamp(Optional.of(json.get("timestamp").getAsLong()));
+        if (options.keepHeaders() && json.has("headers") && json.get("headers").isJsonObject()) record.setHeaders(headers(json.getAsJsonObject("headers")));
+        return record;
+    }
+
+    private static String payload(JsonElement element) {
+        if (element == null || element.isJsonNull()) return null;
+        if (element.isJsonPrimitive()) return element.getAsString();
+        // objects and arrays were JSON payloads, they are produced in their compact form
+        return element.toString();
+    }
+
+    private static boolean isNumber(JsonObject json, String name) {
+        var element = json.get(name);
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber();
+    }
+
+    private static LinkedHashMap<String, String> headers(JsonObject json) {
+        var headers = new LinkedHashMap<String, String>();
+        json.entrySet().forEach(it -> headers.put(it.getKey(), payload(it.getValue())));
+        return headers;
+    }
+
+    private static BufferedReader open(Path path, RecordExportService.Compression compression) throws IOException {
+        var in = Files.newInputStream(path);
+        try {
+            var decompressed = switch (compression) {
+                case NONE -> in;
+                case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+                case ZSTD -> new ZstdInputStream(in);
+            };
+            return new BufferedReader(new InputStreamReader(decompressed, StandardCharsets.UTF_8), BUFFER_SIZE);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static class ImportProgressTracker {
+
+        private final long startedAt = System.currentTimeMillis();
+        private final LongAdder read = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder sentBytes = new LongAdder();
+        private final AtomicReference<String> lastError = new AtomicReference<>();
+        private long reportedAt = startedAt;
+
+        private void onError(Exception e) {
+            failed.increment();
+            lastError.set(StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getSimpleName()));
+        }
+
+        private synchronized ImportProgress report(Consumer<ImportProgress> onProgress, boolean completed) {
+            var now = System.currentTimeMillis();
+            if (!completed && now - reportedAt < REPORT_INTERVAL_MS) return null;
+            reportedAt = now;
+            var progress = new ImportProgress(read.sum(), sent.sum(), failed.sum(), sentBytes.sum(), now - startedAt, completed, lastError.get());
+            onProgress.accept(progress);
+            return progress;
+        }
+    }
+}
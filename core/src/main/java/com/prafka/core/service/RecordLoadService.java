@@ -0,0 +1,263 @@
+package com.prafka.core.service;
+
+import com.prafka.core.model.LoadOptions;
+import com.prafka.core.model.LoadProgress;
+import com.prafka.core.model.SerdeType;
+import com.prafka.core.util.LatencyHistogram;
+import com.prafka.core.util.SchemaRecordGenerator;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Service for generating load on a topic to test its configuration.
+ *
+ * <p>Records are sent from several threads, each through its own cached producer, either paced to a
+ * target rate or as fast as the producers accept them. The send-to-ack latency of every record is
+ * recorded in a {@link LatencyHistogram}, and the achieved throughput is reported once per second
+ * together with the latency percentiles.
+ *
+ * @see LoadOptions
+ */
+@Named
+@Singleton
+public class RecordLoadService extends AbstractService {
+
+    private static final long REPORT_INTERVAL_MS = 1000;
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(seq|thread|timestamp|uuid|random)}}");
+
+    private final RecordRandomService recordRandomService;
+    private final RecordSerializationService serializationService;
+
+    @Inject
+    public RecordLoadService(RecordRandomService recordRandomService, RecordSerializationService serializationService) {
+        this.recordRandomService = recordRandomService;
+        this.serializationService = serializationService;
+    }
+
+    /**
+     * Produces generated records to the topic until the limits of the options are reached or {@code cancel} is set.
+     *
+     * <p>Pooled Schema Registry payloads are generated from the latest schema of the topic key or value
+     * subject. Payloads that fail to serialize fail the run before anything is sent when they come from
+     * the pool, and are counted as failed records when they come from a template.
+     *
+     * @return the final progress of the run
+     */
+    public CompletableFuture<LoadProgress> generate(String clusterId, String topicName, LoadOptions options,
+                                                    Consumer<LoadProgress> onProgress, AtomicBoolean cancel) {
+        return CompletableFuture.supplyAsync(() -> {
+            var keys = payloadSource(clusterId, topicName, options.keyTemplate(), options.keySerde(), options.payloadPoolSize(), true);
+            var values = payloadSource(clusterId, topicName, options.valueTemplate(), options.valueSerde(), options.payloadPoolSize(), false);
+            var tracker = new LoadProgressTracker();
+            var sequence = new AtomicLong();
+            var deadline = options.durationMs() > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.durationMs()) : Long.MAX_VALUE;
+            var workers = new ArrayList<CompletableFuture<Void>>();
+            for (int thread = 0; thread < options.threads(); thread++) {
+                var worker = new Worker(clusterId, topicName, options, thread, keys, values, tracker, sequence, deadline, cancel);
+                workers.add(CompletableFuture.runAsync(worker, ExecutorHolder.consumeExecutor));
+            }
+            var all = CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new));
+            while (true) {
+                try {
+                    all.get(REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    tracker.report(onProgress, false);
+                } catch (InterruptedException e) {
+                    cancel.set(true);
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                } catch (ExecutionException e) {
+                    cancel.set(true);
+                    throw new CompletionException(e.getCause());
+                }
+            }
+            return tracker.report(onProgress, true);
+        }, ExecutorHolder.consumeExecutor);
+    }
+
+    private PayloadSource payloadSource(String clusterId, String topicName, String template, SerdeType serde, int poolSize, boolean isKey) {
+        if (serde == SerdeType.NULL) return (seq, thread) -> null;
+        if (template != null) {
+            var parts = compile(template);
+            return (seq, thread) -> serialize(clusterId, topicName, render(parts, seq, thread), serde, isKey);
+        }
+        var pool = new byte[poolSize][];
+        if (serde == SerdeType.SCHEMA_REGISTRY) {
+            var subject = topicName + (isKey ? "-key" : "-value");
+            var generator = SchemaRecordGenerator.compile(serializationService.latestSchema(clusterId, subject, isKey));
+            for (int i = 0; i < poolSize; i++) {
+                pool[i] = serializationService.serializeBySubject(clusterId, topicName, generator.next(), subject, isKey);
+            }
+        } else {
+            for (int i = 0; i < poolSize; i++) {
+                pool[i] = serialize(clusterId, topicName, recordRandomService.random(serde), serde, isKey);
+            }
+        }
+        return (seq, thread) -> pool[(int) (seq % pool.length)];
+    }
+
+    private byte[] serialize(String clusterId, String topicName, String payload, SerdeType serde, boolean isKey) {
+        return isKey
+                ? serializationService.serializeKey(clusterId, topicName, payload, serde)
+                : serializationService.serializeValue(clusterId, topicName, payload, serde);
+    }
+
+    private static List<String> compile(String template) {
+        // literal and placeholder parts alternate, the template is parsed once per run
+        var parts = new ArrayList<String>();
+        var matcher = PLACEHOLDER.matcher(template);
+        var position = 0;
+        while (matcher.find()) {
+            parts.add(template.substring(position, matcher.start()));
+            parts.add(matcher.group(1));
+            position = matcher.end();
+        }
+        parts.add(template.substring(position));
+        return parts;
+    }
+
+    private static String render(List<String> parts, long seq, int thread) {
+        var builder = new StringBuilder();
+        for (int i = 0; i < parts.size(); i++) {
+            var part = parts.get(i);
+            if (i % 2 == 0) {
+                builder.append(part);
+                continue;
+            }
+            switch (part) {
+                case "seq" -> builder.append(seq);
+                case "thread" -> builder.append(thread);
+                case "timestamp" -> builder.append(System.currentTimeMillis());
+                case "uuid" -> builder.append(UUID.randomUUID());
+                case "random" -> builder.append(ThreadLocalRandom.current().nextInt());
+            }
+        }
+        return builder.toString();
+    }
+
+    private static Properties producerProperties(LoadOptions options, int thread) {
+        var properties = new Properties();
+        // a client id per thread gives every thread its own producer, stable ids let runs reuse them
+        properties.put(ProducerConfig.CLIENT_ID_CONFIG, "prafka-load-" + thread);
+        properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, options.compression().getValue());
+        properties.put(ProducerConfig.ACKS_CONFIG, options.asks().getValue());
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, options.idempotence());
+        properties.put(ProducerConfig.LINGER_MS_CONFIG, options.lingerMs());
+        properties.put(ProducerConfig.BATCH_SIZE_CONFIG, options.batchSize());
+        properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, options.maxInFlightRequests());
+        return properties;
+    }
+
+    @FunctionalInterface
+    private interface PayloadSource {
+
+        byte[] next(long seq, int thread);
+    }
+
+    private class Worker implements Runnable {
+
+        private final String clusterId;
+        private final String topicName;
+        private final LoadOptions options;
+        private final int thread;
+        private final PayloadSource keys;
+        private final PayloadSource values;
+        private final LoadProgressTracker tracker;
+        private final AtomicLong sequence;
+        private final long deadline;
+        private final AtomicBoolean cancel;
+
+        private Worker(String clusterId, String topicName, LoadOptions options, int thread, PayloadSource keys, PayloadSource values,
+                       LoadProgressTracker tracker, AtomicLong sequence, long deadline, AtomicBoolean cancel) {
+            this.clusterId = clusterId;
+            this.topicName = topicName;
+            this.options = options;
+            this.thread = thread;
+            this.keys = keys;
+            this.values = values;
+            this.tracker = tracker;
+            this.sequence = sequence;
+            this.deadline = deadline;
+            this.cancel = cancel;
+        }
+
+        @Override
+        public void run() {
+            var producer = producer(clusterId, producerProperties(options, thread));
+            // each thread sends its share of the target rate, on a fixed schedule so that a late send is caught up
+            var intervalNanos = options.targetRate() > 0 ? (long) (1e9 * options.threads() / options.targetRate()) : 0;
+            var next = System.nanoTime();
+            while (!cancel.get()) {
+                if (intervalNanos > 0) {
+                    next += intervalNanos;
+                    var wait = next - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                }
+                if (System.nanoTime() - deadline >= 0) break;
+                var seq = sequence.getAndIncrement();
+                if (options.maxRecords() > 0 && seq >= options.maxRecords()) break;
+                try {
+                    var key = keys.next(seq, thread);
+                    var value = values.next(seq, thread);
+                    var sentAt = System.nanoTime();
+                    producer.send(new ProducerRecord<>(topicName, key, value), (metadata, exception) -> {
+                        if (exception != null) tracker.onError(exception);
+                        else tracker.onAck(System.nanoTime() - sentAt, Math.max(metadata.serializedKeySize(), 0) + Math.max(metadata.serializedValueSize(), 0));
+                    });
+                    tracker.sent.increment();
+                } catch (Exception e) {
+                    logDebugError(e);
+                    tracker.onError(e);
+                }
+            }
+            producer.flush();
+        }
+    }
+
+    private static class LoadProgressTracker {
+
+        private final long startedAt = System.currentTimeMillis();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder acked = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder ackedBytes = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicReference<String> lastError = new AtomicReference<>();
+
+        private void onAck(long latencyNanos, long bytes) {
+            acked.increment();
+            ackedBytes.add(bytes);
+            latency.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        }
+
+        private void onError(Exception e) {
+            failed.increment();
+            lastError.set(StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getSimpleName()));
+        }
+
+        private synchronized LoadProgress report(Consumer<LoadProgress> onProgress, boolean completed) {
+            var progress = new LoadProgress(sent.sum(), acked.sum(), failed.sum(), ackedBytes.sum(), System.currentTimeMillis() - startedAt,
+                    latency.snapshot(), completed, lastError.get());
+            onProgress.accept(progress);
+            return progress;
+        }
+    }
+}
@@ -3,17 +3,20 @@ package com.prafka.core.service;
 import com.google.protobuf.util.JsonFormat;
 import com.prafka.core.manager.SerDeManager;
 import com.prafka.core.model.NewRecord;
-import com.prafka.core.model.Schema;
 import com.prafka.core.model.SerdeType;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.InvalidConfigurationException;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 
@@ -56,6 +59,24 @@ public class RecordSerializationService extends AbstractService {
         );
     }
 
+    /**
+     * Serializes a key the way a producer using the given serde would, so that it can be compared with
+     * consumed keys byte by byte. Schema Registry keys use the latest schema of the topic key subject.
+     */
+    public byte[] serializeKey(String clusterId, String topicName, String key, SerdeType serde) {
+        var schemaSubject = serde == SerdeType.SCHEMA_REGISTRY ? Optional.of(topicName + "-key") : Optional.<String>empty();
+        return serialize(clusterId, topicName, key, serde, schemaSubject, true);
+    }
+
+    /**
+     * Serializes a value the way a producer using the given serde would. Schema Registry values use
+     * the latest schema of the topic value subject.
+     */
+    public byte[] serializeValue(String clusterId, String topicName, String value, SerdeType serde) {
+        var schemaSubject = serde == SerdeType.SCHEMA_REGISTRY ? Optional.of(topicName + "-value") : Optional.<String>empty();
+        return serialize(clusterId, topicName, value, serde, schemaSubject, false);
+    }
+
     private byte[] serialize(String clusterId, String topicName, String payload, SerdeType serde, Optional<String> schemaSubject, boolean isKey) {
         if (payload == null || serde == SerdeType.NULL) return null;
         if (serde == SerdeType.SCHEMA_REGISTRY && schemaSubject.isPresent()) {
@@ -72,32 +93,52 @@ public class RecordSerializationService extends AbstractService {
         };
     }
 
+    /**
+     * Returns the latest schema of the subject, the one {@link #serializeBySubject} serializes with.
+     */
+    public ParsedSchema latestSchema(String clusterId, String schemaSubject, boolean isKey) {
+        return serDeManager.subjectSer(clusterId, schemaSubject, isKey).schema();
+    }
+
+    /**
+     * Serializes an object built for the latest schema of the subject, e.g. by a
+     * {@link com.prafka.core.util.SchemaRecordGenerator}, without going through its JSON form:
+     * a {@code GenericRecord} or Avro value, a Protobuf {@code Message}, or a {@code JsonNode} for JSON Schema.
+     */
+    public byte[] serializeBySubject(String clusterId, String topicName, Object data, String schemaSubject, boolean isKey) {
+        return serDeManager.subjectSer(clusterId, schemaSubject, isKey).serializer().serialize(topicName, data);
+    }
+
     private byte[] serializeBySchemaRegistry(String clusterId, String topicName, String payload, String schemaSubject, boolean isKey) {
         try {
-            var schemaId = schemaRegistryClient(clusterId).getLatestSchemaMetadata(schemaSubject).getId();
-            var schema = schemaRegistryClient(clusterId).getSchemaBySubjectAndId(schemaSubject, schemaId);
-            switch (Schema.Type.valueOf(schema.schemaType())) {
-                case AVRO -> {
-                    var data = AvroSchemaUtils.toObject(payload, (AvroSchema) schema);
-                    return serDeManager.avroSer(clusterId, isKey).serialize(topicName, data);
-                }
-                case JSON -> {
-                    var data = objectMapperDefault.readTree(payload);
-                    ((JsonSchema) schema).validate(data);
-                    return serDeManager.jsonSer(clusterId, (JsonSchema) schema, isKey).serialize(topicName, data);
+            var subjectSer = serDeManager.subjectSer(clusterId, schemaSubject, isKey);
+            var data = switch (subjectSer.schema()) {
+                case AvroSchema avroSchema -> AvroSchemaUtils.toObject(payload, avroSchema);
+                case JsonSchema jsonSchema -> {
+                    var node = objectMapperDefault.readTree(payload);
+                    jsonSchema.validate(node);
+                    yield node;
                 }
-                case PROTOBUF -> {
-                    var builder = ((ProtobufSchema) schema).newMessageBuilder();
+                case ProtobufSchema protobufSchema -> {
+                    var builder = protobufSchema.newMessageBuilder();
                     JsonFormat.parser().merge(payload, builder);
-                    var data = builder.build();
-                    return serDeManager.protobufSer(clusterId, isKey).serialize(topicName, data);
+                    yield builder.build();
                 }
-            }
+                default -> throw new IllegalArgumentException("Unsupported schema type: " + subjectSer.schema().schemaType());
+            };
+            return subjectSer.serializer().serialize(topicName, data);
         } catch (Exception e) {
+            // the registry rejected the cached schema or serializer, e.g. the subject has a new version or was
+            // deleted, so the next record resolves it again; a malformed or invalid payload keeps the cache
+            if (isRegistryError(e)) serDeManager.evictSubjectSer(clusterId, schemaSubject);
             logDebugError(e);
             throw new RuntimeException(e);
         }
-        throw new IllegalStateException();
+    }
+
+    private static boolean isRegistryError(Throwable e) {
+        return ExceptionUtils.indexOfType(e, RestClientException.class) >= 0
+                || ExceptionUtils.indexOfType(e, InvalidConfigurationException.class) >= 0;
     }
 
     private Headers serializeHeaders(NewRecord record) {
@@ -1,29 +1,50 @@
 package com.prafka.core.service;
 
 import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.DecodedPayload;
 import com.prafka.core.model.NewRecord;
 import com.prafka.core.model.Record;
+import com.prafka.core.model.ScanProgress;
 import com.prafka.core.model.Topic;
+import com.prafka.core.util.FieldProjection;
+import com.prafka.core.util.JavaExpressionCompiler;
+import com.prafka.core.util.RawRecordMatcher;
 import com.prafka.core.util.StreamUtils;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
 import org.openjdk.nashorn.api.scripting.NashornScriptEngine;
 import org.openjdk.nashorn.api.scripting.NashornScriptEngineFactory;
 import org.openjdk.nashorn.api.scripting.ScriptObjectMirror;
 
+import javax.script.Bindings;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Properties;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +62,8 @@ import java.util.stream.Collectors;
 @Singleton
 public class RecordService extends AbstractService {
 
+    private static final int MIN_TAIL_WINDOW = 10;
+    private static final int MAX_TAIL_WINDOW = 100_000;
     private static final NashornScriptEngine NASHORN_SCRIPT_ENGINE = (NashornScriptEngine) new NashornScriptEngineFactory().getScriptEngine();
 
     private final TopicService topicService;
@@ -55,8 +78,13 @@ public class RecordService extends AbstractService {
     }
 
     public void consume(String clusterId, String topicName, ConsumeFilter filter, Consumer<Record> onRecord, AtomicBoolean cancel) {
+        consume(clusterId, topicName, filter, onRecord, it -> {
+        }, cancel);
+    }
+
+    public void consume(String clusterId, String topicName, ConsumeFilter filter, Consumer<Record> onRecord, Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
         try {
-            consume(clusterId, topicService.get(clusterId, topicName).get(), filter, onRecord, cancel);
+            consume(clusterId, topicService.get(clusterId, topicName).get(), filter, onRecord, onProgress, cancel);
         } catch (Throwable e) {
             onRecord.accept(Record.LAST);
             throw new RuntimeException(e);
@@ -64,32 +92,83 @@ public class RecordService extends AbstractService {
     }
 
     public CompletableFuture<Void> consume(String clusterId, String topicName, ConsumeFilter filter, Queue<Record> queue, AtomicBoolean cancel) {
+        return consume(clusterId, topicName, filter, queue, it -> {
+        }, cancel);
+    }
+
+    public CompletableFuture<Void> consume(String clusterId, String topicName, ConsumeFilter filter, Queue<Record> queue, Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
         return topicService.get(clusterId, topicName)
-                .thenAcceptAsync(topic -> consume(clusterId, topic, filter, queue::offer, cancel))
+                .thenAcceptAsync(topic -> consume(clusterId, topic, filter, queue::offer, onProgress, cancel))
                 .exceptionallyComposeAsync(it -> {
                     queue.offer(Record.LAST);
                     return CompletableFuture.failedStage(it);
                 });
     }
 
+    /**
+     * Scans the topic like a {@link ConsumeFilter#scan()} consume, but delivers the serialized records that
+     * pass the raw pre-filters without deserializing them. Serdes, expressions and columns of the filter are
+     * ignored and {@code maxResults} limits the number of delivered records. Records from parallel scan
+     * workers are delivered one at a time. {@code FOLLOW} is not supported since it has no end. Starting from
+     * {@code END}, each partition walks its share of the newest {@code maxResults} offsets by its number of
+     * offsets, so a sample of the newest records keeps the partition skew.
+     */
+    public void scanRaw(String clusterId, String topicName, ConsumeFilter filter, Consumer<ConsumerRecord<byte[], byte[]>> onRecord,
+                        Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
+        if (filter.from().type() == ConsumeFilter.From.Type.FOLLOW) {
+            throw new IllegalArgumentException("Follow mode can't be scanned");
+        }
+        Topic topic;
+        try {
+            topic = topicService.get(clusterId, topicName).get();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        var scanFilter = filter.keyLookup() != null ? resolveKeyLookup(clusterId, topic, filter) : filter;
+        var partitionList = topic.getPartitions().stream()
+                .filter(it -> (scanFilter.partitions().isEmpty() || scanFilter.partitions().contains(it.getId())) && it.getBeginOffset() < it.getEndOffset())
+                .toList();
+        if (partitionList.isEmpty()) return;
+
+        var partitionEndOffsetMap = getStopOffsetMap(clusterId, scanFilter, partitionList);
+        var partitionOffsetMap = getStartOffsetMap(clusterId, scanFilter, partitionList, true);
+        partitionOffsetMap.entrySet().removeIf(it -> it.getValue() >= partitionEndOffsetMap.get(it.getKey()));
+        if (partitionOffsetMap.isEmpty()) return;
+
+        scan(clusterId, scanFilter, partitionOffsetMap, partitionEndOffsetMap, () -> {
+            var preFilter = RawRecordMatcher.compile(scanFilter.preFilters());
+            return record -> preFilter.test(record) ? Optional.of(record) : Optional.empty();
+        }, onRecord, onProgress, cancel);
+    }
+
     /**
      * Consumes records from a Kafka topic with filtering and delivers them via callback.
      *
      * <p>This method performs the following steps:
      * <ol>
+     *   <li>Resolves a key lookup ({@link ConsumeFilter#keyLookup()}) into a scan of the partition the key hashes to</li>
      *   <li>Filters partitions based on the filter criteria (specific partitions or all non-empty)</li>
      *   <li>Determines starting offsets based on the filter's "from" type:
      *     <ul>
      *       <li>{@code BEGIN} - starts from the earliest offset in each partition</li>
-     *       <li>{@code END} - starts from recent offsets to fetch approximately maxResults records</li>
+     *       <li>{@code END} - returns the newest maxResults records across all partitions by paging backwards
+     *         from the end of each partition (see {@link #consumeNewest}); in scan mode walks the newest
+     *         {@code maxResults / partitionCount} offsets (rounded up) of each partition</li>
      *       <li>{@code OFFSET} - starts from a specific offset (only partitions containing that offset)</li>
      *       <li>{@code DATETIME/TIMESTAMP} - starts from offsets corresponding to the given timestamp</li>
+     *       <li>{@code FOLLOW} - starts from the end offset of each partition and waits for new records</li>
      *     </ul>
      *   </li>
+     *   <li>Resolves the stop offset of each partition, lowered by the {@link ConsumeFilter#to()} bound if present;
+     *     partitions that reach their stop offset are paused</li>
      *   <li>Polls records in batches (max 100 per poll) with 1-second timeout</li>
-     *   <li>Deserializes each record's key and value using the specified serde types</li>
-     *   <li>Applies JavaScript filter expressions (if any) using Nashorn engine with bindings:
-     *     {@code key}, {@code value}, {@code headers}, {@code offset}, {@code partition}, {@code timestamp}</li>
+     *   <li>Skips records rejected by the raw pre-filters ({@link ConsumeFilter#preFilters()}) before any deserialization</li>
+     *   <li>Deserializes each record's key and value using the specified serde types; with projected
+     *     {@link ConsumeFilter#columns()} only the projected fields are read and the payloads are deferred</li>
+     *   <li>Applies filter expressions (if any), a record matches when any active expression returns true:
+     *     JavaScript expressions run on the Nashorn engine with bindings {@code key}, {@code value}, {@code headers},
+     *     {@code offset}, {@code partition}, {@code timestamp}; Java expressions are compiled once per consumer
+     *     by {@link JavaExpressionCompiler} and additionally get a typed {@code record} accessor</li>
      *   <li>Delivers matching records to the callback until maxResults is reached or no more data</li>
      *   <li>Sends {@link Record#LAST} as the final callback to signal completion</li>
      * </ol>
@@ -100,18 +179,36 @@ public class RecordService extends AbstractService {
      *   <li>All partitions have been consumed up to their end offsets</li>
      *   <li>Three consecutive empty polls occur</li>
      *   <li>The cancel flag is set to true</li>
-     *   <li>A safety limit of 10 poll iterations is reached</li>
+     *   <li>A safety limit of maxResults / 100 (at least 10) poll iterations is reached</li>
      * </ul>
      *
-     * @param clusterId the cluster identifier
-     * @param topic     the topic metadata including partition and offset information
-     * @param filter    the filter criteria specifying partitions, offsets, serdes, and expressions
-     * @param onRecord  callback invoked for each matching record and finally with {@link Record#LAST}
-     * @param cancel    atomic flag that can be set to true to stop consumption early
+     * <p>In scan mode ({@link ConsumeFilter#scan()}) the poll limit does not apply: the whole offset range
+     * (from the starting offsets up to the end offsets known when the scan started) is walked until
+     * maxResults matching records are found, every partition reaches its end, or the scan is cancelled.
+     * Partitions that reach their end are paused, and progress is reported via {@code onProgress}
+     * about once per second and once more on completion. The selected partitions are split round-robin
+     * across {@link ConsumeFilter#parallelism()} worker consumers (one per core by default), each running
+     * on its own thread; matching records from all workers are delivered to the same callback.
+     *
+     * <p>In {@code FOLLOW} mode none of the above limits apply: the consumer stays assigned and
+     * keeps delivering new records until the cancel flag is set. Callers should hand records to a
+     * bounded buffer (e.g. {@link com.prafka.core.util.RingBufferQueue}) to avoid unbounded growth.
+     *
+     * @param clusterId  the cluster identifier
+     * @param topic      the topic metadata including partition and offset information
+     * @param filter     the filter criteria specifying partitions, offsets, serdes, and expressions
+     * @param onRecord   callback invoked for each matching record and finally with {@link Record#LAST}
+     * @param onProgress callback invoked with scan progress snapshots (scan mode only)
+     * @param cancel     atomic flag that can be set to true to stop consumption early
      */
-    private void consume(String clusterId, Topic topic, ConsumeFilter filter, Consumer<Record> onRecord, AtomicBoolean cancel) {
+    private void consume(String clusterId, Topic topic, ConsumeFilter filter, Consumer<Record> onRecord, Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
+        if (filter.keyLookup() != null) {
+            consume(clusterId, topic, resolveKeyLookup(clusterId, topic, filter), onRecord, onProgress, cancel);
+            return;
+        }
+        var follow = filter.from().type() == ConsumeFilter.From.Type.FOLLOW;
         var partitionList = topic.getPartitions().stream()
-                .filter(it -> (filter.partitions().isEmpty() || filter.partitions().contains(it.getId())) && it.getBeginOffset() < it.getEndOffset())
+                .filter(it -> (filter.partitions().isEmpty() || filter.partitions().contains(it.getId())) && (follow || it.getBeginOffset() < it.getEndOffset()))
                 .toList();
 
         if (partitionList.isEmpty()) {
@@ -119,20 +216,155 @@ public class RecordService extends AbstractService {
             return;
         }
 
-        var partitionOffsetMap = new HashMap<TopicPartition, Long>();
-        var partitionEndOffsetMap = partitionList.stream().collect(Collectors.toMap(Topic.Partition::getTp, Topic.Partition::getEndOffset));
+        var partitionEndOffsetMap = follow
+                ? partitionList.stream().collect(Collectors.toMap(Topic.Partition::getTp, Topic.Partition::getEndOffset))
+                : getStopOffsetMap(clusterId, filter, partitionList);
+
+        if (filter.from().type() == ConsumeFilter.From.Type.END && !filter.scan()) {
+            consumeNewest(clusterId, topic, filter, partitionList, partitionEndOffsetMap, onRecord, cancel);
+            onRecord.accept(Record.LAST);
+            return;
+        }
+
+        var partitionOffsetMap = getStartOffsetMap(clusterId, filter, partitionList, false);
+
+        if (!follow) {
+            // nothing to read where the start is already past the stop offset
+            partitionOffsetMap.entrySet().removeIf(it -> it.getValue() >= partitionEndOffsetMap.get(it.getKey()));
+        }
+
+        if (partitionOffsetMap.isEmpty()) {
+            onRecord.accept(Record.LAST);
+            return;
+        }
+
+        if (follow) {
+            follow(clusterId, topic, filter, partitionOffsetMap, onRecord, cancel);
+            onRecord.accept(Record.LAST);
+            return;
+        }
+
+        if (filter.scan()) {
+            // expressions are compiled per scan worker, their engines are not thread-safe
+            scan(clusterId, filter, partitionOffsetMap, partitionEndOffsetMap, () -> {
+                var compiledFilter = compileFilter(filter);
+                return record -> toMatchingRecord(clusterId, topic, filter, compiledFilter, record);
+            }, onRecord, onProgress, cancel);
+            onRecord.accept(Record.LAST);
+            return;
+        }
+
+        var properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
+        try (var consumer = consumer(clusterId, properties)) {
+            consumer.assign(partitionOffsetMap.keySet());
+            partitionOffsetMap.forEach(consumer::seek);
+
+            var compiledFilter = compileFilter(filter);
+
+            var recordCount = 0;
+            var emptyPollCount = 0;
+            var doPoll = true;
+            var forcedStopPoll = 0; // in case make mistake in the doPoll condition (considering that max.poll.records=100, there should be a maximum of filter.maxResults() / 100 passes)
+            var maxPollCount = Math.max(10, filter.maxResults() / 100);
+            var bounded = filter.to() != null;
+            while (doPoll && emptyPollCount < 3 && forcedStopPoll < maxPollCount && !cancel.get()) {
+                doPoll = false;
+                forcedStopPoll++;
+
+                var records = consumer.poll(Duration.ofMillis(1000));
+                for (var record : records) {
+                    if (bounded && record.offset() >= partitionEndOffsetMap.get(new TopicPartition(record.topic(), record.partition()))) {
+                        continue;
+                    }
+                    if (recordCount < filter.maxResults()) {
+                        var resultRecord = toMatchingRecord(clusterId, topic, filter, compiledFilter, record);
+                        if (resultRecord.isPresent()) {
+                            onRecord.accept(resultRecord.get());
+                            recordCount++;
+                        }
+                    }
+                }
 
+                if (recordCount < filter.maxResults()) {
+                    var finishedPartitions = new ArrayList<TopicPartition>();
+                    for (var tp : consumer.assignment()) {
+                        if (partitionEndOffsetMap.containsKey(tp) && partitionEndOffsetMap.get(tp) > consumer.position(tp)) {
+                            doPoll = true;
+                        } else if (bounded) {
+                            finishedPartitions.add(tp);
+                        }
+                    }
+                    if (!finishedPartitions.isEmpty()) {
+                        consumer.pause(finishedPartitions);
+                    }
+                    if (records.isEmpty()) {
+                        emptyPollCount++;
+                        doPoll = true;
+                    }
+                }
+            }
+        }
+        onRecord.accept(Record.LAST);
+    }
+
+    /**
+     * Turns a key lookup into a scan of the partition the default partitioner maps the serialized key to
+     * ({@code murmur2(key) % partitionCount}) with a pre-filter on the exact key bytes. With a custom
+     * partitioner or a null key all selected partitions are scanned. Keys produced before partitions were
+     * added to the topic may live in another partition. The partition is scanned from its begin offset unless
+     * the filter starts at an explicit offset or timestamp, since {@code END} would only cover its newest records.
+     */
+    private ConsumeFilter resolveKeyLookup(String clusterId, Topic topic, ConsumeFilter filter) {
+        var keyLookup = filter.keyLookup();
+        var keyBytes = serializationService.serializeKey(clusterId, topic.getName(), keyLookup.key(), filter.keySerde());
+        var preFilters = new ArrayList<>(filter.preFilters());
+        preFilters.add(ConsumeFilter.PreFilter.keyBytesEquals(keyBytes));
+        var builder = filter.toBuilder().scan(true).preFilters(preFilters).keyLookup(null);
+        if (filter.from().type() == ConsumeFilter.From.Type.END) {
+            builder.from(new ConsumeFilter.From(ConsumeFilter.From.Type.BEGIN, Optional.empty(), Optional.empty()));
+        }
+        if (!keyLookup.customPartitioner() && keyBytes != null && !topic.getPartitions().isEmpty()) {
+            var partition = Utils.toPositive(Utils.murmur2(keyBytes)) % topic.getPartitions().size();
+            if (filter.partitions().isEmpty() || filter.partitions().contains(partition)) {
+                builder.partitions(List.of(partition));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolves the offset each partition is consumed from, according to {@link ConsumeFilter#from()}. Partitions
+     * without a matching offset, e.g. with no record at or after the given timestamp, are left out.
+     *
+     * @param proportional whether {@code END} splits the newest offsets by each partition's share of the
+     *                     offsets instead of evenly
+     */
+    private Map<TopicPartition, Long> getStartOffsetMap(String clusterId, ConsumeFilter filter, List<Topic.Partition> partitionList,
+                                                        boolean proportional) {
+        var partitionOffsetMap = new HashMap<TopicPartition, Long>();
         switch (filter.from().type()) {
             case BEGIN -> {
                 partitionList.forEach(it -> partitionOffsetMap.put(it.getTp(), it.getBeginOffset()));
             }
             case END -> {
-                var perPartitionSize = filter.maxResults() / partitionList.size();
-                // todo add support for situation where data is unevenly distributed across partitions
-                partitionList.forEach(it -> {
-                    var offset = it.getEndOffset() - perPartitionSize;
-                    partitionOffsetMap.put(it.getTp(), Math.max(offset, it.getBeginOffset()));
-                });
+                // scan mode only, the bounded consume is served by consumeNewest: walks the newest maxResults offsets
+                if (proportional) {
+                    // split by each partition's share of the offsets (rounded up) so that a sample keeps the partition skew
+                    var totalSize = partitionList.stream().mapToLong(it -> it.getEndOffset() - it.getBeginOffset()).sum();
+                    partitionList.forEach(it -> {
+                        var size = it.getEndOffset() - it.getBeginOffset();
+                        var window = totalSize == 0 ? 0 : (long) Math.ceil((double) filter.maxResults() * size / totalSize);
+                        partitionOffsetMap.put(it.getTp(), Math.max(it.getEndOffset() - window, it.getBeginOffset()));
+                    });
+                } else {
+                    // split over the partitions and at least one per partition
+                    var perPartitionSize = Math.ceilDiv(filter.maxResults(), partitionList.size());
+                    partitionList.forEach(it -> {
+                        var offset = it.getEndOffset() - perPartitionSize;
+                        partitionOffsetMap.put(it.getTp(), Math.max(offset, it.getBeginOffset()));
+                    });
+                }
             }
             case OFFSET -> {
                 if (filter.from().offset().isEmpty()) throw new IllegalArgumentException();
@@ -151,83 +383,295 @@ public class RecordService extends AbstractService {
                             });
                 }
             }
+            case FOLLOW -> {
+                partitionList.forEach(it -> partitionOffsetMap.put(it.getTp(), it.getEndOffset()));
+            }
         }
+        return partitionOffsetMap;
+    }
 
-        if (partitionOffsetMap.isEmpty()) {
-            onRecord.accept(Record.LAST);
-            return;
+    /**
+     * Resolves the offset each partition is consumed up to (exclusive): the end offset, lowered by the
+     * {@link ConsumeFilter#to()} bound if present. Timestamp bounds are inclusive and resolved with
+     * {@code offsetsForTimes(timestamp + 1)}, i.e. the first offset past the bound.
+     */
+    private Map<TopicPartition, Long> getStopOffsetMap(String clusterId, ConsumeFilter filter, List<Topic.Partition> partitionList) {
+        var stopOffsetMap = partitionList.stream().collect(Collectors.toMap(Topic.Partition::getTp, Topic.Partition::getEndOffset));
+        var to = filter.to();
+        if (to == null) return stopOffsetMap;
+        switch (to.type()) {
+            case OFFSET -> {
+                if (to.offset().isEmpty()) throw new IllegalArgumentException();
+                stopOffsetMap.replaceAll((k, v) -> Math.min(v, to.offset().get() + 1));
+            }
+            case DATETIME, TIMESTAMP -> {
+                if (to.timestamp().isEmpty()) throw new IllegalArgumentException();
+                try (var consumer = consumer(clusterId)) {
+                    var partitionTimestampMap = partitionList.stream()
+                            .collect(Collectors.toMap(Topic.Partition::getTp, it -> to.timestamp().get() + 1));
+                    consumer.offsetsForTimes(partitionTimestampMap)
+                            .forEach((k, v) -> {
+                                if (v != null) stopOffsetMap.merge(k, v.offset(), Math::min);
+                            });
+                }
+            }
         }
+        return stopOffsetMap;
+    }
+
+    /**
+     * Delivers the newest {@code maxResults} matching records across the given partitions, newest first.
+     *
+     * <p>Every partition is read backwards in windows that start at {@code maxResults / partitionCount}
+     * offsets and double on each round. Matching records are kept in a min-heap ordered by timestamp, holding
+     * the current newest N. After a round, a partition is read further back only if it has older offsets
+     * left and the oldest record read from it so far is still newer than the oldest record in a full heap;
+     * otherwise its older records cannot make it into the result (timestamps are assumed to grow with
+     * offsets within a partition). Records older than the heap minimum are skipped before deserialization.
+     *
+     * <p>Like the bounded consume, reading stops after {@code maxResults / 100} (at least 10) polls, so a filter
+     * that matches few records doesn't page through the whole history of the partitions; the newest matching
+     * records read up to then are delivered.
+     */
+    private void consumeNewest(String clusterId, Topic topic, ConsumeFilter filter, List<Topic.Partition> partitionList, Map<TopicPartition, Long> partitionEndOffsetMap,
+                               Consumer<Record> onRecord, AtomicBoolean cancel) {
+        var limit = filter.maxResults();
+        if (limit <= 0) return;
+        var initialWindow = Math.max(MIN_TAIL_WINDOW, (limit + partitionList.size() - 1) / partitionList.size());
+        var tails = partitionList.stream()
+                .map(it -> new PartitionTail(it.getTp(), it.getBeginOffset(), partitionEndOffsetMap.get(it.getTp()), initialWindow))
+                .toList();
+        var heap = new PriorityQueue<Record>(Comparator.comparingLong(Record::getTimestamp));
+        var pollCount = 0;
+        var maxPollCount = Math.max(10, limit / 100);
 
         var properties = new Properties();
-        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        try (var consumer = consumer(clusterId, properties)) {
+            var compiledFilter = compileFilter(filter);
+            while (pollCount < maxPollCount && !cancel.get()) {
+                var round = tails.stream()
+                        .filter(it -> it.hasOlder() && (heap.size() < limit || it.oldestTimestamp > heap.peek().getTimestamp()))
+                        .collect(Collectors.toMap(it -> it.tp, Function.identity()));
+                if (round.isEmpty()) break;
+
+                consumer.resume(consumer.paused());
+                consumer.assign(round.keySet());
+                round.values().forEach(it -> consumer.seek(it.tp, it.windowStart()));
+
+                var remainingPartitions = new HashSet<>(round.keySet());
+                var emptyPollCount = 0;
+                while (!remainingPartitions.isEmpty() && emptyPollCount < 3 && pollCount < maxPollCount && !cancel.get()) {
+                    var records = consumer.poll(Duration.ofMillis(1000));
+                    pollCount++;
+                    emptyPollCount = records.isEmpty() ? emptyPollCount + 1 : 0;
+
+                    for (var tp : records.partitions()) {
+                        var tail = round.get(tp);
+                        if (tail == null) continue;
+                        for (var record : records.records(tp)) {
+                            if (record.offset() >= tail.stopOffset) break;
+                            tail.oldestTimestamp = Math.min(tail.oldestTimestamp, record.timestamp());
+                            if (heap.size() >= limit && record.timestamp() <= heap.peek().getTimestamp()) continue;
+                            toMatchingRecord(clusterId, topic, filter, compiledFilter, record).ifPresent(it -> {
+                                heap.offer(it);
+                                if (heap.size() > limit) heap.poll();
+                            });
+                        }
+                    }
+
+                    var finishedPartitions = new ArrayList<TopicPartition>();
+                    for (var tp : remainingPartitions) {
+                        if (consumer.position(tp) >= round.get(tp).stopOffset) finishedPartitions.add(tp);
+                    }
+                    if (!finishedPartitions.isEmpty()) {
+                        finishedPartitions.forEach(remainingPartitions::remove);
+                        consumer.pause(finishedPartitions);
+                    }
+                }
+                // partitions that could not be read up to their window end are not retried
+                if (!remainingPartitions.isEmpty()) break;
+
+                round.values().forEach(PartitionTail::pageBack);
+            }
+        }
+
+        var result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingLong(Record::getTimestamp).reversed());
+        result.forEach(onRecord);
+    }
+
+    /**
+     * Walks the offset ranges with one or more workers, each matching records with its own matcher from
+     * {@code matcherFactory} and delivering the matches to {@code onRecord}, one at a time.
+     */
+    private <T> void scan(String clusterId, ConsumeFilter filter, Map<TopicPartition, Long> partitionOffsetMap, Map<TopicPartition, Long> partitionEndOffsetMap,
+                          Supplier<Function<ConsumerRecord<byte[], byte[]>, Optional<T>>> matcherFactory, Consumer<T> onRecord,
+                          Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
+        var tracker = new ScanProgressTracker(partitionOffsetMap, partitionEndOffsetMap, filter.maxResults());
+        var workerCount = getWorkerCount(filter, partitionOffsetMap.size());
+        if (workerCount == 1) {
+            scanPartitions(clusterId, partitionOffsetMap, partitionEndOffsetMap, matcherFactory, tracker, onRecord, onProgress, cancel::get);
+        } else {
+            // split partitions round-robin across workers, each worker owns a dedicated consumer
+            var workerPartitionOffsetMaps = new ArrayList<Map<TopicPartition, Long>>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                workerPartitionOffsetMaps.add(new HashMap<>());
+            }
+            var sortedPartitions = partitionOffsetMap.keySet().stream().sorted(Comparator.comparingInt(TopicPartition::partition)).toList();
+            for (int i = 0; i < sortedPartitions.size(); i++) {
+                var tp = sortedPartitions.get(i);
+                workerPartitionOffsetMaps.get(i % workerCount).put(tp, partitionOffsetMap.get(tp));
+            }
+            var failed = new AtomicBoolean();
+            var lock = new Object();
+            Consumer<T> onRecordSync = record -> {
+                synchronized (lock) {
+                    onRecord.accept(record);
+                }
+            };
+            var workers = workerPartitionOffsetMaps.stream()
+                    .map(workerPartitionOffsetMap -> CompletableFuture.runAsync(() -> {
+                        try {
+                            scanPartitions(clusterId, workerPartitionOffsetMap, partitionEndOffsetMap, matcherFactory, tracker, onRecordSync, onProgress, () -> cancel.get() || failed.get());
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }, ExecutorHolder.consumeExecutor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(workers).join();
+        }
+        tracker.report(onProgress, true);
+    }
+
+    private <T> void scanPartitions(String clusterId, Map<TopicPartition, Long> partitionOffsetMap, Map<TopicPartition, Long> partitionEndOffsetMap,
+                                    Supplier<Function<ConsumerRecord<byte[], byte[]>, Optional<T>>> matcherFactory, ScanProgressTracker tracker,
+                                    Consumer<T> onRecord, Consumer<ScanProgress> onProgress, BooleanSupplier cancelled) {
+        var properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
         try (var consumer = consumer(clusterId, properties)) {
             consumer.assign(partitionOffsetMap.keySet());
             partitionOffsetMap.forEach(consumer::seek);
 
-            var expressionList = filter.expressions().stream()
-                    .filter(ConsumeFilter.Expression::isActive)
-                    .map(it -> StreamUtils.tryOrEmpty(() -> NASHORN_SCRIPT_ENGINE.compile("function() { " + it.code() + " }")))
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .toList();
+            var matcher = matcherFactory.get();
+            var remainingPartitions = new HashSet<>(partitionOffsetMap.keySet());
 
-            var recordCount = 0;
             var emptyPollCount = 0;
-            var doPoll = true;
-            var forcedStopPoll = 0; // in case make mistake in the doPoll condition (considering that max.poll.records=100 and filter.maxResults() <= 1000, there should be a maximum of 10 passes)
-            while (doPoll && emptyPollCount < 3 && forcedStopPoll < 10 && !cancel.get()) {
-                doPoll = false;
-                forcedStopPoll++;
-
+            while (!remainingPartitions.isEmpty() && !tracker.isFull() && emptyPollCount < 3 && !cancelled.getAsBoolean()) {
                 var records = consumer.poll(Duration.ofMillis(1000));
-                for (var record : records) {
-                    if (recordCount < filter.maxResults()) {
-                        var kv = deserializationService.deserialize(clusterId, topic, record, filter.keySerde(), filter.valueSerde());
-                        var resultRecord = new Record(record, kv.getKey(), kv.getValue());
-                        var match = true;
-                        if (!expressionList.isEmpty()) {
-                            match = false;
-                            var bindings = NASHORN_SCRIPT_ENGINE.createBindings();
-                            bindings.put("key", record.key() == null ? null : resultRecord.isKeyIsJson() ? deserializationService.tryToMap(resultRecord.getKey()) : resultRecord.getKey());
-                            bindings.put("value", record.value() == null ? null : resultRecord.isValueIsJson() ? deserializationService.tryToMap(resultRecord.getValue()) : resultRecord.getValue());
-                            bindings.put("headers", resultRecord.getHeaders());
-                            bindings.put("offset", record.offset());
-                            bindings.put("partition", record.partition());
-                            bindings.put("timestamp", record.timestamp());
-                            for (var expression : expressionList) {
-                                try {
-                                    match = match || (Boolean) ((ScriptObjectMirror) expression.eval(bindings)).call(null);
-                                } catch (Exception e) {
-                                    logDebugError(e);
-                                }
-                            }
-                        }
-                        if (match) {
-                            onRecord.accept(resultRecord);
-                            recordCount++;
+                emptyPollCount = records.isEmpty() ? emptyPollCount + 1 : 0;
+
+                for (var tp : records.partitions()) {
+                    var stopOffset = partitionEndOffsetMap.getOrDefault(tp, Long.MAX_VALUE);
+                    for (var record : records.records(tp)) {
+                        if (record.offset() >= stopOffset || tracker.isFull()) break;
+                        tracker.onRecord(record);
+                        var resultRecord = matcher.apply(record);
+                        if (resultRecord.isPresent() && tracker.tryMatch()) {
+                            onRecord.accept(resultRecord.get());
                         }
                     }
                 }
 
-                if (recordCount < filter.maxResults()) {
-                    for (var tp : consumer.assignment()) {
-                        if (partitionEndOffsetMap.containsKey(tp) && partitionEndOffsetMap.get(tp) > consumer.position(tp)) {
-                            doPoll = true;
-                            break;
-                        }
-                    }
-                    if (records.isEmpty()) {
-                        emptyPollCount++;
-                        doPoll = true;
+                var finishedPartitions = new ArrayList<TopicPartition>();
+                for (var tp : remainingPartitions) {
+                    var position = consumer.position(tp);
+                    tracker.onPosition(tp, position);
+                    if (position >= partitionEndOffsetMap.getOrDefault(tp, Long.MAX_VALUE)) {
+                        finishedPartitions.add(tp);
                     }
                 }
+                if (!finishedPartitions.isEmpty()) {
+                    finishedPartitions.forEach(remainingPartitions::remove);
+                    consumer.pause(finishedPartitions);
+                }
+
+                tracker.report(onProgress, false);
             }
         }
-        onRecord.accept(Record.LAST);
+    }
+
+    private static int getWorkerCount(ConsumeFilter filter, int partitionCount) {
+        var parallelism = filter.parallelism() > 0 ? filter.parallelism() : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(parallelism, partitionCount));
+    }
+
+    private void follow(String clusterId, Topic topic, ConsumeFilter filter, Map<TopicPartition, Long> partitionOffsetMap, Consumer<Record> onRecord, AtomicBoolean cancel) {
+        var properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        try (var consumer = consumer(clusterId, properties)) {
+            consumer.assign(partitionOffsetMap.keySet());
+            partitionOffsetMap.forEach(consumer::seek);
+
+            var compiledFilter = compileFilter(filter);
+
+            while (!cancel.get()) {
+                var records = consumer.poll(Duration.ofMillis(500));
+                for (var record : records) {
+                    toMatchingRecord(clusterId, topic, filter, compiledFilter, record).ifPresent(onRecord);
+                }
+            }
+        }
+    }
+
+    private CompiledFilter compileFilter(ConsumeFilter filter) {
+        var expressionList = filter.expressions().stream()
+                .filter(ConsumeFilter.Expression::isActive)
+                .map(it -> StreamUtils.tryOrEmpty(() -> compileExpression(it)))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .toList();
+        var projection = filter.columns().isEmpty() ? null : FieldProjection.compile(filter.columns());
+        return new CompiledFilter(RawRecordMatcher.compile(filter.preFilters()), expressionList, projection);
+    }
+
+    private static RecordExpression compileExpression(ConsumeFilter.Expression expression) throws Exception {
+        if (expression.language() == ConsumeFilter.Expression.Language.JAVA) {
+            var predicate = JavaExpressionCompiler.compile(expression.code());
+            return input -> predicate.test(input.key.text(), input.value.text(), input.headers(), input.source.offset(), input.source.partition(), input.source.timestamp(), input.fields());
+        }
+        var script = NASHORN_SCRIPT_ENGINE.compile("function() { " + expression.code() + " }");
+        return input -> (Boolean) ((ScriptObjectMirror) script.eval(input.bindings())).call(null);
+    }
+
+    private Optional<Record> toMatchingRecord(String clusterId, Topic topic, ConsumeFilter filter, CompiledFilter compiledFilter, ConsumerRecord<byte[], byte[]> record) {
+        if (!compiledFilter.preFilter().test(record)) {
+            return Optional.empty();
+        }
+        var projection = compiledFilter.projection();
+        // with projected columns the whole payloads are only decoded if an expression or the record view reads them
+        var kv = projection == null
+                ? deserializationService.decode(clusterId, topic, record, filter.keySerde(), filter.valueSerde())
+                : deserializationService.decodeDeferred(clusterId, topic, record, filter.keySerde(), filter.valueSerde());
+        var expressionList = compiledFilter.expressionList();
+        if (expressionList.isEmpty()) {
+            return Optional.of(toRecord(clusterId, filter, projection, record, kv));
+        }
+        // expressions see the deserialized payload, the record (with its formatting) is only built on match
+        var input = new ExpressionInput(record, kv.getKey(), kv.getValue());
+        for (var expression : expressionList) {
+            try {
+                if (expression.test(input)) return Optional.of(toRecord(clusterId, filter, projection, record, kv));
+            } catch (Exception e) {
+                logDebugError(e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Record toRecord(String clusterId, ConsumeFilter filter, FieldProjection projection, ConsumerRecord<byte[], byte[]> record, Pair<DecodedPayload, DecodedPayload> kv) {
+        if (projection == null) return new Record(record, kv.getKey(), kv.getValue());
+        var columns = deserializationService.project(clusterId, record, filter.keySerde(), filter.valueSerde(), projection);
+        return new Record(record, kv.getKey(), kv.getValue(), columns);
     }
 
     public CompletableFuture<Void> tryCompileExpression(String code) {
-        return CompletableFuture.runAsync(() -> StreamUtils.tryReturn(() -> NASHORN_SCRIPT_ENGINE.compile("function() { " + code + " }")));
+        return tryCompileExpression(new ConsumeFilter.Expression(null, code, true));
+    }
+
+    public CompletableFuture<Void> tryCompileExpression(ConsumeFilter.Expression expression) {
+        return CompletableFuture.runAsync(() -> StreamUtils.tryReturn(() -> compileExpression(expression)));
     }
 
     public CompletableFuture<Record> produce(String clusterId, String topicName, NewRecord record) {
@@ -236,18 +680,159 @@ public class RecordService extends AbstractService {
             properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, record.getCompression().getValue());
             properties.put(ProducerConfig.ACKS_CONFIG, record.getAsks().getValue());
             properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, record.isIdempotence());
-            try (var producer = producer(clusterId, properties)) {
-                var producerRecord = serializationService.serialize(clusterId, topicName, record);
-                var result = new CompletableFuture<Record>();
-                producer.send(producerRecord, (metadata, exception) -> {
-                    if (exception != null) {
-                        result.completeExceptionally(exception);
-                    } else {
-                        result.complete(new Record(record, metadata));
-                    }
-                });
-                return result;
-            }
+            // the producer is shared per profile and stays open, the result completes once the send is acknowledged
+            var producer = producer(clusterId, properties);
+            var producerRecord = serializationService.serialize(clusterId, topicName, record);
+            var result = new CompletableFuture<Record>();
+            producer.send(producerRecord, (metadata, exception) -> {
+                if (exception != null) {
+                    result.completeExceptionally(exception);
+                } else {
+                    result.complete(new Record(record, metadata));
+                }
+            });
+            return result;
         }).thenCompose(Function.identity());
     }
+
+    private static class PartitionTail {
+
+        private final TopicPartition tp;
+        private final long beginOffset;
+        private long stopOffset;
+        private int window;
+        private long oldestTimestamp = Long.MAX_VALUE;
+
+        private PartitionTail(TopicPartition tp, long beginOffset, long endOffset, int window) {
+            this.tp = tp;
+            this.beginOffset = beginOffset;
+            this.stopOffset = endOffset;
+            this.window = window;
+        }
+
+        private boolean hasOlder() {
+            return stopOffset > beginOffset;
+        }
+
+        private long windowStart() {
+            return Math.max(beginOffset, stopOffset - window);
+        }
+
+        private void pageBack() {
+            stopOffset = windowStart();
+            window = (int) Math.min((long) window * 2, MAX_TAIL_WINDOW);
+        }
+    }
+
+    private static class ScanProgressTracker {
+
+        private static final long REPORT_INTERVAL_MS = 1000;
+
+        private final Map<TopicPartition, Long> startOffsets;
+        private final Map<TopicPartition, Long> stopOffsets;
+        private final Map<TopicPartition, Long> positions;
+        private final int maxMatchedRecords;
+        private final long startedAt = System.currentTimeMillis();
+        private final LongAdder scannedRecords = new LongAdder();
+        private final LongAdder scannedBytes = new LongAdder();
+        private final AtomicInteger matchedRecords = new AtomicInteger();
+        private long reportedAt = startedAt;
+
+        private ScanProgressTracker(Map<TopicPartition, Long> startOffsets, Map<TopicPartition, Long> stopOffsets, int maxMatchedRecords) {
+            this.startOffsets = startOffsets;
+            this.stopOffsets = stopOffsets;
+            this.positions = new ConcurrentHashMap<>(startOffsets);
+            this.maxMatchedRecords = maxMatchedRecords;
+        }
+
+        private void onRecord(ConsumerRecord<byte[], byte[]> record) {
+            scannedRecords.increment();
+            scannedBytes.add(Math.max(record.serializedKeySize(), 0) + Math.max(record.serializedValueSize(), 0));
+        }
+
+        private void onPosition(TopicPartition tp, long position) {
+            positions.put(tp, position);
+        }
+
+        /**
+         * Reserves a slot for a matched record, returns false once maxResults records have been matched.
+         */
+        private boolean tryMatch() {
+            while (true) {
+                var current = matchedRecords.get();
+                if (current >= maxMatchedRecords) return false;
+                if (matchedRecords.compareAndSet(current, current + 1)) return true;
+            }
+        }
+
+        private boolean isFull() {
+            return matchedRecords.get() >= maxMatchedRecords;
+        }
+
+        private synchronized void report(Consumer<ScanProgress> onProgress, boolean completed) {
+            var now = System.currentTimeMillis();
+            if (!completed && now - reportedAt < REPORT_INTERVAL_MS) return;
+            reportedAt = now;
+            var partitions = startOffsets.keySet().stream()
+                    .sorted(Comparator.comparingInt(TopicPartition::partition))
+                    .map(tp -> new ScanProgress.Partition(tp.partition(), startOffsets.get(tp), stopOffsets.getOrDefault(tp, startOffsets.get(tp)), positions.get(tp)))
+                    .toList();
+            onProgress.accept(new ScanProgress(partitions, scannedRecords.sum(), scannedBytes.sum(), matchedRecords.get(), now - startedAt, completed));
+        }
+    }
+
+    private record CompiledFilter(Predicate<ConsumerRecord<byte[], byte[]>> preFilter, List<RecordExpression> expressionList,
+                                  FieldProjection projection) {
+    }
+
+    private interface RecordExpression {
+        boolean test(ExpressionInput input) throws Exception;
+    }
+
+    /**
+     * Per-record input shared by all expressions; headers, script bindings and JSON fields are built lazily.
+     */
+    private class ExpressionInput {
+
+        private final ConsumerRecord<byte[], byte[]> source;
+        private final DecodedPayload key;
+        private final DecodedPayload value;
+        private Map<String, String> headers;
+        private Bindings bindings;
+        private JavaExpressionCompiler.Fields fields;
+
+        private ExpressionInput(ConsumerRecord<byte[], byte[]> source, DecodedPayload key, DecodedPayload value) {
+            this.source = source;
+            this.key = key;
+            this.value = value;
+        }
+
+        private Map<String, String> headers() {
+            if (headers == null) {
+                headers = new HashMap<>();
+                for (var header : source.headers().toArray()) {
+                    headers.putIfAbsent(header.key(), header.value() == null ? null : new String(header.value()));
+                }
+            }
+            return headers;
+        }
+
+        private Bindings bindings() {
+            if (bindings == null) {
+                bindings = NASHORN_SCRIPT_ENGINE.createBindings();
+                bindings.put("key", source.key() == null ? null : key.isJson() ? deserializationService.tryToMap(key) : key.text());
+                bindings.put("value", source.value() == null ? null : value.isJson() ? deserializationService.tryToMap(value) : value.text());
+                bindings.put("headers", headers());
+                bindings.put("offset", source.offset());
+                bindings.put("partition", source.partition());
+                bindings.put("timestamp", source.timestamp());
+            }
+            return bindings;
+        }
+
+        private JavaExpressionCompiler.Fields fields() {
+            if (fields == null) fields = new JavaExpressionCompiler.Fields(key, value, headers());
+            return fields;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.prafka.core.service;
 
+import com.prafka.core.manager.SerDeManager;
 import com.prafka.core.model.Schema;
 import com.prafka.core.util.StreamUtils;
 import io.confluent.kafka.schemaregistry.CompatibilityLevel;
@@ -8,6 +9,7 @@ import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import lombok.Getter;
@@ -33,6 +35,13 @@ import java.util.function.Supplier;
 @Singleton
 public class SchemaRegistryService extends AbstractService {
 
+    private final SerDeManager serDeManager;
+
+    @Inject
+    public SchemaRegistryService(SerDeManager serDeManager) {
+        this.serDeManager = serDeManager;
+    }
+
     public CompletableFuture<Collection<String>> getAllSubjects(String clusterId) {
         return supplyAsync(() -> StreamUtils.tryReturn(() -> schemaRegistryClient(clusterId).getAllSubjects()));
     }
@@ -69,9 +78,10 @@ public class SchemaRegistryService extends AbstractService {
     }
 
     public CompletableFuture<Void> create(String clusterId, String subject, Schema.Type type, String raw) {
-        return runAsync(() -> StreamUtils.tryVoid(() ->
-                schemaRegistryClient(clusterId).register(subject, rawToParsed(type, raw), true)
-        ));
+        return runAsync(() -> StreamUtils.tryVoid(() -> {
+            schemaRegistryClient(clusterId).register(subject, rawToParsed(type, raw), true);
+            serDeManager.evictSubjectSer(clusterId, subject);
+        }));
     }
 
     public CompletableFuture<Void> updateCompatibility(String clusterId, String subject, CompatibilityLevel compatibility) {
@@ -88,15 +98,17 @@ public class SchemaRegistryService extends AbstractService {
     }
 
     public CompletableFuture<Void> update(String clusterId, String subject, Schema.Type type, String raw) {
-        return runAsync(() -> StreamUtils.tryVoid(() ->
-                schemaRegistryClient(clusterId).register(subject, rawToParsed(type, raw), true)
-        ));
+        return runAsync(() -> StreamUtils.tryVoid(() -> {
+            schemaRegistryClient(clusterId).register(subject, rawToParsed(type, raw), true);
+            serDeManager.evictSubjectSer(clusterId, subject);
+        }));
     }
 
     public CompletableFuture<Void> delete(String clusterId, String subject, boolean permanently) {
         return runAsync(() -> StreamUtils.tryVoid(() -> {
             schemaRegistryClient(clusterId).deleteSubject(subject);
             if (permanently) schemaRegistryClient(clusterId).deleteSubject(subject, true);
+            serDeManager.evictSubjectSer(clusterId, subject);
         }));
     }
 
@@ -105,6 +117,7 @@ public class SchemaRegistryService extends AbstractService {
             schemaRegistryClient(clusterId).deleteSchemaVersion(subject, String.valueOf(version));
             if (permanently)
                 schemaRegistryClient(clusterId).deleteSchemaVersion(subject, String.valueOf(version), true);
+            serDeManager.evictSubjectSer(clusterId, subject);
         }));
     }
 
@@ -0,0 +1,739 @@
+package com.prafka.core.service;
+
+import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.Record;
+import com.prafka.core.model.ScanProgress;
+import com.prafka.core.model.SerdeType;
+import com.prafka.core.model.TopicQuery;
+import com.prafka.core.model.TopicQueryResult;
+import com.prafka.core.util.FieldProjection;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Service for running {@link TopicQuery topic queries} over a scan of the topic.
+ *
+ * <p>A query is planned onto {@link RecordService#consume}: fields of the key and value become projected
+ * {@link ConsumeFilter#columns() columns}, so only they are decoded, and top-level {@code AND} conditions on
+ * {@code timestamp} and {@code partition} narrow the scan to the matching partitions and to the offsets
+ * between the timestamp bounds. Top-level {@code AND} equalities of a JSON field with text become raw
+ * {@link ConsumeFilter.PreFilter pre-filters}, so other records are skipped undecoded. Timestamps compare with epoch milliseconds or ISO-8601 instants such as
+ * {@code '2024-05-01T00:00:00Z'}.
+ *
+ * <p>Consumed records are evaluated in batches: the {@code WHERE} condition narrows a selection vector
+ * over the batch, so the right side of an {@code AND} only sees the records the left side kept. Aggregates
+ * are kept per group in primitive arrays indexed by a dense group slot. Comparisons with a missing field
+ * are false. Queries return at most {@code LIMIT} rows or groups, {@value #DEFAULT_ROW_LIMIT} by default, and
+ * the result tells when the default limit left rows out; without aggregates and {@code ORDER BY} the scan
+ * stops once they are found.
+ */
+@Named
+@Singleton
+public class TopicQueryService extends AbstractService {
+
+    static final int BATCH_SIZE = 1024;
+    static final int DEFAULT_ROW_LIMIT = 10_000;
+
+    private final RecordService recordService;
+
+    @Inject
+    public TopicQueryService(RecordService recordService) {
+        this.recordService = recordService;
+    }
+
+    /**
+     * Runs the query over the topic. Cancelling returns the result of the records read so far. The scan is
+     * stopped through its own flag, which follows {@code cancel} and is also set once the limit is reached,
+     * so {@code cancel} is only read.
+     *
+     * @param keySerde   how keys are deserialized, as in {@link ConsumeFilter#keySerde()}
+     * @param valueSerde how values are deserialized, as in {@link ConsumeFilter#valueSerde()}
+     */
+    public CompletableFuture<TopicQueryResult> execute(String clusterId, String topicName, TopicQuery query, SerdeType keySerde,
+                                                       SerdeType valueSerde, Consumer<ScanProgress> onProgress, AtomicBoolean cancel) {
+        var plan = Plan.of(query, keySerde, valueSerde);
+        var columns = query.select().stream().map(TopicQuery.Select::name).toList();
+        var execution = query.isAggregate() ? new Aggregation(query, plan) : new Projection(query, plan);
+        if (plan.filter() == null) return CompletableFuture.completedFuture(new TopicQueryResult(columns, execution.rows(), 0, 0, false));
+        return CompletableFuture.supplyAsync(() -> {
+            var scanned = new AtomicLong();
+            var batch = new ArrayList<Record>(BATCH_SIZE);
+            var stop = new AtomicBoolean(cancel.get());
+            recordService.consume(clusterId, topicName, plan.filter(), record -> {
+                if (cancel.get()) stop.set(true);
+                if (record.isLast() || execution.isDone()) return;
+                batch.add(record);
+                if (batch.size() < BATCH_SIZE) return;
+                execution.accept(batch);
+                batch.clear();
+                if (execution.isDone()) stop.set(true);
+            }, progress -> {
+                if (cancel.get()) stop.set(true);
+                scanned.set(progress.scannedRecords());
+                onProgress.accept(progress);
+            }, stop);
+            if (!batch.isEmpty()) execution.accept(batch);
+            var rows = execution.rows();
+            return new TopicQueryResult(columns, rows, Math.max(scanned.get(), execution.matched), execution.matched, execution.truncated());
+        }, ExecutorHolder.consumeExecutor);
+    }
+
+    /**
+     * Scan filter of a query and the column index of each projected field. A {@code null} filter means the
+     * bounds exclude every record.
+     */
+    record Plan(ConsumeFilter filter, Map<String, Integer> columnIndexes, Optional<TopicQuery.Expr> where) {
+
+        static Plan of(TopicQuery query, SerdeType keySerde, SerdeType valueSerde) {
+            var where = query.where().map(Plan::normalize);
+            var columnIndexes = new LinkedHashMap<String, Integer>();
+            query.select().forEach(it -> collectFields(it.argument(), columnIndexes));
+            query.groupBy().forEach(it -> collectFields(it, columnIndexes));
+            where.ifPresent(it -> collectFields(it, columnIndexes));
+
+            long lower = Long.MIN_VALUE, upper = Long.MAX_VALUE;
+            TreeSet<Integer> partitions = null;
+            var preFilters = new ArrayList<ConsumeFilter.PreFilter>();
+            for (var conjunct : where.map(Plan::conjuncts).orElse(List.of())) {
+                if (conjunct instanceof TopicQuery.Compare compare) {
+                    fieldPreFilter(compare, keySerde, valueSerde).ifPresent(preFilters::add);
+                    var bound = fieldBound(compare);
+                    if (bound == null || !(bound.value() instanceof Long value)) continue;
+                    if (bound.field().equals("timestamp")) {
+                        switch (bound.operator()) {
+                            case EQ -> {
+                                lower = Math.max(lower, value);
+                                upper = Math.min(upper, value);
+                            }
+                            case GE -> lower = Math.max(lower, value);
+                            case GT -> lower = Math.max(lower, value == Long.MAX_VALUE ? value : value + 1);
+                            case LE -> upper = Math.min(upper, value);
+                            case LT -> upper = Math.min(upper, value == Long.MIN_VALUE ? value : value - 1);
+                            default -> {
+                            }
+                        }
+                    } else if (bound.field().equals("partition") && bound.operator() == TopicQuery.Compare.Operator.EQ) {
+                        partitions = intersect(partitions, List.of(value));
+                    }
+                } else if (conjunct instanceof TopicQuery.In in && in.operand() instanceof TopicQuery.Field field && field.path().equals("partition")
+                        && in.values().stream().allMatch(it -> it instanceof TopicQuery.Literal literal && literal.value() instanceof Long)) {
+                    partitions = intersect(partitions, in.values().stream().map(it -> (Long) ((TopicQuery.Literal) it).value()).toList());
+                }
+            }
+            // record timestamps are not negative, and offsetsForTimes rejects negative bounds
+            if (lower > upper || upper < 0 || partitions != null && partitions.isEmpty()) return new Plan(null, columnIndexes, where);
+
+            var filter = ConsumeFilter.builder()
+                    .from(lower > 0
+                            ? new ConsumeFilter.From(ConsumeFilter.From.Type.TIMESTAMP, Optional.empty(), Optional.of(lower))
+                            : new ConsumeFilter.From(ConsumeFilter.From.Type.BEGIN, Optional.empty(), Optional.empty()))
+                    .to(upper < Long.MAX_VALUE ? new ConsumeFilter.To(ConsumeFilter.To.Type.TIMESTAMP, Optional.empty(), Optional.of(upper)) : null)
+                    .maxResults(Integer.MAX_VALUE)
+                    .partitions(partitions == null ? List.of() : List.copyOf(partitions))
+                    .preFilters(preFilters)
+                    .keySerde(keySerde)
+                    .valueSerde(valueSerde)
+                    .expressions(List.of())
+                    .scan(true)
+                    .parallelism(0)
+                    .columns(List.copyOf(columnIndexes.keySet()))
+                    .build();
+            return new Plan(filter, columnIndexes, where);
+        }
+
+        private static TreeSet<Integer> intersect(TreeSet<Integer> partitions, List<Long> values) {
+            var result = new TreeSet<Integer>();
+            for (var value : values) {
+                if (value >= 0 && value <= Integer.MAX_VALUE && (partitions == null || partitions.contains(value.intValue()))) {
+                    result.add(value.intValue());
+                }
+            }
+            return result;
+        }
+
+        private static List<TopicQuery.Expr> conjuncts(TopicQuery.Expr expr) {
+            if (!(expr instanceof TopicQuery.And and)) return List.of(expr);
+            var result = new ArrayList<>(conjuncts(and.left()));
+            result.addAll(conjuncts(and.right()));
+            return result;
+        }
+
+        /**
+         * Returns a comparison of a metadata field with a constant as {@code field operator value}.
+         */
+        private static Bound fieldBound(TopicQuery.Compare compare) {
+            if (compare.left() instanceof TopicQuery.Field field && !field.isPayload() && compare.right() instanceof TopicQuery.Literal literal) {
+                return new Bound(field.path(), compare.operator(), literal.value());
+            }
+            if (compare.right() instanceof TopicQuery.Field field && !field.isPayload() && compare.left() instanceof TopicQuery.Literal literal) {
+                return new Bound(field.path(), compare.operator().flip(), literal.value());
+            }
+            return null;
+        }
+
+        private record Bound(String field, TopicQuery.Compare.Operator operator, Object value) {
+        }
+
+        /**
+         * Returns a raw {@code FIELD_EQUALS} pre-filter for {@code key.x = 'text'} or {@code value.x = 'text'}, so
+         * that records are rejected before their columns are decoded. Only JSON payloads are matched raw, and only
+         * text that no number, boolean, object or array prints as, so the pre-filter keeps every record the
+         * condition holds for.
+         */
+        private static Optional<ConsumeFilter.PreFilter> fieldPreFilter(TopicQuery.Compare compare, SerdeType keySerde, SerdeType valueSerde) {
+            if (compare.operator() != TopicQuery.Compare.Operator.EQ) return Optional.empty();
+            TopicQuery.Field field;
+            Object value;
+            if (compare.left() instanceof TopicQuery.Field left && compare.right() instanceof TopicQuery.Literal literal) {
+                field = left;
+                value = literal.value();
+            } else if (compare.right() instanceof TopicQuery.Field right && compare.left() instanceof TopicQuery.Literal literal) {
+                field = right;
+                value = literal.value();
+            } else {
+                return Optional.empty();
+            }
+            if (!field.isPayload() || !(value instanceof String text) || !isPlainText(text)) return Optional.empty();
+            var column = FieldProjection.column(field.path());
+            var serde = column.isKey() ? keySerde : valueSerde;
+            if (column.segments().isEmpty() || serde != SerdeType.JSON && serde != SerdeType.STRING) return Optional.empty();
+            return Optional.of(ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_EQUALS, field.path(), text));
+        }
+
+        private static boolean isPlainText(String text) {
+            if (text.isEmpty() || text.equals("true") || text.equals("false") || text.equals("null")) return false;
+            if (text.charAt(0) == '{' || text.charAt(0) == '[') return false;
+            try {
+                Double.parseDouble(text);
+                return false;
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        }
+
+        /**
+         * Replaces ISO-8601 instants compared with {@code timestamp} by epoch milliseconds.
+         */
+        private static TopicQuery.Expr normalize(TopicQuery.Expr expr) {
+            return switch (expr) {
+                case TopicQuery.Compare compare when compare.operator() != TopicQuery.Compare.Operator.LIKE
+                        && (isTimestamp(compare.left()) || isTimestamp(compare.right())) ->
+                        new TopicQuery.Compare(timestampLiteral(compare.left()), compare.operator(), timestampLiteral(compare.right()));
+                case TopicQuery.In in when isTimestamp(in.operand()) ->
+                        new TopicQuery.In(in.operand(), in.values().stream().map(Plan::timestampLiteral).toList());
+                case TopicQuery.And and -> new TopicQuery.And(normalize(and.left()), normalize(and.right()));
+                case TopicQuery.Or or -> new TopicQuery.Or(normalize(or.left()), normalize(or.right()));
+                case TopicQuery.Not not -> new TopicQuery.Not(normalize(not.operand()));
+                default -> expr;
+            };
+        }
+
+        private static boolean isTimestamp(TopicQuery.Expr expr) {
+            return expr instanceof TopicQuery.Field field && field.path().equals("timestamp");
+        }
+
+        private static TopicQuery.Expr timestampLiteral(TopicQuery.Expr expr) {
+            if (!(expr instanceof TopicQuery.Literal(String text))) return expr;
+            try {
+                return new TopicQuery.Literal(Instant.parse(text).toEpochMilli());
+            } catch (DateTimeParseException e) {
+                return expr;
+            }
+        }
+
+        private static void collectFields(TopicQuery.Expr expr, Map<String, Integer> columnIndexes) {
+            switch (expr) {
+                case null -> {
+                }
+                case TopicQuery.Field field -> {
+                    if (field.isPayload()) columnIndexes.putIfAbsent(field.path(), columnIndexes.size());
+                }
+                case TopicQuery.Literal ignored -> {
+                }
+                case TopicQuery.Arithmetic arithmetic -> {
+                    collectFields(arithmetic.left(), columnIndexes);
+                    collectFields(arithmetic.right(), columnIndexes);
+                }
+                case TopicQuery.Compare compare -> {
+                    collectFields(compare.left(), columnIndexes);
+                    collectFields(compare.right(), columnIndexes);
+                }
+                case TopicQuery.In in -> {
+                    collectFields(in.operand(), columnIndexes);
+                    in.values().forEach(it -> collectFields(it, columnIndexes));
+                }
+                case TopicQuery.IsNull isNull -> collectFields(isNull.operand(), columnIndexes);
+                case TopicQuery.And and -> {
+                    collectFields(and.left(), columnIndexes);
+                    collectFields(and.right(), columnIndexes);
+                }
+                case TopicQuery.Or or -> {
+                    collectFields(or.left(), columnIndexes);
+                    collectFields(or.right(), columnIndexes);
+                }
+                case TopicQuery.Not not -> collectFields(not.operand(), columnIndexes);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the {@code WHERE} condition over batches and folds the matching records into rows.
+     */
+    private abstract static class Execution {
+
+        private final Predicate where;
+        private final boolean[] selection = new boolean[BATCH_SIZE];
+        long matched;
+
+        Execution(Plan plan) {
+            where = plan.where().map(it -> compilePredicate(it, plan.columnIndexes())).orElse(null);
+        }
+
+        void accept(List<Record> batch) {
+            Arrays.fill(selection, 0, batch.size(), true);
+            if (where != null) where.filter(batch, selection);
+            for (int i = 0; i < batch.size() && !isDone(); i++) {
+                if (!selection[i]) continue;
+                matched++;
+                accept(batch.get(i));
+            }
+        }
+
+        abstract void accept(Record record);
+
+        boolean isDone() {
+            return false;
+        }
+
+        abstract List<List<Object>> rows();
+
+        /**
+         * Whether the default row limit left rows out, known once {@link #rows()} was built.
+         */
+        abstract boolean truncated();
+    }
+
+    private static final class Projection extends Execution {
+
+        private final Value[] values;
+        private final int limit;
+        private final boolean defaultLimit;
+        private final Comparator<Object[]> order;
+        private final List<Object[]> rows = new ArrayList<>();
+        private final PriorityQueue<Object[]> top;
+        private boolean dropped;
+
+        Projection(TopicQuery query, Plan plan) {
+            super(plan);
+            values = query.select().stream().map(it -> compileValue(it.argument(), plan.columnIndexes())).toArray(Value[]::new);
+            limit = query.limit().orElse(DEFAULT_ROW_LIMIT);
+            defaultLimit = query.limit().isEmpty();
+            order = rowComparator(query.orderBy());
+            // keeps the greatest rows on top, so the head is the first to drop
+            top = order == null ? null : new PriorityQueue<>(order.reversed());
+        }
+
+        @Override
+        void accept(Record record) {
+            var row = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                row[i] = values[i].get(record);
+            }
+            if (top == null) {
+                rows.add(row);
+            } else if (limit > 0) {
+                top.add(row);
+                if (top.size() > limit) {
+                    top.poll();
+                    dropped = true;
+                }
+            }
+        }
+
+        @Override
+        boolean isDone() {
+            return top == null && rows.size() >= limit;
+        }
+
+        @Override
+        List<List<Object>> rows() {
+            if (top != null) {
+                rows.addAll(top);
+                rows.sort(order);
+            }
+            return rows.stream().map(Arrays::asList).toList();
+        }
+
+        @Override
+        boolean truncated() {
+            // a scan stopped at the limit may have had more matching records
+            return defaultLimit && (dropped || isDone());
+        }
+    }
+
+    private static final class Aggregation extends Execution {
+
+        private final TopicQuery query;
+        private final Value[] groupValues;
+        private final Accumulator[] accumulators;
+        private final Map<Object, Integer> slots = new HashMap<>();
+        private final List<Object[]> groups = new ArrayList<>();
+        private boolean truncated;
+
+        Aggregation(TopicQuery query, Plan plan) {
+            super(plan);
+            this.query = query;
+            groupValues = query.groupBy().stream().map(it -> compileValue(it, plan.columnIndexes())).toArray(Value[]::new);
+            accumulators = query.select().stream()
+                    .map(it -> it.function() == null ? null : new Accumulator(it.function(), it.argument() == null ? null : compileValue(it.argument(), plan.columnIndexes())))
+                    .toArray(Accumulator[]::new);
+            if (groupValues.length == 0) slot(null, new Object[0]);
+        }
+
+        @Override
+        void accept(Record record) {
+            int slot;
+            if (groupValues.length == 0) {
+                slot = 0;
+            } else {
+                var values = new Object[groupValues.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = groupValues[i].get(record);
+                }
+                slot = slot(values.length == 1 ? values[0] : Arrays.asList(values), values);
+            }
+            for (var accumulator : accumulators) {
+                if (accumulator != null) accumulator.add(slot, record);
+            }
+        }
+
+        private int slot(Object key, Object[] values) {
+            var slot = slots.get(key);
+            if (slot != null) return slot;
+            slot = groups.size();
+            slots.put(key, slot);
+            groups.add(values);
+            for (var accumulator : accumulators) {
+                if (accumulator != null) accumulator.ensureCapacity(slot + 1);
+            }
+            return slot;
+        }
+
+        @Override
+        List<List<Object>> rows() {
+            var rows = new ArrayList<Object[]>(groups.size());
+            for (int slot = 0; slot < groups.size(); slot++) {
+                var row = new Object[query.select().size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = accumulators[i] != null
+                            ? accumulators[i].result(slot)
+                            : groups.get(slot)[query.groupBy().indexOf((TopicQuery.Field) query.select().get(i).argument())];
+                }
+                rows.add(row);
+            }
+            var order = rowComparator(query.orderBy());
+            if (order != null) rows.sort(order);
+            var limit = query.limit().orElse(DEFAULT_ROW_LIMIT);
+            truncated = query.limit().isEmpty() && rows.size() > limit;
+            return rows.stream().limit(limit).map(Arrays::asList).toList();
+        }
+
+        @Override
+        boolean truncated() {
+            return truncated;
+        }
+    }
+
+    /**
+     * Aggregate of one selected column, with the state of each group slot in primitive arrays.
+     */
+    private static final class Accumulator {
+
+        private final TopicQuery.Function function;
+        private final Value argument;
+        private long[] counts = new long[0];
+        private long[] longSums = new long[0];
+        private double[] doubleSums = new double[0];
+        private boolean[] fractional = new boolean[0];
+        private Object[] extremes = new Object[0];
+
+        Accumulator(TopicQuery.Function function, Value argument) {
+            this.function = function;
+            this.argument = argument;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity <= counts.length) return;
+            var length = Math.max(capacity, counts.length * 2);
+            counts = Arrays.copyOf(counts, length);
+            switch (function) {
+                case SUM, AVG -> {
+                    longSums = Arrays.copyOf(longSums, length);
+                    doubleSums = Arrays.copyOf(doubleSums, length);
+                    fractional = Arrays.copyOf(fractional, length);
+                }
+                case MIN, MAX -> extremes = Arrays.copyOf(extremes, length);
+                default -> {
+                }
+            }
+        }
+
+        void add(int slot, Record record) {
+            if (argument == null) {
+                counts[slot]++;
+                return;
+            }
+            var value = argument.get(record);
+            if (value == null) return;
+            switch (function) {
+                case COUNT -> counts[slot]++;
+                case SUM, AVG -> {
+                    if (value instanceof Long number) {
+                        longSums[slot] += number;
+                    } else if (value instanceof Number number) {
+                        doubleSums[slot] += number.doubleValue();
+                        fractional[slot] = true;
+                    } else {
+                        return;
+                    }
+                    counts[slot]++;
+                }
+                case MIN, MAX -> {
+                    var current = extremes[slot];
+                    var sign = function == TopicQuery.Function.MIN ? -1 : 1;
+                    if (current == null || Integer.signum(compare(value, current)) == sign) extremes[slot] = value;
+                    counts[slot]++;
+                }
+            }
+        }
+
+        Object result(int slot) {
+            return switch (function) {
+                case COUNT -> counts[slot];
+                case SUM -> counts[slot] == 0 ? null : fractional[slot] ? (Object) (longSums[slot] + doubleSums[slot]) : (Object) longSums[slot];
+                case AVG -> counts[slot] == 0 ? null : (longSums[slot] + doubleSums[slot]) / counts[slot];
+                case MIN, MAX -> extremes[slot];
+            };
+        }
+    }
+
+    @FunctionalInterface
+    private interface Value {
+        Object get(Record record);
+    }
+
+    /**
+     * Condition evaluated per record, or over a batch by clearing the selection of records it rejects.
+     */
+    private interface Predicate {
+
+        boolean test(Record record);
+
+        default void filter(List<Record> batch, boolean[] selection) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (selection[i] && !test(batch.get(i))) selection[i] = false;
+            }
+        }
+    }
+
+    private record AndPredicate(Predicate left, Predicate right) implements Predicate {
+
+        @Override
+        public boolean test(Record record) {
+            return left.test(record) && right.test(record);
+        }
+
+        @Override
+        public void filter(List<Record> batch, boolean[] selection) {
+            left.filter(batch, selection);
+            right.filter(batch, selection);
+        }
+    }
+
+    private record OrPredicate(Predicate left, Predicate right, boolean[] rest) implements Predicate {
+
+        OrPredicate(Predicate left, Predicate right) {
+            this(left, right, new boolean[BATCH_SIZE]);
+        }
+
+        @Override
+        public boolean test(Record record) {
+            return left.test(record) || right.test(record);
+        }
+
+        @Override
+        public void filter(List<Record> batch, boolean[] selection) {
+            System.arraycopy(selection, 0, rest, 0, batch.size());
+            left.filter(batch, selection);
+            // the right side only sees the records the left side rejected
+            for (int i = 0; i < batch.size(); i++) {
+                rest[i] &= !selection[i];
+            }
+            right.filter(batch, rest);
+            for (int i = 0; i < batch.size(); i++) {
+                selection[i] |= rest[i];
+            }
+        }
+    }
+
+    private record NotPredicate(Predicate operand, boolean[] matched) implements Predicate {
+
+        NotPredicate(Predicate operand) {
+            this(operand, new boolean[BATCH_SIZE]);
+        }
+
+        @Override
+        public boolean test(Record record) {
+            return !operand.test(record);
+        }
+
+        @Override
+        public void filter(List<Record> batch, boolean[] selection) {
+            System.arraycopy(selection, 0, matched, 0, batch.size());
+            operand.filter(batch, matched);
+            for (int i = 0; i < batch.size(); i++) {
+                selection[i] &= !matched[i];
+            }
+        }
+    }
+
+    private static Predicate compilePredicate(TopicQuery.Expr expr, Map<String, Integer> columnIndexes) {
+        return switch (expr) {
+            case TopicQuery.And and -> new AndPredicate(compilePredicate(and.left(), columnIndexes), compilePredicate(and.right(), columnIndexes));
+            case TopicQuery.Or or -> new OrPredicate(compilePredicate(or.left(), columnIndexes), compilePredicate(or.right(), columnIndexes));
+            case TopicQuery.Not not -> new NotPredicate(compilePredicate(not.operand(), columnIndexes));
+            case TopicQuery.IsNull isNull -> {
+                var operand = compileValue(isNull.operand(), columnIndexes);
+                yield record -> operand.get(record) == null;
+            }
+            case TopicQuery.In in -> {
+                var operand = compileValue(in.operand(), columnIndexes);
+                var values = in.values().stream().map(it -> compileValue(it, columnIndexes)).toArray(Value[]::new);
+                yield record -> {
+                    var value = operand.get(record);
+                    if (value == null) return false;
+                    for (var candidate : values) {
+                        var other = candidate.get(record);
+                        if (other != null && compare(value, other) == 0) return true;
+                    }
+                    return false;
+                };
+            }
+            case TopicQuery.Compare compare when compare.operator() == TopicQuery.Compare.Operator.LIKE -> {
+                var operand = compileValue(compare.left(), columnIndexes);
+                var pattern = likePattern(String.valueOf(((TopicQuery.Literal) compare.right()).value()));
+                yield record -> {
+                    var value = operand.get(record);
+                    return value != null && pattern.matcher(value.toString()).matches();
+                };
+            }
+            case TopicQuery.Compare compare -> {
+                var left = compileValue(compare.left(), columnIndexes);
+                var right = compileValue(compare.right(), columnIndexes);
+                var operator = compare.operator();
+                yield record -> {
+                    var a = left.get(record);
+                    var b = right.get(record);
+                    if (a == null || b == null) return false;
+                    var result = compare(a, b);
+                    return switch (operator) {
+                        case EQ -> result == 0;
+                        case NE -> result != 0;
+                        case LT -> result < 0;
+                        case LE -> result <= 0;
+                        case GT -> result > 0;
+                        case GE -> result >= 0;
+                        case LIKE -> throw new IllegalStateException();
+                    };
+                };
+            }
+            // a field or constant on its own holds when it is true
+            default -> {
+                var value = compileValue(expr, columnIndexes);
+                yield record -> Boolean.TRUE.equals(value.get(record));
+            }
+        };
+    }
+
+    private static Value compileValue(TopicQuery.Expr expr, Map<String, Integer> columnIndexes) {
+        return switch (expr) {
+            case TopicQuery.Field field -> switch (field.path()) {
+                case "timestamp" -> Record::getTimestamp;
+                case "partition" -> record -> (long) record.getPartition();
+                case "offset" -> Record::getOffset;
+                default -> {
+                    int index = columnIndexes.get(field.path());
+                    yield record -> record.getColumns().get(index);
+                }
+            };
+            case TopicQuery.Literal literal -> {
+                var value = literal.value();
+                yield record -> value;
+            }
+            case TopicQuery.Arithmetic arithmetic -> {
+                var left = compileValue(arithmetic.left(), columnIndexes);
+                var right = compileValue(arithmetic.right(), columnIndexes);
+                yield record -> arithmetic.apply(left.get(record), right.get(record));
+            }
+            default -> {
+                var predicate = compilePredicate(expr, columnIndexes);
+                yield predicate::test;
+            }
+        };
+    }
+
+    private static Pattern likePattern(String like) {
+        var regex = new StringBuilder();
+        var literal = new StringBuilder();
+        for (var c : like.toCharArray()) {
+            if (c != '%' && c != '_') {
+                literal.append(c);
+                continue;
+            }
+            if (!literal.isEmpty()) regex.append(Pattern.quote(literal.toString()));
+            literal.setLength(0);
+            regex.append(c == '%' ? ".*" : ".");
+        }
+        if (!literal.isEmpty()) regex.append(Pattern.quote(literal.toString()));
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Orders numbers numerically, booleans as {@code false < true} and anything else by its text.
+     */
+    static int compare(Object a, Object b) {
+        if (a instanceof Long x && b instanceof Long y) return Long.compare(x, y);
+        if (a instanceof Number x && b instanceof Number y) return Double.compare(x.doubleValue(), y.doubleValue());
+        if (a instanceof Boolean x && b instanceof Boolean y) return Boolean.compare(x, y);
+        return a.toString().compareTo(b.toString());
+    }
+
+    private static Comparator<Object[]> rowComparator(List<TopicQuery.Order> orderBy) {
+        Comparator<Object[]> result = null;
+        for (var order : orderBy) {
+            Comparator<Object> values = Comparator.nullsFirst(TopicQueryService::compare);
+            Comparator<Object[]> column = Comparator.comparing(row -> row[order.column()], order.descending() ? values.reversed() : values);
+            result = result == null ? column : result.thenComparing(column);
+        }
+        return result;
+    }
+}
@@ -2,6 +2,7 @@ package com.prafka.core.service;
 
 import com.prafka.core.model.Topic;
 import com.prafka.core.util.StreamUtils;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.apache.kafka.clients.admin.ListTopicsOptions;
@@ -25,6 +26,13 @@ import java.util.stream.Collectors;
 @Singleton
 public class TopicService extends AbstractService {
 
+    private final OffsetService offsetService;
+
+    @Inject
+    public TopicService(OffsetService offsetService) {
+        this.offsetService = offsetService;
+    }
+
     public CompletableFuture<Set<String>> getAllNames(String clusterId) {
         return adminClient(clusterId)
                 .listTopics(new ListTopicsOptions().listInternal(true))
@@ -34,27 +42,26 @@ public class TopicService extends AbstractService {
     }
 
     public CompletableFuture<Map<String, Topic>> getAll(String clusterId, Collection<String> topicNameList) {
-        return adminClient(clusterId)
-                .describeTopics(topicNameList)
-                .topicNameValues()
-                .values().stream()
-                .map(StreamUtils::mapKafkaFutureToList)
-                .reduce(StreamUtils.combineFutureList())
-                .orElseGet(StreamUtils.completeFutureEmptyList())
-                .thenApplyAsync(topicDescriptionList -> {
+        return StreamUtils.collectKafkaFutures(adminClient(clusterId).describeTopics(topicNameList).topicNameValues().values())
+                .thenCompose(topicDescriptionList -> {
                     var topicPartitionList = topicDescriptionList.stream()
                             .flatMap(topicDescription ->
                                     topicDescription.partitions().stream()
                                             .map(topicPartitionInfo -> new TopicPartition(topicDescription.name(), topicPartitionInfo.partition()))
                             )
                             .toList();
-                    try (var consumer = consumer(clusterId)) {
-                        var beginOffsetMap = consumer.beginningOffsets(topicPartitionList);
-                        var endOffsetMap = consumer.endOffsets(topicPartitionList);
-                        return topicDescriptionList.stream()
-                                .map(topicDescription -> Map.entry(topicDescription.name(), new Topic(topicDescription, beginOffsetMap, endOffsetMap)))
-                                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-                    }
+                    return offsetService.getBeginOffsets(clusterId, topicPartitionList)
+                            .thenCombine(offsetService.getEndOffsets(clusterId, topicPartitionList), (beginOffsetMap, endOffsetMap) -> {
+                                var unresolvedPartitions = topicPartitionList.stream()
+                                        .filter(it -> !beginOffsetMap.containsKey(it) || !endOffsetMap.containsKey(it))
+                                        .toList();
+                                if (!unresolvedPartitions.isEmpty()) {
+                                    log.warn("Offsets of partitions {} could not be resolved, they are taken as empty", unresolvedPartitions);
+                                }
+                                return topicDescriptionList.stream()
+                                        .map(topicDescription -> Map.entry(topicDescription.name(), new Topic(topicDescription, beginOffsetMap, endOffsetMap)))
+                                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                            });
                 });
     }
 
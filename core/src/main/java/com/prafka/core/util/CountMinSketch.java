@@ -0,0 +1,57 @@
+package com.prafka.core.util;
+
+/**
+ * Frequency estimator with fixed memory.
+ *
+ * <p>Values are counted by their 64-bit hash (see {@link HyperLogLog#hash(byte[])}) in {@code depth} rows of
+ * {@code width} counters, each row indexed by a different combination of the two halves of the hash. The
+ * estimate is the smallest counter of the value, which never undercounts and overcounts by at most
+ * {@code e / width} of all added values with probability {@code 1 - e^-depth}. Adding uses the conservative
+ * update, raising only the counters that are below the new estimate, which keeps the overcount of rare
+ * values low on skewed data.
+ *
+ * <p>Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] counts;
+
+    /**
+     * @param width number of counters per row, a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1) throw new IllegalArgumentException("Depth must be positive: " + depth);
+        if (width < 1 || Integer.bitCount(width) != 1) throw new IllegalArgumentException("Width must be a power of two: " + width);
+        this.depth = depth;
+        this.width = width;
+        this.counts = new long[depth * width];
+    }
+
+    /**
+     * Counts one occurrence of the value and returns its new estimated count.
+     */
+    public long add(long hash) {
+        var estimate = estimate(hash) + 1;
+        for (int row = 0; row < depth; row++) {
+            var index = index(row, hash);
+            if (counts[index] < estimate) counts[index] = estimate;
+        }
+        return estimate;
+    }
+
+    public long estimate(long hash) {
+        var estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[index(row, hash)]);
+        }
+        return estimate;
+    }
+
+    private int index(int row, long hash) {
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+}
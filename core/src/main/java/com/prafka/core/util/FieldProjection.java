@@ -0,0 +1,280 @@
+package com.prafka.core.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.WireFormat;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.util.Utf8;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fields of the key and value read from serialized records without decoding the whole payloads.
+ *
+ * <p>Each column is a JSON path whose first segment selects the side, e.g. {@code value.customerId} or
+ * {@code key.items[0].id}. JSON payloads are scanned with a {@link RawJsonPath}; Avro payloads are read with
+ * a reader schema reduced to the projected fields, so the decoder skips all others; Protobuf payloads are
+ * walked on the wire, skipping fields off the path. Map and group fields of Protobuf messages fall back to
+ * decoding the message that holds them.
+ *
+ * <p>Values are {@link Long}, {@link Double}, {@link Boolean} or {@link String}; nested objects and arrays
+ * are their compact JSON text and absent fields are {@code null}.
+ */
+public final class FieldProjection {
+
+    private final List<Column> columns;
+    private final RawJsonPath[] rawPaths;
+    private final Map<Pair<Boolean, Schema>, GenericDatumReader<Object>> avroReaders = new ConcurrentHashMap<>();
+
+    private FieldProjection(List<Column> columns) {
+        this.columns = columns;
+        this.rawPaths = columns.stream().map(it -> new RawJsonPath(it.segments())).toArray(RawJsonPath[]::new);
+    }
+
+    public static FieldProjection compile(List<String> paths) {
+        return new FieldProjection(paths.stream().map(FieldProjection::column).toList());
+    }
+
+    /**
+     * Parses a path into the side it selects and the path segments within the payload.
+     *
+     * @throws IllegalArgumentException when the path does not start with {@code key} or {@code value}
+     */
+    public static Column column(String path) {
+        var segments = JsonPathUtils.parse(path);
+        if (segments.isEmpty() || !(segments.getFirst() instanceof String side) || !side.equals("key") && !side.equals("value")) {
+            throw new IllegalArgumentException("Field path must start with key or value: " + path);
+        }
+        return new Column(path, side.equals("key"), List.copyOf(segments.subList(1, segments.size())));
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    public boolean hasColumns(boolean isKey) {
+        return columns.stream().anyMatch(it -> it.isKey() == isKey);
+    }
+
+    /**
+     * Reads the columns of one side from a JSON payload starting at {@code offset}.
+     */
+    public void readJson(byte[] payload, int offset, boolean isKey, Object[] values) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).isKey() != isKey) continue;
+            if (columns.get(i).segments().isEmpty()) {
+                values[i] = parseValue(new String(payload, offset, payload.length - offset, StandardCharsets.UTF_8).trim());
+                continue;
+            }
+            var pos = rawPaths[i].find(payload, offset);
+            var end = RawJsonPath.skipValue(payload, pos);
+            values[i] = end < 0 ? null : parseValue(new String(payload, pos, end - pos, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Reads the columns of one side from an Avro binary payload starting at {@code offset}.
+     */
+    public void readAvro(byte[] payload, int offset, Schema writer, boolean isKey, Object[] values) throws IOException {
+        var reader = avroReaders.computeIfAbsent(Pair.of(isKey, writer), it -> new GenericDatumReader<>(writer, avroReaderSchema(writer, isKey)));
+        var datum = reader.read(null, DecoderFactory.get().binaryDecoder(payload, offset, payload.length - offset, null));
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).isKey() == isKey) values[i] = avroValue(datum, columns.get(i).segments());
+        }
+    }
+
+    /**
+     * Reads the columns of one side from a Protobuf message of type {@code descriptor} starting at {@code offset}.
+     */
+    public void readProtobuf(byte[] payload, int offset, Descriptors.Descriptor descriptor, boolean isKey, Object[] values) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).isKey() == isKey) values[i] = protobufValue(payload, offset, payload.length, descriptor, columns.get(i).segments(), 0);
+        }
+    }
+
+    private Schema avroReaderSchema(Schema writer, boolean isKey) {
+        var paths = columns.stream().filter(it -> it.isKey() == isKey).map(Column::segments).toList();
+        try {
+            return avroProjection(writer, paths);
+        } catch (RuntimeException e) {
+            // e.g. a named type projected differently at two places, read everything instead
+            return writer;
+        }
+    }
+
+    static Schema avroProjection(Schema schema, List<List<Object>> paths) {
+        if (paths.stream().anyMatch(List::isEmpty)) return schema;
+        return switch (schema.getType()) {
+            case RECORD -> {
+                var fields = new ArrayList<Schema.Field>();
+                for (var field : schema.getFields()) {
+                    var rest = paths.stream().filter(it -> field.name().equals(it.getFirst())).map(it -> it.subList(1, it.size())).toList();
+                    if (!rest.isEmpty()) fields.add(new Schema.Field(field, avroProjection(field.schema(), rest)));
+                }
+                yield Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError(), fields);
+            }
+            case UNION -> Schema.createUnion(schema.getTypes().stream().map(it -> avroProjection(it, paths)).toList());
+            case ARRAY -> Schema.createArray(avroProjection(schema.getElementType(), paths.stream().map(it -> it.subList(1, it.size())).toList()));
+            case MAP -> Schema.createMap(avroProjection(schema.getValueType(), paths.stream().map(it -> it.subList(1, it.size())).toList()));
+            default -> schema;
+        };
+    }
+
+    private static Object avroValue(Object datum, List<Object> segments) {
+        var current = datum;
+        for (var segment : segments) {
+            if (current instanceof GenericRecord record && segment instanceof String name) {
+                current = record.getSchema().getField(name) == null ? null : record.get(name);
+            } else if (current instanceof List<?> list && segment instanceof Integer index) {
+                current = index < list.size() ? list.get(index) : null;
+            } else if (current instanceof Map<?, ?> map && segment instanceof String name) {
+                current = map.containsKey(name) ? map.get(name) : map.get(new Utf8(name));
+            } else {
+                return null;
+            }
+        }
+        return switch (current) {
+            case null -> null;
+            case Integer value -> value.longValue();
+            case Long value -> value;
+            case Float value -> value.doubleValue();
+            case Double value -> value;
+            case Boolean value -> value;
+            case CharSequence value -> value.toString();
+            case GenericEnumSymbol<?> value -> value.toString();
+            default -> GenericData.get().toString(current);
+        };
+    }
+
+    private static Object protobufValue(byte[] payload, int start, int end, Descriptors.Descriptor type, List<Object> segments, int depth) throws IOException {
+        if (depth == segments.size()) {
+            return JsonTreeUtils.fromProtobuf(DynamicMessage.parseFrom(type, CodedInputStream.newInstance(payload, start, end - start))).toString();
+        }
+        if (!(segments.get(depth) instanceof String name)) return null;
+        var field = protobufField(type, name);
+        if (field == null) return null;
+        var next = depth + 1;
+        if (field.isMapField() || field.getType() == Descriptors.FieldDescriptor.Type.GROUP
+                || field.isRepeated() && (next == segments.size() || !(segments.get(next) instanceof Integer))) {
+            // map entries and whole repeated fields are spread over the message, decode it and read the rest of the path
+            var tree = JsonTreeUtils.fromProtobuf(DynamicMessage.parseFrom(type, CodedInputStream.newInstance(payload, start, end - start)));
+            var rest = new ArrayList<>(segments.subList(depth, segments.size()));
+            rest.set(0, field.getJsonName());
+            return JsonPathUtils.read(tree, rest).map(FieldProjection::jsonValue).orElse(null);
+        }
+        var index = field.isRepeated() ? (int) (Integer) segments.get(next++) : -1;
+        var input = CodedInputStream.newInstance(payload, start, end - start);
+        var occurrence = 0;
+        Object result = null;
+        while (!input.isAtEnd()) {
+            var tag = input.readTag();
+            if (WireFormat.getTagFieldNumber(tag) != field.getNumber()) {
+                input.skipField(tag);
+                continue;
+            }
+            if (field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+                var length = input.readRawVarint32();
+                var fieldStart = start + input.getTotalBytesRead();
+                if (!field.isRepeated() || occurrence++ == index) {
+                    return protobufValue(payload, fieldStart, fieldStart + length, field.getMessageType(), segments, next);
+                }
+                input.skipRawBytes(length);
+            } else if (field.isPackable() && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                // packed repeated scalars
+                var limit = input.pushLimit(input.readRawVarint32());
+                while (input.getBytesUntilLimit() > 0) {
+                    var value = protobufScalar(input, field);
+                    if (occurrence++ == index) return next == segments.size() ? value : null;
+                }
+                input.popLimit(limit);
+            } else {
+                var value = protobufScalar(input, field);
+                if (field.isRepeated() && occurrence++ == index) return next == segments.size() ? value : null;
+                // the last occurrence of a singular scalar wins
+                if (!field.isRepeated()) result = value;
+            }
+        }
+        return next == segments.size() ? result : null;
+    }
+
+    private static Descriptors.FieldDescriptor protobufField(Descriptors.Descriptor type, String name) {
+        var field = type.findFieldByName(name);
+        if (field != null) return field;
+        for (var candidate : type.getFields()) {
+            if (candidate.getJsonName().equals(name)) return candidate;
+        }
+        return null;
+    }
+
+    private static Object protobufScalar(CodedInputStream input, Descriptors.FieldDescriptor field) throws IOException {
+        return switch (field.getType()) {
+            case DOUBLE -> input.readDouble();
+            case FLOAT -> (double) input.readFloat();
+            case INT64 -> input.readInt64();
+            case UINT64 -> input.readUInt64();
+            case INT32 -> (long) input.readInt32();
+            case FIXED64 -> input.readFixed64();
+            case FIXED32 -> Integer.toUnsignedLong(input.readFixed32());
+            case BOOL -> input.readBool();
+            case STRING -> input.readStringRequireUtf8();
+            case BYTES -> Base64.getEncoder().encodeToString(input.readByteArray());
+            case UINT32 -> Integer.toUnsignedLong(input.readUInt32());
+            case ENUM -> {
+                var number = input.readEnum();
+                var value = field.getEnumType().findValueByNumber(number);
+                yield value == null ? (Object) (long) number : value.getName();
+            }
+            case SFIXED32 -> (long) input.readSFixed32();
+            case SFIXED64 -> input.readSFixed64();
+            case SINT32 -> (long) input.readSInt32();
+            case SINT64 -> input.readSInt64();
+            case MESSAGE, GROUP -> throw new IllegalStateException("Not a scalar field: " + field.getFullName());
+        };
+    }
+
+    private static Object parseValue(String text) {
+        try {
+            return jsonValue(JsonParser.parseString(text));
+        } catch (JsonParseException e) {
+            // plain text payload
+            return text;
+        }
+    }
+
+    private static Object jsonValue(JsonElement element) {
+        if (element == null || element.isJsonNull()) return null;
+        if (!element.isJsonPrimitive()) return element.toString();
+        var primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) return primitive.getAsBoolean();
+        if (primitive.isNumber()) {
+            try {
+                return Long.parseLong(primitive.getAsString());
+            } catch (NumberFormatException e) {
+                return primitive.getAsDouble();
+            }
+        }
+        return primitive.getAsString();
+    }
+
+    /**
+     * Projected field: its path as entered, the side it reads and the path segments within the payload.
+     */
+    public record Column(String path, boolean isKey, List<Object> segments) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.prafka.core.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.prafka.core.model.DecodedPayload;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.janino.ScriptEvaluator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles Java-syntax filter expressions to bytecode using Janino.
+ *
+ * <p>The code is the body of a method returning {@code boolean}; a single expression without
+ * a {@code return} statement is accepted as well. The following parameters are in scope:
+ * {@code key} and {@code value} (deserialized strings), {@code headers}, {@code offset},
+ * {@code partition}, {@code timestamp} and {@code record}, a {@link Fields} accessor with typed
+ * JSON path lookups, e.g. {@code record.valueLong("order.amount") > 100}.
+ *
+ * <p>An expression is compiled once and evaluated without reflection, which is much cheaper
+ * per record than a script engine invocation.
+ */
+public class JavaExpressionCompiler {
+
+    private static final String[] PARAMETER_NAMES = {"key", "value", "headers", "offset", "partition", "timestamp", "record"};
+    private static final Pattern RETURN_PATTERN = Pattern.compile("\\breturn\\b");
+    private static final int MAX_CACHED_PATHS = 1024;
+    private static final Map<String, List<Object>> PATH_SEGMENTS = new ConcurrentHashMap<>();
+
+    public interface Predicate {
+        boolean test(String key, String value, Map<String, String> headers, long offset, int partition, long timestamp, Fields record) throws Exception;
+    }
+
+    /**
+     * Compiles the code as a single expression, or as a method body when it is not one.
+     */
+    public static Predicate compile(String code) throws CompileException {
+        var trimmed = code.trim();
+        var expression = trimmed.endsWith(";") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+        try {
+            return compileScript("return (" + expression + ");");
+        } catch (CompileException expressionError) {
+            try {
+                return compileScript(trimmed);
+            } catch (CompileException statementError) {
+                // report the error of the form the code most likely is
+                throw RETURN_PATTERN.matcher(trimmed).find() ? statementError : expressionError;
+            }
+        }
+    }
+
+    private static Predicate compileScript(String script) throws CompileException {
+        var evaluator = new ScriptEvaluator();
+        evaluator.setParentClassLoader(JavaExpressionCompiler.class.getClassLoader());
+        evaluator.setDefaultImports("java.util.*", "java.time.*");
+        return (Predicate) evaluator.createFastEvaluator(script, Predicate.class, PARAMETER_NAMES);
+    }
+
+    /**
+     * Returns the parsed segments of a path, parsed once per path string. Expressions use a handful of
+     * literal paths; past {@value #MAX_CACHED_PATHS} distinct paths, e.g. built per record, they are parsed
+     * on each lookup instead of growing the cache.
+     */
+    static List<Object> pathSegments(String path) {
+        var segments = PATH_SEGMENTS.get(path);
+        if (segments != null) return segments;
+        segments = List.copyOf(JsonPathUtils.parse(path));
+        if (PATH_SEGMENTS.size() < MAX_CACHED_PATHS) PATH_SEGMENTS.putIfAbsent(path, segments);
+        return segments;
+    }
+
+    /**
+     * Typed view over a record passed to compiled expressions. Key and value are parsed as JSON
+     * at most once, on the first path lookup, unless they were decoded into a tree already.
+     * Missing fields return {@code null}.
+     */
+    public static class Fields {
+
+        private final DecodedPayload key;
+        private final DecodedPayload value;
+        private final Map<String, String> headers;
+        private Optional<JsonElement> keyJson;
+        private Optional<JsonElement> valueJson;
+
+        public Fields(String key, String value, Map<String, String> headers) {
+            this(DecodedPayload.ofText(key), DecodedPayload.ofText(value), headers);
+        }
+
+        public Fields(DecodedPayload key, DecodedPayload value, Map<String, String> headers) {
+            this.key = key;
+            this.value = value;
+            this.headers = headers;
+        }
+
+        public String key() {
+            return key.text();
+        }
+
+        public String value() {
+            return value.text();
+        }
+
+        public String header(String name) {
+            return headers.get(name);
+        }
+
+        public boolean hasKey(String path) {
+            return keyField(path).isPresent();
+        }
+
+        public String keyString(String path) {
+            return keyField(path).map(Fields::asString).orElse(null);
+        }
+
+        public Long keyLong(String path) {
+            return keyField(path).map(JsonElement::getAsLong).orElse(null);
+        }
+
+        public boolean hasValue(String path) {
+            return valueField(path).isPresent();
+        }
+
+        public String valueString(String path) {
+            return valueField(path).map(Fields::asString).orElse(null);
+        }
+
+        public Long valueLong(String path) {
+            return valueField(path).map(JsonElement::getAsLong).orElse(null);
+        }
+
+        public Double valueDouble(String path) {
+            return valueField(path).map(JsonElement::getAsDouble).orElse(null);
+        }
+
+        public Boolean valueBoolean(String path) {
+            return valueField(path).map(JsonElement::getAsBoolean).orElse(null);
+        }
+
+        private Optional<JsonElement> keyField(String path) {
+            if (keyJson == null) keyJson = parse(key);
+            return keyJson.flatMap(it -> JsonPathUtils.read(it, pathSegments(path)));
+        }
+
+        private Optional<JsonElement> valueField(String path) {
+            if (valueJson == null) valueJson = parse(value);
+            return valueJson.flatMap(it -> JsonPathUtils.read(it, pathSegments(path)));
+        }
+
+        private static Optional<JsonElement> parse(DecodedPayload payload) {
+            var tree = payload.tree();
+            if (tree.isPresent() || payload.text() == null) return tree;
+            try {
+                return Optional.of(JsonParser.parseString(payload.text()));
+            } catch (Exception ignored) {
+                return Optional.empty();
+            }
+        }
+
+        private static String asString(JsonElement element) {
+            return element.isJsonPrimitive() ? element.getAsString() : element.toString();
+        }
+    }
+}
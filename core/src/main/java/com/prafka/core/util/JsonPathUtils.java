@@ -0,0 +1,59 @@
+package com.prafka.core.util;
+
+import com.google.gson.JsonElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Utility methods for reading nested fields from a parsed JSON tree.
+ *
+ * <p>Paths use dot notation with optional array indexes, e.g. {@code user.address.city}
+ * or {@code items[0].id}. A leading {@code $.} is accepted and ignored.
+ */
+public class JsonPathUtils {
+
+    public static Optional<JsonElement> read(JsonElement root, String path) {
+        return read(root, parse(path));
+    }
+
+    /**
+     * Reads the field at already {@linkplain #parse(String) parsed} path segments.
+     */
+    public static Optional<JsonElement> read(JsonElement root, List<Object> segments) {
+        var current = root;
+        for (var segment : segments) {
+            if (current == null || current.isJsonNull()) return Optional.empty();
+            if (segment instanceof Integer index) {
+                if (!current.isJsonArray() || index >= current.getAsJsonArray().size()) return Optional.empty();
+                current = current.getAsJsonArray().get(index);
+            } else {
+                if (!current.isJsonObject()) return Optional.empty();
+                current = current.getAsJsonObject().get((String) segment);
+            }
+        }
+        return current == null || current.isJsonNull() ? Optional.empty() : Optional.of(current);
+    }
+
+    /**
+     * Splits a path into field names ({@link String}) and array indexes ({@link Integer}).
+     */
+    public static List<Object> parse(String path) {
+        var segments = new ArrayList<Object>();
+        if (path == null || path.isBlank() || path.equals("$")) return segments;
+        var normalized = path.startsWith("$.") ? path.substring(2) : path;
+        for (var part : normalized.split("\\.")) {
+            var bracket = part.indexOf('[');
+            var name = bracket < 0 ? part : part.substring(0, bracket);
+            if (!name.isEmpty()) segments.add(name);
+            while (bracket >= 0) {
+                var close = part.indexOf(']', bracket);
+                if (close < 0) throw new IllegalArgumentException("Invalid JSON path: " + path);
+                segments.add(Integer.parseInt(part.substring(bracket + 1, close).trim()));
+                bracket = part.indexOf('[', close);
+            }
+        }
+        return segments;
+    }
+}
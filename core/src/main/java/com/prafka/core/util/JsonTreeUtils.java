@@ -0,0 +1,167 @@
+package com.prafka.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility methods for building JSON trees directly from deserialized objects.
+ *
+ * <p>The trees match the JSON the libraries themselves produce, {@code AvroSchemaUtils.toJson} for Avro and
+ * {@link JsonFormat} for Protobuf, so a record looks the same whichever form it is rendered from, but no
+ * JSON text is written and parsed back on the way.
+ */
+public class JsonTreeUtils {
+
+    /**
+     * Converts an Avro datum to the tree of its Avro JSON encoding: non-null union values are wrapped in an
+     * object named after the branch, bytes and fixed values are ISO-8859-1 strings.
+     */
+    public static JsonElement fromAvro(Object datum, Schema schema) {
+        if (datum == null) return JsonNull.INSTANCE;
+        return switch (schema.getType()) {
+            case RECORD -> {
+                var record = (IndexedRecord) datum;
+                var object = new JsonObject();
+                for (var field : schema.getFields()) {
+                    object.add(field.name(), fromAvro(record.get(field.pos()), field.schema()));
+                }
+                yield object;
+            }
+            case ARRAY -> {
+                var array = new JsonArray();
+                for (var item : (Collection<?>) datum) array.add(fromAvro(item, schema.getElementType()));
+                yield array;
+            }
+            case MAP -> {
+                var object = new JsonObject();
+                for (var entry : ((Map<?, ?>) datum).entrySet()) {
+                    object.add(entry.getKey().toString(), fromAvro(entry.getValue(), schema.getValueType()));
+                }
+                yield object;
+            }
+            case UNION -> {
+                var branch = schema.getTypes().get(GenericData.get().resolveUnion(schema, datum));
+                if (branch.getType() == Schema.Type.NULL) yield JsonNull.INSTANCE;
+                var object = new JsonObject();
+                object.add(branch.getFullName(), fromAvro(datum, branch));
+                yield object;
+            }
+            case ENUM -> new JsonPrimitive(datum instanceof GenericEnumSymbol<?> symbol ? symbol.toString() : String.valueOf(datum));
+            case FIXED -> new JsonPrimitive(new String(((GenericFixed) datum).bytes(), StandardCharsets.ISO_8859_1));
+            case BYTES -> {
+                var buffer = ((ByteBuffer) datum).duplicate();
+                var bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                yield new JsonPrimitive(new String(bytes, StandardCharsets.ISO_8859_1));
+            }
+            case STRING -> new JsonPrimitive(datum.toString());
+            case INT, LONG -> new JsonPrimitive((Number) datum);
+            case FLOAT, DOUBLE -> number(((Number) datum).doubleValue(), (Number) datum);
+            case BOOLEAN -> new JsonPrimitive((Boolean) datum);
+            case NULL -> JsonNull.INSTANCE;
+        };
+    }
+
+    /**
+     * Converts a Protobuf message to the tree {@link JsonFormat#printer()} would print: fields under their
+     * JSON names, unset fields omitted, 64-bit integers as strings, enums by name and bytes in Base64.
+     */
+    public static JsonElement fromProtobuf(Message message) {
+        if (isWellKnownType(message.getDescriptorForType())) {
+            // well-known types have dedicated JSON forms, e.g. a timestamp string, which JsonFormat knows
+            return JsonParser.parseString(StreamUtils.tryReturn(() -> JsonFormat.printer().print(message)));
+        }
+        var object = new JsonObject();
+        for (var entry : message.getAllFields().entrySet()) {
+            var field = entry.getKey();
+            var value = entry.getValue();
+            if (field.isMapField()) {
+                var map = new JsonObject();
+                var keyField = field.getMessageType().findFieldByNumber(1);
+                var valueField = field.getMessageType().findFieldByNumber(2);
+                for (var item : (List<?>) value) {
+                    var mapEntry = (Message) item;
+                    map.add(fromProtobuf(keyField, mapEntry.getField(keyField)).getAsString(), fromProtobuf(valueField, mapEntry.getField(valueField)));
+                }
+                object.add(field.getJsonName(), map);
+            } else if (field.isRepeated()) {
+                var array = new JsonArray();
+                for (var item : (List<?>) value) array.add(fromProtobuf(field, item));
+                object.add(field.getJsonName(), array);
+            } else {
+                object.add(field.getJsonName(), fromProtobuf(field, value));
+            }
+        }
+        return object;
+    }
+
+    private static JsonElement fromProtobuf(Descriptors.FieldDescriptor field, Object value) {
+        return switch (field.getType()) {
+            case MESSAGE, GROUP -> fromProtobuf((Message) value);
+            case ENUM -> {
+                var enumValue = (Descriptors.EnumValueDescriptor) value;
+                if (enumValue.getType().getFullName().equals("google.protobuf.NullValue")) yield JsonNull.INSTANCE;
+                yield enumValue.getIndex() == -1 ? new JsonPrimitive(enumValue.getNumber()) : new JsonPrimitive(enumValue.getName());
+            }
+            case INT64, SINT64, SFIXED64 -> new JsonPrimitive(String.valueOf(value));
+            case UINT64, FIXED64 -> new JsonPrimitive(Long.toUnsignedString((Long) value));
+            case UINT32, FIXED32 -> new JsonPrimitive(Integer.toUnsignedLong((Integer) value));
+            case INT32, SINT32, SFIXED32 -> new JsonPrimitive((Integer) value);
+            case FLOAT, DOUBLE -> number(((Number) value).doubleValue(), (Number) value);
+            case BOOL -> new JsonPrimitive((Boolean) value);
+            case STRING -> new JsonPrimitive((String) value);
+            case BYTES -> new JsonPrimitive(Base64.getEncoder().encodeToString(((ByteString) value).toByteArray()));
+        };
+    }
+
+    private static boolean isWellKnownType(Descriptors.Descriptor descriptor) {
+        return descriptor.getFile().getPackage().equals("google.protobuf");
+    }
+
+    /**
+     * Converts a Jackson tree, e.g. a JSON Schema payload, to a Gson tree.
+     */
+    public static JsonElement fromJackson(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) return JsonNull.INSTANCE;
+        if (node.isObject()) {
+            var object = new JsonObject();
+            for (var entry : node.properties()) object.add(entry.getKey(), fromJackson(entry.getValue()));
+            return object;
+        }
+        if (node.isArray()) {
+            var array = new JsonArray();
+            for (var item : node) array.add(fromJackson(item));
+            return array;
+        }
+        if (node.isNumber()) return new JsonPrimitive(node.numberValue());
+        if (node.isBoolean()) return new JsonPrimitive(node.booleanValue());
+        return new JsonPrimitive(node.asText());
+    }
+
+    private static JsonPrimitive number(double value, Number number) {
+        // like the JSON encoders of Avro and Protobuf, non-finite numbers are written as strings
+        if (Double.isNaN(value) || Double.isInfinite(value)) return new JsonPrimitive(number.toString());
+        return new JsonPrimitive(number);
+    }
+}
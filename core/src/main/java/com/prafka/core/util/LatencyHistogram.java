@@ -0,0 +1,82 @@
+package com.prafka.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of latencies in microseconds with bounded relative error.
+ *
+ * <p>Values below 128 are counted exactly; larger values fall into log-linear buckets, 64 per
+ * power of two, so every recorded value is reported within 1.6% of its real value, the same
+ * trade-off as an HDR histogram with two significant digits. Memory is fixed (a few thousand
+ * counters) regardless of the number of recorded values, and recording is a single atomic
+ * increment, so it can be called from producer callbacks at full send rate.
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int MIN_MAGNITUDE = 7;
+    private static final int MAX_MAGNITUDE = 40;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR_BUCKETS + (MAX_MAGNITUDE - MIN_MAGNITUDE + 1) * SUB_BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        var value = Math.clamp(micros, 0, MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        var count = 0L;
+        for (int i = 0; i < counts.length(); i++) count += counts.get(i);
+        return count;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of recorded values fall, 0 when empty.
+     */
+    public long percentile(double percent) {
+        var count = count();
+        if (count == 0) return 0;
+        var target = Math.max(1, (long) Math.ceil(Math.clamp(percent, 0, 100) / 100 * count));
+        var seen = 0L;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(highestEquivalentValue(i), max());
+        }
+        return max();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(count(), percentile(50), percentile(99), percentile(99.9), max());
+    }
+
+    private static int index(long value) {
+        if (value < LINEAR_BUCKETS) return (int) value;
+        var magnitude = 63 - Long.numberOfLeadingZeros(value);
+        var shift = magnitude - (MIN_MAGNITUDE - 1);
+        var subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (magnitude - MIN_MAGNITUDE) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BUCKETS) return index;
+        var magnitude = (index - LINEAR_BUCKETS) / SUB_BUCKETS + MIN_MAGNITUDE;
+        var subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        var shift = magnitude - (MIN_MAGNITUDE - 1);
+        return (((long) subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Latency percentiles in microseconds.
+     */
+    public record Snapshot(long count, long p50, long p99, long p999, long max) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.prafka.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JSON path resolved by scanning serialized JSON bytes.
+ *
+ * <p>Objects and arrays are walked member by member; values off the path are skipped by matching quotes
+ * and brackets without being decoded, and the scan stops at the value the path points to. Nothing is
+ * allocated while scanning, so records can be rejected before deserialization at the cost of a read
+ * over the prefix of the payload that precedes the field.
+ *
+ * <p>Payloads are expected to be well-formed; malformed input makes the path absent rather than failing.
+ */
+final class RawJsonPath {
+
+    private final byte[][] names;
+    private final int[] indexes;
+
+    /**
+     * @param segments field names ({@link String}) and array indexes ({@link Integer}), as returned by
+     *                 {@link JsonPathUtils#parse(String)}
+     */
+    RawJsonPath(List<Object> segments) {
+        names = new byte[segments.size()][];
+        indexes = new int[segments.size()];
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i) instanceof Integer index) indexes[i] = index;
+            else names[i] = ((String) segments.get(i)).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Returns the position of the first byte of the value at this path, or {@code -1} when it is absent.
+     */
+    int find(byte[] json) {
+        return find(json, 0);
+    }
+
+    /**
+     * Like {@link #find(byte[])} for JSON starting at {@code from}, e.g. after a schema registry header.
+     */
+    int find(byte[] json, int from) {
+        if (json == null) return -1;
+        var pos = skipWhitespace(json, from);
+        for (int i = 0; i < names.length && pos >= 0; i++) {
+            if (pos >= json.length) return -1;
+            pos = names[i] != null ? findMember(json, pos, names[i]) : findElement(json, pos, indexes[i]);
+        }
+        return pos < json.length ? pos : -1;
+    }
+
+    private static int findMember(byte[] json, int pos, byte[] name) {
+        if (json[pos] != '{') return -1;
+        pos = skipWhitespace(json, pos + 1);
+        while (pos >= 0 && pos < json.length && json[pos] == '"') {
+            var keyEnd = skipString(json, pos);
+            if (keyEnd < 0) return -1;
+            var matches = stringEquals(json, pos + 1, keyEnd - 1, name);
+            pos = skipWhitespace(json, keyEnd);
+            if (pos >= json.length || json[pos] != ':') return -1;
+            pos = skipWhitespace(json, pos + 1);
+            if (matches) return pos;
+            pos = next(json, skipValue(json, pos));
+        }
+        return -1;
+    }
+
+    private static int findElement(byte[] json, int pos, int index) {
+        if (json[pos] != '[') return -1;
+        pos = skipWhitespace(json, pos + 1);
+        if (pos < json.length && json[pos] == ']') return -1;
+        for (int i = 0; i < index && pos >= 0; i++) {
+            pos = next(json, skipValue(json, pos));
+        }
+        return pos;
+    }
+
+    /**
+     * Moves past the separator that follows a skipped value, returns {@code -1} at the end of the container.
+     */
+    private static int next(byte[] json, int pos) {
+        if (pos < 0) return -1;
+        pos = skipWhitespace(json, pos);
+        if (pos >= json.length || json[pos] != ',') return -1;
+        return skipWhitespace(json, pos + 1);
+    }
+
+    /**
+     * Returns the position after the value starting at {@code pos}, or {@code -1} when it is not terminated.
+     */
+    static int skipValue(byte[] json, int pos) {
+        if (pos < 0 || pos >= json.length) return -1;
+        var first = json[pos];
+        if (first == '"') return skipString(json, pos);
+        if (first == '{' || first == '[') {
+            var depth = 0;
+            while (pos < json.length) {
+                var b = json[pos];
+                if (b == '"') {
+                    pos = skipString(json, pos);
+                    if (pos < 0) return -1;
+                    continue;
+                }
+                if (b == '{' || b == '[') depth++;
+                else if ((b == '}' || b == ']') && --depth == 0) return pos + 1;
+                pos++;
+            }
+            return -1;
+        }
+        var start = pos;
+        while (pos < json.length && !isDelimiter(json[pos])) pos++;
+        return pos > start ? pos : -1;
+    }
+
+    /**
+     * Returns the position after the closing quote of the string starting at {@code pos}.
+     */
+    static int skipString(byte[] json, int pos) {
+        for (int i = pos + 1; i < json.length; i++) {
+            if (json[i] == '\\') i++;
+            else if (json[i] == '"') return i + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the unescaped content of a JSON string, {@code from} and {@code to} excluding the quotes,
+     * with UTF-8 bytes.
+     */
+    static boolean stringEquals(byte[] json, int from, int to, byte[] expected) {
+        if (!hasEscape(json, from, to)) {
+            return Arrays.equals(json, from, to, expected, 0, expected.length);
+        }
+        int i = from, j = 0;
+        while (i < to) {
+            if (json[i] != '\\') {
+                if (j >= expected.length || expected[j] != json[i]) return false;
+                i++;
+                j++;
+                continue;
+            }
+            if (i + 1 >= to) return false;
+            int codePoint;
+            if (json[i + 1] == 'u') {
+                codePoint = hex(json, i + 2, to);
+                i += 6;
+                if (codePoint >= 0 && Character.isHighSurrogate((char) codePoint) && i + 1 < to && json[i] == '\\' && json[i + 1] == 'u') {
+                    var low = hex(json, i + 2, to);
+                    if (low >= 0 && Character.isLowSurrogate((char) low)) {
+                        codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                        i += 6;
+                    }
+                }
+            } else {
+                codePoint = switch (json[i + 1]) {
+                    case '"', '\\', '/' -> json[i + 1];
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    default -> -1;
+                };
+                i += 2;
+            }
+            if (codePoint < 0) return false;
+            j = matchUtf8(codePoint, expected, j);
+            if (j < 0) return false;
+        }
+        return j == expected.length;
+    }
+
+    static boolean hasEscape(byte[] json, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (json[i] == '\\') return true;
+        }
+        return false;
+    }
+
+    private static int hex(byte[] json, int from, int to) {
+        if (from + 4 > to) return -1;
+        var value = 0;
+        for (int i = from; i < from + 4; i++) {
+            var digit = Character.digit(json[i], 16);
+            if (digit < 0) return -1;
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Compares the UTF-8 encoding of a code point with {@code expected} at {@code offset}, returns the
+     * offset after it or {@code -1} on mismatch.
+     */
+    private static int matchUtf8(int codePoint, byte[] expected, int offset) {
+        int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+        if (offset + length > expected.length) return -1;
+        for (int k = length - 1; k >= 0; k--) {
+            int b;
+            if (k == 0) b = length == 1 ? codePoint : (0xF00 >> length) & 0xff | codePoint;
+            else {
+                b = 0x80 | (codePoint & 0x3f);
+                codePoint >>>= 6;
+            }
+            if ((expected[offset + k] & 0xff) != (b & 0xff)) return -1;
+        }
+        return offset + length;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static int skipWhitespace(byte[] json, int pos) {
+        while (pos < json.length && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) pos++;
+        return pos;
+    }
+}
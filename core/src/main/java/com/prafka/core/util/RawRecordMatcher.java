@@ -0,0 +1,169 @@
+package com.prafka.core.util;
+
+import com.google.gson.JsonParser;
+import com.prafka.core.model.ConsumeFilter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiles {@link ConsumeFilter.PreFilter} conditions into a predicate over raw consumer records.
+ *
+ * <p>Search strings are encoded once; matching only compares bytes, so rejected records are never
+ * deserialized. All conditions must hold for a record to pass. Field conditions resolve their path with a
+ * {@link RawJsonPath} scan of the serialized key or value, after the schema registry header when the payload
+ * starts with its magic byte, which JSON text never does.
+ */
+public class RawRecordMatcher {
+
+    private static final byte[] NULL_LITERAL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final int SCHEMA_ID_HEADER_LENGTH = 5; // magic byte and schema id
+
+    public static Predicate<ConsumerRecord<byte[], byte[]>> compile(List<ConsumeFilter.PreFilter> preFilters) {
+        Predicate<ConsumerRecord<byte[], byte[]>> result = it -> true;
+        if (preFilters == null) return result;
+        for (var preFilter : preFilters) {
+            result = result.and(compile(preFilter));
+        }
+        return result;
+    }
+
+    private static Predicate<ConsumerRecord<byte[], byte[]>> compile(ConsumeFilter.PreFilter preFilter) {
+        var bytes = preFilter.value() == null ? null : preFilter.type() == ConsumeFilter.PreFilter.Type.KEY_BYTES_EQUALS
+                ? Base64.getDecoder().decode(preFilter.value())
+                : preFilter.value().getBytes(StandardCharsets.UTF_8);
+        var min = preFilter.min() == null ? Long.MIN_VALUE : preFilter.min();
+        var max = preFilter.max() == null ? Long.MAX_VALUE : preFilter.max();
+        return switch (preFilter.type()) {
+            case KEY_EQUALS, KEY_BYTES_EQUALS -> record -> Arrays.equals(record.key(), bytes);
+            case KEY_PREFIX -> record -> record.key() != null && bytes != null && startsWith(record.key(), bytes);
+            case VALUE_CONTAINS -> {
+                var skipTable = bytes == null ? null : skipTable(bytes);
+                yield record -> record.value() != null && bytes != null && indexOf(record.value(), bytes, skipTable) >= 0;
+            }
+            case HEADER_PRESENT -> record -> record.headers().lastHeader(preFilter.name()) != null;
+            case HEADER_EQUALS -> record -> {
+                for (var header : record.headers().headers(preFilter.name())) {
+                    if (Arrays.equals(header.value(), bytes)) return true;
+                }
+                return false;
+            };
+            case TIMESTAMP_RANGE -> record -> record.timestamp() >= min && record.timestamp() <= max;
+            case SIZE_RANGE -> record -> {
+                long size = Math.max(record.serializedKeySize(), 0) + Math.max(record.serializedValueSize(), 0);
+                return size >= min && size <= max;
+            };
+            case FIELD_EQUALS, FIELD_NOT_EQUALS, FIELD_CONTAINS, FIELD_PRESENT, FIELD_RANGE -> compileField(preFilter, bytes, min, max);
+        };
+    }
+
+    private static Predicate<ConsumerRecord<byte[], byte[]>> compileField(ConsumeFilter.PreFilter preFilter, byte[] bytes, long min, long max) {
+        var column = FieldProjection.column(preFilter.name());
+        var path = new RawJsonPath(column.segments());
+        Function<ConsumerRecord<byte[], byte[]>, byte[]> payload = column.isKey() ? ConsumerRecord::key : ConsumerRecord::value;
+        var literal = bytes == null ? NULL_LITERAL : bytes;
+        Predicate<byte[]> matcher = switch (preFilter.type()) {
+            case FIELD_EQUALS -> json -> fieldEquals(json, path.find(json, jsonStart(json)), literal);
+            case FIELD_NOT_EQUALS -> json -> !fieldEquals(json, path.find(json, jsonStart(json)), literal);
+            case FIELD_CONTAINS -> {
+                var skipTable = skipTable(literal);
+                yield json -> fieldContains(json, path.find(json, jsonStart(json)), preFilter.value(), literal, skipTable);
+            }
+            case FIELD_PRESENT -> json -> {
+                var pos = path.find(json, jsonStart(json));
+                return pos >= 0 && json[pos] != 'n';
+            };
+            case FIELD_RANGE -> json -> fieldInRange(json, path.find(json, jsonStart(json)), min, max);
+            default -> throw new IllegalArgumentException("Not a field pre-filter: " + preFilter.type());
+        };
+        return record -> matcher.test(payload.apply(record));
+    }
+
+    private static int jsonStart(byte[] json) {
+        return json != null && json.length > SCHEMA_ID_HEADER_LENGTH && json[0] == 0 ? SCHEMA_ID_HEADER_LENGTH : 0;
+    }
+
+    private static boolean fieldEquals(byte[] json, int pos, byte[] literal) {
+        if (pos < 0) return false;
+        var end = RawJsonPath.skipValue(json, pos);
+        if (end < 0 || json[pos] == '{' || json[pos] == '[') return false;
+        if (json[pos] == '"') return RawJsonPath.stringEquals(json, pos + 1, end - 1, literal);
+        return Arrays.equals(json, pos, end, literal, 0, literal.length);
+    }
+
+    private static boolean fieldContains(byte[] json, int pos, String value, byte[] literal, int[] skipTable) {
+        if (pos < 0 || json[pos] != '"' || value == null) return false;
+        var end = RawJsonPath.skipValue(json, pos);
+        if (end < 0) return false;
+        if (!RawJsonPath.hasEscape(json, pos + 1, end - 1)) return indexOf(json, pos + 1, end - 1, literal, skipTable) >= 0;
+        // escaped strings are rare, decode them instead of searching escape sequences
+        return JsonParser.parseString(new String(json, pos, end - pos, StandardCharsets.UTF_8)).getAsString().contains(value);
+    }
+
+    private static boolean fieldInRange(byte[] json, int pos, long min, long max) {
+        if (pos < 0) return false;
+        var end = RawJsonPath.skipValue(json, pos);
+        if (end < 0 || json[pos] != '-' && (json[pos] < '0' || json[pos] > '9')) return false;
+        var negative = json[pos] == '-';
+        var start = negative ? pos + 1 : pos;
+        // integers that fit in a long are compared exactly, anything else goes through a double
+        if (end > start && end - start <= 18) {
+            long value = 0;
+            var i = start;
+            while (i < end && json[i] >= '0' && json[i] <= '9') value = value * 10 + (json[i++] - '0');
+            if (i == end) {
+                if (negative) value = -value;
+                return value >= min && value <= max;
+            }
+        }
+        try {
+            var value = Double.parseDouble(new String(json, pos, end - pos, StandardCharsets.US_ASCII));
+            return value >= min && value <= max;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean startsWith(byte[] source, byte[] prefix) {
+        return source.length >= prefix.length && Arrays.equals(source, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    static int[] skipTable(byte[] pattern) {
+        var table = new int[256];
+        Arrays.fill(table, pattern.length);
+        for (int i = 0; i < pattern.length - 1; i++) {
+            table[pattern[i] & 0xff] = pattern.length - 1 - i;
+        }
+        return table;
+    }
+
+    /**
+     * Boyer-Moore-Horspool search of {@code pattern} in {@code source}.
+     */
+    static int indexOf(byte[] source, byte[] pattern, int[] skipTable) {
+        return indexOf(source, 0, source.length, pattern, skipTable);
+    }
+
+    /**
+     * Boyer-Moore-Horspool search of {@code pattern} in {@code source} between {@code from} and {@code to}.
+     */
+    static int indexOf(byte[] source, int from, int to, byte[] pattern, int[] skipTable) {
+        if (pattern.length == 0) return from;
+        var last = pattern.length - 1;
+        var i = from;
+        while (i <= to - pattern.length) {
+            var j = last;
+            while (source[i + j] == pattern[j]) {
+                if (j == 0) return i;
+                j--;
+            }
+            i += skipTable[source[i + last] & 0xff];
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,160 @@
+package com.prafka.core.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe bounded queue backed by a fixed-size ring buffer.
+ *
+ * <p>Unlike {@link java.util.concurrent.ArrayBlockingQueue}, offering to a full queue never fails
+ * and never blocks: the oldest element is evicted to make room for the new one. This lets a fast
+ * producer (e.g. a Kafka consumer following a busy topic) hand elements to a slower reader
+ * without unbounded memory growth. Readers can take elements one at a time or in batches.
+ *
+ * @param <E> the type of elements held in this queue
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> {
+
+    private final Object[] items;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int head;
+    private int size;
+    private long evictedCount;
+
+    public RingBufferQueue(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException();
+        items = new Object[capacity];
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        lock.lock();
+        try {
+            if (size == items.length) {
+                items[head] = null;
+                head = (head + 1) % items.length;
+                size--;
+                evictedCount++;
+            }
+            items[(head + size) % items.length] = e;
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            return size == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        var nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes at most {@code maxElements} of the oldest elements and adds them to the given collection.
+     *
+     * @return the number of elements transferred
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        lock.lock();
+        try {
+            var count = Math.min(size, maxElements);
+            for (int i = 0; i < count; i++) {
+                collection.add(dequeue());
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E peek() {
+        lock.lock();
+        try {
+            return size == 0 ? null : itemAt(head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Returns the number of elements dropped because the queue was full.
+     */
+    public long evictedCount() {
+        lock.lock();
+        try {
+            return evictedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        lock.lock();
+        try {
+            var snapshot = new ArrayList<E>(size);
+            for (int i = 0; i < size; i++) {
+                snapshot.add(itemAt((head + i) % items.length));
+            }
+            return Collections.unmodifiableList(snapshot).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E dequeue() {
+        var item = itemAt(head);
+        items[head] = null;
+        head = (head + 1) % items.length;
+        size--;
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E itemAt(int index) {
+        return (E) items[index];
+    }
+}
@@ -0,0 +1,405 @@
+package com.prafka.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.*;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import org.apache.avro.generic.GenericData;
+import org.everit.json.schema.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.prafka.core.util.JsonFactory.objectMapperDefault;
+
+/**
+ * Generator of random records that are valid for a registered schema.
+ *
+ * <p>The schema is compiled once into a tree of field generators, which then build the objects the
+ * Schema Registry serializers take directly: {@code GenericRecord} and friends for Avro, a
+ * {@code DynamicMessage} of the first message type for Protobuf, and a {@code JsonNode} for JSON Schema.
+ * No JSON text is produced or parsed on the way, so generation costs little more than the allocation of
+ * the generated objects. Instances are thread safe.
+ *
+ * <p>Avro logical types, Protobuf oneofs and {@code google.protobuf.Timestamp}, and the JSON Schema
+ * length, range, item count and common format constraints are respected; JSON Schema patterns are not.
+ * Recursive types are cut off by nesting depth: optional fields, unions with {@code null} and
+ * collections are left empty below it.
+ */
+public class SchemaRecordGenerator {
+
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_COLLECTION_SIZE = 4;
+    private static final int MAX_STRING_LENGTH = 16;
+    private static final long YEAR_MS = TimeUnit.DAYS.toMillis(365);
+    private static final char[] ALPHANUMERIC = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+    private final Generator root;
+
+    private SchemaRecordGenerator(Generator root) {
+        this.root = root;
+    }
+
+    public static SchemaRecordGenerator compile(ParsedSchema schema) {
+        return switch (schema) {
+            case AvroSchema avro -> new SchemaRecordGenerator(new AvroCompiler().compile(avro.rawSchema()));
+            case ProtobufSchema protobuf -> new SchemaRecordGenerator(new ProtobufCompiler().compile(protobuf.toDescriptor()));
+            case JsonSchema json -> new SchemaRecordGenerator(new JsonCompiler().compile(json.rawSchema()));
+            default -> throw new IllegalArgumentException("Unsupported schema type: " + schema.schemaType());
+        };
+    }
+
+    public Object next() {
+        return root.next(ThreadLocalRandom.current(), 0);
+    }
+
+    @FunctionalInterface
+    private interface Generator {
+
+        Object next(ThreadLocalRandom random, int depth);
+    }
+
+    private static int collectionSize(ThreadLocalRandom random, int depth) {
+        return depth >= MAX_DEPTH ? 0 : random.nextInt(MAX_COLLECTION_SIZE + 1);
+    }
+
+    private static String randomString(ThreadLocalRandom random, int minLength, int maxLength) {
+        var chars = new char[random.nextInt(minLength, maxLength + 1)];
+        for (int i = 0; i < chars.length; i++) chars[i] = ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)];
+        return new String(chars);
+    }
+
+    private static byte[] randomBytes(ThreadLocalRandom random) {
+        var bytes = new byte[random.nextInt(MAX_STRING_LENGTH + 1)];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static long randomRecentMillis(ThreadLocalRandom random) {
+        return System.currentTimeMillis() - random.nextLong(YEAR_MS);
+    }
+
+    private static class AvroCompiler {
+
+        private final Map<String, Generator> records = new HashMap<>();
+
+        private Generator compile(org.apache.avro.Schema schema) {
+            var logicalType = schema.getLogicalType() == null ? "" : schema.getLogicalType().getName();
+            return switch (schema.getType()) {
+                case RECORD -> compileRecord(schema);
+                case ENUM -> {
+                    var symbols = schema.getEnumSymbols().stream().map(it -> new GenericData.EnumSymbol(schema, it)).toArray();
+                    yield (random, depth) -> symbols[random.nextInt(symbols.length)];
+                }
+                case ARRAY -> {
+                    var items = compile(schema.getElementType());
+                    yield (random, depth) -> {
+                        var size = collectionSize(random, depth);
+                        var array = new GenericData.Array<>(size, schema);
+                        for (int i = 0; i < size; i++) array.add(items.next(random, depth + 1));
+                        return array;
+                    };
+                }
+                case MAP -> {
+                    var values = compile(schema.getValueType());
+                    yield (random, depth) -> {
+                        var size = collectionSize(random, depth);
+                        var map = new HashMap<String, Object>(size * 2);
+                        for (int i = 0; i < size; i++) map.put(randomString(random, 1, MAX_STRING_LENGTH), values.next(random, depth + 1));
+                        return map;
+                    };
+                }
+                case UNION -> compileUnion(schema);
+                case FIXED -> (random, depth) -> {
+                    var bytes = new byte[schema.getFixedSize()];
+                    random.nextBytes(bytes);
+                    return new GenericData.Fixed(schema, bytes);
+                };
+                case STRING -> logicalType.equals("uuid")
+                        ? (random, depth) -> UUID.randomUUID().toString()
+                        : (random, depth) -> randomString(random, 1, MAX_STRING_LENGTH);
+                case BYTES -> (random, depth) -> ByteBuffer.wrap(randomBytes(random));
+                case INT -> switch (logicalType) {
+                    case "date" -> (random, depth) -> (int) LocalDate.now().minusDays(random.nextInt(365)).toEpochDay();
+                    case "time-millis" -> (random, depth) -> random.nextInt((int) TimeUnit.DAYS.toMillis(1));
+                    default -> (random, depth) -> random.nextInt();
+                };
+                case LONG -> switch (logicalType) {
+                    case "timestamp-millis", "local-timestamp-millis" -> (random, depth) -> randomRecentMillis(random);
+                    case "timestamp-micros", "local-timestamp-micros" -> (random, depth) -> TimeUnit.MILLISECONDS.toMicros(randomRecentMillis(random));
+                    case "time-micros" -> (random, depth) -> random.nextLong(TimeUnit.DAYS.toMicros(1));
+                    default -> (random, depth) -> random.nextLong();
+                };
+                case FLOAT -> (random, depth) -> random.nextFloat();
+                case DOUBLE -> (random, depth) -> random.nextDouble();
+                case BOOLEAN -> (random, depth) -> random.nextBoolean();
+                case NULL -> (random, depth) -> null;
+            };
+        }
+
+        private Generator compileRecord(org.apache.avro.Schema schema) {
+            var existing = records.get(schema.getFullName());
+            if (existing != null) return existing;
+            var fields = new Generator[schema.getFields().size()];
+            // registered before its fields are compiled, so that recursive references resolve to it
+            Generator generator = (random, depth) -> {
+                var record = new GenericData.Record(schema);
+                for (int i = 0; i < fields.length; i++) record.put(i, fields[i].next(random, depth + 1));
+                return record;
+            };
+            records.put(schema.getFullName(), generator);
+            for (int i = 0; i < fields.length; i++) fields[i] = compile(schema.getFields().get(i).schema());
+            return generator;
+        }
+
+        private Generator compileUnion(org.apache.avro.Schema schema) {
+            var branches = schema.getTypes().stream().map(this::compile).toArray(Generator[]::new);
+            var hasNull = schema.getTypes().stream().anyMatch(it -> it.getType() == org.apache.avro.Schema.Type.NULL);
+            return (random, depth) -> {
+                if (hasNull && depth >= MAX_DEPTH) return null;
+                return branches[random.nextInt(branches.length)].next(random, depth);
+            };
+        }
+    }
+
+    private static class ProtobufCompiler {
+
+        private static final String TIMESTAMP = "google.protobuf.Timestamp";
+
+        private final Map<String, Generator> messages = new HashMap<>();
+
+        private Generator compile(Descriptors.Descriptor descriptor) {
+            var existing = messages.get(descriptor.getFullName());
+            if (existing != null) return existing;
+            if (descriptor.getFullName().equals(TIMESTAMP)) {
+                var seconds = descriptor.findFieldByName("seconds");
+                var nanos = descriptor.findFieldByName("nanos");
+                Generator generator = (random, depth) -> DynamicMessage.newBuilder(descriptor)
+                        .setField(seconds, TimeUnit.MILLISECONDS.toSeconds(randomRecentMillis(random)))
+                        .setField(nanos, random.nextInt(1_000_000_000))
+                        .build();
+                messages.put(descriptor.getFullName(), generator);
+                return generator;
+            }
+            var fields = descriptor.getFields().stream().filter(it -> it.getRealContainingOneof() == null).toList();
+            var fieldGenerators = new Generator[fields.size()];
+            var oneofs = descriptor.getRealOneofs();
+            var oneofGenerators = new Generator[oneofs.size()][];
+            // registered before its fields are compiled, so that recursive references resolve to it
+            Generator generator = (random, depth) -> {
+                var builder = DynamicMessage.newBuilder(descriptor);
+                for (int i = 0; i < fieldGenerators.length; i++) {
+                    setField(builder, fields.get(i), fieldGenerators[i], random, depth);
+                }
+                for (int i = 0; i < oneofGenerators.length; i++) {
+                    var oneofFields = oneofs.get(i).getFields();
+                    var chosen = random.nextInt(oneofFields.size());
+                    setField(builder, oneofFields.get(chosen), oneofGenerators[i][chosen], random, depth);
+                }
+                return builder.build();
+            };
+            messages.put(descriptor.getFullName(), generator);
+            for (int i = 0; i < fieldGenerators.length; i++) fieldGenerators[i] = compileField(fields.get(i));
+            for (int i = 0; i < oneofGenerators.length; i++) {
+                oneofGenerators[i] = oneofs.get(i).getFields().stream().map(this::compileField).toArray(Generator[]::new);
+            }
+            return generator;
+        }
+
+        private static void setField(DynamicMessage.Builder builder, Descriptors.FieldDescriptor field, Generator generator,
+                                     ThreadLocalRandom random, int depth) {
+            if (field.isRepeated()) {
+                var size = collectionSize(random, depth);
+                for (int i = 0; i < size; i++) builder.addRepeatedField(field, generator.next(random, depth + 1));
+            } else if (field.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE || depth < MAX_DEPTH) {
+                builder.setField(field, generator.next(random, depth + 1));
+            }
+        }
+
+        private Generator compileField(Descriptors.FieldDescriptor field) {
+            return switch (field.getJavaType()) {
+                case INT -> (random, depth) -> random.nextInt();
+                case LONG -> (random, depth) -> random.nextLong();
+                case FLOAT -> (random, depth) -> random.nextFloat();
+                case DOUBLE -> (random, depth) -> random.nextDouble();
+                case BOOLEAN -> (random, depth) -> random.nextBoolean();
+                case STRING -> (random, depth) -> randomString(random, 1, MAX_STRING_LENGTH);
+                case BYTE_STRING -> (random, depth) -> ByteString.copyFrom(randomBytes(random));
+                case ENUM -> {
+                    var values = field.getEnumType().getValues();
+                    yield (random, depth) -> values.get(random.nextInt(values.size()));
+                }
+                case MESSAGE -> compile(field.getMessageType());
+            };
+        }
+    }
+
+    private static class JsonCompiler {
+
+        private final Map<Schema, Generator> compiled = new IdentityHashMap<>();
+
+        private Generator compile(Schema schema) {
+            var existing = compiled.get(schema);
+            if (existing != null) return existing;
+            if (schema instanceof ReferenceSchema reference) {
+                var target = new Generator[1];
+                // registered before the referred schema is compiled, so that recursive references resolve to it
+                Generator generator = (random, depth) -> target[0].next(random, depth);
+                compiled.put(schema, generator);
+                target[0] = compile(reference.getReferredSchema());
+                return generator;
+            }
+            Generator generator = switch (schema) {
+                case ObjectSchema object -> compileObject(object);
+                case ArraySchema array -> compileArray(array);
+                case StringSchema string -> compileString(string);
+                case NumberSchema number -> compileNumber(number);
+                case CombinedSchema combined -> compileCombined(combined);
+                case BooleanSchema ignored -> (random, depth) -> BooleanNode.valueOf(random.nextBoolean());
+                case NullSchema ignored -> (random, depth) -> NullNode.getInstance();
+                case ConstSchema constant -> {
+                    var node = toNode(constant.getPermittedValue());
+                    yield (random, depth) -> node;
+                }
+                case EnumSchema enumeration -> {
+                    var nodes = enumeration.getPossibleValues().stream().map(JsonCompiler::toNode).toArray(JsonNode[]::new);
+                    yield (random, depth) -> nodes[random.nextInt(nodes.length)];
+                }
+                case FalseSchema ignored -> (random, depth) -> NullNode.getInstance();
+                default -> (random, depth) -> TextNode.valueOf(randomString(random, 1, MAX_STRING_LENGTH));
+            };
+            compiled.put(schema, generator);
+            return generator;
+        }
+
+        private Generator compileObject(ObjectSchema object) {
+            var properties = new ArrayList<>(object.getPropertySchemas().entrySet());
+            var names = properties.stream().map(Map.Entry::getKey).toArray(String[]::new);
+            var required = properties.stream().map(it -> object.getRequiredProperties().contains(it.getKey())).toArray(Boolean[]::new);
+            var generators = properties.stream().map(it -> compile(it.getValue())).toArray(Generator[]::new);
+            return (random, depth) -> {
+                var node = JsonNodeFactory.instance.objectNode();
+                for (int i = 0; i < names.length; i++) {
+                    if (required[i] || (depth < MAX_DEPTH && random.nextBoolean())) {
+                        node.set(names[i], (JsonNode) generators[i].next(random, depth + 1));
+                    }
+                }
+                return node;
+            };
+        }
+
+        private Generator compileArray(ArraySchema array) {
+            var minItems = array.getMinItems() == null ? 0 : array.getMinItems();
+            var maxItems = Math.max(minItems, array.getMaxItems() == null ? MAX_COLLECTION_SIZE : Math.min(array.getMaxItems(), minItems + MAX_COLLECTION_SIZE));
+            var tuple = array.getItemSchemas() == null ? new Generator[0] : array.getItemSchemas().stream().map(this::compile).toArray(Generator[]::new);
+            Generator items = array.getAllItemSchema() != null
+                    ? compile(array.getAllItemSchema())
+                    : (random, depth) -> TextNode.valueOf(randomString(random, 1, MAX_STRING_LENGTH));
+            return (random, depth) -> {
+                var node = JsonNodeFactory.instance.arrayNode();
+                var size = Math.max(tuple.length, depth >= MAX_DEPTH ? minItems : random.nextInt(minItems, maxItems + 1));
+                for (int i = 0; i < size; i++) {
+                    node.add((JsonNode) (i < tuple.length ? tuple[i] : items).next(random, depth + 1));
+                }
+                return node;
+            };
+        }
+
+        private Generator compileString(StringSchema string) {
+            var minLength = string.getMinLength() == null ? 1 : string.getMinLength();
+            var maxLength = Math.max(minLength, string.getMaxLength() == null ? MAX_STRING_LENGTH : string.getMaxLength());
+            var format = string.getFormatValidator() == null ? "" : string.getFormatValidator().formatName();
+            return switch (format) {
+                case "date-time" -> (random, depth) -> TextNode.valueOf(Instant.ofEpochMilli(randomRecentMillis(random)).toString());
+                case "date" -> (random, depth) -> TextNode.valueOf(LocalDate.now().minusDays(random.nextInt(365)).toString());
+                case "time" -> (random, depth) -> TextNode.valueOf(String.format("%02d:%02d:%02dZ", random.nextInt(24), random.nextInt(60), random.nextInt(60)));
+                case "email" -> (random, depth) -> TextNode.valueOf(randomString(random, 1, MAX_STRING_LENGTH) + "@example.com");
+                case "hostname" -> (random, depth) -> TextNode.valueOf(randomString(random, 1, MAX_STRING_LENGTH) + ".example.com");
+                case "uri" -> (random, depth) -> TextNode.valueOf("https://example.com/" + randomString(random, 1, MAX_STRING_LENGTH));
+                case "uuid" -> (random, depth) -> TextNode.valueOf(UUID.randomUUID().toString());
+                case "ipv4" -> (random, depth) -> TextNode.valueOf(random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256));
+                default -> (random, depth) -> TextNode.valueOf(randomString(random, minLength, maxLength));
+            };
+        }
+
+        private Generator compileNumber(NumberSchema number) {
+            var lower = number.getMinimum() != null ? number.getMinimum() : number.getExclusiveMinimumLimit();
+            var upper = number.getMaximum() != null ? number.getMaximum() : number.getExclusiveMaximumLimit();
+            var exclusiveLower = number.getMinimum() != null ? number.isExclusiveMinimum() : number.getExclusiveMinimumLimit() != null;
+            var exclusiveUpper = number.getMaximum() != null ? number.isExclusiveMaximum() : number.getExclusiveMaximumLimit() != null;
+            var min = lower != null ? lower.doubleValue() : (upper != null ? upper.doubleValue() - 1_000_000 : 0);
+            var max = upper != null ? upper.doubleValue() : min + 1_000_000;
+            var multipleOf = number.getMultipleOf() == null ? null : new BigDecimal(number.getMultipleOf().toString()).abs().stripTrailingZeros();
+            if (multipleOf != null && multipleOf.signum() == 0) multipleOf = null;
+            if (number.requiresInteger()) {
+                var from = exclusiveLower ? (long) Math.floor(min) + 1 : (long) Math.ceil(min);
+                var to = Math.max(from, exclusiveUpper ? (long) Math.ceil(max) - 1 : (long) Math.floor(max));
+                if (multipleOf == null) return (random, depth) -> LongNode.valueOf(random.nextLong(from, to + 1));
+                var step = integerStep(multipleOf);
+                // the multiples of step within [from, to]; when there is none the bounds win over the multiple
+                var lowest = Math.ceilDiv(from, step);
+                var highest = Math.floorDiv(to, step);
+                if (lowest > highest) return (random, depth) -> LongNode.valueOf(from);
+                return (random, depth) -> LongNode.valueOf(random.nextLong(lowest, highest + 1) * step);
+            }
+            var from = exclusiveLower ? Math.nextUp(min) : min;
+            var to = Math.max(from, exclusiveUpper ? Math.nextDown(max) : max);
+            if (multipleOf == null) return (random, depth) -> DoubleNode.valueOf(from == to ? from : random.nextDouble(from, to));
+            var step = multipleOf;
+            var lowest = (long) Math.ceil(from / step.doubleValue());
+            var highest = (long) Math.floor(to / step.doubleValue());
+            if (lowest > highest) return (random, depth) -> DoubleNode.valueOf(from);
+            // multiplied as decimals so that e.g. 3 * 0.1 is 0.3 and not 0.30000000000000004
+            return (random, depth) -> DoubleNode.valueOf(BigDecimal.valueOf(random.nextLong(lowest, highest + 1)).multiply(step).doubleValue());
+        }
+
+        /**
+         * Returns the smallest integer that is a multiple of {@code multipleOf}, e.g. 1 for 0.5 and 5 for 2.5.
+         */
+        private static long integerStep(BigDecimal multipleOf) {
+            if (multipleOf.scale() <= 0) return multipleOf.longValueExact();
+            var unscaled = multipleOf.unscaledValue();
+            return unscaled.divide(unscaled.gcd(BigInteger.TEN.pow(multipleOf.scale()))).longValueExact();
+        }
+
+        private Generator compileCombined(CombinedSchema combined) {
+            var subschemas = new ArrayList<>(combined.getSubschemas());
+            if (combined.getCriterion() == CombinedSchema.ALL_CRITERION) {
+                // only the first subschema that describes a value is generated, further constraints are ignored
+                return subschemas.stream()
+                        .filter(it -> !(it instanceof EmptySchema))
+                        .findFirst()
+                        .map(this::compile)
+                        .orElseGet(() -> (random, depth) -> TextNode.valueOf(randomString(random, 1, MAX_STRING_LENGTH)));
+            }
+            var branches = subschemas.stream().map(this::compile).toArray(Generator[]::new);
+            var nullBranch = subschemas.stream().filter(it -> it instanceof NullSchema).findFirst().map(this::compile).orElse(null);
+            return (random, depth) -> {
+                if (nullBranch != null && depth >= MAX_DEPTH) return nullBranch.next(random, depth);
+                return branches[random.nextInt(branches.length)].next(random, depth);
+            };
+        }
+
+        private static JsonNode toNode(Object value) {
+            return switch (value) {
+                case null -> NullNode.getInstance();
+                case String string -> TextNode.valueOf(string);
+                case Boolean bool -> BooleanNode.valueOf(bool);
+                case Number ignored -> objectMapperDefault.valueToTree(value);
+                // org.json objects and arrays print as JSON
+                default -> StreamUtils.tryReturn(() -> objectMapperDefault.readTree(value.toString()));
+            };
+        }
+    }
+}
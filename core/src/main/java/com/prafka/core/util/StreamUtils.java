@@ -4,12 +4,12 @@ import org.apache.commons.lang3.function.FailableRunnable;
 import org.apache.commons.lang3.function.FailableSupplier;
 import org.apache.kafka.common.KafkaFuture;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -18,18 +18,108 @@ import java.util.function.Supplier;
  * <p>Provides helper methods for:
  * <ul>
  *   <li>Converting and combining Kafka futures into CompletableFutures</li>
- *   <li>Reducing multiple future lists into a single combined future</li>
+ *   <li>Collecting many futures into a single combined future in linear time</li>
  *   <li>Wrapping checked exceptions in lambdas (tryReturn, tryVoid, tryIgnore, tryOrEmpty)</li>
  * </ul>
  */
 public class StreamUtils {
 
+    private static final Object FAILED = new Object();
+
     public static <T> CompletableFuture<List<T>> mapKafkaFutureToList(KafkaFuture<T> future) {
         return future.toCompletionStage().toCompletableFuture()
                 .thenApply(Collections::singletonList)
                 .exceptionally(e -> Collections.emptyList());
     }
 
+    public static <T> CompletableFuture<List<T>> collectKafkaFutures(Collection<KafkaFuture<T>> futures) {
+        return collectKafkaFutures(futures, null);
+    }
+
+    /**
+     * Collects the values of the given Kafka futures like {@link #collectSuccessfulFutures}, skipping
+     * failed futures the same way {@link #mapKafkaFutureToList} does.
+     */
+    public static <T> CompletableFuture<List<T>> collectKafkaFutures(Collection<KafkaFuture<T>> futures, Consumer<? super T> onResult) {
+        return collectSuccessfulFutures(futures.stream().map(KafkaFuture::toCompletionStage).toList(), onResult);
+    }
+
+    /**
+     * Collects the values of the given futures into one list, in input order.
+     *
+     * <p>Each future writes its value into its own slot and the list is built once, after the last
+     * future completes, so the work is linear in the number of futures. The result completes
+     * exceptionally with the failure of the first future that fails.
+     */
+    public static <T> CompletableFuture<List<T>> collectFutures(Collection<? extends CompletionStage<T>> futures) {
+        return collect(futures, null, false);
+    }
+
+    public static <T> CompletableFuture<List<T>> collectSuccessfulFutures(Collection<? extends CompletionStage<T>> futures) {
+        return collectSuccessfulFutures(futures, null);
+    }
+
+    /**
+     * Collects the values of the given futures into one list, in input order, leaving out failed futures.
+     *
+     * <p>Use it only where a partial result is expected, such as per-item lookups that may race
+     * with a deletion. When {@code onResult} is not {@code null} it receives every value as soon
+     * as its future completes, which lets callers show partial results; it may be called
+     * concurrently from different threads.
+     */
+    public static <T> CompletableFuture<List<T>> collectSuccessfulFutures(Collection<? extends CompletionStage<T>> futures, Consumer<? super T> onResult) {
+        return collect(futures, onResult, true);
+    }
+
+    /**
+     * Flattens the lists of the given futures into one pre-sized list, in input order. The result
+     * completes exceptionally with the failure of the first future that fails.
+     */
+    public static <T> CompletableFuture<List<T>> flattenFutureLists(Collection<? extends CompletionStage<List<T>>> futures) {
+        return collectFutures(futures).thenApply(lists -> {
+            var result = new ArrayList<T>(lists.stream().mapToInt(List::size).sum());
+            lists.forEach(result::addAll);
+            return result;
+        });
+    }
+
+    private static <T> CompletableFuture<List<T>> collect(Collection<? extends CompletionStage<T>> futures, Consumer<? super T> onResult, boolean skipFailed) {
+        if (futures.isEmpty()) return CompletableFuture.completedFuture(Collections.emptyList());
+        var slots = new Object[futures.size()];
+        var remaining = new AtomicInteger(slots.length);
+        var result = new CompletableFuture<List<T>>();
+        var index = 0;
+        for (var future : futures) {
+            var slot = index++;
+            future.whenComplete((value, e) -> {
+                if (e != null && !skipFailed) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                slots[slot] = e == null ? value : FAILED;
+                if (e == null && onResult != null) tryIgnore(() -> onResult.accept(value));
+                if (remaining.decrementAndGet() == 0) result.complete(fromSlots(slots));
+            });
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> fromSlots(Object[] slots) {
+        var list = new ArrayList<T>(slots.length);
+        for (var slot : slots) {
+            if (slot != FAILED) list.add((T) slot);
+        }
+        return list;
+    }
+
+    /**
+     * Combines two future lists by copying both into a new list.
+     *
+     * @deprecated reducing many futures with this operator copies the lists at every step and
+     * builds a deep {@code thenCombine} chain; use {@link #collectFutures} or {@link #flattenFutureLists}.
+     */
+    @Deprecated
     public static <T> BinaryOperator<CompletableFuture<List<T>>> combineFutureList() {
         return (f1, f2) ->
                 f1.thenCombine(f2, (l1, l2) ->
@@ -0,0 +1,446 @@
+package com.prafka.core.util;
+
+import com.prafka.core.model.TopicQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Parser of the SQL-like topic query language into a {@link TopicQuery}.
+ *
+ * <pre>
+ * SELECT item [AS name], ... [WHERE condition] [GROUP BY field, ...] [ORDER BY column [ASC|DESC], ...] [LIMIT n]
+ * </pre>
+ *
+ * <p>Items are {@code *}, fields, arithmetic over fields and constants, or {@code COUNT}, {@code SUM},
+ * {@code AVG}, {@code MIN} and {@code MAX} of one. Conditions combine comparisons ({@code = != <> < <= > >=}),
+ * {@code [NOT] BETWEEN}, {@code [NOT] IN (...)}, {@code [NOT] LIKE 'pattern'} and {@code IS [NOT] NULL}
+ * with {@code AND}, {@code OR} and {@code NOT}. Constants are numbers, {@code 'strings'}, {@code TRUE},
+ * {@code FALSE}, {@code NULL}, {@code NOW()} in epoch milliseconds and durations such as {@code 15m}, so
+ * {@code timestamp >= NOW() - 1h} reads the last hour. Keywords are case-insensitive. Columns in
+ * {@code ORDER BY} are given by name, alias or 1-based position.
+ *
+ * <p>Invalid queries are rejected with an {@link IllegalArgumentException} naming the position of the error.
+ */
+public class TopicQueryParser {
+
+    private static final List<String> METADATA_FIELDS = List.of("timestamp", "partition", "offset");
+    private static final List<String> ALL_FIELDS = List.of("timestamp", "partition", "offset", "key", "value");
+    private static final Set<String> KEYWORDS = Set.of("SELECT", "WHERE", "GROUP", "ORDER", "BY", "LIMIT", "AS", "AND", "OR", "NOT",
+            "IN", "IS", "NULL", "TRUE", "FALSE", "BETWEEN", "LIKE", "ASC", "DESC");
+    private static final Map<String, Long> DURATION_UNITS = Map.of("ms", 1L, "s", 1_000L, "m", 60_000L, "h", 3_600_000L, "d", 86_400_000L);
+
+    private final String query;
+    private final List<Token> tokens;
+    private final long now;
+    private final List<String> selectTexts = new ArrayList<>();
+    private int pos;
+
+    private TopicQueryParser(String query, long now) {
+        this.query = query;
+        this.tokens = tokenize(query);
+        this.now = now;
+    }
+
+    public static TopicQuery parse(String query) {
+        return parse(query, System.currentTimeMillis());
+    }
+
+    /**
+     * Parses the query with {@code NOW()} evaluating to {@code now}.
+     */
+    public static TopicQuery parse(String query, long now) {
+        if (query == null || query.isBlank()) throw new IllegalArgumentException("Query is empty");
+        return new TopicQueryParser(query, now).query();
+    }
+
+    private TopicQuery query() {
+        expectKeyword("SELECT");
+        var select = new ArrayList<TopicQuery.Select>();
+        do {
+            select.addAll(selectItem());
+        } while (acceptSymbol(","));
+        var where = acceptKeyword("WHERE") ? expr() : null;
+        var groupBy = new ArrayList<TopicQuery.Field>();
+        if (acceptKeyword("GROUP")) {
+            expectKeyword("BY");
+            do {
+                groupBy.add(field(next()));
+            } while (acceptSymbol(","));
+        }
+        var orderBy = new ArrayList<TopicQuery.Order>();
+        if (acceptKeyword("ORDER")) {
+            expectKeyword("BY");
+            do {
+                orderBy.add(orderItem(select));
+            } while (acceptSymbol(","));
+        }
+        Integer limit = null;
+        if (acceptKeyword("LIMIT")) {
+            var token = next();
+            if (!(token.value() instanceof Long value) || value < 0 || value > Integer.MAX_VALUE) throw error(token, "Expected row count after LIMIT");
+            limit = value.intValue();
+        }
+        if (peek().type() != TokenType.END) throw error(peek(), "Unexpected " + peek().text());
+        var result = new TopicQuery(List.copyOf(select), Optional.ofNullable(where), List.copyOf(groupBy), List.copyOf(orderBy), Optional.ofNullable(limit));
+        if (result.isAggregate()) {
+            for (var item : select) {
+                if (item.function() == null && !groupBy.contains(item.argument())) {
+                    throw new IllegalArgumentException("Invalid query: " + item.name() + " must be aggregated or listed in GROUP BY");
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<TopicQuery.Select> selectItem() {
+        if (acceptSymbol("*")) {
+            ALL_FIELDS.forEach(selectTexts::add);
+            return ALL_FIELDS.stream().map(it -> new TopicQuery.Select(null, new TopicQuery.Field(it), it)).toList();
+        }
+        var start = peek().start();
+        var item = functionOrExpr();
+        var text = text(start);
+        selectTexts.add(text);
+        var name = text;
+        if (acceptKeyword("AS")) {
+            var alias = next();
+            if (alias.type() != TokenType.IDENT && alias.type() != TokenType.STRING) throw error(alias, "Expected name after AS");
+            name = alias.type() == TokenType.STRING ? (String) alias.value() : alias.text();
+        }
+        return List.of(new TopicQuery.Select(item.function(), item.argument(), name));
+    }
+
+    private TopicQuery.Select functionOrExpr() {
+        var token = peek();
+        var function = token.type() == TokenType.IDENT && tokens.get(pos + 1).text().equals("(") ? function(token.text()) : null;
+        if (function == null) return new TopicQuery.Select(null, additive(), null);
+        pos += 2;
+        TopicQuery.Expr argument = null;
+        if (function != TopicQuery.Function.COUNT || !acceptSymbol("*")) argument = additive();
+        expectSymbol(")");
+        return new TopicQuery.Select(function, argument, null);
+    }
+
+    private TopicQuery.Order orderItem(List<TopicQuery.Select> select) {
+        var token = peek();
+        int column;
+        if (token.value() instanceof Long position) {
+            next();
+            if (position < 1 || position > select.size()) throw error(token, "ORDER BY position out of range");
+            column = position.intValue() - 1;
+        } else if ((column = aliasIndex(select, token)) >= 0) {
+            next();
+        } else {
+            var start = token.start();
+            functionOrExpr();
+            var text = text(start);
+            column = -1;
+            for (int i = 0; i < select.size() && column < 0; i++) {
+                if (select.get(i).name().equalsIgnoreCase(text) || selectTexts.get(i).equalsIgnoreCase(text)) column = i;
+            }
+            if (column < 0) throw error(token, "ORDER BY " + text + " is not a selected column");
+        }
+        var descending = acceptKeyword("DESC");
+        if (!descending) acceptKeyword("ASC");
+        return new TopicQuery.Order(column, descending);
+    }
+
+    private int aliasIndex(List<TopicQuery.Select> select, Token token) {
+        if (token.type() != TokenType.IDENT && token.type() != TokenType.STRING) return -1;
+        var name = token.type() == TokenType.STRING ? (String) token.value() : token.text();
+        var following = tokens.get(pos + 1);
+        if (following.type() != TokenType.END && !following.text().equals(",") && !List.of("ASC", "DESC", "LIMIT").contains(following.text().toUpperCase(Locale.ROOT))) {
+            return -1;
+        }
+        for (int i = 0; i < select.size(); i++) {
+            if (select.get(i).name().equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    private TopicQuery.Expr expr() {
+        var left = and();
+        while (acceptKeyword("OR")) left = new TopicQuery.Or(left, and());
+        return left;
+    }
+
+    private TopicQuery.Expr and() {
+        var left = not();
+        while (acceptKeyword("AND")) left = new TopicQuery.And(left, not());
+        return left;
+    }
+
+    private TopicQuery.Expr not() {
+        if (acceptKeyword("NOT")) return new TopicQuery.Not(not());
+        return predicate();
+    }
+
+    private TopicQuery.Expr predicate() {
+        var left = additive();
+        if (acceptKeyword("IS")) {
+            var negated = acceptKeyword("NOT");
+            expectKeyword("NULL");
+            var isNull = new TopicQuery.IsNull(left);
+            return negated ? new TopicQuery.Not(isNull) : isNull;
+        }
+        var negated = acceptKeyword("NOT");
+        TopicQuery.Expr result;
+        if (acceptKeyword("BETWEEN")) {
+            var low = additive();
+            expectKeyword("AND");
+            var high = additive();
+            result = new TopicQuery.And(
+                    new TopicQuery.Compare(left, TopicQuery.Compare.Operator.GE, low),
+                    new TopicQuery.Compare(left, TopicQuery.Compare.Operator.LE, high));
+        } else if (acceptKeyword("IN")) {
+            expectSymbol("(");
+            var values = new ArrayList<TopicQuery.Expr>();
+            do {
+                values.add(additive());
+            } while (acceptSymbol(","));
+            expectSymbol(")");
+            result = new TopicQuery.In(left, List.copyOf(values));
+        } else if (acceptKeyword("LIKE")) {
+            var pattern = next();
+            if (pattern.type() != TokenType.STRING) throw error(pattern, "Expected pattern string after LIKE");
+            result = new TopicQuery.Compare(left, TopicQuery.Compare.Operator.LIKE, new TopicQuery.Literal(pattern.value()));
+        } else if (negated) {
+            throw error(peek(), "Expected BETWEEN, IN or LIKE after NOT");
+        } else {
+            var operator = switch (peek().text()) {
+                case "=" -> TopicQuery.Compare.Operator.EQ;
+                case "!=", "<>" -> TopicQuery.Compare.Operator.NE;
+                case "<" -> TopicQuery.Compare.Operator.LT;
+                case "<=" -> TopicQuery.Compare.Operator.LE;
+                case ">" -> TopicQuery.Compare.Operator.GT;
+                case ">=" -> TopicQuery.Compare.Operator.GE;
+                default -> null;
+            };
+            // a field on its own is a boolean condition, e.g. WHERE value.paid
+            if (operator == null || peek().type() != TokenType.SYMBOL) return left;
+            next();
+            result = new TopicQuery.Compare(left, operator, additive());
+        }
+        return negated ? new TopicQuery.Not(result) : result;
+    }
+
+    private TopicQuery.Expr additive() {
+        var left = multiplicative();
+        while (peek().text().equals("+") || peek().text().equals("-")) {
+            var operator = next().text().charAt(0);
+            left = fold(new TopicQuery.Arithmetic(left, operator, multiplicative()));
+        }
+        return left;
+    }
+
+    private TopicQuery.Expr multiplicative() {
+        var left = unary();
+        while (peek().text().equals("*") || peek().text().equals("/")) {
+            var operator = next().text().charAt(0);
+            left = fold(new TopicQuery.Arithmetic(left, operator, unary()));
+        }
+        return left;
+    }
+
+    private TopicQuery.Expr unary() {
+        if (acceptSymbol("-")) return fold(new TopicQuery.Arithmetic(new TopicQuery.Literal(0L), '-', unary()));
+        return primary();
+    }
+
+    private TopicQuery.Expr primary() {
+        var token = next();
+        switch (token.type()) {
+            case NUMBER, STRING -> {
+                return new TopicQuery.Literal(token.value());
+            }
+            case SYMBOL -> {
+                if (!token.text().equals("(")) throw error(token, "Unexpected " + token.text());
+                var inner = expr();
+                expectSymbol(")");
+                return inner;
+            }
+            case IDENT -> {
+                var keyword = token.text().toUpperCase(Locale.ROOT);
+                if (keyword.equals("TRUE") || keyword.equals("FALSE")) return new TopicQuery.Literal(Boolean.valueOf(keyword.equals("TRUE")));
+                if (keyword.equals("NULL")) return new TopicQuery.Literal(null);
+                if (keyword.equals("NOW") && acceptSymbol("(")) {
+                    expectSymbol(")");
+                    return new TopicQuery.Literal(now);
+                }
+                if (KEYWORDS.contains(keyword)) throw error(token, "Unexpected " + token.text());
+                return field(token);
+            }
+            default -> throw error(token, "Unexpected end of query");
+        }
+    }
+
+    private TopicQuery.Field field(Token token) {
+        if (token.type() != TokenType.IDENT) throw error(token, "Expected field instead of " + token.text());
+        var path = token.text();
+        if (METADATA_FIELDS.contains(path.toLowerCase(Locale.ROOT))) return new TopicQuery.Field(path.toLowerCase(Locale.ROOT));
+        try {
+            FieldProjection.column(path);
+        } catch (IllegalArgumentException e) {
+            throw error(token, "Unknown field " + path + ", expected timestamp, partition, offset or a path in key or value");
+        }
+        return new TopicQuery.Field(path);
+    }
+
+    private static TopicQuery.Expr fold(TopicQuery.Arithmetic arithmetic) {
+        if (arithmetic.left() instanceof TopicQuery.Literal left && arithmetic.right() instanceof TopicQuery.Literal right) {
+            return new TopicQuery.Literal(arithmetic.apply(left.value(), right.value()));
+        }
+        return arithmetic;
+    }
+
+    private static TopicQuery.Function function(String name) {
+        for (var function : TopicQuery.Function.values()) {
+            if (function.name().equalsIgnoreCase(name)) return function;
+        }
+        return null;
+    }
+
+    private String text(int start) {
+        return query.substring(start, tokens.get(pos - 1).end()).replaceAll("\\s+", " ");
+    }
+
+    private Token peek() {
+        return tokens.get(pos);
+    }
+
+    private Token next() {
+        var token = tokens.get(pos);
+        if (token.type() != TokenType.END) pos++;
+        return token;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (peek().type() == TokenType.IDENT && peek().text().equalsIgnoreCase(keyword)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) throw error(peek(), "Expected " + keyword);
+    }
+
+    private boolean acceptSymbol(String symbol) {
+        if (peek().type() == TokenType.SYMBOL && peek().text().equals(symbol)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectSymbol(String symbol) {
+        if (!acceptSymbol(symbol)) throw error(peek(), "Expected " + symbol);
+    }
+
+    private static IllegalArgumentException error(Token token, String message) {
+        return error(token.start(), message);
+    }
+
+    private static IllegalArgumentException error(int position, String message) {
+        return new IllegalArgumentException("Invalid query at position " + (position + 1) + ": " + message);
+    }
+
+    private static List<Token> tokenize(String query) {
+        var tokens = new ArrayList<Token>();
+        var length = query.length();
+        var i = 0;
+        while (i < length) {
+            var c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            var start = i;
+            if (c == '\'') {
+                var text = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= length) throw error(start, "Unterminated string");
+                    var ch = query.charAt(i++);
+                    if (ch != '\'') {
+                        text.append(ch);
+                    } else if (i < length && query.charAt(i) == '\'') {
+                        text.append('\'');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                tokens.add(new Token(TokenType.STRING, query.substring(start, i), text.toString(), start, i));
+            } else if (Character.isDigit(c) || c == '.' && i + 1 < length && Character.isDigit(query.charAt(i + 1))) {
+                var decimal = false;
+                while (i < length && (Character.isDigit(query.charAt(i)) || query.charAt(i) == '.')) {
+                    decimal |= query.charAt(i) == '.';
+                    i++;
+                }
+                if (i + 1 < length && (query.charAt(i) == 'e' || query.charAt(i) == 'E')
+                        && (Character.isDigit(query.charAt(i + 1)) || (query.charAt(i + 1) == '-' || query.charAt(i + 1) == '+') && i + 2 < length && Character.isDigit(query.charAt(i + 2)))) {
+                    decimal = true;
+                    i += 2;
+                    while (i < length && Character.isDigit(query.charAt(i))) i++;
+                }
+                var number = query.substring(start, i);
+                var unitStart = i;
+                while (i < length && Character.isLetter(query.charAt(i))) i++;
+                var unit = query.substring(unitStart, i).toLowerCase(Locale.ROOT);
+                Object value;
+                try {
+                    if (unit.isEmpty()) {
+                        value = decimal ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+                    } else {
+                        var millis = DURATION_UNITS.get(unit);
+                        if (millis == null) throw error(unitStart, "Unknown duration unit " + unit + ", expected ms, s, m, h or d");
+                        value = (long) (Double.parseDouble(number) * millis);
+                    }
+                } catch (NumberFormatException e) {
+                    throw error(start, "Invalid number " + number);
+                }
+                tokens.add(new Token(TokenType.NUMBER, query.substring(start, i), value, start, i));
+            } else if (Character.isLetter(c) || c == '_' || c == '$') {
+                while (i < length) {
+                    var ch = query.charAt(i);
+                    if (Character.isLetterOrDigit(ch) || ch == '_' || ch == '$' || ch == '.') {
+                        i++;
+                    } else if (ch == '[') {
+                        var close = query.indexOf(']', i);
+                        if (close < 0) throw error(i, "Unclosed [");
+                        i = close + 1;
+                    } else {
+                        break;
+                    }
+                }
+                tokens.add(new Token(TokenType.IDENT, query.substring(start, i), null, start, i));
+            } else {
+                var two = i + 1 < length ? query.substring(i, i + 2) : "";
+                if (two.equals("<=") || two.equals(">=") || two.equals("!=") || two.equals("<>")) {
+                    i += 2;
+                } else if ("(),*=<>+-/".indexOf(c) >= 0) {
+                    i++;
+                } else {
+                    throw error(start, "Unexpected character " + c);
+                }
+                tokens.add(new Token(TokenType.SYMBOL, query.substring(start, i), null, start, i));
+            }
+        }
+        tokens.add(new Token(TokenType.END, "end of query", null, length, length));
+        return tokens;
+    }
+
+    private enum TokenType {
+        IDENT, NUMBER, STRING, SYMBOL, END
+    }
+
+    private record Token(TokenType type, String text, Object value, int start, int end) {
+    }
+}
@@ -3,14 +3,26 @@ package com.prafka.core.manager;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClientFactory;
 import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sourcelab.kafka.connect.apiclient.KafkaConnectClient;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -91,8 +103,95 @@ class AbstractKafkaManagerTest {
             // When
             var result = kafkaManager.getConsumer(clusterId);
 
+            // Then
+            result.assignment();
+            verify(mockConstructionKafkaConsumer.constructed().getFirst()).assignment();
+        }
+    }
+
+    @Test
+    void shouldReuseClosedConsumer() {
+        try (var mockConstructionKafkaConsumer = mockConstruction(KafkaConsumer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+            kafkaManager.getConsumer(clusterId).close();
+
+            // When
+            var result = kafkaManager.getConsumer(clusterId);
+
+            // Then
+            result.assignment();
+            assertEquals(1, mockConstructionKafkaConsumer.constructed().size());
+            verify(mockConstructionKafkaConsumer.constructed().getFirst()).unsubscribe();
+            verify(mockConstructionKafkaConsumer.constructed().getFirst(), never()).close();
+        }
+    }
+
+    @Test
+    void shouldNotShareConsumerInUse() {
+        try (var mockConstructionKafkaConsumer = mockConstruction(KafkaConsumer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+
+            // When
+            kafkaManager.getConsumer(clusterId);
+            kafkaManager.getConsumer(clusterId);
+
+            // Then
+            assertEquals(2, mockConstructionKafkaConsumer.constructed().size());
+        }
+    }
+
+    @Test
+    void shouldNotLeakAdditionalConsumerProperties() {
+        var constructedProperties = new ArrayList<Properties>();
+        try (var mockConstructionKafkaConsumer = mockConstruction(KafkaConsumer.class, (mock, context) -> constructedProperties.add((Properties) context.arguments().getFirst()))) {
+            // Given
+            var clusterId = "test-cluster";
+            var properties = new Properties();
+            properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+            kafkaManager.getConsumer(clusterId, properties).close();
+
+            // When
+            kafkaManager.getConsumer(clusterId);
+
+            // Then
+            assertEquals(2, mockConstructionKafkaConsumer.constructed().size());
+            assertEquals("500", constructedProperties.get(0).get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+            assertFalse(constructedProperties.get(1).containsKey(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        }
+    }
+
+    @Test
+    void shouldNotPoolGroupConsumer() {
+        try (var mockConstructionKafkaConsumer = mockConstruction(KafkaConsumer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+            var properties = new Properties();
+            properties.put(ConsumerConfig.GROUP_ID_CONFIG, "test-group");
+
+            // When
+            var result = kafkaManager.getConsumer(clusterId, properties);
+            result.close();
+
             // Then
             assertSame(mockConstructionKafkaConsumer.constructed().getFirst(), result);
+            verify(mockConstructionKafkaConsumer.constructed().getFirst()).close();
+        }
+    }
+
+    @Test
+    void shouldCloseIdleConsumersOnClose() {
+        try (var mockConstructionKafkaConsumer = mockConstruction(KafkaConsumer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+            kafkaManager.getConsumer(clusterId).close();
+
+            // When
+            kafkaManager.close(clusterId);
+
+            // Then
+            verify(mockConstructionKafkaConsumer.constructed().getFirst()).close();
         }
     }
 
@@ -105,11 +204,134 @@ class AbstractKafkaManagerTest {
             // When
             var result = kafkaManager.getProducer(clusterId);
 
+            // Then
+            result.flush();
+            verify(mockConstructionKafkaProducer.constructed().getFirst()).flush();
+        }
+    }
+
+    @Test
+    void shouldShareProducerOfSameProfile() {
+        try (var mockConstructionKafkaProducer = mockConstruction(KafkaProducer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+            var properties = new Properties();
+            properties.put(ProducerConfig.ACKS_CONFIG, "all");
+            properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            kafkaManager.getProducer(clusterId, properties).close();
+
+            // When
+            var result = kafkaManager.getProducer(clusterId, properties);
+
+            // Then
+            result.flush();
+            assertEquals(1, mockConstructionKafkaProducer.constructed().size());
+            verify(mockConstructionKafkaProducer.constructed().getFirst(), never()).close();
+            verify(mockConstructionKafkaProducer.constructed().getFirst()).flush();
+        }
+    }
+
+    @Test
+    void shouldCreateProducerPerProfile() {
+        var constructedProperties = new ArrayList<Properties>();
+        try (var mockConstructionKafkaProducer = mockConstruction(KafkaProducer.class, (mock, context) -> constructedProperties.add((Properties) context.arguments().getFirst()))) {
+            // Given
+            var clusterId = "test-cluster";
+            var properties = new Properties();
+            properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd");
+
+            // When
+            kafkaManager.getProducer(clusterId, properties);
+            kafkaManager.getProducer(clusterId);
+
+            // Then
+            assertEquals(2, mockConstructionKafkaProducer.constructed().size());
+            assertEquals("zstd", constructedProperties.get(0).get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+            assertFalse(constructedProperties.get(1).containsKey(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        }
+    }
+
+    @Test
+    void shouldReplaceFailedProducer() {
+        try (var mockConstructionKafkaProducer = mockConstruction(KafkaProducer.class, (mock, context) ->
+                when(mock.partitionsFor(any())).thenThrow(new IllegalStateException("closed")))) {
+            // Given
+            var clusterId = "test-cluster";
+            assertThrows(IllegalStateException.class, () -> kafkaManager.getProducer(clusterId).partitionsFor("topic"));
+
+            // When
+            kafkaManager.getProducer(clusterId);
+
+            // Then
+            assertEquals(2, mockConstructionKafkaProducer.constructed().size());
+            verify(mockConstructionKafkaProducer.constructed().getFirst()).close(any(Duration.class));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepSharedProducerWhenOneSendIsInterrupted() throws Exception {
+        try (var mockConstructionKafkaProducer = mockConstruction(KafkaProducer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+            var interrupted = new CountDownLatch(1);
+            var sent = new RecordMetadata(new TopicPartition("topic", 0), 0, 0, 0, 0, 0);
+            kafkaManager.getProducer(clusterId);
+            var producer = mockConstructionKafkaProducer.constructed().getFirst();
+            when(producer.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+                if ("interrupted".equals(invocation.<ProducerRecord<byte[], byte[]>>getArgument(0).topic())) {
+                    interrupted.countDown();
+                    throw new InterruptException(new InterruptedException());
+                }
+                interrupted.await();
+                return CompletableFuture.completedFuture(sent);
+            });
+
+            // When
+            var completed = CompletableFuture.supplyAsync(() -> kafkaManager.getProducer(clusterId).send(new ProducerRecord<>("topic", new byte[0])));
+            var failed = CompletableFuture.runAsync(() -> kafkaManager.getProducer(clusterId).send(new ProducerRecord<>("interrupted", new byte[0])));
+
+            // Then
+            assertSame(sent, completed.get(5, TimeUnit.SECONDS).get());
+            var e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InterruptException.class, e.getCause());
+            kafkaManager.getProducer(clusterId);
+            assertEquals(1, mockConstructionKafkaProducer.constructed().size());
+            verify(producer, never()).close(any(Duration.class));
+        }
+    }
+
+    @Test
+    void shouldNotShareTransactionalProducer() {
+        try (var mockConstructionKafkaProducer = mockConstruction(KafkaProducer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+            var properties = new Properties();
+            properties.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "test-tx");
+
+            // When
+            var result = kafkaManager.getProducer(clusterId, properties);
+
             // Then
             assertSame(mockConstructionKafkaProducer.constructed().getFirst(), result);
         }
     }
 
+    @Test
+    void shouldCloseProducersOnClose() {
+        try (var mockConstructionKafkaProducer = mockConstruction(KafkaProducer.class)) {
+            // Given
+            var clusterId = "test-cluster";
+            kafkaManager.getProducer(clusterId).close();
+
+            // When
+            kafkaManager.close(clusterId);
+
+            // Then
+            verify(mockConstructionKafkaProducer.constructed().getFirst()).close(any(Duration.class));
+        }
+    }
+
     @Test
     void shouldCreateSchemaRegistryClient() {
         try (var mockStaticSchemaRegistryClientFactory = mockStatic(SchemaRegistryClientFactory.class)) {
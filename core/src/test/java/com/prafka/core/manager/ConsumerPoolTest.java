@@ -0,0 +1,98 @@
+package com.prafka.core.manager;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsumerPoolTest {
+
+    private final List<Consumer<byte[], byte[]>> created = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private Consumer<byte[], byte[]> createConsumer(Properties properties) {
+        var consumer = (Consumer<byte[], byte[]>) mock(Consumer.class);
+        created.add(consumer);
+        return consumer;
+    }
+
+    @Test
+    void shouldEvictIdleConsumer() {
+        // Given
+        var pool = new ConsumerPool(this::createConsumer, Duration.ZERO);
+        pool.borrow(new Properties()).close();
+
+        // When
+        pool.borrow(new Properties());
+
+        // Then
+        assertEquals(2, created.size());
+        verify(created.getFirst()).close();
+    }
+
+    @Test
+    void shouldEvictIdleConsumerWithoutBorrow() {
+        // Given
+        var pool = new ConsumerPool(this::createConsumer, Duration.ofMillis(10));
+
+        // When
+        pool.borrow(new Properties()).close();
+
+        // Then
+        verify(created.getFirst(), timeout(5000)).close();
+        pool.close();
+    }
+
+    @Test
+    void shouldDiscardConsumerThatThrew() {
+        // Given
+        var pool = new ConsumerPool(this::createConsumer);
+        var lease = pool.borrow(new Properties());
+        doThrow(new KafkaException("test")).when(created.getFirst()).assignment();
+
+        // When
+        assertThrows(KafkaException.class, lease::assignment);
+        lease.close();
+
+        // Then
+        assertEquals(0, pool.idleCount());
+        verify(created.getFirst()).close();
+    }
+
+    @Test
+    void shouldRejectUseAfterClose() {
+        // Given
+        var pool = new ConsumerPool(this::createConsumer);
+        var lease = pool.borrow(new Properties());
+
+        // When
+        lease.close();
+        lease.close();
+
+        // Then
+        assertThrows(IllegalStateException.class, lease::assignment);
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void shouldCloseReturnedConsumerAfterPoolClosed() {
+        // Given
+        var pool = new ConsumerPool(this::createConsumer);
+        var lease = pool.borrow(new Properties());
+        pool.close();
+
+        // When
+        lease.close();
+
+        // Then
+        assertEquals(0, pool.idleCount());
+        verify(created.getFirst()).close();
+    }
+}
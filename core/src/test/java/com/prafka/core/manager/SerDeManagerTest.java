@@ -0,0 +1,178 @@
+package com.prafka.core.manager;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.apache.commons.lang3.tuple.Triple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SerDeManagerTest {
+
+    private static final String CLUSTER_ID = "test-cluster";
+    private static final String SUBJECT = "test-topic-value";
+
+    private SchemaRegistryClient schemaRegistryClient = mock(SchemaRegistryClient.class);
+    private SerDeManager serDeManager = new SerDeManager() {
+        @Override
+        protected SchemaRegistryClient schemaRegistryClient(String clusterId) {
+            return schemaRegistryClient;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        serDeManager.close();
+    }
+
+    @Test
+    void shouldCacheSubjectSerializer() throws Exception {
+        // Given
+        var schema = new AvroSchema("\"string\"");
+        when(schemaRegistryClient.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(1, 1, schema.canonicalString()));
+        when(schemaRegistryClient.getSchemaBySubjectAndId(SUBJECT, 1)).thenReturn(schema);
+
+        // When
+        var first = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+        var second = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(schema, first.schema());
+        assertNotNull(first.serializer());
+        verify(schemaRegistryClient, times(1)).getLatestSchemaMetadata(SUBJECT);
+        verify(schemaRegistryClient, times(1)).getSchemaBySubjectAndId(SUBJECT, 1);
+    }
+
+    @Test
+    void shouldCacheKeyAndValueSerializersSeparately() throws Exception {
+        // Given
+        var schema = new AvroSchema("\"string\"");
+        when(schemaRegistryClient.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(1, 1, schema.canonicalString()));
+        when(schemaRegistryClient.getSchemaBySubjectAndId(SUBJECT, 1)).thenReturn(schema);
+
+        // When
+        var key = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, true);
+        var value = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+
+        // Then
+        assertNotSame(key.serializer(), value.serializer());
+    }
+
+    @Test
+    void shouldResolveNewVersionAfterEviction() throws Exception {
+        // Given
+        var oldSchema = new JsonSchema("{\"type\": \"string\"}");
+        var newSchema = new JsonSchema("{\"type\": \"integer\"}");
+        when(schemaRegistryClient.getLatestSchemaMetadata(SUBJECT))
+                .thenReturn(new SchemaMetadata(1, 1, oldSchema.canonicalString()))
+                .thenReturn(new SchemaMetadata(2, 2, newSchema.canonicalString()));
+        when(schemaRegistryClient.getSchemaBySubjectAndId(SUBJECT, 1)).thenReturn(oldSchema);
+        when(schemaRegistryClient.getSchemaBySubjectAndId(SUBJECT, 2)).thenReturn(newSchema);
+        var first = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+
+        // When
+        serDeManager.evictSubjectSer(CLUSTER_ID, SUBJECT);
+        var second = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+
+        // Then
+        assertEquals(oldSchema, first.schema());
+        assertEquals(newSchema, second.schema());
+        assertEquals(2, second.id());
+        assertNotSame(first.serializer(), second.serializer());
+    }
+
+    @Test
+    void shouldServeExpiredSubjectSerializerWhenRefreshFails() throws Exception {
+        // Given
+        var schema = new AvroSchema("\"string\"");
+        when(schemaRegistryClient.getLatestSchemaMetadata(SUBJECT))
+                .thenReturn(new SchemaMetadata(1, 1, schema.canonicalString()))
+                .thenThrow(new IOException("timeout"));
+        when(schemaRegistryClient.getSchemaBySubjectAndId(SUBJECT, 1)).thenReturn(schema);
+        var first = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+        var expired = new SerDeManager.SubjectSerializer(first.schema(), first.id(), first.serializer(), 0);
+        SerDeManager.SUBJECT_SER.put(Triple.of(CLUSTER_ID, SUBJECT, false), expired);
+
+        // When
+        var second = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+
+        // Then
+        assertSame(expired, second);
+        verify(schemaRegistryClient, times(2)).getLatestSchemaMetadata(SUBJECT);
+    }
+
+    @Test
+    void shouldDropSubjectSerializersOfClosedCluster() throws Exception {
+        // Given
+        var schema = new AvroSchema("\"string\"");
+        when(schemaRegistryClient.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(1, 1, schema.canonicalString()));
+        when(schemaRegistryClient.getSchemaBySubjectAndId(SUBJECT, 1)).thenReturn(schema);
+        var first = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+
+        // When
+        serDeManager.close(CLUSTER_ID);
+        var second = serDeManager.subjectSer(CLUSTER_ID, SUBJECT, false);
+
+        // Then
+        assertNotSame(first, second);
+        verify(schemaRegistryClient, times(2)).getLatestSchemaMetadata(SUBJECT);
+    }
+
+    @Test
+    void shouldNotLookUpUnresolvedSchemaIdAgain() throws Exception {
+        // Given
+        when(schemaRegistryClient.getSchemaById(1)).thenThrow(new IOException("timeout"));
+
+        // When
+        var first = serDeManager.schemaById(CLUSTER_ID, 1);
+        var second = serDeManager.schemaById(CLUSTER_ID, 1);
+
+        // Then
+        assertEquals(Optional.empty(), first);
+        assertEquals(Optional.empty(), second);
+        verify(schemaRegistryClient, times(1)).getSchemaById(1);
+    }
+
+    @Test
+    void shouldOpenCircuitWhenSchemaRegistryIsUnavailable() throws Exception {
+        // Given
+        when(schemaRegistryClient.getSchemaById(anyInt())).thenThrow(new IOException("timeout"));
+
+        // When
+        for (int schemaId = 1; schemaId <= 10; schemaId++) {
+            serDeManager.schemaById(CLUSTER_ID, schemaId);
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, serDeManager.schemaRegistryState(CLUSTER_ID));
+        verify(schemaRegistryClient, times(2)).getSchemaById(anyInt());
+    }
+
+    @Test
+    void shouldKeepCircuitClosedForMissingSchemas() throws Exception {
+        // Given
+        var schema = new AvroSchema("\"string\"");
+        when(schemaRegistryClient.getSchemaById(anyInt())).thenThrow(new RestClientException("Schema not found", 404, 40403));
+        when(schemaRegistryClient.getSchemaById(100)).thenReturn(schema);
+
+        // When
+        for (int schemaId = 1; schemaId <= 10; schemaId++) {
+            serDeManager.schemaById(CLUSTER_ID, schemaId);
+        }
+        var result = serDeManager.schemaById(CLUSTER_ID, 100);
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, serDeManager.schemaRegistryState(CLUSTER_ID));
+        assertEquals(Optional.of(schema), result);
+    }
+}
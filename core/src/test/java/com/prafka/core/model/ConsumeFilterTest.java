@@ -19,6 +19,7 @@ class ConsumeFilterTest {
         assertEquals(100, filter.maxResults());
         assertTrue(filter.from().offset().isEmpty());
         assertTrue(filter.from().timestamp().isEmpty());
+        assertEquals(0, filter.parallelism());
     }
 
     @Test
@@ -105,6 +106,17 @@ class ConsumeFilterTest {
         assertTrue(expression.isActive());
     }
 
+    @Test
+    void shouldDefaultExpressionLanguageToJavascript() {
+        var legacy = new ConsumeFilter.Expression("myFilter", "return true;", true);
+        var deserialized = new ConsumeFilter.Expression("myFilter", "return true;", true, null);
+        var java = new ConsumeFilter.Expression("myFilter", "offset > 10", true, ConsumeFilter.Expression.Language.JAVA);
+
+        assertEquals(ConsumeFilter.Expression.Language.JAVASCRIPT, legacy.language());
+        assertEquals(ConsumeFilter.Expression.Language.JAVASCRIPT, deserialized.language());
+        assertEquals(ConsumeFilter.Expression.Language.JAVA, java.language());
+    }
+
     @Test
     void shouldCreateFromRecord() {
         var from = new ConsumeFilter.From(ConsumeFilter.From.Type.OFFSET, Optional.of(100L), Optional.of(9999L));
@@ -118,11 +130,12 @@ class ConsumeFilterTest {
     void shouldHaveAllFromTypes() {
         var types = ConsumeFilter.From.Type.values();
 
-        assertEquals(5, types.length);
+        assertEquals(6, types.length);
         assertNotNull(ConsumeFilter.From.Type.BEGIN);
         assertNotNull(ConsumeFilter.From.Type.END);
         assertNotNull(ConsumeFilter.From.Type.OFFSET);
         assertNotNull(ConsumeFilter.From.Type.DATETIME);
         assertNotNull(ConsumeFilter.From.Type.TIMESTAMP);
+        assertNotNull(ConsumeFilter.From.Type.FOLLOW);
     }
 }
@@ -1,11 +1,19 @@
 package com.prafka.core.model;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -198,4 +206,81 @@ class RecordTest {
         assertTrue(record.isValueIsJson());
         assertEquals("{not valid json}", record.getValueCompressed());
     }
+
+    @Test
+    void shouldFormatLazilyAndCache() {
+        var headers = new RecordHeaders();
+        var source = new ConsumerRecord<>("topic", 0, 100L, 1234567890L,
+                TimestampType.CREATE_TIME, 10, 20, "key".getBytes(), " {\"a\": 1}\n".getBytes(), headers, null);
+
+        var record = new Record(source, "key", " {\"a\": 1}\n");
+
+        assertTrue(record.isValueIsJson());
+        assertSame(record.getValueFormatted(), record.getValueFormatted());
+        assertEquals("{\"a\":1}", record.getValueCompressed());
+        assertSame("key", record.getKeyCompressed());
+        assertTrue(record.getHeaders().isEmpty());
+    }
+
+    @Test
+    void shouldFormatDecodedTree() {
+        var headers = new RecordHeaders();
+        var source = new ConsumerRecord<>("topic", 0, 100L, 1234567890L,
+                TimestampType.CREATE_TIME, 10, 20, "key".getBytes(), new byte[]{0, 0, 0, 0, 1}, headers, null);
+        var tree = new JsonObject();
+        tree.addProperty("name", "value");
+        tree.addProperty("count", 42);
+
+        var record = new Record(source, DecodedPayload.ofText("key"), DecodedPayload.ofTree(tree));
+
+        assertTrue(record.isValueIsJson());
+        assertEquals("{\"name\":\"value\",\"count\":42}", record.getValue());
+        assertEquals(record.getValue(), record.getValueCompressed());
+        assertEquals("{\n  \"name\": \"value\",\n  \"count\": 42\n}", record.getValueFormatted());
+        assertEquals(Map.of("name", "value", "count", 42.0), record.toDto().get("value"));
+    }
+
+    @Test
+    void shouldDecodeDeferredPayloadOnFirstRead() {
+        var headers = new RecordHeaders();
+        var source = new ConsumerRecord<>("topic", 0, 100L, 1234567890L,
+                TimestampType.CREATE_TIME, 10, 20, "key".getBytes(), "{\"id\":7}".getBytes(), headers, null);
+        var decodes = new AtomicInteger();
+
+        var record = new Record(source, DecodedPayload.ofText("key"), DecodedPayload.deferred(() -> {
+            decodes.incrementAndGet();
+            return DecodedPayload.ofText("{\"id\":7}");
+        }), List.of(7L));
+
+        assertEquals(0, decodes.get());
+        assertEquals(List.of(7L), record.getColumns());
+        assertTrue(record.isValueIsJson());
+        assertEquals("{\"id\":7}", record.getValueCompressed());
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    void shouldDecodeDeferredPayloadOnceAcrossThreads() throws Exception {
+        var decodes = new AtomicInteger();
+        var payload = DecodedPayload.deferred(() -> {
+            decodes.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return DecodedPayload.ofText("{\"id\":7}");
+        });
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var reads = new ArrayList<Future<Optional<JsonElement>>>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(executor.submit(payload::tree));
+            }
+            for (var read : reads) {
+                assertEquals(7, read.get().orElseThrow().getAsJsonObject().get("id").getAsInt());
+            }
+        }
+        assertEquals(1, decodes.get());
+    }
 }
@@ -4,11 +4,12 @@ import com.prafka.core.model.ConsumerGroup;
 import org.apache.kafka.clients.admin.*;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
-import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
 import org.apache.kafka.common.*;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -18,7 +19,8 @@ class ConsumerGroupServiceTest {
 
     private AdminClient adminClient = mock(AdminClient.class);
     private Consumer<byte[], byte[]> consumer = mock(Consumer.class);
-    private ConsumerGroupService consumerGroupService = new ConsumerGroupService() {
+    private OffsetService offsetService = mock(OffsetService.class);
+    private ConsumerGroupService consumerGroupService = new ConsumerGroupService(offsetService) {
         @Override
         protected AdminClient adminClient(String clusterId) {
             return adminClient;
@@ -57,8 +59,8 @@ class ConsumerGroupServiceTest {
         when(adminClient.describeConsumerGroups(anyList())).thenReturn(mockDescribeConsumerGroupsResult);
         when(adminClient.listConsumerGroupOffsets(anyMap())).thenReturn(mockListConsumerGroupOffsetsResult);
         when(mockListConsumerGroupOffsetsResult.partitionsToOffsetAndMetadata(anyString())).thenReturn(KafkaFuture.completedFuture(offsetMap));
-        when(consumer.beginningOffsets(anyCollection())).thenReturn(beginOffsetMap);
-        when(consumer.endOffsets(anyCollection())).thenReturn(endOffsetMap);
+        when(offsetService.getBeginOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(beginOffsetMap));
+        when(offsetService.getEndOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(endOffsetMap));
 
         // When
         var result = consumerGroupService.getAll(clusterId);
@@ -69,6 +71,33 @@ class ConsumerGroupServiceTest {
         assertEquals("group1", consumerGroupList.getFirst().getId());
     }
 
+    @Test
+    void shouldFailGetAllWhenOffsetsCannotBeResolved() {
+        // Given
+        var clusterId = "test-cluster";
+
+        var mockDescribeConsumerGroupsResult = mock(DescribeConsumerGroupsResult.class);
+        var mockConsumerGroupDescription = new ConsumerGroupDescription("group1", true,
+                Collections.emptyList(), "1", GroupType.CONSUMER, GroupState.STABLE, mock(Node.class),
+                Collections.emptySet(), Optional.empty(), Optional.empty());
+        var mockListConsumerGroupOffsetsResult = mock(ListConsumerGroupOffsetsResult.class);
+        var offsetMap = Map.of(new TopicPartition("topic1", 0), new OffsetAndMetadata(10L));
+
+        when(mockDescribeConsumerGroupsResult.describedGroups()).thenReturn(Map.of("group1", KafkaFuture.completedFuture(mockConsumerGroupDescription)));
+        when(adminClient.describeConsumerGroups(anyList())).thenReturn(mockDescribeConsumerGroupsResult);
+        when(adminClient.listConsumerGroupOffsets(anyMap())).thenReturn(mockListConsumerGroupOffsetsResult);
+        when(mockListConsumerGroupOffsetsResult.partitionsToOffsetAndMetadata(anyString())).thenReturn(KafkaFuture.completedFuture(offsetMap));
+        when(offsetService.getBeginOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(Map.of(new TopicPartition("topic1", 0), 0L)));
+        when(offsetService.getEndOffsets(any(), any())).thenReturn(CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException("test")));
+
+        // When
+        var result = consumerGroupService.getAll(clusterId, List.of("group1"));
+
+        // Then
+        var exception = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(org.apache.kafka.common.errors.TimeoutException.class, exception.getCause());
+    }
+
     @Test
     void shouldCreate() throws Exception {
         // Given
@@ -261,10 +290,7 @@ class ConsumerGroupServiceTest {
                 Optional.of(timestamp)
         );
 
-        var offsetAndTimestamp = new OffsetAndTimestamp(75L, timestamp);
-        var offsetForTimesResult = Map.of(topicPartition, offsetAndTimestamp);
-
-        when(consumer.offsetsForTimes(anyMap())).thenReturn(offsetForTimesResult);
+        when(offsetService.getOffsetsForTimestamp(clusterId, offsets.keySet(), timestamp)).thenReturn(CompletableFuture.completedFuture(Map.of(topicPartition, 75L)));
 
         // When
         var result = consumerGroupService.calculateNewOffsets(clusterId, groupId, offsets, filter).get();
@@ -292,10 +318,7 @@ class ConsumerGroupServiceTest {
                 Optional.of(timestamp)
         );
 
-        var offsetAndTimestamp = new OffsetAndTimestamp(85L, timestamp);
-        var offsetForTimesResult = Map.of(topicPartition, offsetAndTimestamp);
-
-        when(consumer.offsetsForTimes(anyMap())).thenReturn(offsetForTimesResult);
+        when(offsetService.getOffsetsForTimestamp(clusterId, offsets.keySet(), timestamp)).thenReturn(CompletableFuture.completedFuture(Map.of(topicPartition, 85L)));
 
         // When
         var result = consumerGroupService.calculateNewOffsets(clusterId, groupId, offsets, filter).get();
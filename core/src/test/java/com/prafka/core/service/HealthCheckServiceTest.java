@@ -1,7 +1,9 @@
 package com.prafka.core.service;
 
 import com.prafka.core.manager.KafkaManager;
+import com.prafka.core.manager.SerDeManager;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.DescribeClusterResult;
 import org.apache.kafka.common.KafkaFuture;
@@ -10,6 +12,7 @@ import org.sourcelab.kafka.connect.apiclient.KafkaConnectClient;
 import org.sourcelab.kafka.connect.apiclient.request.dto.ConnectServerVersion;
 
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -21,7 +24,8 @@ class HealthCheckServiceTest {
     private SchemaRegistryClient schemaRegistryClient = mock(SchemaRegistryClient.class);
     private KafkaConnectClient kafkaConnectClient = mock(KafkaConnectClient.class);
     private KafkaManager kafkaManager = mock(KafkaManager.class);
-    private HealthCheckService healthCheckService = new HealthCheckService() {
+    private SerDeManager serDeManager = mock(SerDeManager.class);
+    private HealthCheckService healthCheckService = new HealthCheckService(serDeManager) {
         @Override
         protected AdminClient adminClient(String clusterId) {
             return adminClient;
@@ -52,6 +56,7 @@ class HealthCheckServiceTest {
         when(kafkaConnectClient.getConnectServerVersion()).thenReturn(new ConnectServerVersion());
         when(kafkaManager.schemaRegistryIsDefined(clusterId)).thenReturn(true);
         when(kafkaManager.connectsIsDefined(clusterId)).thenReturn(true);
+        when(serDeManager.schemaRegistryState(clusterId)).thenReturn(CircuitBreaker.State.CLOSED);
 
         healthCheckService.setKafkaManager(kafkaManager);
 
@@ -62,6 +67,7 @@ class HealthCheckServiceTest {
         assertTrue(result.cluster().available());
         assertTrue(result.schemaRegistry().isPresent());
         assertTrue(result.schemaRegistry().get().available());
+        assertEquals(Optional.of(CircuitBreaker.State.CLOSED), result.schemaRegistryCircuit());
         assertTrue(result.connects().isPresent());
         assertTrue(result.connects().get().get("connect1").available());
     }
@@ -0,0 +1,80 @@
+package com.prafka.core.service;
+
+import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.KeyProfile;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class KeyProfileServiceTest {
+
+    private RecordService recordService = mock(RecordService.class);
+    private KeyProfileService keyProfileService = new KeyProfileService(recordService);
+
+    /**
+     * Delivers 10 000 records over 3 partitions: a quarter without key, 1000 with key "hot", 500 with a binary key
+     * and the rest spread over 300 other keys.
+     */
+    @SuppressWarnings("unchecked")
+    private void mockScanRaw() {
+        doAnswer(invocation -> {
+            var onRecord = (Consumer<ConsumerRecord<byte[], byte[]>>) invocation.getArgument(3);
+            for (int i = 0; i < 10_000; i++) {
+                byte[] key;
+                if (i % 4 == 0) key = null;
+                else if (i % 10 == 1) key = "hot".getBytes(StandardCharsets.UTF_8);
+                else if (i % 20 == 3) key = new byte[]{0, 1, (byte) 0xff};
+                else key = ("key-" + i % 500).getBytes(StandardCharsets.UTF_8);
+                onRecord.accept(new ConsumerRecord<>("topic1", i % 3, i, key, new byte[0]));
+            }
+            return null;
+        }).when(recordService).scanRaw(eq("test-cluster"), eq("topic1"), any(ConsumeFilter.class), any(Consumer.class), any(Consumer.class), any(AtomicBoolean.class));
+    }
+
+    @Test
+    void shouldProfileKeys() throws Exception {
+        // Given
+        mockScanRaw();
+        var filter = ConsumeFilter.builder().from(new ConsumeFilter.From(ConsumeFilter.From.Type.BEGIN, Optional.empty(), Optional.empty())).maxResults(Integer.MAX_VALUE).partitions(List.of()).build();
+
+        // When
+        var profile = keyProfileService.profile("test-cluster", "topic1", filter, 2, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        var captor = ArgumentCaptor.forClass(ConsumeFilter.class);
+        //noinspection unchecked
+        verify(recordService).scanRaw(eq("test-cluster"), eq("topic1"), captor.capture(), any(Consumer.class), any(Consumer.class), any(AtomicBoolean.class));
+        assertTrue(captor.getValue().scan());
+        assertEquals(10_000, profile.records());
+        assertEquals(2_500, profile.nullKeys());
+        assertEquals(302, profile.distinctKeys(), 302 * 0.03);
+        assertEquals(List.of(new KeyProfile.HotKey("hot", 1, 1_000), new KeyProfile.HotKey("0x0001ff", 2, 500)), profile.hotKeys());
+        assertEquals(List.of(0, 1, 2), profile.partitions().stream().map(KeyProfile.Partition::id).toList());
+        var partition = profile.partitions().get(1);
+        assertEquals(3_333, partition.records());
+        assertEquals(833, partition.nullKeys());
+        assertEquals(302, partition.distinctKeys(), 302 * 0.05);
+        assertEquals("hot", partition.hotKey());
+        assertEquals(1_000, partition.hotKeyCount());
+    }
+
+    @Test
+    void shouldFormatKeys() {
+        // When & Then
+        assertEquals("order-1", KeyProfileService.formatKey("order-1".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("0x00ff", KeyProfileService.formatKey(new byte[]{0, (byte) 0xff}));
+        assertEquals("a".repeat(256) + "…", KeyProfileService.formatKey("a".repeat(300).getBytes(StandardCharsets.UTF_8)));
+    }
+}
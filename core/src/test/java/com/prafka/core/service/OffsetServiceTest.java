@@ -0,0 +1,108 @@
+package com.prafka.core.service;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsOptions;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.common.IsolationLevel;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OffsetServiceTest {
+
+    private AdminClient adminClient = mock(AdminClient.class);
+    private OffsetService offsetService = new OffsetService() {
+        @Override
+        protected AdminClient adminClient(String clusterId) {
+            return adminClient;
+        }
+    };
+
+    private void mockListOffsets(Map<TopicPartition, KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo>> results) {
+        var listOffsetsResult = mock(ListOffsetsResult.class);
+        results.forEach((tp, future) -> when(listOffsetsResult.partitionResult(tp)).thenReturn(future));
+        when(adminClient.listOffsets(any(), any())).thenReturn(listOffsetsResult);
+    }
+
+    private static KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo> offset(long offset) {
+        return KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(offset, -1, Optional.empty()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResolveConcurrentRequestsInOneCall() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var tp0 = new TopicPartition("topic1", 0);
+        var tp1 = new TopicPartition("topic1", 1);
+        var tp2 = new TopicPartition("topic2", 0);
+        mockListOffsets(Map.of(tp0, offset(10), tp1, offset(20), tp2, offset(30)));
+
+        // When
+        var result1 = offsetService.getEndOffsets(clusterId, List.of(tp0, tp1));
+        var result2 = offsetService.getEndOffsets(clusterId, List.of(tp1, tp2));
+
+        // Then
+        assertEquals(Map.of(tp0, 10L, tp1, 20L), result1.get());
+        assertEquals(Map.of(tp1, 20L, tp2, 30L), result2.get());
+        var captor = ArgumentCaptor.forClass(Map.class);
+        var optionsCaptor = ArgumentCaptor.forClass(ListOffsetsOptions.class);
+        verify(adminClient, times(1)).listOffsets(captor.capture(), optionsCaptor.capture());
+        assertEquals(Set.of(tp0, tp1, tp2), captor.getValue().keySet());
+        assertInstanceOf(OffsetSpec.LatestSpec.class, captor.getValue().get(tp0));
+        assertEquals(IsolationLevel.READ_COMMITTED, optionsCaptor.getValue().isolationLevel());
+    }
+
+    @Test
+    void shouldOmitPartitionWithoutOffsetForTimestamp() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var tp0 = new TopicPartition("topic1", 0);
+        var tp1 = new TopicPartition("topic1", 1);
+        mockListOffsets(Map.of(tp0, offset(10), tp1, offset(-1)));
+
+        // When
+        var result = offsetService.getOffsetsForTimestamp(clusterId, List.of(tp0, tp1), 1000L).get();
+
+        // Then
+        assertEquals(Map.of(tp0, 10L), result);
+    }
+
+    @Test
+    void shouldFailWhenNoPartitionResolved() {
+        // Given
+        var clusterId = "test-cluster";
+        var tp = new TopicPartition("topic1", 0);
+        var failed = new KafkaFutureImpl<ListOffsetsResult.ListOffsetsResultInfo>();
+        failed.completeExceptionally(new UnknownTopicOrPartitionException("test"));
+        mockListOffsets(Map.of(tp, failed));
+
+        // When
+        var result = offsetService.getBeginOffsets(clusterId, List.of(tp));
+
+        // Then
+        var exception = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(UnknownTopicOrPartitionException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldNotCallAdminForEmptyPartitions() throws Exception {
+        // When
+        var result = offsetService.getBeginOffsets("test-cluster", List.of()).get();
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(adminClient);
+    }
+}
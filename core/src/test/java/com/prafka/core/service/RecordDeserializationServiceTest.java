@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -158,11 +159,11 @@ class RecordDeserializationServiceTest {
 
         var keySchema = mock(ParsedSchema.class);
         when(keySchema.schemaType()).thenReturn("AVRO");
-        when(schemaRegistryClient.getSchemaById(keySchemaId)).thenReturn(keySchema);
+        when(serDeManager.schemaById(clusterId, keySchemaId)).thenReturn(Optional.of(keySchema));
 
         var valueSchema = mock(ParsedSchema.class);
         when(valueSchema.schemaType()).thenReturn("AVRO");
-        when(schemaRegistryClient.getSchemaById(valueSchemaId)).thenReturn(valueSchema);
+        when(serDeManager.schemaById(clusterId, valueSchemaId)).thenReturn(Optional.of(valueSchema));
 
         var keyAvroDeserializer = mock(org.apache.kafka.common.serialization.Deserializer.class);
         when(serDeManager.avroDeser(clusterId, true)).thenReturn(keyAvroDeserializer);
@@ -212,4 +213,45 @@ class RecordDeserializationServiceTest {
         assertTrue(valueResult.contains("\"message\":\"test-message\""));
         assertTrue(valueResult.contains("\"count\":42"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldDeserializeByLearnedFormat() {
+        // Given
+        var topic = new Topic(new TopicDescription("test-topic", false, Collections.emptyList()), Collections.emptyMap(), Collections.emptyMap());
+        recordDeserializationService.setKafkaManager(kafkaManager);
+        for (int i = 0; i < RecordDeserializationService.FORMAT_INFERENCE_RECORDS; i++) {
+            var record = new ConsumerRecord<>(topic.getName(), 0, i, ("key-" + i).getBytes(), ("{\"value\":" + i + "}").getBytes());
+            recordDeserializationService.deserialize("cluster1", topic, record, SerdeType.AUTO, SerdeType.AUTO);
+        }
+        var record = new ConsumerRecord<>(topic.getName(), 0, 100, "key-100".getBytes(), "{\"value\":\"ünïcödé\"}".getBytes());
+
+        // When
+        var result = recordDeserializationService.deserialize("cluster1", topic, record, SerdeType.AUTO, SerdeType.AUTO);
+
+        // Then
+        assertEquals("key-100", result.getKey());
+        assertEquals("{\"value\":\"ünïcödé\"}", result.getValue());
+    }
+
+    @Test
+    void shouldDetectFormatAgainOnMismatch() {
+        // Given
+        var topic = new Topic(new TopicDescription("test-topic", false, Collections.emptyList()), Collections.emptyMap(), Collections.emptyMap());
+        recordDeserializationService.setKafkaManager(kafkaManager);
+        for (int i = 0; i < RecordDeserializationService.FORMAT_INFERENCE_RECORDS; i++) {
+            var record = new ConsumerRecord<>(topic.getName(), 0, i, ("key-" + i).getBytes(), ("value-" + i).getBytes());
+            recordDeserializationService.deserialize("cluster1", topic, record, SerdeType.AUTO, SerdeType.AUTO);
+        }
+        var binary = new byte[]{(byte) 0xff, 0x01, (byte) 0xfe, 0x02};
+        var binaryRecord = new ConsumerRecord<>(topic.getName(), 0, 100, "key-100".getBytes(), binary);
+        var textRecord = new ConsumerRecord<>(topic.getName(), 0, 101, "key-101".getBytes(), "value-101".getBytes());
+
+        // When
+        var binaryResult = recordDeserializationService.deserialize("cluster1", topic, binaryRecord, SerdeType.AUTO, SerdeType.AUTO);
+        var textResult = recordDeserializationService.deserialize("cluster1", topic, textRecord, SerdeType.AUTO, SerdeType.AUTO);
+
+        // Then
+        assertEquals("ff 01 fe 02", binaryResult.getValue());
+        assertEquals("value-101", textResult.getValue());
+    }
+}
@@ -0,0 +1,147 @@
+package com.prafka.core.service;
+
+import com.google.gson.JsonParser;
+import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.Record;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RecordExportServiceTest {
+
+    private RecordService recordService = mock(RecordService.class);
+    private RecordExportService recordExportService = new RecordExportService(recordService);
+
+    @TempDir
+    Path tempDir;
+
+    private static Record record(long offset, String key, String value) {
+        var headers = new RecordHeaders();
+        headers.add("source", "test".getBytes());
+        var source = new ConsumerRecord<>("topic1", 0, offset, 1000L + offset, TimestampType.CREATE_TIME,
+                key == null ? -1 : key.length(), value.length(), key == null ? null : key.getBytes(), value.getBytes(), headers, Optional.empty());
+        return new Record(source, key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockConsume(List<Record> records) {
+        doAnswer(invocation -> {
+            var onRecord = (Consumer<Record>) invocation.getArgument(3);
+            records.forEach(onRecord);
+            onRecord.accept(Record.LAST);
+            return null;
+        }).when(recordService).consume(eq("test-cluster"), eq("topic1"), any(ConsumeFilter.class), any(Consumer.class), any(Consumer.class), any(AtomicBoolean.class));
+    }
+
+    private static ConsumeFilter filter() {
+        return new ConsumeFilter(new ConsumeFilter.From(ConsumeFilter.From.Type.BEGIN, Optional.empty(), Optional.empty()),
+                1000, List.of(), null, null, List.of());
+    }
+
+    @Test
+    void shouldExportNdjson() throws Exception {
+        // Given
+        mockConsume(List.of(record(0, "k1", "{\"id\": 1}"), record(1, null, "plain text")));
+        var path = tempDir.resolve("messages.ndjson");
+
+        // When
+        var count = recordExportService.export("test-cluster", "topic1", filter(), path, RecordExportService.Format.NDJSON,
+                RecordExportService.Compression.NONE, it -> {
+                }, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals(2, count);
+        var lines = Files.readAllLines(path);
+        assertEquals(2, lines.size());
+        var first = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals(1, first.getAsJsonObject("value").get("id").getAsInt());
+        assertEquals("test", first.getAsJsonObject("headers").get("source").getAsString());
+        var second = JsonParser.parseString(lines.get(1)).getAsJsonObject();
+        assertTrue(second.get("key").isJsonNull());
+        assertEquals("plain text", second.get("value").getAsString());
+    }
+
+    @Test
+    void shouldExportGzippedCsv() throws Exception {
+        // Given
+        mockConsume(List.of(record(0, "k1", "a,\"b\"")));
+        var path = tempDir.resolve("messages.csv.gz");
+
+        // When
+        recordExportService.export("test-cluster", "topic1", filter(), path, RecordExportService.Format.of(path),
+                RecordExportService.Compression.of(path), it -> {
+                }, new AtomicBoolean()).get();
+
+        // Then
+        var out = new ByteArrayOutputStream();
+        try (var in = new GZIPInputStream(Files.newInputStream(path))) {
+            in.transferTo(out);
+        }
+        var lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("topic,partition,offset,timestamp,key,keySize,value,valueSize,headers", lines[0]);
+        assertEquals("topic1,0,0,1000,k1,2,\"a,\"\"b\"\"\",7,\"{\"\"source\"\":\"\"test\"\"}\"", lines[1]);
+    }
+
+    @Test
+    void shouldExportAvroContainer() throws Exception {
+        // Given
+        var records = List.of(record(0, "k1", "v1"), record(1, null, "v2"));
+        var path = tempDir.resolve("messages.avro");
+
+        // When
+        var count = recordExportService.export(records, path, RecordExportService.Format.AVRO, RecordExportService.Compression.GZIP).get();
+
+        // Then
+        assertEquals(2, count);
+        try (var reader = new DataFileReader<GenericRecord>(path.toFile(), new GenericDatumReader<>())) {
+            assertEquals("deflate", reader.getMetaString("avro.codec"));
+            var first = reader.next();
+            assertEquals("k1", first.get("key").toString());
+            assertEquals(0L, first.get("offset"));
+            var second = reader.next();
+            assertNull(second.get("key"));
+            assertEquals("v2", second.get("value").toString());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void shouldRejectFollowMode() {
+        // Given
+        var filter = new ConsumeFilter(new ConsumeFilter.From(ConsumeFilter.From.Type.FOLLOW, Optional.empty(), Optional.empty()),
+                1000, List.of(), null, null, List.of());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> recordExportService.export("test-cluster", "topic1", filter,
+                tempDir.resolve("messages.ndjson"), RecordExportService.Format.NDJSON, RecordExportService.Compression.NONE, it -> {
+                }, new AtomicBoolean()));
+    }
+
+    @Test
+    void shouldResolveFormatAndCompressionFromFileName() {
+        assertEquals(RecordExportService.Format.CSV, RecordExportService.Format.of(Path.of("a.CSV.zst")));
+        assertEquals(RecordExportService.Compression.ZSTD, RecordExportService.Compression.of(Path.of("a.CSV.zst")));
+        assertEquals(RecordExportService.Format.NDJSON, RecordExportService.Format.of(Path.of("a.json")));
+        assertEquals(RecordExportService.Compression.NONE, RecordExportService.Compression.of(Path.of("a.avro")));
+    }
+}
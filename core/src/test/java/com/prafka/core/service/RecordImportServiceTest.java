@@ -0,0 +1,173 @@
+package com.prafka.core.service;
+
+import com.prafka.core.manager.SerDeManager;
+import com.prafka.core.model.ImportOptions;
+import com.prafka.core.model.ImportProgress;
+import com.prafka.core.model.NewRecord;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class RecordImportServiceTest {
+
+    private Producer<byte[], byte[]> producer = mock(Producer.class);
+    private Properties producerProperties;
+    private RecordImportService recordImportService = new RecordImportService(new RecordSerializationService(mock(SerDeManager.class))) {
+        @Override
+        protected Producer<byte[], byte[]> producer(String clusterId, Properties properties) {
+            producerProperties = properties;
+            return producer;
+        }
+    };
+
+    @TempDir
+    Path tempDir;
+
+    private List<ProducerRecord<byte[], byte[]>> mockSend() {
+        var sent = new ArrayList<ProducerRecord<byte[], byte[]>>();
+        doAnswer(invocation -> {
+            var record = (ProducerRecord<byte[], byte[]>) invocation.getArgument(0);
+            sent.add(record);
+            var metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), sent.size(), 0, 0,
+                    record.key() == null ? -1 : record.key().length, record.value() == null ? -1 : record.value().length);
+            ((Callback) invocation.getArgument(1)).onCompletion(metadata, null);
+            return null;
+        }).when(producer).send(any(), any());
+        return sent;
+    }
+
+    @Test
+    void shouldImportNdjson() throws Exception {
+        // Given
+        var sent = mockSend();
+        var path = tempDir.resolve("messages.ndjson");
+        Files.writeString(path, """
+                {"topic":"topic1","partition":2,"offset":0,"timestamp":1000,"key":"k1","value":{"id":1},"headers":{"source":"test"}}
+
+                {"topic":"topic1","partition":1,"offset":1,"timestamp":1001,"key":null,"value":"plain text","headers":{}}
+                """);
+        var options = ImportOptions.DEFAULT.toBuilder().keepPartition(true).build();
+        var progress = new ArrayList<ImportProgress>();
+
+        // When
+        var result = recordImportService.importFromFile("test-cluster", "topic2", path, options, progress::add, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals(2, result.readRecords());
+        assertEquals(2, result.sentRecords());
+        assertEquals(0, result.failedRecords());
+        assertEquals(2 + 8 + 10, result.sentBytes());
+        assertTrue(progress.getLast().completed());
+
+        assertEquals("topic2", sent.get(0).topic());
+        assertEquals(2, sent.get(0).partition());
+        assertNull(sent.get(0).timestamp());
+        assertEquals("k1", new String(sent.get(0).key(), StandardCharsets.UTF_8));
+        assertEquals("{\"id\":1}", new String(sent.get(0).value(), StandardCharsets.UTF_8));
+        assertEquals("test", new String(sent.get(0).headers().lastHeader("source").value(), StandardCharsets.UTF_8));
+        assertNull(sent.get(1).key());
+
+        verify(producer).flush();
+    }
+
+    @Test
+    void shouldConfigureProducerFromOptions() throws Exception {
+        // Given
+        mockSend();
+        var path = tempDir.resolve("messages.ndjson");
+        Files.writeString(path, "{\"key\":\"k1\",\"value\":\"v1\"}\n");
+        var options = ImportOptions.builder()
+                .compression(NewRecord.CompressionType.ZSTD)
+                .asks(NewRecord.Asks.LEADER)
+                .idempotence(true)
+                .lingerMs(50)
+                .batchSize(512 * 1024)
+                .maxInFlightRequests(10)
+                .build();
+
+        // When
+        recordImportService.importFromFile("test-cluster", "topic1", path, options, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals("zstd", producerProperties.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals("1", producerProperties.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(false, producerProperties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(50, producerProperties.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(512 * 1024, producerProperties.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals(10, producerProperties.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+    }
+
+    @Test
+    void shouldCountFailedRecordsAndContinue() throws Exception {
+        // Given
+        var sent = new ArrayList<ProducerRecord<byte[], byte[]>>();
+        doAnswer(invocation -> {
+            var record = (ProducerRecord<byte[], byte[]>) invocation.getArgument(0);
+            sent.add(record);
+            ((Callback) invocation.getArgument(1)).onCompletion(null, new RecordTooLargeException("too large"));
+            return null;
+        }).when(producer).send(any(), any());
+        var path = tempDir.resolve("messages.ndjson.gz");
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(path)), StandardCharsets.UTF_8)) {
+            writer.write("not json\n");
+            writer.write("{\"key\":\"k1\",\"value\":\"v1\"}\n");
+        }
+
+        // When
+        var result = recordImportService.importFromFile("test-cluster", "topic1", path, ImportOptions.DEFAULT, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals(2, result.readRecords());
+        assertEquals(0, result.sentRecords());
+        assertEquals(2, result.failedRecords());
+        assertEquals("too large", result.lastError());
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void shouldStopReadingWhenCancelled() throws Exception {
+        // Given
+        var path = tempDir.resolve("messages.ndjson");
+        Files.writeString(path, "{\"key\":\"k1\",\"value\":\"v1\"}\n");
+
+        // When
+        var result = recordImportService.importFromFile("test-cluster", "topic1", path, ImportOptions.DEFAULT, it -> {
+        }, new AtomicBoolean(true)).get();
+
+        // Then
+        assertEquals(0, result.readRecords());
+        verify(producer, never()).send(any(), any());
+    }
+
+    @Test
+    void shouldDisableIdempotenceWhenNotAllowed() {
+        assertFalse(ImportOptions.DEFAULT.toBuilder().asks(NewRecord.Asks.NONE).build().idempotence());
+        assertFalse(ImportOptions.DEFAULT.toBuilder().maxInFlightRequests(6).build().idempotence());
+        assertTrue(ImportOptions.DEFAULT.idempotence());
+    }
+}
@@ -0,0 +1,133 @@
+package com.prafka.core.service;
+
+import com.prafka.core.manager.SerDeManager;
+import com.prafka.core.model.LoadOptions;
+import com.prafka.core.model.SerdeType;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class RecordLoadServiceTest {
+
+    private Producer<byte[], byte[]> producer = mock(Producer.class);
+    private RecordRandomService recordRandomService = mock(RecordRandomService.class);
+    private Queue<ProducerRecord<byte[], byte[]>> sent = new ConcurrentLinkedQueue<>();
+    private RecordLoadService recordLoadService = new RecordLoadService(recordRandomService, new RecordSerializationService(mock(SerDeManager.class))) {
+        @Override
+        protected Producer<byte[], byte[]> producer(String clusterId, Properties properties) {
+            return producer;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            var record = (ProducerRecord<byte[], byte[]>) invocation.getArgument(0);
+            sent.add(record);
+            var metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0, 0,
+                    record.key() == null ? -1 : record.key().length, record.value() == null ? -1 : record.value().length);
+            ((Callback) invocation.getArgument(1)).onCompletion(metadata, null);
+            return null;
+        }).when(producer).send(any(), any());
+    }
+
+    @Test
+    void shouldProduceTemplatedRecordsFromAllThreads() throws Exception {
+        // Given
+        var options = LoadOptions.builder()
+                .keyTemplate("k-{{seq}}")
+                .valueTemplate("{\"thread\":{{thread}}}")
+                .threads(2)
+                .maxRecords(100)
+                .build();
+
+        // When
+        var result = recordLoadService.generate("test-cluster", "topic1", options, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertTrue(result.completed());
+        assertEquals(100, result.sentRecords());
+        assertEquals(100, result.ackedRecords());
+        assertEquals(0, result.failedRecords());
+        assertEquals(100, result.latency().count());
+        var keys = sent.stream().map(it -> new String(it.key(), StandardCharsets.UTF_8)).collect(Collectors.toSet());
+        assertEquals(IntStream.range(0, 100).mapToObj(it -> "k-" + it).collect(Collectors.toSet()), keys);
+        var values = sent.stream().map(it -> new String(it.value(), StandardCharsets.UTF_8)).collect(Collectors.toSet());
+        assertTrue(Set.of("{\"thread\":0}", "{\"thread\":1}").containsAll(values));
+        verify(producer, times(2)).flush();
+    }
+
+    @Test
+    void shouldGeneratePayloadPoolOnce() throws Exception {
+        // Given
+        when(recordRandomService.random(SerdeType.STRING)).thenReturn("a", "b", "c");
+        var options = LoadOptions.builder()
+                .keySerde(SerdeType.STRING)
+                .valueSerde(SerdeType.NULL)
+                .payloadPoolSize(3)
+                .maxRecords(10)
+                .build();
+
+        // When
+        var result = recordLoadService.generate("test-cluster", "topic1", options, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals(10, result.ackedRecords());
+        assertEquals(10, result.ackedBytes());
+        verify(recordRandomService, times(3)).random(SerdeType.STRING);
+        assertTrue(sent.stream().allMatch(it -> it.value() == null));
+    }
+
+    @Test
+    void shouldStopAfterDuration() throws Exception {
+        // Given
+        var options = LoadOptions.builder()
+                .keyTemplate("{{uuid}}")
+                .valueTemplate("{{random}}")
+                .targetRate(1000)
+                .durationMs(200)
+                .build();
+
+        // When
+        var result = recordLoadService.generate("test-cluster", "topic1", options, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertTrue(result.ackedRecords() > 0);
+        assertTrue(result.ackedRecords() <= 250, "acked " + result.ackedRecords());
+    }
+
+    @Test
+    void shouldNotSendWhenCancelled() throws Exception {
+        // Given
+        var options = LoadOptions.builder().keyTemplate("k").valueTemplate("v").build();
+
+        // When
+        var result = recordLoadService.generate("test-cluster", "topic1", options, it -> {
+        }, new AtomicBoolean(true)).get();
+
+        // Then
+        assertEquals(0, result.sentRecords());
+        verify(producer, never()).send(any(), any());
+    }
+}
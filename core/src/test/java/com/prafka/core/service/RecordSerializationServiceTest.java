@@ -6,9 +6,10 @@ import com.prafka.core.model.NewRecord;
 import com.prafka.core.model.SerdeType;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
-import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serializer;
 import org.junit.jupiter.api.Test;
 
@@ -18,8 +19,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class RecordSerializationServiceTest {
 
@@ -74,25 +74,17 @@ class RecordSerializationServiceTest {
         record.setValueSchemaSubject(Optional.of("value-schema"));
         record.setHeaders(Map.of("header-key", "header-value"));
 
-        var schemaMetadata = mock(SchemaMetadata.class);
-        when(schemaMetadata.getId()).thenReturn(1);
-
         var schema = mock(JsonSchema.class);
         when(schema.schemaType()).thenReturn("JSON");
         when(schema.validate(any(JsonNode.class))).thenReturn(mock(JsonNode.class));
 
-        when(schemaRegistryClient.getLatestSchemaMetadata("key-schema")).thenReturn(schemaMetadata);
-        when(schemaRegistryClient.getLatestSchemaMetadata("value-schema")).thenReturn(schemaMetadata);
-        when(schemaRegistryClient.getSchemaBySubjectAndId("key-schema", 1)).thenReturn(schema);
-        when(schemaRegistryClient.getSchemaBySubjectAndId("value-schema", 1)).thenReturn(schema);
-
         var keySerializer = mock(Serializer.class);
         var valueSerializer = mock(Serializer.class);
         when(keySerializer.serialize(any(), any())).thenReturn("serialized-key".getBytes());
         when(valueSerializer.serialize(any(), any())).thenReturn("serialized-value".getBytes());
 
-        when(serDeManager.jsonSer(clusterId, schema, true)).thenReturn(keySerializer);
-        when(serDeManager.jsonSer(clusterId, schema, false)).thenReturn(valueSerializer);
+        when(serDeManager.subjectSer(clusterId, "key-schema", true)).thenReturn(new SerDeManager.SubjectSerializer(schema, 1, keySerializer, Long.MAX_VALUE));
+        when(serDeManager.subjectSer(clusterId, "value-schema", false)).thenReturn(new SerDeManager.SubjectSerializer(schema, 1, valueSerializer, Long.MAX_VALUE));
 
         // When
         var result = recordSerializationService.serialize(clusterId, topicName, record);
@@ -102,5 +94,41 @@ class RecordSerializationServiceTest {
         assertNotNull(result.key());
         assertNotNull(result.value());
         assertEquals(1, result.headers().toArray().length);
+        verify(serDeManager, never()).evictSubjectSer(any(), any());
+    }
+
+    @Test
+    void shouldKeepSubjectSerializerOnMalformedPayload() {
+        // Given
+        var clusterId = "test-cluster";
+        var topicName = "test-topic";
+
+        var schema = mock(JsonSchema.class);
+        when(schema.schemaType()).thenReturn("JSON");
+        var serializer = mock(Serializer.class);
+        when(serDeManager.subjectSer(clusterId, topicName + "-value", false)).thenReturn(new SerDeManager.SubjectSerializer(schema, 1, serializer, Long.MAX_VALUE));
+
+        // When // Then
+        assertThrows(RuntimeException.class, () -> recordSerializationService.serializeValue(clusterId, topicName, "not json", SerdeType.SCHEMA_REGISTRY));
+        verify(serDeManager, never()).evictSubjectSer(any(), any());
+    }
+
+    @Test
+    void shouldEvictSubjectSerializerOnRegistryError() {
+        // Given
+        var clusterId = "test-cluster";
+        var topicName = "test-topic";
+
+        var schema = mock(JsonSchema.class);
+        when(schema.schemaType()).thenReturn("JSON");
+        when(schema.validate(any(JsonNode.class))).thenReturn(mock(JsonNode.class));
+        var serializer = mock(Serializer.class);
+        when(serializer.serialize(any(), any())).thenThrow(new SerializationException("Error registering JSON schema",
+                new RestClientException("Schema not found", 404, 40403)));
+        when(serDeManager.subjectSer(clusterId, topicName + "-value", false)).thenReturn(new SerDeManager.SubjectSerializer(schema, 1, serializer, Long.MAX_VALUE));
+
+        // When // Then
+        assertThrows(RuntimeException.class, () -> recordSerializationService.serializeValue(clusterId, topicName, "{}", SerdeType.SCHEMA_REGISTRY));
+        verify(serDeManager).evictSubjectSer(clusterId, topicName + "-value");
     }
 }
\ No newline at end of file
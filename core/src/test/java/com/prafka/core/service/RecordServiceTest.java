@@ -2,6 +2,7 @@ package com.prafka.core.service;
 
 import com.prafka.core.model.*;
 import com.prafka.core.model.Record;
+import com.prafka.core.util.RingBufferQueue;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -12,6 +13,9 @@ import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Utils;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -180,6 +184,140 @@ class RecordServiceTest {
         verify(consumer).seek(topicPartition, 100L);
     }
 
+    @Test
+    void shouldConsumeNewestRecordsAcrossSkewedPartitions() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(21);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        // partition 0 holds many old records, partition 1 a few new ones
+        var tp0 = new TopicPartition("test-topic", 0);
+        var tp1 = new TopicPartition("test-topic", 1);
+        var data = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+        data.put(tp0, new ArrayList<>());
+        data.put(tp1, new ArrayList<>());
+        for (int i = 0; i < 1000; i++) {
+            data.get(tp0).add(new ConsumerRecord<>("test-topic", 0, i, i, TimestampType.CREATE_TIME, 4, 5, ("p0-" + i).getBytes(), "value".getBytes(), new RecordHeaders(), Optional.empty()));
+        }
+        for (int i = 0; i < 50; i++) {
+            data.get(tp1).add(new ConsumerRecord<>("test-topic", 1, i, 10_000 + i, TimestampType.CREATE_TIME, 4, 5, ("p1-" + i).getBytes(), "value".getBytes(), new RecordHeaders(), Optional.empty()));
+        }
+
+        var partition0 = mock(Topic.Partition.class);
+        when(partition0.getId()).thenReturn(0);
+        when(partition0.getBeginOffset()).thenReturn(0L);
+        when(partition0.getEndOffset()).thenReturn(1000L);
+        when(partition0.getTp()).thenReturn(tp0);
+        var partition1 = mock(Topic.Partition.class);
+        when(partition1.getId()).thenReturn(1);
+        when(partition1.getBeginOffset()).thenReturn(0L);
+        when(partition1.getEndOffset()).thenReturn(50L);
+        when(partition1.getTp()).thenReturn(tp1);
+
+        when(topic.getPartitions()).thenReturn(List.of(partition0, partition1));
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(20);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.keySerde()).thenReturn(SerdeType.STRING);
+        when(filter.valueSerde()).thenReturn(SerdeType.STRING);
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.END);
+
+        // consumer that serves the data from the sought positions
+        var assignment = new HashSet<TopicPartition>();
+        var paused = new HashSet<TopicPartition>();
+        var positions = new HashMap<TopicPartition, Long>();
+        doAnswer(it -> {
+            assignment.clear();
+            assignment.addAll(it.getArgument(0));
+            return null;
+        }).when(consumer).assign(any());
+        doAnswer(it -> positions.put(it.getArgument(0), it.getArgument(1))).when(consumer).seek(any(TopicPartition.class), anyLong());
+        doAnswer(it -> paused.addAll(it.getArgument(0))).when(consumer).pause(any());
+        doAnswer(it -> paused.removeAll(it.getArgument(0))).when(consumer).resume(any());
+        when(consumer.paused()).thenAnswer(it -> new HashSet<>(paused));
+        when(consumer.position(any(TopicPartition.class))).thenAnswer(it -> positions.get(it.<TopicPartition>getArgument(0)));
+        when(consumer.poll(any())).thenAnswer(invocation -> {
+            var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+            for (var tp : assignment) {
+                if (paused.contains(tp)) continue;
+                var position = positions.get(tp);
+                var records = data.get(tp).stream().filter(it -> it.offset() >= position).limit(500).toList();
+                if (records.isEmpty()) continue;
+                recordsMap.put(tp, records);
+                positions.put(tp, records.get(records.size() - 1).offset() + 1);
+            }
+            return new ConsumerRecords<>(recordsMap, new HashMap<>());
+        });
+
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        assertEquals(21, queue.size());
+        assertEquals("p1-49", queue.poll().getKey());
+        for (int i = 48; i > 30; i--) {
+            assertEquals("p1-" + i, queue.poll().getKey());
+        }
+        assertEquals("p1-30", queue.poll().getKey());
+        assertEquals(Record.LAST, queue.poll());
+        verify(consumer).seek(tp0, 990L);
+        verify(consumer, never()).seek(tp0, 970L);
+    }
+
+    @Test
+    void shouldStopPagingBackAfterPollBudgetWhenNothingMatches() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(1);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partition = mock(Topic.Partition.class);
+        var topicPartition = new TopicPartition("test-topic", 0);
+
+        when(topic.getPartitions()).thenReturn(List.of(partition));
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(100);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.preFilters()).thenReturn(List.of(ConsumeFilter.PreFilter.keyBytesEquals("missing".getBytes())));
+
+        when(partition.getId()).thenReturn(0);
+        when(partition.getBeginOffset()).thenReturn(0L);
+        when(partition.getEndOffset()).thenReturn(10_000_000_000L);
+        when(partition.getTp()).thenReturn(topicPartition);
+
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.END);
+
+        // every window is read in one poll of non-matching records
+        when(consumer.poll(any())).thenReturn(new ConsumerRecords<>(
+                Map.of(topicPartition, List.of(new ConsumerRecord<>("test-topic", 0, 0L, "key".getBytes(), "value".getBytes()))), new HashMap<>()));
+        when(consumer.position(topicPartition)).thenReturn(Long.MAX_VALUE);
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        verify(consumer, times(10)).poll(any());
+        verify(deserializationService, never()).decode(anyString(), any(), any(), any(), any());
+        assertEquals(Record.LAST, queue.poll());
+    }
+
     @Test
     void shouldConsumeByOffsetType() throws Exception {
         // Given
@@ -266,6 +404,470 @@ class RecordServiceTest {
         verify(consumer).seek(topicPartition, 25L);
     }
 
+    @Test
+    void shouldStopAtUpperTimestampBound() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(10);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var partition = mock(Topic.Partition.class);
+        var topicPartition = new TopicPartition("test-topic", 0);
+
+        when(topic.getPartitions()).thenReturn(List.of(partition));
+        when(partition.getId()).thenReturn(0);
+        when(partition.getBeginOffset()).thenReturn(0L);
+        when(partition.getEndOffset()).thenReturn(100L);
+        when(partition.getTp()).thenReturn(topicPartition);
+
+        var filter = ConsumeFilter.builder()
+                .from(new ConsumeFilter.From(ConsumeFilter.From.Type.BEGIN, Optional.empty(), Optional.empty()))
+                .to(new ConsumeFilter.To(ConsumeFilter.To.Type.TIMESTAMP, Optional.empty(), Optional.of(1000L)))
+                .maxResults(100)
+                .partitions(List.of())
+                .keySerde(SerdeType.STRING)
+                .valueSerde(SerdeType.STRING)
+                .expressions(List.of())
+                .build();
+
+        var stopOffsetMap = new HashMap<TopicPartition, OffsetAndTimestamp>();
+        stopOffsetMap.put(topicPartition, new OffsetAndTimestamp(2L, 1001L));
+        when(consumer.offsetsForTimes(Map.of(topicPartition, 1001L))).thenReturn(stopOffsetMap);
+
+        var kafkaRecords = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+        for (int i = 0; i < 4; i++) {
+            kafkaRecords.add(new ConsumerRecord<>("test-topic", 0, i, ("key" + i).getBytes(), ("value" + i).getBytes()));
+        }
+        var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+        recordsMap.put(topicPartition, kafkaRecords);
+
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(new ConsumerRecords<>(recordsMap, new HashMap<>()));
+        when(consumer.assignment()).thenReturn(Set.of(topicPartition));
+        when(consumer.position(topicPartition)).thenReturn(4L);
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        verify(consumer, times(1)).poll(any());
+        verify(consumer).pause(List.of(topicPartition));
+        assertEquals(3, queue.size());
+        assertEquals("key0", queue.poll().getKey());
+        assertEquals("key1", queue.poll().getKey());
+        assertEquals(Record.LAST, queue.poll());
+    }
+
+    @Test
+    void shouldConsumeByFollowType() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new RingBufferQueue<Record>(10);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partition = mock(Topic.Partition.class);
+        var topicPartition = new TopicPartition("test-topic", 0);
+
+        when(topic.getPartitions()).thenReturn(List.of(partition));
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(10);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.keySerde()).thenReturn(SerdeType.STRING);
+        when(filter.valueSerde()).thenReturn(SerdeType.STRING);
+
+        when(partition.getId()).thenReturn(0);
+        when(partition.getBeginOffset()).thenReturn(0L);
+        when(partition.getEndOffset()).thenReturn(0L);
+        when(partition.getTp()).thenReturn(topicPartition);
+
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.FOLLOW);
+
+        var kafkaRecords = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+        for (int i = 0; i < 15; i++) {
+            kafkaRecords.add(new ConsumerRecord<>("test-topic", 0, i, ("key" + i).getBytes(), ("value" + i).getBytes()));
+        }
+        var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+        recordsMap.put(topicPartition, kafkaRecords);
+        var consumerRecords = new ConsumerRecords<>(recordsMap, new HashMap<>());
+
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any()))
+                .thenReturn(new ConsumerRecords<>(new HashMap<>(), new HashMap<>()))
+                .thenAnswer(invocation -> {
+                    cancel.set(true);
+                    return consumerRecords;
+                });
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        verify(consumer).assign(Set.of(topicPartition));
+        verify(consumer).seek(topicPartition, 0L);
+        verify(consumer, times(2)).poll(any());
+        assertEquals(10, queue.size());
+        assertEquals(6, queue.evictedCount());
+        assertEquals("key6", queue.poll().getKey());
+    }
+
+    @Test
+    void shouldScanUntilEndOffsetsAndReportProgress() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(10);
+        var progressList = new ArrayList<ScanProgress>();
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partition = mock(Topic.Partition.class);
+        var topicPartition = new TopicPartition("test-topic", 0);
+
+        when(topic.getPartitions()).thenReturn(List.of(partition));
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(5000);
+        when(filter.scan()).thenReturn(true);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.keySerde()).thenReturn(SerdeType.STRING);
+        when(filter.valueSerde()).thenReturn(SerdeType.STRING);
+
+        when(partition.getId()).thenReturn(0);
+        when(partition.getBeginOffset()).thenReturn(0L);
+        when(partition.getEndOffset()).thenReturn(3L);
+        when(partition.getTp()).thenReturn(topicPartition);
+
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.BEGIN);
+
+        var kafkaRecords = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+        for (int i = 0; i < 4; i++) {
+            kafkaRecords.add(new ConsumerRecord<>("test-topic", 0, i, ("key" + i).getBytes(), ("value" + i).getBytes()));
+        }
+        var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+        recordsMap.put(topicPartition, kafkaRecords);
+        var consumerRecords = new ConsumerRecords<>(recordsMap, new HashMap<>());
+
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(consumerRecords);
+        when(consumer.position(topicPartition)).thenReturn(4L);
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, progressList::add, cancel).get();
+
+        // Then
+        verify(consumer, times(1)).poll(any());
+        verify(consumer).pause(List.of(topicPartition));
+        assertEquals(4, queue.size());
+        assertEquals("key0", queue.poll().getKey());
+        assertEquals("key1", queue.poll().getKey());
+        assertEquals("key2", queue.poll().getKey());
+        assertEquals(Record.LAST, queue.poll());
+        var progress = progressList.get(progressList.size() - 1);
+        assertTrue(progress.completed());
+        assertEquals(3, progress.scannedRecords());
+        assertEquals(3, progress.matchedRecords());
+        assertEquals(3, progress.scannedOffsets());
+        assertEquals(3, progress.totalOffsets());
+    }
+
+    @Test
+    void shouldScanPartitionsInParallelWorkers() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(10);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partitions = new ArrayList<Topic.Partition>();
+        for (int i = 0; i < 2; i++) {
+            var partition = mock(Topic.Partition.class);
+            when(partition.getId()).thenReturn(i);
+            when(partition.getBeginOffset()).thenReturn(0L);
+            when(partition.getEndOffset()).thenReturn(2L);
+            when(partition.getTp()).thenReturn(new TopicPartition("test-topic", i));
+            partitions.add(partition);
+        }
+
+        when(topic.getPartitions()).thenReturn(partitions);
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(100);
+        when(filter.scan()).thenReturn(true);
+        when(filter.parallelism()).thenReturn(2);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.keySerde()).thenReturn(SerdeType.STRING);
+        when(filter.valueSerde()).thenReturn(SerdeType.STRING);
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.BEGIN);
+
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+
+        var workerConsumers = Collections.synchronizedList(new ArrayList<Consumer<byte[], byte[]>>());
+        var parallelRecordService = new RecordService(topicService, serializationService, deserializationService) {
+            @Override
+            protected Consumer<byte[], byte[]> consumer(String clusterId, Properties properties) {
+                Consumer<byte[], byte[]> workerConsumer = mock(Consumer.class);
+                var assigned = new ArrayList<TopicPartition>();
+                doAnswer(invocation -> {
+                    assigned.addAll(invocation.getArgument(0));
+                    return null;
+                }).when(workerConsumer).assign(any());
+                when(workerConsumer.poll(any())).thenAnswer(invocation -> {
+                    var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+                    for (var tp : assigned) {
+                        recordsMap.put(tp, List.of(
+                                new ConsumerRecord<>("test-topic", tp.partition(), 0, ("key" + tp.partition() + "-0").getBytes(), "value".getBytes()),
+                                new ConsumerRecord<>("test-topic", tp.partition(), 1, ("key" + tp.partition() + "-1").getBytes(), "value".getBytes())
+                        ));
+                    }
+                    return new ConsumerRecords<>(recordsMap, new HashMap<>());
+                });
+                when(workerConsumer.position(any())).thenReturn(2L);
+                workerConsumers.add(workerConsumer);
+                return workerConsumer;
+            }
+        };
+
+        // When
+        parallelRecordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        assertEquals(2, workerConsumers.size());
+        for (var workerConsumer : workerConsumers) {
+            verify(workerConsumer).assign(argThat(it -> it.size() == 1));
+        }
+        assertEquals(5, queue.size());
+        var keys = new HashSet<String>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(queue.poll().getKey());
+        }
+        assertEquals(Set.of("key0-0", "key0-1", "key1-0", "key1-1"), keys);
+        assertEquals(Record.LAST, queue.poll());
+    }
+
+    @Test
+    void shouldScanAtLeastNewestOffsetOfEveryPartitionByEndType() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(10);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partitions = new ArrayList<Topic.Partition>();
+        for (int i = 0; i < 3; i++) {
+            var partition = mock(Topic.Partition.class);
+            when(partition.getId()).thenReturn(i);
+            when(partition.getBeginOffset()).thenReturn(0L);
+            when(partition.getEndOffset()).thenReturn(10L);
+            when(partition.getTp()).thenReturn(new TopicPartition("test-topic", i));
+            partitions.add(partition);
+        }
+
+        when(topic.getPartitions()).thenReturn(partitions);
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(2);
+        when(filter.scan()).thenReturn(true);
+        when(filter.parallelism()).thenReturn(1);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.END);
+
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(ConsumerRecords.empty());
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        // 2 results over 3 partitions rounds up to the newest offset of each, not down to none
+        for (int i = 0; i < 3; i++) {
+            verify(consumer).seek(new TopicPartition("test-topic", i), 9L);
+        }
+        assertEquals(Record.LAST, queue.poll());
+    }
+
+    @Test
+    void shouldSplitEndTypeRawScanByPartitionShareOfOffsets() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partitions = new ArrayList<Topic.Partition>();
+        var endOffsets = new long[]{1000L, 100L, 0L};
+        for (int i = 0; i < endOffsets.length; i++) {
+            var partition = mock(Topic.Partition.class);
+            when(partition.getId()).thenReturn(i);
+            when(partition.getBeginOffset()).thenReturn(0L);
+            when(partition.getEndOffset()).thenReturn(endOffsets[i]);
+            when(partition.getTp()).thenReturn(new TopicPartition("test-topic", i));
+            partitions.add(partition);
+        }
+
+        when(topic.getPartitions()).thenReturn(partitions);
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(110);
+        when(filter.scan()).thenReturn(true);
+        when(filter.parallelism()).thenReturn(1);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.END);
+
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(ConsumerRecords.empty());
+
+        // When
+        recordService.scanRaw(clusterId, "topic-name", filter, it -> {
+        }, it -> {
+        }, cancel);
+
+        // Then
+        // 110 results over 1100 offsets: a tenth of each partition, not 37 of each
+        verify(consumer).seek(new TopicPartition("test-topic", 0), 900L);
+        verify(consumer).seek(new TopicPartition("test-topic", 1), 90L);
+    }
+
+    @Test
+    void shouldLookupKeyOnlyInPartitionItHashesTo() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(10);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var key = "key1".getBytes();
+        var targetPartition = Utils.toPositive(Utils.murmur2(key)) % 4;
+        var targetTp = new TopicPartition("test-topic", targetPartition);
+
+        var partitions = new ArrayList<Topic.Partition>();
+        for (int i = 0; i < 4; i++) {
+            var partition = mock(Topic.Partition.class);
+            when(partition.getId()).thenReturn(i);
+            when(partition.getBeginOffset()).thenReturn(0L);
+            when(partition.getEndOffset()).thenReturn(2L);
+            when(partition.getTp()).thenReturn(new TopicPartition("test-topic", i));
+            partitions.add(partition);
+        }
+        when(topic.getName()).thenReturn("test-topic");
+        when(topic.getPartitions()).thenReturn(partitions);
+
+        var from = new ConsumeFilter.From(ConsumeFilter.From.Type.BEGIN, Optional.empty(), Optional.empty());
+        var filter = ConsumeFilter.builder()
+                .from(from)
+                .maxResults(100)
+                .partitions(List.of())
+                .keySerde(SerdeType.STRING)
+                .valueSerde(SerdeType.STRING)
+                .expressions(List.of())
+                .keyLookup(new ConsumeFilter.KeyLookup("key1", false))
+                .build();
+
+        var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+        recordsMap.put(targetTp, List.of(
+                new ConsumerRecord<>("test-topic", targetPartition, 0, key, "value1".getBytes()),
+                new ConsumerRecord<>("test-topic", targetPartition, 1, "key2".getBytes(), "value2".getBytes())
+        ));
+
+        when(serializationService.serializeKey(clusterId, "test-topic", "key1", SerdeType.STRING)).thenReturn(key);
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(new ConsumerRecords<>(recordsMap, new HashMap<>()));
+        when(consumer.position(targetTp)).thenReturn(2L);
+
+        // When
+        recordService.consume(clusterId, "test-topic", filter, queue, cancel).get();
+
+        // Then
+        verify(consumer).assign(argThat(it -> it.size() == 1 && it.contains(targetTp)));
+        verify(deserializationService, times(1)).deserialize(anyString(), any(), any(), any(), any());
+        assertEquals(2, queue.size());
+        assertEquals("key1", queue.poll().getKey());
+        assertEquals(Record.LAST, queue.poll());
+    }
+
+    @Test
+    void shouldLookupKeyFromBeginOffsetByEndType() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(10);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var key = "key1".getBytes();
+        var targetPartition = Utils.toPositive(Utils.murmur2(key)) % 2;
+        var targetTp = new TopicPartition("test-topic", targetPartition);
+
+        var partitions = new ArrayList<Topic.Partition>();
+        for (int i = 0; i < 2; i++) {
+            var partition = mock(Topic.Partition.class);
+            when(partition.getId()).thenReturn(i);
+            when(partition.getBeginOffset()).thenReturn(5L);
+            when(partition.getEndOffset()).thenReturn(1000L);
+            when(partition.getTp()).thenReturn(new TopicPartition("test-topic", i));
+            partitions.add(partition);
+        }
+        when(topic.getName()).thenReturn("test-topic");
+        when(topic.getPartitions()).thenReturn(partitions);
+
+        var from = new ConsumeFilter.From(ConsumeFilter.From.Type.END, Optional.empty(), Optional.empty());
+        var filter = ConsumeFilter.builder()
+                .from(from)
+                .maxResults(10)
+                .partitions(List.of())
+                .keySerde(SerdeType.STRING)
+                .valueSerde(SerdeType.STRING)
+                .expressions(List.of())
+                .keyLookup(new ConsumeFilter.KeyLookup("key1", false))
+                .build();
+
+        when(serializationService.serializeKey(clusterId, "test-topic", "key1", SerdeType.STRING)).thenReturn(key);
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(ConsumerRecords.empty());
+
+        // When
+        recordService.consume(clusterId, "test-topic", filter, queue, cancel).get();
+
+        // Then
+        // END would only cover the newest 10 offsets, older records of the key are looked up too
+        verify(consumer).assign(argThat(it -> it.size() == 1 && it.contains(targetTp)));
+        verify(consumer).seek(targetTp, 5L);
+        assertEquals(Record.LAST, queue.poll());
+    }
+
     @Test
     void shouldConsume() throws Exception {
         // Given
@@ -304,10 +906,10 @@ class RecordServiceTest {
         recordsMap.put(topicPartition, kafkaRecords);
         var consumerRecords = new ConsumerRecords<>(recordsMap, new HashMap<>());
 
-        when(deserializationService.deserialize(anyString(), any(), any(), any(), any()))
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
                 .thenAnswer(invocation -> {
                     ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
-                    return Pair.of(new String(record.key()), new String(record.value()));
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
                 });
 
         when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
@@ -366,10 +968,128 @@ class RecordServiceTest {
         recordsMap.put(topicPartition, kafkaRecords);
         var consumerRecords = new ConsumerRecords<>(recordsMap, new HashMap<>());
 
-        when(deserializationService.deserialize(anyString(), any(), any(), any(), any()))
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(consumerRecords).thenReturn(new ConsumerRecords<>(new HashMap<>(), new HashMap<>()));
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        assertEquals(2, queue.size());
+        assertEquals("key1", queue.poll().getKey());
+        assertEquals(Record.LAST, queue.poll());
+    }
+
+    @Test
+    void shouldSkipDeserializationOfRecordsRejectedByPreFilters() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(3);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partition = mock(Topic.Partition.class);
+        var topicPartition = new TopicPartition("test-topic", 0);
+
+        when(topic.getPartitions()).thenReturn(List.of(partition));
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(100);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.keySerde()).thenReturn(SerdeType.STRING);
+        when(filter.valueSerde()).thenReturn(SerdeType.STRING);
+
+        when(filter.preFilters()).thenReturn(List.of(ConsumeFilter.PreFilter.keyEquals("key1")));
+
+        when(partition.getId()).thenReturn(0);
+        when(partition.getBeginOffset()).thenReturn(0L);
+        when(partition.getEndOffset()).thenReturn(100L);
+        when(partition.getTp()).thenReturn(topicPartition);
+
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.BEGIN);
+
+        var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+        var kafkaRecords = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+
+        for (int i = 0; i < 2; i++) {
+            kafkaRecords.add(new ConsumerRecord<>("test-topic", 0, i, ("key" + i).getBytes(), ("value" + i).getBytes()));
+        }
+
+        recordsMap.put(topicPartition, kafkaRecords);
+        var consumerRecords = new ConsumerRecords<>(recordsMap, new HashMap<>());
+
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
+                });
+
+        when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
+        when(consumer.poll(any())).thenReturn(consumerRecords).thenReturn(new ConsumerRecords<>(new HashMap<>(), new HashMap<>()));
+
+        // When
+        recordService.consume(clusterId, "topic-name", filter, queue, cancel).get();
+
+        // Then
+        assertEquals(2, queue.size());
+        assertEquals("key1", queue.poll().getKey());
+        assertEquals(Record.LAST, queue.poll());
+        verify(deserializationService, times(1)).deserialize(anyString(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldConsumeByJavaExpression() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var queue = new ArrayBlockingQueue<Record>(3);
+        var cancel = new AtomicBoolean(false);
+        var topic = mock(Topic.class);
+        var filter = mock(ConsumeFilter.class);
+        var from = mock(ConsumeFilter.From.class);
+
+        var partition = mock(Topic.Partition.class);
+        var topicPartition = new TopicPartition("test-topic", 0);
+
+        when(topic.getPartitions()).thenReturn(List.of(partition));
+        when(filter.partitions()).thenReturn(new ArrayList<>());
+        when(filter.maxResults()).thenReturn(100);
+        when(filter.expressions()).thenReturn(new ArrayList<>());
+        when(filter.keySerde()).thenReturn(SerdeType.STRING);
+        when(filter.valueSerde()).thenReturn(SerdeType.STRING);
+
+        var expression = new ConsumeFilter.Expression("java", "key.equals(\"key1\") && record.value().endsWith(\"1\")", true, ConsumeFilter.Expression.Language.JAVA);
+        when(filter.expressions()).thenReturn(List.of(expression));
+
+        when(partition.getId()).thenReturn(0);
+        when(partition.getBeginOffset()).thenReturn(0L);
+        when(partition.getEndOffset()).thenReturn(100L);
+        when(partition.getTp()).thenReturn(topicPartition);
+
+        when(filter.from()).thenReturn(from);
+        when(from.type()).thenReturn(ConsumeFilter.From.Type.BEGIN);
+
+        var recordsMap = new HashMap<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>();
+        var kafkaRecords = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+
+        for (int i = 0; i < 2; i++) {
+            kafkaRecords.add(new ConsumerRecord<>("test-topic", 0, i, ("key" + i).getBytes(), ("value" + i).getBytes()));
+        }
+
+        recordsMap.put(topicPartition, kafkaRecords);
+        var consumerRecords = new ConsumerRecords<>(recordsMap, new HashMap<>());
+
+        when(deserializationService.decode(anyString(), any(), any(), any(), any()))
                 .thenAnswer(invocation -> {
                     ConsumerRecord<byte[], byte[]> record = invocation.getArgument(2);
-                    return Pair.of(new String(record.key()), new String(record.value()));
+                    return Pair.of(DecodedPayload.ofText(new String(record.key())), DecodedPayload.ofText(new String(record.value())));
                 });
 
         when(topicService.get(any(), any())).thenReturn(CompletableFuture.completedFuture(topic));
@@ -408,6 +1128,7 @@ class RecordServiceTest {
 
         // Then
         assertEquals(newRecord.getKey(), result.get().getKey());
+        verify(producer, never()).close();
     }
 
 }
\ No newline at end of file
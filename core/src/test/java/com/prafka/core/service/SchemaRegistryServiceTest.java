@@ -1,5 +1,6 @@
 package com.prafka.core.service;
 
+import com.prafka.core.manager.SerDeManager;
 import com.prafka.core.model.Schema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
@@ -14,7 +15,8 @@ import static org.mockito.Mockito.*;
 class SchemaRegistryServiceTest {
 
     private SchemaRegistryClient schemaRegistryClient = mock(SchemaRegistryClient.class);
-    private SchemaRegistryService schemaRegistryService = new SchemaRegistryService() {
+    private SerDeManager serDeManager = mock(SerDeManager.class);
+    private SchemaRegistryService schemaRegistryService = new SchemaRegistryService(serDeManager) {
         @Override
         protected SchemaRegistryClient schemaRegistryClient(String clusterId) {
             return schemaRegistryClient;
@@ -0,0 +1,181 @@
+package com.prafka.core.service;
+
+import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.DecodedPayload;
+import com.prafka.core.model.Record;
+import com.prafka.core.model.SerdeType;
+import com.prafka.core.util.TopicQueryParser;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TopicQueryServiceTest {
+
+    private static final String[] MERCHANTS = {"acme", "globex", "initech"};
+
+    private RecordService recordService = mock(RecordService.class);
+    private TopicQueryService topicQueryService = new TopicQueryService(recordService);
+
+    /**
+     * Delivers {@code count} records with the projected columns of the filter read from merchant, amount and status fields.
+     */
+    @SuppressWarnings("unchecked")
+    private void mockConsume(int count) {
+        doAnswer(invocation -> {
+            var filter = (ConsumeFilter) invocation.getArgument(2);
+            var onRecord = (Consumer<Record>) invocation.getArgument(3);
+            var cancel = (AtomicBoolean) invocation.getArgument(5);
+            for (int i = 0; i < count && !cancel.get(); i++) {
+                var fields = Map.of("value.merchant", MERCHANTS[i % 3], "value.amount", (long) i, "value.status", i % 2 == 0 ? "ok" : "failed");
+                var columns = new ArrayList<>();
+                filter.columns().forEach(it -> columns.add(fields.get(it)));
+                var source = new ConsumerRecord<>("topic1", i % 3, i, 1000L + i, TimestampType.CREATE_TIME,
+                        0, 0, new byte[0], new byte[0], new RecordHeaders(), Optional.empty());
+                onRecord.accept(new Record(source, DecodedPayload.ofText(null), DecodedPayload.ofText(null), columns));
+            }
+            onRecord.accept(Record.LAST);
+            return null;
+        }).when(recordService).consume(eq("test-cluster"), eq("topic1"), any(ConsumeFilter.class), any(Consumer.class), any(Consumer.class), any(AtomicBoolean.class));
+    }
+
+    private ConsumeFilter captureFilter() {
+        var captor = ArgumentCaptor.forClass(ConsumeFilter.class);
+        //noinspection unchecked
+        verify(recordService).consume(eq("test-cluster"), eq("topic1"), captor.capture(), any(Consumer.class), any(Consumer.class), any(AtomicBoolean.class));
+        return captor.getValue();
+    }
+
+    @Test
+    void shouldAggregateGroups() throws Exception {
+        // Given
+        mockConsume(3000);
+        var query = TopicQueryParser.parse("SELECT value.merchant, COUNT(*), SUM(value.amount) AS total, MAX(value.amount) "
+                + "WHERE timestamp >= 2000 AND partition IN (0, 1) AND value.status NOT LIKE 'fail%' "
+                + "GROUP BY value.merchant ORDER BY total DESC");
+
+        // When
+        var result = topicQueryService.execute("test-cluster", "topic1", query, SerdeType.AUTO, SerdeType.AUTO, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        var filter = captureFilter();
+        assertEquals(ConsumeFilter.From.Type.TIMESTAMP, filter.from().type());
+        assertEquals(Optional.of(2000L), filter.from().timestamp());
+        assertNull(filter.to());
+        assertEquals(List.of(0, 1), filter.partitions());
+        assertEquals(List.of("value.merchant", "value.amount", "value.status"), filter.columns());
+        assertTrue(filter.scan());
+        // the mock ignores the pushed down bounds, the condition still applies them
+        assertEquals(List.of("value.merchant", "COUNT(*)", "total", "MAX(value.amount)"), result.columns());
+        assertEquals(List.of(
+                List.of("globex", 334L, 667_666L, 2998L),
+                List.of("acme", 333L, 665_334L, 2994L)
+        ), result.rows());
+        assertEquals(667, result.matchedRecords());
+    }
+
+    @Test
+    void shouldSelectTopRows() throws Exception {
+        // Given
+        mockConsume(3000);
+        var query = TopicQueryParser.parse("SELECT offset, value.amount * 2 AS doubled "
+                + "WHERE NOT (value.merchant = 'acme' OR value.merchant = 'globex') ORDER BY doubled DESC LIMIT 3");
+
+        // When
+        var result = topicQueryService.execute("test-cluster", "topic1", query, SerdeType.AUTO, SerdeType.AUTO, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals(List.of(List.of(2999L, 5998L), List.of(2996L, 5992L), List.of(2993L, 5986L)), result.rows());
+        assertEquals(1000, result.matchedRecords());
+    }
+
+    @Test
+    void shouldStopScanAtLimitWithoutOrder() throws Exception {
+        // Given
+        mockConsume(5000);
+        var query = TopicQueryParser.parse("SELECT offset WHERE partition = 1 LIMIT 4");
+        var cancel = new AtomicBoolean();
+
+        // When
+        var result = topicQueryService.execute("test-cluster", "topic1", query, SerdeType.AUTO, SerdeType.AUTO, it -> {
+        }, cancel).get();
+
+        // Then
+        assertEquals(List.of(1), captureFilter().partitions());
+        assertEquals(List.of(List.of(1L), List.of(4L), List.of(7L), List.of(10L)), result.rows());
+        assertFalse(result.truncated());
+        var stop = ArgumentCaptor.forClass(AtomicBoolean.class);
+        //noinspection unchecked
+        verify(recordService).consume(eq("test-cluster"), eq("topic1"), any(ConsumeFilter.class), any(Consumer.class), any(Consumer.class), stop.capture());
+        assertTrue(stop.getValue().get());
+        assertFalse(cancel.get());
+    }
+
+    @Test
+    void shouldLimitGroupsByDefault() throws Exception {
+        // Given
+        mockConsume(TopicQueryService.DEFAULT_ROW_LIMIT + 5);
+        var query = TopicQueryParser.parse("SELECT value.amount, COUNT(*) GROUP BY value.amount");
+
+        // When
+        var result = topicQueryService.execute("test-cluster", "topic1", query, SerdeType.AUTO, SerdeType.AUTO, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals(TopicQueryService.DEFAULT_ROW_LIMIT, result.rows().size());
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void shouldPushJsonFieldEqualityDownAsPreFilter() throws Exception {
+        // Given
+        mockConsume(10);
+        var query = TopicQueryParser.parse("SELECT COUNT(*) WHERE value.status = 'failed' AND value.amount = '5' AND value.merchant = 'acme' OR partition = 1");
+        var pushedQuery = TopicQueryParser.parse("SELECT COUNT(*) WHERE value.status = 'failed' AND value.amount = '5' AND 'acme' = value.merchant");
+
+        // When
+        topicQueryService.execute("test-cluster", "topic1", pushedQuery, SerdeType.AUTO, SerdeType.JSON, it -> {
+        }, new AtomicBoolean()).get();
+        var pushedFilter = captureFilter();
+        clearInvocations(recordService);
+        topicQueryService.execute("test-cluster", "topic1", query, SerdeType.AUTO, SerdeType.JSON, it -> {
+        }, new AtomicBoolean()).get();
+        var filter = captureFilter();
+
+        // Then
+        assertEquals(List.of(
+                ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_EQUALS, "value.status", "failed"),
+                ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_EQUALS, "value.merchant", "acme")
+        ), pushedFilter.preFilters());
+        assertEquals(List.of(), filter.preFilters());
+    }
+
+    @Test
+    void shouldSkipScanWhenBoundsExcludeAllRecords() throws Exception {
+        // Given
+        var query = TopicQueryParser.parse("SELECT COUNT(*) WHERE partition = 1 AND partition = 2");
+
+        // When
+        var result = topicQueryService.execute("test-cluster", "topic1", query, SerdeType.AUTO, SerdeType.AUTO, it -> {
+        }, new AtomicBoolean()).get();
+
+        // Then
+        assertEquals(List.of(List.of(0L)), result.rows());
+        verifyNoInteractions(recordService);
+    }
+}
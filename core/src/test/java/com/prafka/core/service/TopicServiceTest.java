@@ -1,13 +1,13 @@
 package com.prafka.core.service;
 
 import org.apache.kafka.clients.admin.*;
-import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,16 +18,12 @@ import static org.mockito.Mockito.*;
 class TopicServiceTest {
 
     private AdminClient adminClient = mock(AdminClient.class);
-    private Consumer<byte[], byte[]> consumer = mock(Consumer.class);
-    private TopicService topicService = new TopicService() {
+    private OffsetService offsetService = mock(OffsetService.class);
+    private TopicService topicService = new TopicService(offsetService) {
         @Override
         protected AdminClient adminClient(String clusterId) {
             return adminClient;
         }
-        @Override
-        protected Consumer<byte[], byte[]> consumer(String clusterId) {
-            return consumer;
-        }
     };
 
     @Test
@@ -71,8 +67,8 @@ class TopicServiceTest {
         endOffsets.put(new TopicPartition("topic1", 1), 200L);
         endOffsets.put(new TopicPartition("topic2", 0), 150L);
 
-        when(consumer.beginningOffsets(any())).thenReturn(beginOffsets);
-        when(consumer.endOffsets(any())).thenReturn(endOffsets);
+        when(offsetService.getBeginOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(beginOffsets));
+        when(offsetService.getEndOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(endOffsets));
 
         // When
         var result = topicService.getAll(clusterId, topicNames).get();
@@ -141,8 +137,8 @@ class TopicServiceTest {
             beginOffsets.put(new TopicPartition(topicName, i), 0L);
             endOffsets.put(new TopicPartition(topicName, i), 0L);
         }
-        when(consumer.beginningOffsets(any())).thenReturn(beginOffsets);
-        when(consumer.endOffsets(any())).thenReturn(endOffsets);
+        when(offsetService.getBeginOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(beginOffsets));
+        when(offsetService.getEndOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(endOffsets));
 
         // When
         var result = topicService.create(clusterId, topicName, partitions, replicationFactor, configs).get();
@@ -204,8 +200,8 @@ class TopicServiceTest {
         when(adminClient.describeTopics(anyCollection())).thenReturn(mockDescribeResult);
 
         var tp = new TopicPartition(topicName, 0);
-        when(consumer.beginningOffsets(any())).thenReturn(Map.of(tp, 0L));
-        when(consumer.endOffsets(any())).thenReturn(Map.of(tp, 100L));
+        when(offsetService.getBeginOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(Map.of(tp, 0L)));
+        when(offsetService.getEndOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(Map.of(tp, 100L)));
 
         var mockDeleteRecordsResult = mock(DeleteRecordsResult.class);
         when(mockDeleteRecordsResult.all()).thenReturn(KafkaFuture.completedFuture(null));
@@ -235,8 +231,8 @@ class TopicServiceTest {
         when(adminClient.describeTopics(anyCollection())).thenReturn(mockDescribeResult);
 
         var tp = new TopicPartition(topicName, 0);
-        when(consumer.beginningOffsets(any())).thenReturn(Map.of(tp, 0L));
-        when(consumer.endOffsets(any())).thenReturn(Map.of(tp, 50L));
+        when(offsetService.getBeginOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(Map.of(tp, 0L)));
+        when(offsetService.getEndOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(Map.of(tp, 50L)));
 
         // When
         var result = topicService.get(clusterId, topicName).get();
@@ -246,4 +242,37 @@ class TopicServiceTest {
         assertEquals(1, result.getPartitions().size());
         assertEquals(50L, result.getRecordCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldTakePartitionWithoutOffsetsAsEmpty() throws Exception {
+        // Given
+        var clusterId = "test-cluster";
+        var topicName = "my-topic";
+
+        var topicDescription = new TopicDescription(topicName, false, List.of(
+                new TopicPartitionInfo(0, null, Collections.emptyList(), Collections.emptyList()),
+                new TopicPartitionInfo(1, null, Collections.emptyList(), Collections.emptyList())
+        ), Collections.emptySet());
+
+        var mockDescribeResult = mock(DescribeTopicsResult.class);
+        when(mockDescribeResult.topicNameValues()).thenReturn(
+                Map.of(topicName, KafkaFuture.completedFuture(topicDescription))
+        );
+        when(adminClient.describeTopics(anyCollection())).thenReturn(mockDescribeResult);
+
+        // partition 1 has no leader, its offsets are missing from the result
+        var tp0 = new TopicPartition(topicName, 0);
+        when(offsetService.getBeginOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(Map.of(tp0, 10L)));
+        when(offsetService.getEndOffsets(any(), any())).thenReturn(CompletableFuture.completedFuture(Map.of(tp0, 50L)));
+
+        // When
+        var result = topicService.get(clusterId, topicName).get();
+
+        // Then
+        assertEquals(2, result.getPartitions().size());
+        assertEquals(40L, result.getRecordCount());
+        var partition1 = result.getPartitions().get(1);
+        assertEquals(0L, partition1.getBeginOffset());
+        assertEquals(0L, partition1.getEndOffset());
+    }
+}
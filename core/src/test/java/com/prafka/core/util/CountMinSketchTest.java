@@ -0,0 +1,40 @@
+package com.prafka.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    private static long hash(String value) {
+        return HyperLogLog.hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldEstimateCountsWithinErrorBound() {
+        // Given
+        var sketch = new CountMinSketch(4, 1 << 12);
+        var hot = 0L;
+        for (int i = 0; i < 200_000; i++) {
+            var estimate = sketch.add(hash(i % 10 == 0 ? "hot" : "key-" + i % 50_000));
+            if (i % 10 == 0) hot = estimate;
+        }
+
+        // When & Then
+        assertTrue(hot >= 20_000 && hot <= 20_000 + 200_000 * Math.E / (1 << 12), "hot " + hot);
+        for (int i = 1; i < 100; i++) {
+            var estimate = sketch.estimate(hash("key-" + i));
+            assertTrue(estimate >= 4 && estimate <= 4 + 200_000 * Math.E / (1 << 12), "key-" + i + " " + estimate);
+        }
+        assertEquals(0, new CountMinSketch(4, 1 << 12).estimate(hash("hot")));
+    }
+
+    @Test
+    void shouldRejectInvalidWidth() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 1024));
+    }
+}
@@ -0,0 +1,125 @@
+package com.prafka.core.util;
+
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldProjectionTest {
+
+    @Test
+    void shouldReadJsonColumns() {
+        // Given
+        var projection = FieldProjection.compile(List.of("value.customerId", "value.amount", "value.items[1].sku", "value.paid", "value.address", "value.missing", "key"));
+        var value = "{\"customerId\":\"c-1\",\"amount\":12.5,\"items\":[{\"sku\":\"A\"},{\"sku\":\"B\"}],\"paid\":true,\"address\":{\"city\":\"Oslo\"}}";
+        var values = new Object[projection.columns().size()];
+
+        // When
+        projection.readJson(value.getBytes(StandardCharsets.UTF_8), 0, false, values);
+        projection.readJson("42".getBytes(StandardCharsets.UTF_8), 0, true, values);
+
+        // Then
+        assertEquals(Arrays.asList("c-1", 12.5, "B", true, "{\"city\":\"Oslo\"}", null, 42L), Arrays.asList(values));
+    }
+
+    @Test
+    void shouldReadAvroColumnsWithProjectedSchema() throws Exception {
+        // Given
+        var schema = new AvroSchema("""
+                {"type": "record", "name": "Order", "namespace": "test", "fields": [
+                  {"name": "id", "type": "string"},
+                  {"name": "note", "type": ["null", "string"]},
+                  {"name": "customer", "type": ["null", {"type": "record", "name": "Customer", "fields": [
+                    {"name": "name", "type": "string"},
+                    {"name": "age", "type": "int"}
+                  ]}]},
+                  {"name": "tags", "type": {"type": "array", "items": "string"}},
+                  {"name": "attributes", "type": {"type": "map", "values": "long"}}
+                ]}""").rawSchema();
+        var customer = new GenericData.Record(schema.getField("customer").schema().getTypes().get(1));
+        customer.put("name", "Ann");
+        customer.put("age", 30);
+        var order = new GenericData.Record(schema);
+        order.put("id", "o-1");
+        order.put("note", "skipped");
+        order.put("customer", customer);
+        order.put("tags", List.of("a", "b"));
+        order.put("attributes", Map.of("weight", 5L));
+        var out = new ByteArrayOutputStream();
+        var encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(order, encoder);
+        encoder.flush();
+        var projection = FieldProjection.compile(List.of("value.customer.age", "value.tags[1]", "value.attributes.weight", "value.id"));
+        var values = new Object[4];
+
+        // When
+        projection.readAvro(out.toByteArray(), 0, schema, false, values);
+
+        // Then
+        assertEquals(Arrays.asList(30L, "b", 5L, "o-1"), Arrays.asList(values));
+        var projected = FieldProjection.avroProjection(schema, List.of(List.of("customer", "age"), List.of("id")));
+        assertEquals(List.of("id", "customer"), projected.getFields().stream().map(it -> it.name()).toList());
+        assertEquals(1, projected.getField("customer").schema().getTypes().get(1).getFields().size());
+    }
+
+    @Test
+    void shouldReadProtobufColumnsSkippingOtherFields() throws Exception {
+        // Given
+        var descriptor = new ProtobufSchema("""
+                syntax = "proto3";
+                package test;
+                message Order {
+                  string id = 1;
+                  repeated Item items = 2;
+                  map<string, string> attributes = 3;
+                  repeated int64 quantities = 4;
+                  Status status = 5;
+                  message Item {
+                    string sku = 1;
+                  }
+                  enum Status {
+                    NEW = 0;
+                    PAID = 1;
+                  }
+                }""").toDescriptor();
+        var itemDescriptor = descriptor.findNestedTypeByName("Item");
+        var entryDescriptor = descriptor.findFieldByName("attributes").getMessageType();
+        var message = DynamicMessage.newBuilder(descriptor)
+                .setField(descriptor.findFieldByName("id"), "o-1")
+                .addRepeatedField(descriptor.findFieldByName("items"), DynamicMessage.newBuilder(itemDescriptor).setField(itemDescriptor.findFieldByName("sku"), "A").build())
+                .addRepeatedField(descriptor.findFieldByName("items"), DynamicMessage.newBuilder(itemDescriptor).setField(itemDescriptor.findFieldByName("sku"), "B").build())
+                .addRepeatedField(descriptor.findFieldByName("attributes"), DynamicMessage.newBuilder(entryDescriptor)
+                        .setField(entryDescriptor.findFieldByName("key"), "color")
+                        .setField(entryDescriptor.findFieldByName("value"), "red").build())
+                .addRepeatedField(descriptor.findFieldByName("quantities"), 3L)
+                .addRepeatedField(descriptor.findFieldByName("quantities"), 9L)
+                .setField(descriptor.findFieldByName("status"), descriptor.findEnumTypeByName("Status").findValueByName("PAID"))
+                .build();
+        var projection = FieldProjection.compile(List.of("value.items[1].sku", "value.attributes.color", "value.quantities[1]", "value.status", "value.id", "value.items[5].sku"));
+        var values = new Object[6];
+
+        // When
+        projection.readProtobuf(message.toByteArray(), 0, descriptor, false, values);
+
+        // Then
+        assertEquals(Arrays.asList("B", "red", 9L, "PAID", "o-1", null), Arrays.asList(values));
+    }
+
+    @Test
+    void shouldRejectPathWithoutSide() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> FieldProjection.compile(List.of("customerId")));
+    }
+}
@@ -0,0 +1,54 @@
+package com.prafka.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static long hash(String value) {
+        return HyperLogLog.hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldHashAsMurmur3() {
+        // When & Then
+        assertEquals(0xcbd8a7b341bd9b02L, hash("hello"));
+        assertEquals(0xe34bbc7bbc071b6cL, hash("The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void shouldEstimateDistinctValues() {
+        for (int count : new int[]{10, 1_000, 100_000}) {
+            // Given
+            var hyperLogLog = new HyperLogLog(14);
+            for (int repeat = 0; repeat < 3; repeat++) {
+                for (int i = 0; i < count; i++) hyperLogLog.add(hash("key-" + i));
+            }
+
+            // When
+            var estimate = hyperLogLog.estimate();
+
+            // Then
+            assertEquals(count, estimate, count * 0.03, "estimate " + estimate + " for " + count);
+        }
+    }
+
+    @Test
+    void shouldMergeEstimators() {
+        // Given
+        var first = new HyperLogLog(12);
+        var second = new HyperLogLog(12);
+        for (int i = 0; i < 2_000; i++) first.add(hash("key-" + i));
+        for (int i = 1_000; i < 3_000; i++) second.add(hash("key-" + i));
+
+        // When
+        first.merge(second);
+
+        // Then
+        assertEquals(3_000, first.estimate(), 3_000 * 0.05);
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(14)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.prafka.core.util;
+
+import org.codehaus.commons.compiler.CompileException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaExpressionCompilerTest {
+
+    @Test
+    void shouldCompileMethodBody() throws Exception {
+        var predicate = JavaExpressionCompiler.compile("return key.startsWith(\"user\") && partition == 1;");
+
+        assertTrue(predicate.test("user-1", "v", Map.of(), 0, 1, 0, fields("user-1", "v")));
+        assertFalse(predicate.test("user-1", "v", Map.of(), 0, 2, 0, fields("user-1", "v")));
+    }
+
+    @Test
+    void shouldCompileSingleExpression() throws Exception {
+        var predicate = JavaExpressionCompiler.compile("offset >= 10 && timestamp > 0L;");
+
+        assertTrue(predicate.test("k", "v", Map.of(), 10, 0, 1, fields("k", "v")));
+        assertFalse(predicate.test("k", "v", Map.of(), 9, 0, 1, fields("k", "v")));
+    }
+
+    @Test
+    void shouldCompileExpressionWithReturnInStringLiteral() throws Exception {
+        var value = "{\"status\":\"return\"}";
+        var predicate = JavaExpressionCompiler.compile("\"return\".equals(record.valueString(\"status\"))");
+
+        assertTrue(predicate.test("k", value, Map.of(), 0, 0, 0, fields("k", value)));
+        assertFalse(predicate.test("k", "{}", Map.of(), 0, 0, 0, fields("k", "{}")));
+    }
+
+    @Test
+    void shouldParseEachPathOnce() {
+        var segments = JavaExpressionCompiler.pathSegments("order.items[0].sku");
+
+        assertEquals(List.of("order", "items", 0, "sku"), segments);
+        assertSame(segments, JavaExpressionCompiler.pathSegments("order.items[0].sku"));
+    }
+
+    @Test
+    void shouldReadTypedJsonFields() throws Exception {
+        var value = "{\"order\":{\"amount\":150,\"paid\":true,\"items\":[{\"sku\":\"A-1\"}]}}";
+        var predicate = JavaExpressionCompiler.compile("record.valueLong(\"order.amount\") > 100 && record.valueBoolean(\"order.paid\") && \"A-1\".equals(record.valueString(\"order.items[0].sku\"))");
+
+        assertTrue(predicate.test("k", value, Map.of(), 0, 0, 0, fields("k", value)));
+    }
+
+    @Test
+    void shouldReturnNullForMissingFields() {
+        var fields = new JavaExpressionCompiler.Fields("not json", "{\"a\":1}", Map.of("h", "1"));
+
+        assertNull(fields.keyString("a"));
+        assertNull(fields.valueLong("b"));
+        assertFalse(fields.hasValue("a.b"));
+        assertTrue(fields.hasValue("a"));
+        assertEquals("1", fields.header("h"));
+    }
+
+    @Test
+    void shouldFailOnInvalidCode() {
+        assertThrows(CompileException.class, () -> JavaExpressionCompiler.compile("return key.;"));
+    }
+
+    private static JavaExpressionCompiler.Fields fields(String key, String value) {
+        return new JavaExpressionCompiler.Fields(key, value, Map.of());
+    }
+}
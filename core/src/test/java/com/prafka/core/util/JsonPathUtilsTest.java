@@ -0,0 +1,31 @@
+package com.prafka.core.util;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPathUtilsTest {
+
+    @Test
+    void shouldParsePath() {
+        assertEquals(List.of("a", "b", 0, "c"), JsonPathUtils.parse("$.a.b[0].c"));
+        assertEquals(List.of(), JsonPathUtils.parse("$"));
+    }
+
+    @Test
+    void shouldReadNestedField() {
+        var root = JsonParser.parseString("{\"a\":{\"b\":[{\"c\":\"x\"}]}}");
+
+        assertEquals("x", JsonPathUtils.read(root, "a.b[0].c").orElseThrow().getAsString());
+        assertTrue(JsonPathUtils.read(root, "a.b[1].c").isEmpty());
+        assertTrue(JsonPathUtils.read(root, "a.c").isEmpty());
+    }
+
+    @Test
+    void shouldThrowOnInvalidPath() {
+        assertThrows(IllegalArgumentException.class, () -> JsonPathUtils.parse("a[0"));
+    }
+}
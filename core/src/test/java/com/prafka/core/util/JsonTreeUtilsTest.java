@@ -0,0 +1,88 @@
+package com.prafka.core.util;
+
+import com.google.gson.JsonParser;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.util.JsonFormat;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import org.junit.jupiter.api.Test;
+
+import static com.prafka.core.util.JsonFactory.objectMapperDefault;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonTreeUtilsTest {
+
+    @Test
+    void shouldConvertAvroLikeAvroJsonEncoding() throws Exception {
+        // Given
+        var schema = new AvroSchema("""
+                {"type": "record", "name": "Order", "namespace": "test", "fields": [
+                  {"name": "id", "type": "long"},
+                  {"name": "status", "type": {"type": "enum", "name": "Status", "symbols": ["NEW", "PAID"]}},
+                  {"name": "amount", "type": "double"},
+                  {"name": "tags", "type": {"type": "array", "items": "string"}},
+                  {"name": "attributes", "type": {"type": "map", "values": "int"}},
+                  {"name": "note", "type": ["null", "string"]},
+                  {"name": "comment", "type": ["null", "string"]},
+                  {"name": "hash", "type": {"type": "fixed", "name": "Hash", "size": 2}},
+                  {"name": "data", "type": "bytes"}
+                ]}""");
+        var datum = AvroSchemaUtils.toObject("""
+                {"id": 1, "status": "PAID", "amount": 9.5, "tags": ["a", "b"], "attributes": {"x": 1},
+                 "note": {"string": "fragile"}, "comment": null, "hash": "\\u00ff\\u0001", "data": "abc"}""", schema);
+
+        // When
+        var result = JsonTreeUtils.fromAvro(datum, schema.rawSchema());
+
+        // Then
+        assertEquals(JsonParser.parseString(new String(AvroSchemaUtils.toJson(datum))), result);
+    }
+
+    @Test
+    void shouldConvertProtobufLikeJsonFormat() throws Exception {
+        // Given
+        var schema = new ProtobufSchema("""
+                syntax = "proto3";
+                package test;
+                import "google/protobuf/timestamp.proto";
+                message Order {
+                  int64 order_id = 1;
+                  Status status = 2;
+                  repeated string tags = 3;
+                  map<string, int32> attributes = 4;
+                  google.protobuf.Timestamp created_at = 5;
+                  bytes data = 6;
+                  uint32 count = 7;
+                  double amount = 8;
+                  string note = 9;
+                  enum Status {
+                    NEW = 0;
+                    PAID = 1;
+                  }
+                }""");
+        var builder = schema.newMessageBuilder();
+        JsonFormat.parser().merge("""
+                {"orderId": "12345678901", "status": "PAID", "tags": ["a", "b"], "attributes": {"x": 1},
+                 "createdAt": "2024-01-01T10:00:00Z", "data": "AQI=", "count": 4000000000, "amount": 9.5}""", builder);
+        var message = (DynamicMessage) builder.build();
+
+        // When
+        var result = JsonTreeUtils.fromProtobuf(message);
+
+        // Then
+        assertEquals(JsonParser.parseString(JsonFormat.printer().print(message)), result);
+    }
+
+    @Test
+    void shouldConvertJackson() throws Exception {
+        // Given
+        var json = "{\"id\":1,\"price\":9.5,\"name\":\"test\",\"active\":true,\"items\":[1,null,{\"a\":\"b\"}]}";
+
+        // When
+        var result = JsonTreeUtils.fromJackson(objectMapperDefault.readTree(json));
+
+        // Then
+        assertEquals(JsonParser.parseString(json), result);
+    }
+}
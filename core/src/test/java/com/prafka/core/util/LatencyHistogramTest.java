@@ -0,0 +1,63 @@
+package com.prafka.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReturnExactPercentilesForSmallValues() {
+        // Given
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) histogram.record(i);
+
+        // When
+        var snapshot = histogram.snapshot();
+
+        // Then
+        assertEquals(100, snapshot.count());
+        assertEquals(50, snapshot.p50());
+        assertEquals(99, snapshot.p99());
+        assertEquals(100, snapshot.p999());
+        assertEquals(100, snapshot.max());
+    }
+
+    @Test
+    void shouldKeepRelativeErrorBounded() {
+        for (long value : new long[]{1_000, 12_345, 987_654, 3_000_000_000L}) {
+            // Given
+            var histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(value * 2);
+
+            // When
+            var p50 = histogram.percentile(50);
+
+            // Then
+            assertTrue(p50 >= value && p50 <= value * 1.016, "p50 " + p50 + " for " + value);
+            assertEquals(value * 2, histogram.percentile(100));
+        }
+    }
+
+    @Test
+    void shouldReturnZeroWhenEmpty() {
+        var histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    void shouldClampNegativeValues() {
+        // Given
+        var histogram = new LatencyHistogram();
+
+        // When
+        histogram.record(-5);
+
+        // Then
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+}
@@ -0,0 +1,81 @@
+package com.prafka.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawJsonPathTest {
+
+    private static final String JSON = """
+            {"id": 7, "tags": ["a", {"x": "}"}], "order": {"note": "say \\"hi\\"", "status": "FAILED", "items": [{"sku": "A-1"}, {"sku": "B-2"}]}}
+            """;
+
+    @Test
+    void shouldFindNestedFieldAndArrayElement() {
+        // Given
+        var json = bytes(JSON);
+
+        // When
+        var status = find("order.status", json);
+        var sku = find("order.items[1].sku", json);
+
+        // Then
+        assertEquals("\"FAILED\"", value(json, status));
+        assertEquals("\"B-2\"", value(json, sku));
+        assertEquals("7", value(json, find("$.id", json)));
+    }
+
+    @Test
+    void shouldReturnMinusOneForAbsentPath() {
+        // Given
+        var json = bytes(JSON);
+
+        // When / Then
+        assertEquals(-1, find("order.missing", json));
+        assertEquals(-1, find("order.items[2].sku", json));
+        assertEquals(-1, find("id.nested", json));
+        assertEquals(-1, find("order.status", bytes("{\"order\": {\"status\": ")));
+        assertEquals(-1, find("id", bytes("not json")));
+        assertEquals(-1, find("id", null));
+    }
+
+    @Test
+    void shouldStopAtResolvedField() {
+        // Given
+        var json = bytes("{\"status\": \"OK\", \"rest\": [truncated");
+
+        // When
+        var pos = find("status", json);
+
+        // Then
+        assertEquals("\"OK\"", value(json, pos));
+    }
+
+    @Test
+    void shouldCompareEscapedStrings() {
+        // Given
+        var json = bytes("\"caf\\u00e9 \\ud83d\\ude00 \\\"q\\\"\"");
+
+        // When
+        var equals = RawJsonPath.stringEquals(json, 1, json.length - 1, bytes("café 😀 \"q\""));
+        var differs = RawJsonPath.stringEquals(json, 1, json.length - 1, bytes("cafe 😀 \"q\""));
+
+        // Then
+        assertTrue(equals);
+        assertFalse(differs);
+    }
+
+    private static int find(String path, byte[] json) {
+        return new RawJsonPath(JsonPathUtils.parse(path)).find(json);
+    }
+
+    private static String value(byte[] json, int pos) {
+        return new String(json, pos, RawJsonPath.skipValue(json, pos) - pos, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,133 @@
+package com.prafka.core.util;
+
+import com.prafka.core.model.ConsumeFilter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawRecordMatcherTest {
+
+    @Test
+    void shouldMatchEverythingWithoutPreFilters() {
+        var matcher = RawRecordMatcher.compile(List.of());
+
+        assertTrue(matcher.test(record("key", "value", 0)));
+    }
+
+    @Test
+    void shouldMatchKeyEqualsAndPrefix() {
+        var equals = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.keyEquals("user-1")));
+        var prefix = RawRecordMatcher.compile(List.of(new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.KEY_PREFIX, null, "user-", null, null)));
+
+        assertTrue(equals.test(record("user-1", "v", 0)));
+        assertFalse(equals.test(record("user-10", "v", 0)));
+        assertTrue(prefix.test(record("user-10", "v", 0)));
+        assertFalse(prefix.test(record("order-1", "v", 0)));
+        assertFalse(prefix.test(record(null, "v", 0)));
+    }
+
+    @Test
+    void shouldMatchKeyBytes() {
+        var matcher = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.keyBytesEquals(new byte[]{0, 0, 0, 42})));
+        var nullKeyMatcher = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.keyBytesEquals(null)));
+
+        assertTrue(matcher.test(new ConsumerRecord<>("topic", 0, 0, new byte[]{0, 0, 0, 42}, null)));
+        assertFalse(matcher.test(new ConsumerRecord<>("topic", 0, 0, new byte[]{0, 0, 0, 43}, null)));
+        assertTrue(nullKeyMatcher.test(record(null, "v", 0)));
+    }
+
+    @Test
+    void shouldMatchValueContains() {
+        var matcher = RawRecordMatcher.compile(List.of(new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.VALUE_CONTAINS, null, "\"status\":\"FAILED\"", null, null)));
+
+        assertTrue(matcher.test(record("k", "{\"id\":1,\"status\":\"FAILED\"}", 0)));
+        assertFalse(matcher.test(record("k", "{\"id\":1,\"status\":\"OK\"}", 0)));
+        assertFalse(matcher.test(record("k", null, 0)));
+    }
+
+    @Test
+    void shouldMatchHeaders() {
+        var present = RawRecordMatcher.compile(List.of(new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.HEADER_PRESENT, "traceId", null, null, null)));
+        var equals = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.headerEquals("traceId", "abc")));
+        var record = record("k", "v", 0);
+        record.headers().add("traceId", "abc".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(present.test(record));
+        assertTrue(equals.test(record));
+        assertFalse(equals.test(record("k", "v", 0)));
+    }
+
+    @Test
+    void shouldCombineRangesWithAnd() {
+        var matcher = RawRecordMatcher.compile(List.of(
+                new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.TIMESTAMP_RANGE, null, null, 100L, 200L),
+                new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.SIZE_RANGE, null, null, null, 10L)
+        ));
+
+        assertTrue(matcher.test(record("k", "value", 150)));
+        assertFalse(matcher.test(record("k", "value", 250)));
+        assertFalse(matcher.test(record("k", "long value", 150)));
+    }
+
+    @Test
+    void shouldMatchJsonFields() {
+        var equals = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_EQUALS, "value.order.status", "FAILED")));
+        var notEquals = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_NOT_EQUALS, "value.order.status", "FAILED")));
+        var contains = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_CONTAINS, "key.user", "ann")));
+        var present = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_PRESENT, "value.order.items[0]", null)));
+        var range = RawRecordMatcher.compile(List.of(new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.FIELD_RANGE, "value.order.total", null, 10L, 100L)));
+        var failed = record("{\"user\":\"joanna\"}", "{\"order\":{\"total\":99.5,\"status\":\"FAILED\",\"items\":[1]}}", 0);
+        var ok = record("{\"user\":\"bob\"}", "{\"order\":{\"total\":120,\"status\":\"OK\",\"items\":null}}", 0);
+
+        assertTrue(equals.test(failed));
+        assertFalse(equals.test(ok));
+        assertFalse(notEquals.test(failed));
+        assertTrue(notEquals.test(ok));
+        assertTrue(notEquals.test(record("k", "plain text", 0)));
+        assertTrue(contains.test(failed));
+        assertFalse(contains.test(ok));
+        assertTrue(present.test(failed));
+        assertFalse(present.test(ok));
+        assertTrue(range.test(failed));
+        assertFalse(range.test(ok));
+        assertThrows(IllegalArgumentException.class, () -> RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_EQUALS, "order.status", "x"))));
+    }
+
+    @Test
+    void shouldMatchJsonFieldsAfterSchemaRegistryHeader() {
+        var equals = RawRecordMatcher.compile(List.of(ConsumeFilter.PreFilter.field(ConsumeFilter.PreFilter.Type.FIELD_EQUALS, "value.status", "FAILED")));
+        var range = RawRecordMatcher.compile(List.of(new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.FIELD_RANGE, "value.total", null, 10L, 100L)));
+        var json = "{\"status\":\"FAILED\",\"total\":42}".getBytes(StandardCharsets.UTF_8);
+        var framed = new byte[json.length + 5];
+        framed[4] = 7; // magic byte 0 and schema id 7
+        System.arraycopy(json, 0, framed, 5, json.length);
+        var failed = new ConsumerRecord<>("topic", 0, 0L, "k".getBytes(StandardCharsets.UTF_8), framed);
+
+        assertTrue(equals.test(failed));
+        assertTrue(range.test(failed));
+    }
+
+    @Test
+    void shouldFindPatternWithHorspool() {
+        var pattern = "abcab".getBytes(StandardCharsets.UTF_8);
+        var table = RawRecordMatcher.skipTable(pattern);
+
+        assertEquals(1, RawRecordMatcher.indexOf("xabcabcab".getBytes(StandardCharsets.UTF_8), pattern, table));
+        assertEquals(-1, RawRecordMatcher.indexOf("abca".getBytes(StandardCharsets.UTF_8), pattern, table));
+    }
+
+    private static ConsumerRecord<byte[], byte[]> record(String key, String value, long timestamp) {
+        var keyBytes = key == null ? null : key.getBytes(StandardCharsets.UTF_8);
+        var valueBytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        return new ConsumerRecord<>("topic", 0, 0, timestamp, TimestampType.CREATE_TIME,
+                keyBytes == null ? -1 : keyBytes.length, valueBytes == null ? -1 : valueBytes.length,
+                keyBytes, valueBytes, new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,66 @@
+package com.prafka.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferQueueTest {
+
+    @Test
+    void shouldOfferAndPollInFifoOrder() {
+        var queue = new RingBufferQueue<Integer>(3);
+
+        queue.offer(1);
+        queue.offer(2);
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.peek());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void shouldEvictOldestWhenFull() {
+        var queue = new RingBufferQueue<Integer>(3);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(i));
+        }
+
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.evictedCount());
+        assertEquals(List.of(2, 3, 4), new ArrayList<>(queue));
+    }
+
+    @Test
+    void shouldDrainAtMostMaxElements() {
+        var queue = new RingBufferQueue<Integer>(5);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        var batch = new ArrayList<Integer>();
+
+        var drained = queue.drainTo(batch, 3);
+
+        assertEquals(3, drained);
+        assertEquals(List.of(0, 1, 2), batch);
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    void shouldReturnNullWhenPollTimesOut() throws Exception {
+        var queue = new RingBufferQueue<Integer>(1);
+
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferQueue<Integer>(0));
+    }
+}
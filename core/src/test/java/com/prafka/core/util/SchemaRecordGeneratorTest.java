@@ -0,0 +1,169 @@
+package com.prafka.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SchemaRecordGeneratorTest {
+
+    @Test
+    void shouldGenerateValidAvroRecords() throws Exception {
+        // Given
+        var schema = new AvroSchema("""
+                {"type": "record", "name": "Order", "namespace": "test", "fields": [
+                  {"name": "id", "type": {"type": "string", "logicalType": "uuid"}},
+                  {"name": "status", "type": {"type": "enum", "name": "Status", "symbols": ["NEW", "PAID"]}},
+                  {"name": "createdAt", "type": {"type": "long", "logicalType": "timestamp-millis"}},
+                  {"name": "amount", "type": "double"},
+                  {"name": "tags", "type": {"type": "array", "items": "string"}},
+                  {"name": "attributes", "type": {"type": "map", "values": "int"}},
+                  {"name": "note", "type": ["null", "string"]},
+                  {"name": "hash", "type": {"type": "fixed", "name": "Hash", "size": 4}},
+                  {"name": "parent", "type": ["null", "Order"]}
+                ]}""");
+        var generator = SchemaRecordGenerator.compile(schema);
+        var writer = new GenericDatumWriter<GenericRecord>(schema.rawSchema());
+
+        for (int i = 0; i < 1000; i++) {
+            // When
+            var record = (GenericRecord) generator.next();
+
+            // Then
+            assertTrue(GenericData.get().validate(schema.rawSchema(), record));
+            var out = new ByteArrayOutputStream();
+            var encoder = EncoderFactory.get().binaryEncoder(out, null);
+            writer.write(record, encoder);
+            encoder.flush();
+            assertTrue(out.size() > 0);
+        }
+    }
+
+    @Test
+    void shouldGenerateValidProtobufMessages() {
+        // Given
+        var schema = new ProtobufSchema("""
+                syntax = "proto3";
+                package test;
+                import "google/protobuf/timestamp.proto";
+                message Order {
+                  string id = 1;
+                  Status status = 2;
+                  repeated int64 quantities = 3;
+                  map<string, string> attributes = 4;
+                  google.protobuf.Timestamp created_at = 5;
+                  oneof payment {
+                    string card = 6;
+                    string iban = 7;
+                  }
+                  Order parent = 8;
+                  enum Status {
+                    NEW = 0;
+                    PAID = 1;
+                  }
+                }""");
+        var generator = SchemaRecordGenerator.compile(schema);
+
+        for (int i = 0; i < 1000; i++) {
+            // When
+            var message = (DynamicMessage) generator.next();
+
+            // Then
+            assertEquals("test.Order", message.getDescriptorForType().getFullName());
+            assertTrue(message.isInitialized());
+            var oneof = message.getDescriptorForType().getOneofs().getFirst();
+            assertTrue(message.hasOneof(oneof));
+            assertDoesNotThrow(() -> DynamicMessage.parseFrom(message.getDescriptorForType(), message.toByteArray()));
+        }
+    }
+
+    @Test
+    void shouldGenerateValidJsonDocuments() {
+        // Given
+        var schema = new JsonSchema("""
+                {
+                  "type": "object",
+                  "required": ["id", "quantity", "email", "items"],
+                  "properties": {
+                    "id": {"type": "string", "format": "uuid"},
+                    "quantity": {"type": "integer", "minimum": 1, "maximum": 10},
+                    "price": {"type": "number", "exclusiveMinimum": 0, "maximum": 5},
+                    "email": {"type": "string", "format": "email"},
+                    "code": {"type": "string", "minLength": 3, "maxLength": 3},
+                    "status": {"enum": ["NEW", "PAID"]},
+                    "note": {"type": ["string", "null"]},
+                    "createdAt": {"type": "string", "format": "date-time"},
+                    "items": {"type": "array", "minItems": 1, "maxItems": 3, "items": {"$ref": "#/definitions/item"}}
+                  },
+                  "additionalProperties": false,
+                  "definitions": {
+                    "item": {
+                      "type": "object",
+                      "required": ["sku"],
+                      "properties": {
+                        "sku": {"type": "string"},
+                        "children": {"type": "array", "items": {"$ref": "#/definitions/item"}}
+                      }
+                    }
+                  }
+                }""");
+        var generator = SchemaRecordGenerator.compile(schema);
+
+        for (int i = 0; i < 1000; i++) {
+            // When
+            var node = (JsonNode) generator.next();
+
+            // Then
+            assertDoesNotThrow(() -> schema.validate(node));
+            assertTrue(node.get("quantity").asInt() >= 1 && node.get("quantity").asInt() <= 10);
+        }
+    }
+
+    @Test
+    void shouldGenerateMultiplesWithinNegativeRange() {
+        // Given
+        var schema = new JsonSchema("""
+                {
+                  "type": "object",
+                  "required": ["count", "half", "amount"],
+                  "properties": {
+                    "count": {"type": "integer", "minimum": -10, "maximum": -3, "multipleOf": 5},
+                    "half": {"type": "integer", "minimum": -7, "maximum": 7, "multipleOf": 2.5},
+                    "amount": {"type": "number", "minimum": -1, "maximum": 1, "multipleOf": 0.25}
+                  }
+                }""");
+        var generator = SchemaRecordGenerator.compile(schema);
+
+        for (int i = 0; i < 1000; i++) {
+            // When
+            var node = (JsonNode) generator.next();
+
+            // Then
+            assertDoesNotThrow(() -> schema.validate(node));
+            var count = node.get("count").asLong();
+            assertTrue(count == -10 || count == -5, "count " + count);
+            var half = node.get("half").asLong();
+            assertTrue(half == -5 || half == 0 || half == 5, "half " + half);
+            var amount = node.get("amount").asDouble();
+            assertTrue(amount >= -1 && amount <= 1 && amount * 4 == Math.rint(amount * 4), "amount " + amount);
+        }
+    }
+
+    @Test
+    void shouldRejectUnsupportedSchema() {
+        // When // Then
+        assertThrows(IllegalArgumentException.class, () -> SchemaRecordGenerator.compile(mock(ParsedSchema.class)));
+    }
+}
@@ -4,11 +4,13 @@ import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,6 +36,74 @@ class StreamUtilsTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void shouldCollectSuccessfulFuturesInInputOrder() throws ExecutionException, InterruptedException {
+        var future1 = new CompletableFuture<String>();
+        var future2 = CompletableFuture.<String>failedFuture(new RuntimeException("Test exception"));
+        var future3 = CompletableFuture.completedFuture("c");
+        var streamed = new ArrayList<String>();
+
+        var result = StreamUtils.collectSuccessfulFutures(List.of(future1, future2, future3), streamed::add);
+        assertFalse(result.isDone());
+        assertEquals(List.of("c"), streamed);
+        future1.complete("a");
+
+        assertEquals(List.of("a", "c"), result.get());
+        assertEquals(List.of("c", "a"), streamed);
+    }
+
+    @Test
+    void shouldPropagateFailedFuture() {
+        var future1 = new CompletableFuture<String>();
+        var future2 = CompletableFuture.<String>failedFuture(new IllegalStateException("Test exception"));
+
+        var result = StreamUtils.collectFutures(List.of(future1, future2));
+
+        assertTrue(result.isCompletedExceptionally());
+        var e = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void shouldCollectKafkaFutures() throws ExecutionException, InterruptedException {
+        var failed = new KafkaFutureImpl<String>();
+        failed.completeExceptionally(new RuntimeException("Test exception"));
+        var futures = List.<KafkaFuture<String>>of(KafkaFuture.completedFuture("a"), failed, KafkaFuture.completedFuture("b"));
+
+        var result = StreamUtils.collectKafkaFutures(futures).get();
+
+        assertEquals(List.of("a", "b"), result);
+    }
+
+    @Test
+    void shouldCollectManyFutures() throws ExecutionException, InterruptedException {
+        var futures = IntStream.range(0, 10_000).mapToObj(CompletableFuture::completedFuture).toList();
+
+        var result = StreamUtils.collectFutures(futures).get();
+
+        assertEquals(10_000, result.size());
+        assertEquals(9_999, (int) result.getLast());
+    }
+
+    @Test
+    void shouldFlattenFutureLists() throws ExecutionException, InterruptedException {
+        var future1 = CompletableFuture.completedFuture(List.of("a", "b"));
+        var future2 = CompletableFuture.<List<String>>failedFuture(new RuntimeException("Test exception"));
+        var future3 = CompletableFuture.completedFuture(List.of("c"));
+
+        var result = StreamUtils.flattenFutureLists(List.of(future1, future3)).get();
+
+        assertEquals(List.of("a", "b", "c"), result);
+        assertThrows(ExecutionException.class, () -> StreamUtils.flattenFutureLists(List.of(future1, future2, future3)).get());
+    }
+
+    @Test
+    void shouldCollectEmptyFutures() throws ExecutionException, InterruptedException {
+        var result = StreamUtils.collectFutures(List.<CompletableFuture<String>>of()).get();
+
+        assertTrue(result.isEmpty());
+    }
+
     @Test
     void shouldCombineFutureLists() throws ExecutionException, InterruptedException {
         var future1 = CompletableFuture.completedFuture(List.of("a", "b"));
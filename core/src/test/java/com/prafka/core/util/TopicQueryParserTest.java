@@ -0,0 +1,68 @@
+package com.prafka.core.util;
+
+import com.prafka.core.model.TopicQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicQueryParserTest {
+
+    @Test
+    void shouldParseAggregateQuery() {
+        // When
+        var query = TopicQueryParser.parse("select value.merchant, count(*), SUM(value.amount) AS total "
+                + "where timestamp >= now() - 1h and partition in (0, 2) "
+                + "group by value.merchant order by total desc, 1 limit 10", 10_000_000L);
+
+        // Then
+        assertTrue(query.isAggregate());
+        assertEquals(List.of("value.merchant", "count(*)", "total"), query.select().stream().map(TopicQuery.Select::name).toList());
+        assertEquals(new TopicQuery.Select(TopicQuery.Function.COUNT, null, "count(*)"), query.select().get(1));
+        assertEquals(new TopicQuery.Field("value.amount"), query.select().get(2).argument());
+        assertEquals(Optional.of(new TopicQuery.And(
+                new TopicQuery.Compare(new TopicQuery.Field("timestamp"), TopicQuery.Compare.Operator.GE, new TopicQuery.Literal(6_400_000L)),
+                new TopicQuery.In(new TopicQuery.Field("partition"), List.of(new TopicQuery.Literal(0L), new TopicQuery.Literal(2L)))
+        )), query.where());
+        assertEquals(List.of(new TopicQuery.Field("value.merchant")), query.groupBy());
+        assertEquals(List.of(new TopicQuery.Order(2, true), new TopicQuery.Order(0, false)), query.orderBy());
+        assertEquals(Optional.of(10), query.limit());
+    }
+
+    @Test
+    void shouldParseConditions() {
+        // When
+        var query = TopicQueryParser.parse("SELECT * WHERE key.id IS NOT NULL AND NOT (value.x BETWEEN 1 AND 2.5 OR value.y = 'it''s') "
+                + "AND value.name NOT LIKE 'test%' ORDER BY offset");
+
+        // Then
+        assertFalse(query.isAggregate());
+        assertEquals(List.of("timestamp", "partition", "offset", "key", "value"), query.select().stream().map(TopicQuery.Select::name).toList());
+        var x = new TopicQuery.Field("value.x");
+        assertEquals(Optional.of(new TopicQuery.And(
+                new TopicQuery.And(
+                        new TopicQuery.Not(new TopicQuery.IsNull(new TopicQuery.Field("key.id"))),
+                        new TopicQuery.Not(new TopicQuery.Or(
+                                new TopicQuery.And(
+                                        new TopicQuery.Compare(x, TopicQuery.Compare.Operator.GE, new TopicQuery.Literal(1L)),
+                                        new TopicQuery.Compare(x, TopicQuery.Compare.Operator.LE, new TopicQuery.Literal(2.5))),
+                                new TopicQuery.Compare(new TopicQuery.Field("value.y"), TopicQuery.Compare.Operator.EQ, new TopicQuery.Literal("it's"))))),
+                new TopicQuery.Not(new TopicQuery.Compare(new TopicQuery.Field("value.name"), TopicQuery.Compare.Operator.LIKE, new TopicQuery.Literal("test%")))
+        )), query.where());
+        assertEquals(List.of(new TopicQuery.Order(2, false)), query.orderBy());
+    }
+
+    @Test
+    void shouldRejectInvalidQuery() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> TopicQueryParser.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> TopicQueryParser.parse("SELECT value.a WHERE value.b >"));
+        assertThrows(IllegalArgumentException.class, () -> TopicQueryParser.parse("SELECT headers.a"));
+        assertThrows(IllegalArgumentException.class, () -> TopicQueryParser.parse("SELECT value.a WHERE timestamp > 5w"));
+        assertThrows(IllegalArgumentException.class, () -> TopicQueryParser.parse("SELECT value.a ORDER BY value.b"));
+        var e = assertThrows(IllegalArgumentException.class, () -> TopicQueryParser.parse("SELECT value.a, COUNT(*)"));
+        assertEquals("Invalid query: value.a must be aggregated or listed in GROUP BY", e.getMessage());
+    }
+}
@@ -3,6 +3,7 @@ package com.prafka.desktop.controller;
 import com.prafka.core.manager.KafkaManager;
 import com.prafka.core.manager.SerDeManager;
 import com.prafka.core.service.HealthCheckService;
+import com.prafka.core.service.RecordDeserializationService;
 import com.prafka.desktop.concurrent.ScheduledServiceAdapter;
 import com.prafka.desktop.concurrent.ServiceAdapter;
 import com.prafka.desktop.model.ClusterModel;
@@ -10,6 +11,7 @@ import com.prafka.desktop.service.ClusterService;
 import com.prafka.desktop.service.EventService;
 import com.prafka.desktop.service.ProxyService;
 import com.prafka.desktop.util.JavaFXUtils;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import jakarta.inject.Inject;
 import javafx.application.Platform;
 import javafx.geometry.Pos;
@@ -55,6 +57,7 @@ public class DashboardController extends AbstractController {
 
     private final KafkaManager kafkaManager;
     private final SerDeManager serDeManager;
+    private final RecordDeserializationService recordDeserializationService;
     private final ProxyService proxyService;
     private final ClusterService clusterService;
     private final HealthCheckService healthCheckService;
@@ -62,9 +65,10 @@ public class DashboardController extends AbstractController {
     private ScheduledServiceAdapter<HealthCheckService.HealthCheckResult> healthCheckScheduler;
 
     @Inject
-    public DashboardController(KafkaManager kafkaManager, SerDeManager serDeManager, ProxyService proxyService, ClusterService clusterService, HealthCheckService healthCheckService) {
+    public DashboardController(KafkaManager kafkaManager, SerDeManager serDeManager, RecordDeserializationService recordDeserializationService, ProxyService proxyService, ClusterService clusterService, HealthCheckService healthCheckService) {
         this.kafkaManager = kafkaManager;
         this.serDeManager = serDeManager;
+        this.recordDeserializationService = recordDeserializationService;
         this.proxyService = proxyService;
         this.clusterService = clusterService;
         this.healthCheckService = healthCheckService;
@@ -109,6 +113,7 @@ public class DashboardController extends AbstractController {
                 ServiceAdapter.task(() -> {
                     kafkaManager.close(prevClusterId);
                     serDeManager.close(prevClusterId);
+                    recordDeserializationService.close(prevClusterId);
                 }).start();
             });
             clusterService.saveCurrentCluster(newValue);
@@ -358,6 +363,9 @@ public class DashboardController extends AbstractController {
                         if (result.schemaRegistry().isPresent() && !result.schemaRegistry().get().available()) {
                             styleClass = "shape-warn";
                         }
+                        if (result.schemaRegistryCircuit().isPresent() && result.schemaRegistryCircuit().get() == CircuitBreaker.State.OPEN) {
+                            styleClass = "shape-warn";
+                        }
                         if (result.connects().isPresent() && !result.connects().get().values().stream().allMatch(HealthCheckService.HealthCheckResult.Item::available)) {
                             styleClass = "shape-warn";
                         }
@@ -2,6 +2,7 @@ package com.prafka.desktop.controller.cluster;
 
 import com.prafka.core.manager.KafkaManager;
 import com.prafka.core.manager.SerDeManager;
+import com.prafka.core.service.RecordDeserializationService;
 import com.prafka.desktop.controller.AbstractController;
 import com.prafka.desktop.manager.ViewManager;
 import com.prafka.desktop.model.ClusterModel;
@@ -42,6 +43,7 @@ public class AddEditClusterController extends AbstractController {
 
     private final KafkaManager kafkaManager;
     private final SerDeManager serDeManager;
+    private final RecordDeserializationService recordDeserializationService;
     private final ClusterService clusterService;
     private ViewManager.View<AddEditClusterTabKafkaClusterController> tabKafkaClusterView;
     private ViewManager.View<AddEditClusterTabSchemaRegistryController> tabSchemaRegistryView;
@@ -51,9 +53,10 @@ public class AddEditClusterController extends AbstractController {
     private Runnable onSuccess;
 
     @Inject
-    public AddEditClusterController(KafkaManager kafkaManager, SerDeManager serDeManager, ClusterService clusterService) {
+    public AddEditClusterController(KafkaManager kafkaManager, SerDeManager serDeManager, RecordDeserializationService recordDeserializationService, ClusterService clusterService) {
         this.kafkaManager = kafkaManager;
         this.serDeManager = serDeManager;
+        this.recordDeserializationService = recordDeserializationService;
         this.clusterService = clusterService;
     }
 
@@ -137,6 +140,7 @@ public class AddEditClusterController extends AbstractController {
                 task(() -> {
                     kafkaManager.close(cluster.getId());
                     serDeManager.close(cluster.getId());
+                    recordDeserializationService.close(cluster.getId());
                 })
                         .onSuccess(it -> {
                             getStage(actionEvent).close();
@@ -7,9 +7,11 @@ import com.prafka.desktop.util.CodeHighlight;
 import com.prafka.desktop.util.JavaFXUtils;
 import jakarta.inject.Inject;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
+import javafx.util.StringConverter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 import org.fxmisc.richtext.CodeArea;
@@ -23,14 +25,15 @@ import static com.prafka.desktop.concurrent.FutureServiceAdapter.futureTask;
 import static com.prafka.desktop.concurrent.ServiceAdapter.task;
 
 /**
- * Controller for adding or editing JavaScript filter expressions.
+ * Controller for adding or editing filter expressions.
  *
- * <p>Provides a code editor with syntax highlighting for writing JavaScript
- * filter expressions used to filter consumed messages. Validates expression
- * syntax before applying.
+ * <p>Provides a code editor with syntax highlighting for writing JavaScript or
+ * compiled Java filter expressions used to filter consumed messages. Validates
+ * expression syntax before applying.
  */
 public class AddEditJsFilterController extends AbstractController {
 
+    public ComboBox<ConsumeFilter.Expression.Language> comboBoxLanguage;
     public CodeArea codeArea;
     public TextField textFieldName;
     public HBox paneAlert;
@@ -66,6 +69,24 @@ public class AddEditJsFilterController extends AbstractController {
         codeArea.getStyleClass().addAll("code-area-js", "code-area-border");
         codeHighlightSubscription = CodeHighlight.codeHighlightSubscription(codeArea, () -> CodeHighlight.highlightJs(codeArea.getText()));
 
+        comboBoxLanguage.getItems().setAll(ConsumeFilter.Expression.Language.values());
+        comboBoxLanguage.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(ConsumeFilter.Expression.Language language) {
+                if (language == null) return null;
+                return switch (language) {
+                    case JAVASCRIPT -> i18nService.get("addEditJsFilterView.javascript");
+                    case JAVA -> i18nService.get("addEditJsFilterView.java");
+                };
+            }
+
+            @Override
+            public ConsumeFilter.Expression.Language fromString(String string) {
+                return null;
+            }
+        });
+        comboBoxLanguage.getSelectionModel().select(ConsumeFilter.Expression.Language.JAVASCRIPT);
+
         buttonCancel.setOnAction(it -> JavaFXUtils.getStage(it).close());
 
         buttonDocumentation.setOnAction(it -> viewManager.showJsFilterDocumentationView(JavaFXUtils.getStage(it)));
@@ -73,16 +94,18 @@ public class AddEditJsFilterController extends AbstractController {
         buttonApply.setOnAction(actionEvent -> {
             paneAlert.getChildren().clear();
 
-            if (StringUtils.isBlank(codeArea.getText()) || !Strings.CS.contains(codeArea.getText(), "return ")) {
+            var language = comboBoxLanguage.getValue();
+            // java filters also accept a single boolean expression without return
+            if (StringUtils.isBlank(codeArea.getText()) || (language != ConsumeFilter.Expression.Language.JAVA && !Strings.CS.contains(codeArea.getText(), "return "))) {
                 sceneService.addLabelError(paneAlert, i18nService.get("common.checkParameter").formatted(i18nService.get("common.code")));
                 return;
             }
 
-            var expression = new ConsumeFilter.Expression(textFieldName.getText(), codeArea.getText(), true);
+            var expression = new ConsumeFilter.Expression(textFieldName.getText(), codeArea.getText(), true, language);
 
             progressIndicator.setVisible(true);
             buttonApply.setDisable(true);
-            futureTask(() -> recordService.tryCompileExpression(expression.code()))
+            futureTask(() -> recordService.tryCompileExpression(expression))
                     .onSuccess(it -> {
                         onSuccess.accept(expression);
                         JavaFXUtils.getStage(actionEvent).close();
@@ -101,6 +124,7 @@ public class AddEditJsFilterController extends AbstractController {
     public void initUi() {
         jsFilter.ifPresent(expr -> {
             textFieldName.setText(expr.name());
+            comboBoxLanguage.getSelectionModel().select(expr.language());
             codeArea.replaceText(expr.code());
             task(() -> CodeHighlight.highlightJs(expr.code()))
                     .onSuccess(it -> codeArea.setStyleSpans(0, it))
@@ -17,8 +17,8 @@ import static com.prafka.desktop.concurrent.FutureServiceAdapter.futureTask;
 /**
  * Controller for the individual topic detail view with tabbed content.
  *
- * <p>Displays topic name and provides tabs for consuming messages, producing messages,
- * viewing partitions, configuration, consumer groups, and ACLs. Supports topic deletion
+ * <p>Displays topic name and provides tabs for consuming messages, producing messages, querying records,
+ * profiling keys, viewing partitions, configuration, consumer groups, and ACLs. Supports topic deletion
  * and emptying operations.
  */
 public class TopicController extends AbstractController {
@@ -30,6 +30,8 @@ public class TopicController extends AbstractController {
     public TabPane tabPane;
     public Tab tabConsume;
     public Tab tabProduce;
+    public Tab tabQuery;
+    public Tab tabKeys;
     public Tab tapPartitions;
     public Tab tabConfiguration;
     public Tab tabConsumerGroups;
@@ -104,6 +106,14 @@ public class TopicController extends AbstractController {
             tabProduce.setContent(viewManager.loadTopicTabProducerView(topicName));
             return;
         }
+        if (tabQuery.getId().equals(tab.getId())) {
+            tabQuery.setContent(viewManager.loadTopicTabQueryView(topicName));
+            return;
+        }
+        if (tabKeys.getId().equals(tab.getId())) {
+            tabKeys.setContent(viewManager.loadTopicTabKeysView(topicName));
+            return;
+        }
         if (tapPartitions.getId().equals(tab.getId())) {
             tapPartitions.setContent(viewManager.loadTopicTabPartitionsView(topicName));
             return;
@@ -2,11 +2,14 @@ package com.prafka.desktop.controller.topic;
 
 import com.prafka.core.model.ConsumeFilter;
 import com.prafka.core.model.Record;
+import com.prafka.core.model.ScanProgress;
 import com.prafka.core.model.SerdeType;
 import com.prafka.core.service.ConfigService;
 import com.prafka.core.service.LogDirService;
+import com.prafka.core.service.RecordExportService;
 import com.prafka.core.service.RecordService;
 import com.prafka.core.service.TopicService;
+import com.prafka.core.util.RingBufferQueue;
 import com.prafka.desktop.controller.AbstractController;
 import com.prafka.desktop.service.TopicFilterTemplateService;
 import com.prafka.desktop.util.FormatUtils;
@@ -35,21 +38,18 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import static com.prafka.core.util.JsonFactory.gsonPretty;
 import static com.prafka.core.util.StreamUtils.tryOrEmpty;
 import static com.prafka.desktop.concurrent.FutureServiceAdapter.futureTask;
-import static com.prafka.desktop.concurrent.ServiceAdapter.task;
 import static com.prafka.desktop.util.JavaFXUtils.numberLabelText;
 import static com.prafka.desktop.util.JavaFXUtils.setPaneLoader;
 
@@ -58,10 +58,15 @@ import static com.prafka.desktop.util.JavaFXUtils.setPaneLoader;
  *
  * <p>Provides filters for offset, datetime, partitions, and message format (key/value serde).
  * Supports JavaScript-based filtering expressions, filter templates, and message export.
- * Displays consumed messages in a sortable, searchable table with real-time consumption.
+ * Displays consumed messages in a sortable, searchable table with real-time consumption,
+ * including a follow mode that keeps a sliding window of the newest messages. Projected field paths
+ * are shown as typed columns in place of the key and value, which are then only decoded when a
+ * record is opened.
  */
 public class TopicTabConsumeController extends AbstractController {
 
+    private static final long FOLLOW_REFRESH_INTERVAL_MS = 200;
+
     public Label labelCardRecordCountTitle;
     public Pane paneCardRecordCountContent;
     public Label labelCardSizeTitle;
@@ -76,15 +81,24 @@ public class TopicTabConsumeController extends AbstractController {
     public Pane paneLoaderCardConsume;
     public Label labelCurrentCountCardConsume;
     public Label labelMaxCountCardConsume;
+    public Label labelScanProgressCardConsume;
     public Button buttonCancelConsume;
     public Pane paneFilterBlock;
     public TextField textFieldQuickSearch;
+    public TextField textFieldKeyEquals;
+    public CheckBox checkBoxCustomPartitioner;
+    public TextField textFieldHeaderEquals;
+    public TextField textFieldColumns;
     public ComboBox<ConsumeFilter.From.Type> comboBoxFromFilter;
     public Pane paneFromFilter;
     public TextField textFieldFromOffset;
     public DateTimePicker dateTimePickerFromDatetime;
     public TextField textFieldFromTimestamp;
+    public CheckBox checkBoxTo;
+    public DateTimePicker dateTimePickerToDatetime;
     public ComboBox<String> comboBoxMaxResults;
+    public CheckBox checkBoxScan;
+    public ComboBox<Integer> comboBoxScanWorkers;
     public ComboBox<String> comboBoxPartitions;
     public ComboBox<SerdeType> comboBoxKeyFormat;
     public ComboBox<SerdeType> comboBoxValueFormat;
@@ -95,6 +109,9 @@ public class TopicTabConsumeController extends AbstractController {
     public Pane paneJsFilters;
     public TableView<RecordModelView> tableView;
     public TableColumn<RecordModelView, NumberLabel> columnTimestamp;
+    private TableColumn<RecordModelView, Label> columnKey;
+    private TableColumn<RecordModelView, Label> columnValue;
+    private final List<TableColumn<RecordModelView, Label>> projectedColumnList = new ArrayList<>();
     public Label labelEmptyTableView;
     public ProgressIndicator progressIndicator;
 
@@ -102,18 +119,22 @@ public class TopicTabConsumeController extends AbstractController {
     private final LogDirService logDirService;
     private final ConfigService configService;
     private final RecordService recordService;
+    private final RecordExportService recordExportService;
     private final TopicFilterTemplateService topicFilterTemplateService;
     private final List<ConsumeFilter.Expression> jsFilterList = new ArrayList<>();
+    private final List<ConsumeFilter.PreFilter> otherPreFilterList = new ArrayList<>();
+    private ConsumeFilter.To otherTo;
     private final ObservableList<RecordModelView> modelObservableList = FXCollections.observableArrayList();
     private final FilteredList<RecordModelView> modelFilteredList = new FilteredList<>(modelObservableList, it -> true);
     private String topicName;
 
     @Inject
-    public TopicTabConsumeController(TopicService topicService, LogDirService logDirService, ConfigService configService, RecordService recordService, TopicFilterTemplateService topicFilterTemplateService) {
+    public TopicTabConsumeController(TopicService topicService, LogDirService logDirService, ConfigService configService, RecordService recordService, RecordExportService recordExportService, TopicFilterTemplateService topicFilterTemplateService) {
         this.topicService = topicService;
         this.logDirService = logDirService;
         this.configService = configService;
         this.recordService = recordService;
+        this.recordExportService = recordExportService;
         this.topicFilterTemplateService = topicFilterTemplateService;
     }
 
@@ -141,6 +162,8 @@ public class TopicTabConsumeController extends AbstractController {
         comboBoxFromFilter.getSelectionModel().select(0);
         textFieldFromOffset.setText("0");
         comboBoxMaxResults.getSelectionModel().select(3);
+        checkBoxScan.setSelected(false);
+        comboBoxScanWorkers.getSelectionModel().select(0);
         comboBoxPartitions.getItems().setAll(i18nService.get("common.all"));
         comboBoxPartitions.getSelectionModel().select(0);
         futureTask(() -> topicService.get(clusterId(), topicName))
@@ -148,6 +171,9 @@ public class TopicTabConsumeController extends AbstractController {
                 .start();
         comboBoxKeyFormat.getSelectionModel().select(0);
         comboBoxValueFormat.getSelectionModel().select(0);
+        fillTo(null);
+        fillPreFilters(List.of(), null);
+        textFieldColumns.setText(null);
         jsFilterList.clear();
         handleJsFilters();
     }
@@ -163,6 +189,8 @@ public class TopicTabConsumeController extends AbstractController {
                     consumeFilter.from().timestamp().ifPresent(it -> textFieldFromTimestamp.setText(String.valueOf(it)));
         }
         comboBoxMaxResults.getSelectionModel().select(String.valueOf(consumeFilter.maxResults()));
+        checkBoxScan.setSelected(consumeFilter.scan());
+        comboBoxScanWorkers.getSelectionModel().select(Integer.valueOf(consumeFilter.parallelism()));
         comboBoxPartitions.getItems().setAll(i18nService.get("common.all"));
         comboBoxPartitions.getSelectionModel().select(0);
         futureTask(() -> topicService.get(clusterId(), topicName))
@@ -171,6 +199,9 @@ public class TopicTabConsumeController extends AbstractController {
         // todo add support for select partition
         comboBoxKeyFormat.getSelectionModel().select(consumeFilter.keySerde());
         comboBoxValueFormat.getSelectionModel().select(consumeFilter.valueSerde());
+        fillTo(consumeFilter.to());
+        fillPreFilters(consumeFilter.preFilters(), consumeFilter.keyLookup());
+        textFieldColumns.setText(String.join(", ", consumeFilter.columns()));
         jsFilterList.clear();
         jsFilterList.addAll(consumeFilter.expressions());
         handleJsFilters();
@@ -187,6 +218,8 @@ public class TopicTabConsumeController extends AbstractController {
                     consumeFilter.from().timestamp().ifPresent(it -> textFieldFromTimestamp.setText(String.valueOf(it)));
         }
         comboBoxMaxResults.getSelectionModel().select(String.valueOf(consumeFilter.maxResults()));
+        checkBoxScan.setSelected(consumeFilter.scan());
+        comboBoxScanWorkers.getSelectionModel().select(Integer.valueOf(consumeFilter.parallelism()));
         if (consumeFilter.partitions().isEmpty()) {
             comboBoxPartitions.getSelectionModel().select(0);
         } else {
@@ -194,11 +227,41 @@ public class TopicTabConsumeController extends AbstractController {
         }
         comboBoxKeyFormat.getSelectionModel().select(consumeFilter.keySerde());
         comboBoxValueFormat.getSelectionModel().select(consumeFilter.valueSerde());
+        fillTo(consumeFilter.to());
+        fillPreFilters(consumeFilter.preFilters(), consumeFilter.keyLookup());
+        textFieldColumns.setText(String.join(", ", consumeFilter.columns()));
         jsFilterList.clear();
         jsFilterList.addAll(consumeFilter.expressions());
         handleJsFilters();
     }
 
+    private void fillTo(ConsumeFilter.To to) {
+        otherTo = null;
+        checkBoxTo.setSelected(false);
+        if (to == null) return;
+        switch (to.type()) {
+            case DATETIME, TIMESTAMP -> to.timestamp().ifPresent(it -> {
+                checkBoxTo.setSelected(true);
+                dateTimePickerToDatetime.setTimestampValue(it);
+            });
+            case OFFSET -> otherTo = to;
+        }
+    }
+
+    private void fillPreFilters(List<ConsumeFilter.PreFilter> preFilters, ConsumeFilter.KeyLookup keyLookup) {
+        textFieldKeyEquals.setText(keyLookup == null ? null : keyLookup.key());
+        checkBoxCustomPartitioner.setSelected(keyLookup != null && keyLookup.customPartitioner());
+        textFieldHeaderEquals.setText(null);
+        otherPreFilterList.clear();
+        for (var preFilter : preFilters) {
+            switch (preFilter.type()) {
+                case KEY_EQUALS -> textFieldKeyEquals.setText(preFilter.value());
+                case HEADER_EQUALS -> textFieldHeaderEquals.setText(preFilter.name() + "=" + preFilter.value());
+                default -> otherPreFilterList.add(preFilter);
+            }
+        }
+    }
+
     @Override
     public void initData() {
         loadTableData();
@@ -209,8 +272,19 @@ public class TopicTabConsumeController extends AbstractController {
         textFieldQuickSearch.textProperty().addListener((observable, oldValue, newValue) -> filterTableData());
         textFieldQuickSearch.addEventHandler(KeyEvent.KEY_PRESSED, JavaFXUtils.onKeyEnter(this::filterTableData));
 
+        textFieldKeyEquals.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.keyEqualsDescription")));
+        textFieldKeyEquals.addEventHandler(KeyEvent.KEY_PRESSED, JavaFXUtils.onKeyEnter(this::loadTableData));
+        checkBoxCustomPartitioner.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.customPartitionerDescription")));
+        checkBoxCustomPartitioner.disableProperty().bind(textFieldKeyEquals.textProperty().isEmpty());
+        checkBoxCustomPartitioner.setOnAction(it -> loadTableData());
+        textFieldHeaderEquals.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.headerEqualsDescription")));
+        textFieldHeaderEquals.addEventHandler(KeyEvent.KEY_PRESSED, JavaFXUtils.onKeyEnter(this::loadTableData));
+        textFieldColumns.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.columnsDescription")));
+        textFieldColumns.addEventHandler(KeyEvent.KEY_PRESSED, JavaFXUtils.onKeyEnter(this::loadTableData));
+
         comboBoxFromFilter.getItems().setAll(
                 ConsumeFilter.From.Type.END,
+                ConsumeFilter.From.Type.FOLLOW,
                 ConsumeFilter.From.Type.BEGIN,
                 ConsumeFilter.From.Type.OFFSET,
                 ConsumeFilter.From.Type.DATETIME,
@@ -225,6 +299,7 @@ public class TopicTabConsumeController extends AbstractController {
                     case OFFSET -> i18nService.get("topicTabConsumeView.showFromOffset");
                     case DATETIME -> i18nService.get("topicTabConsumeView.showFromDatetime");
                     case TIMESTAMP -> i18nService.get("topicTabConsumeView.showFromTimestamp");
+                    case FOLLOW -> i18nService.get("topicTabConsumeView.showFollow");
                 };
             }
 
@@ -237,7 +312,7 @@ public class TopicTabConsumeController extends AbstractController {
             if (newValue == null) return;
             paneFromFilter.getChildren().clear();
             switch (newValue) {
-                case BEGIN, END -> {
+                case BEGIN, END, FOLLOW -> {
                     loadTableData();
                 }
                 case OFFSET -> {
@@ -270,9 +345,35 @@ public class TopicTabConsumeController extends AbstractController {
         HBox.setMargin(textFieldFromTimestamp, new Insets(0, 0, 0, 10));
         textFieldFromTimestamp.addEventHandler(KeyEvent.KEY_PRESSED, JavaFXUtils.onKeyEnter(this::loadTableData));
 
-        comboBoxMaxResults.getItems().addAll("10", "20", "50", "100", "200", "500", "1000");
+        checkBoxTo.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.toDescription")));
+        checkBoxTo.setOnAction(it -> loadTableData());
+        dateTimePickerToDatetime.setFormat(settingsService.getTimestampFormat().getShortPattern());
+        dateTimePickerToDatetime.disableProperty().bind(checkBoxTo.selectedProperty().not());
+        dateTimePickerToDatetime.addEventHandler(KeyEvent.KEY_PRESSED, JavaFXUtils.onKeyEnter(this::loadTableData));
+
+        comboBoxMaxResults.getItems().addAll("10", "20", "50", "100", "200", "500", "1000", "5000", "10000");
         comboBoxMaxResults.setOnAction(it -> loadTableData());
 
+        checkBoxScan.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.scanDescription")));
+        checkBoxScan.setOnAction(it -> loadTableData());
+
+        comboBoxScanWorkers.getItems().setAll(0, 1, 2, 4, 8, 16, 32);
+        comboBoxScanWorkers.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Integer workers) {
+                if (workers == null) return null;
+                return workers == 0 ? i18nService.get("common.auto") : String.valueOf(workers);
+            }
+
+            @Override
+            public Integer fromString(String string) {
+                return null;
+            }
+        });
+        comboBoxScanWorkers.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.scanWorkersDescription")));
+        comboBoxScanWorkers.disableProperty().bind(checkBoxScan.selectedProperty().not());
+        comboBoxScanWorkers.setOnAction(it -> loadTableData());
+
         comboBoxPartitions.setOnAction(it -> loadTableData());
 
         var serdeTypes = List.of(
@@ -315,16 +416,50 @@ public class TopicTabConsumeController extends AbstractController {
                 })
         );
 
+        buttonExport.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabConsumeView.exportDescription")));
         buttonExport.setOnAction(actionEvent -> {
             var fileChooser = new RetentionFileChooser();
-            fileChooser.setInitialFileName(String.format("%s_messages.json", topicName));
-            fileChooser.addExtensionFilter(new FileChooser.ExtensionFilter("json", "*.json"));
+            fileChooser.setInitialFileName(String.format("%s_messages.ndjson", topicName));
+            fileChooser.addExtensionFilter(new FileChooser.ExtensionFilter("ndjson", "*.ndjson", "*.ndjson.gz", "*.ndjson.zst"));
+            fileChooser.addExtensionFilter(new FileChooser.ExtensionFilter("csv", "*.csv", "*.csv.gz", "*.csv.zst"));
+            fileChooser.addExtensionFilter(new FileChooser.ExtensionFilter("avro", "*.avro"));
             var file = fileChooser.showSaveDialog(JavaFXUtils.getStage(actionEvent));
             if (file == null) return;
-            task(() -> Files.writeString(Path.of(file.getAbsolutePath()), gsonPretty.toJson(tableView.getItems().stream().map(it -> it.getSource().toDto()).toList())))
-                    .onSuccess(it -> sceneService.showSnackbarSuccess(JavaFXUtils.getStage(actionEvent), Pos.BOTTOM_RIGHT, i18nService.get("common.exported")))
-                    .onError(it -> sceneService.showSnackbarError(JavaFXUtils.getStage(actionEvent), Pos.BOTTOM_RIGHT, i18nService.get("common.error"), it))
-                    .start();
+            var path = Path.of(file.getAbsolutePath());
+            var format = RecordExportService.Format.of(path);
+            var compression = RecordExportService.Compression.of(path);
+            var consumeFilter = createConsumeFilter();
+            // follow has no end, its window is exported as shown
+            if (consumeFilter.from().type() == ConsumeFilter.From.Type.FOLLOW) {
+                futureTask(() -> recordExportService.export(tableView.getItems().stream().map(RecordModelView::getSource).toList(), path, format, compression))
+                        .onSuccess(it -> sceneService.showSnackbarSuccess(JavaFXUtils.getStage(actionEvent), Pos.BOTTOM_RIGHT, i18nService.get("common.exported")))
+                        .onError(it -> sceneService.showSnackbarError(JavaFXUtils.getStage(actionEvent), Pos.BOTTOM_RIGHT, i18nService.get("common.error"), it))
+                        .start();
+                return;
+            }
+            // otherwise every matching record is streamed to the file, with the progress and cancel of the consume card
+            JavaFXUtils.clearTasks(futureTasks);
+            progressIndicator.setVisible(false);
+            boxCardConsume.setVisible(true);
+            labelScanProgressCardConsume.setText("");
+            var cancel = new AtomicBoolean();
+            var exportTask = futureTask(() -> recordExportService.export(clusterId(), topicName, consumeFilter.toBuilder().maxResults(Integer.MAX_VALUE).build(),
+                    path, format, compression, this::onScanProgress, cancel), cancel)
+                    .onSuccess(it -> {
+                        boxCardConsume.setVisible(false);
+                        if (cancel.get()) return;
+                        sceneService.showSnackbarSuccess(JavaFXUtils.getStage(actionEvent), Pos.BOTTOM_RIGHT, i18nService.get("common.exported"));
+                    })
+                    .onError(it -> {
+                        boxCardConsume.setVisible(false);
+                        sceneService.showSnackbarError(JavaFXUtils.getStage(actionEvent), Pos.BOTTOM_RIGHT, i18nService.get("common.error"), it);
+                    })
+                    .startNow();
+            futureTasks.add(exportTask);
+            buttonCancelConsume.setOnAction(it -> {
+                exportTask.cancel();
+                boxCardConsume.setVisible(false);
+            });
         });
 
         handleJsFilters();
@@ -345,7 +480,7 @@ public class TopicTabConsumeController extends AbstractController {
 
             var menuItemEnableOrDisable = new MenuItem(i18nService.get(jsFilter.isActive() ? "common.disable" : "common.enable"));
             menuItemEnableOrDisable.setOnAction(it -> {
-                jsFilterList.set(index, new ConsumeFilter.Expression(jsFilter.name(), jsFilter.code(), !jsFilter.isActive()));
+                jsFilterList.set(index, new ConsumeFilter.Expression(jsFilter.name(), jsFilter.code(), !jsFilter.isActive(), jsFilter.language()));
                 handleJsFilters();
                 loadTableData();
             });
@@ -386,6 +521,10 @@ public class TopicTabConsumeController extends AbstractController {
         }
         var from = new ConsumeFilter.From(fromType, offset, timestamp);
 
+        var to = checkBoxTo.isSelected()
+                ? tryOrEmpty(() -> dateTimePickerToDatetime.getTimestampValue()).map(it -> new ConsumeFilter.To(ConsumeFilter.To.Type.DATETIME, Optional.empty(), Optional.of(it))).orElse(null)
+                : otherTo;
+
         var maxResults = tryOrEmpty(() -> Integer.parseInt(comboBoxMaxResults.getValue())).orElse(100);
 
         var partitions = new ArrayList<Integer>(1);
@@ -394,7 +533,36 @@ public class TopicTabConsumeController extends AbstractController {
         var keySerde = comboBoxKeyFormat.getValue();
         var valueSerde = comboBoxValueFormat.getValue();
 
-        return new ConsumeFilter(from, maxResults, partitions, keySerde, valueSerde, new ArrayList<>(jsFilterList));
+        return ConsumeFilter.builder()
+                .from(from)
+                .maxResults(maxResults)
+                .partitions(partitions)
+                .keySerde(keySerde)
+                .valueSerde(valueSerde)
+                .expressions(new ArrayList<>(jsFilterList))
+                .scan(checkBoxScan.isSelected())
+                .parallelism(Optional.ofNullable(comboBoxScanWorkers.getValue()).orElse(0))
+                .preFilters(createPreFilters())
+                .columns(createColumns())
+                .to(to)
+                .keyLookup(StringUtils.isNotEmpty(textFieldKeyEquals.getText()) ? new ConsumeFilter.KeyLookup(textFieldKeyEquals.getText(), checkBoxCustomPartitioner.isSelected()) : null)
+                .build();
+    }
+
+    private List<ConsumeFilter.PreFilter> createPreFilters() {
+        var preFilters = new ArrayList<>(otherPreFilterList);
+        if (StringUtils.isNotBlank(textFieldHeaderEquals.getText())) {
+            var header = textFieldHeaderEquals.getText().split("=", 2);
+            preFilters.add(header.length == 2
+                    ? ConsumeFilter.PreFilter.headerEquals(header[0].trim(), header[1])
+                    : new ConsumeFilter.PreFilter(ConsumeFilter.PreFilter.Type.HEADER_PRESENT, header[0].trim(), null, null, null));
+        }
+        return preFilters;
+    }
+
+    private List<String> createColumns() {
+        if (StringUtils.isBlank(textFieldColumns.getText())) return List.of();
+        return Arrays.stream(textFieldColumns.getText().split(",")).map(String::trim).filter(StringUtils::isNotEmpty).toList();
     }
 
     private void initTable() {
@@ -403,12 +571,12 @@ public class TopicTabConsumeController extends AbstractController {
         columnTimestamp.setComparator(NumberLabel.COMPARATOR);
         columnTimestamp.setPrefWidth(200);
 
-        var columnKey = JavaFXUtils.<RecordModelView, Label>tableColumn(i18nService.get("common.key"));
+        columnKey = JavaFXUtils.tableColumn(i18nService.get("common.key"));
         columnKey.setCellValueFactory(it -> it.getValue().keyProperty());
         columnKey.setComparator(JavaFXUtils.LABEL_COMPARATOR);
         columnKey.setMinWidth(200);
 
-        var columnValue = JavaFXUtils.<RecordModelView, Label>tableColumn(i18nService.get("common.value"));
+        columnValue = JavaFXUtils.tableColumn(i18nService.get("common.value"));
         columnValue.setCellValueFactory(it -> it.getValue().valueProperty());
         columnValue.setComparator(JavaFXUtils.LABEL_COMPARATOR);
         columnValue.setMinWidth(200);
@@ -430,9 +598,22 @@ public class TopicTabConsumeController extends AbstractController {
         //noinspection unchecked
         tableView.getColumns().addAll(columnTimestamp, columnKey, columnValue, columnPartition, columnOffset);
         JavaFXUtils.disableTableViewFocus(tableView);
-        tableView.setRowFactory(JavaFXUtils.clickRowFactory(item ->
-                viewManager.showTopicRecordView(JavaFXUtils.getStage(tableView), topicName, item.getSource())
-        ));
+        tableView.setRowFactory(JavaFXUtils.clickRowFactory(item -> {
+            var record = item.getSource();
+            if (record.getColumns().isEmpty()) {
+                viewManager.showTopicRecordView(JavaFXUtils.getStage(tableView), topicName, record);
+                return;
+            }
+            // projected records decode their key and value on first read, which may call the schema registry
+            futureTask(() -> CompletableFuture.supplyAsync(() -> {
+                record.getKeyFormatted();
+                record.getValueFormatted();
+                return record;
+            }))
+                    .onSuccess(it -> viewManager.showTopicRecordView(JavaFXUtils.getStage(tableView), topicName, it))
+                    .onError(it -> sceneService.showSnackbarError(JavaFXUtils.getStage(tableView), Pos.BOTTOM_RIGHT, i18nService.get("common.error"), it))
+                    .start();
+        }));
 
         var modelSortedList = new SortedList<>(modelFilteredList);
         modelSortedList.comparatorProperty().bind(tableView.comparatorProperty());
@@ -453,30 +634,36 @@ public class TopicTabConsumeController extends AbstractController {
         if (disableLoadData) return;
 
         var consumeFilter = createConsumeFilter();
+        updateProjectedColumns(consumeFilter.columns());
 
         boxCardConsume.setVisible(true);
         modelObservableList.clear();
         labelEmptyTableView.setText("");
+        labelScanProgressCardConsume.setText("");
         progressIndicator.setVisible(true);
 
         if (tableView.getSortOrder().isEmpty()) {
             columnTimestamp.setSortType(
-                    consumeFilter.from().type() == ConsumeFilter.From.Type.END
+                    consumeFilter.from().type() == ConsumeFilter.From.Type.END || consumeFilter.from().type() == ConsumeFilter.From.Type.FOLLOW
                             ? TableColumn.SortType.DESCENDING
                             : TableColumn.SortType.ASCENDING
             );
             tableView.getSortOrder().add(columnTimestamp);
         }
 
-        var queue = new ArrayBlockingQueue<Record>(consumeFilter.maxResults());
+        // in follow mode max results is the size of the sliding window, older records are evicted
+        var follow = consumeFilter.from().type() == ConsumeFilter.From.Type.FOLLOW;
+        var window = consumeFilter.maxResults();
+        var queue = new RingBufferQueue<Record>(window + 1);
         var cancel = new AtomicBoolean();
 
-        var consumeRecordsTask = futureTask(() -> recordService.consume(clusterId(), topicName, consumeFilter, queue, cancel), cancel)
+        var consumeRecordsTask = futureTask(() -> recordService.consume(clusterId(), topicName, consumeFilter, queue, this::onScanProgress, cancel), cancel)
                 .onError(this::loadDataError)
                 .startNow();
         futureTasks.add(consumeRecordsTask);
 
         var handleConsumedRecordsTask = futureTask(() -> CompletableFuture.runAsync(() -> {
+            var batch = new ArrayList<Record>(queue.capacity());
             while (!cancel.get()) {
                 Record record;
                 try {
@@ -486,16 +673,34 @@ public class TopicTabConsumeController extends AbstractController {
                     throw new RuntimeException(e);
                 }
                 if (cancel.get()) break;
-                var completed = record == null || record.isLast();
-                if (completed) {
-                    Platform.runLater(this::onCompletedLoadTableData);
-                    break;
+                if (record == null && follow) continue;
+                batch.clear();
+                if (record != null) {
+                    batch.add(record);
+                    queue.drainTo(batch, queue.capacity());
                 }
-                var model = new RecordModelView(record);
+                var completed = batch.isEmpty() || batch.removeIf(Record::isLast);
+                var models = batch.stream().map(RecordModelView::new).toList();
                 Platform.runLater(() -> {
-                    progressIndicator.setVisible(false);
-                    modelObservableList.add(model);
+                    if (!models.isEmpty()) {
+                        progressIndicator.setVisible(false);
+                        modelObservableList.addAll(models);
+                        if (modelObservableList.size() > window) {
+                            modelObservableList.remove(0, modelObservableList.size() - window);
+                        }
+                    }
+                    if (completed) onCompletedLoadTableData();
                 });
+                if (completed) break;
+                if (follow) {
+                    // let records accumulate so the table is refreshed in batches instead of per record
+                    try {
+                        Thread.sleep(FOLLOW_REFRESH_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                }
             }
         }))
                 .onError(it -> onCompletedLoadTableData())
@@ -509,6 +714,37 @@ public class TopicTabConsumeController extends AbstractController {
         });
     }
 
+    private void updateProjectedColumns(List<String> columns) {
+        var current = projectedColumnList.stream().map(TableColumn::getText).toList();
+        if (current.equals(columns)) return;
+        tableView.getColumns().removeAll(projectedColumnList);
+        projectedColumnList.clear();
+        for (int i = 0; i < columns.size(); i++) {
+            var index = i;
+            var column = JavaFXUtils.<RecordModelView, Label>tableColumn(columns.get(i));
+            column.setCellValueFactory(it -> it.getValue().columnProperty(index));
+            column.setComparator(JavaFXUtils.VALUE_LABEL_COMPARATOR);
+            column.setPrefWidth(150);
+            projectedColumnList.add(column);
+        }
+        // projected records are shown by their columns, the key and value are decoded only when a record is opened
+        columnKey.setVisible(columns.isEmpty());
+        columnValue.setVisible(columns.isEmpty());
+        tableView.getColumns().addAll(tableView.getColumns().indexOf(columnValue) + 1, projectedColumnList);
+    }
+
+    private void onScanProgress(ScanProgress progress) {
+        var text = String.format(
+                i18nService.get("topicTabConsumeView.scanProgress"),
+                progress.scannedOffsets(),
+                progress.totalOffsets(),
+                progress.percent(),
+                progress.recordsPerSecond(),
+                FormatUtils.prettySizeInBytes(progress.bytesPerSecond())
+        );
+        Platform.runLater(() -> labelScanProgressCardConsume.setText(text));
+    }
+
     private void onCompletedLoadTableData() {
         boxCardConsume.setVisible(false);
         progressIndicator.setVisible(false);
@@ -527,6 +763,9 @@ public class TopicTabConsumeController extends AbstractController {
         if (StringUtils.isBlank(search)) {
             return true;
         }
+        if (!model.getSource().getColumns().isEmpty()) {
+            return model.getSource().getColumns().stream().anyMatch(it -> it != null && Strings.CI.contains(it.toString(), search));
+        }
         if (Strings.CI.contains(model.getSource().getKey(), search)
                 || Strings.CI.contains(model.getSource().getValue(), search)) {
             return true;
@@ -578,6 +817,7 @@ public class TopicTabConsumeController extends AbstractController {
         private final SimpleObjectProperty<NumberLabel> offset = new SimpleObjectProperty<>();
         private final SimpleObjectProperty<Label> key = new SimpleObjectProperty<>();
         private final SimpleObjectProperty<Label> value = new SimpleObjectProperty<>();
+        private final List<SimpleObjectProperty<Label>> columns = new ArrayList<>();
 
         public RecordModelView(Record source) {
             this.source = source;
@@ -586,8 +826,15 @@ public class TopicTabConsumeController extends AbstractController {
             timestamp.set(timestampLabel);
             partition.set(JavaFXUtils.numberLabel(source.getPartition(), "font-code"));
             offset.set(JavaFXUtils.numberLabel(source.getOffset(), "font-code"));
-            key.set(JavaFXUtils.labelWithTooltip(source.getKeyCompressed(), JavaFXUtils.tooltip(source.getKeyFormatted()), "font-code"));
-            value.set(JavaFXUtils.labelWithTooltip(source.getValueCompressed(), JavaFXUtils.tooltip(source.getValueFormatted()), "font-code"));
+            if (source.getColumns().isEmpty()) {
+                key.set(JavaFXUtils.labelWithLazyTooltip(source.getKeyCompressed(), source::getKeyFormatted, "font-code"));
+                value.set(JavaFXUtils.labelWithLazyTooltip(source.getValueCompressed(), source::getValueFormatted, "font-code"));
+            }
+            for (var column : source.getColumns()) {
+                var label = JavaFXUtils.label(column, "font-code");
+                label.setUserData(column);
+                columns.add(new SimpleObjectProperty<>(label));
+            }
         }
 
         public Record getSource() {
@@ -613,5 +860,9 @@ public class TopicTabConsumeController extends AbstractController {
         public SimpleObjectProperty<Label> valueProperty() {
             return value;
         }
+
+        public SimpleObjectProperty<Label> columnProperty(int index) {
+            return index < columns.size() ? columns.get(index) : new SimpleObjectProperty<>();
+        }
     }
 }
@@ -0,0 +1,203 @@
+package com.prafka.desktop.controller.topic;
+
+import com.prafka.core.model.ConsumeFilter;
+import com.prafka.core.model.KeyProfile;
+import com.prafka.core.model.ScanProgress;
+import com.prafka.core.service.KeyProfileService;
+import com.prafka.desktop.controller.AbstractController;
+import com.prafka.desktop.util.FormatUtils;
+import com.prafka.desktop.util.JavaFXUtils;
+import com.prafka.desktop.util.control.NumberLabel;
+import jakarta.inject.Inject;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.control.*;
+import javafx.util.StringConverter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.prafka.desktop.concurrent.FutureServiceAdapter.futureTask;
+
+/**
+ * Controller for the topic keys tab profiling the key distribution of the topic.
+ *
+ * <p>Scans the newest records, or all of them, and shows the estimated number of distinct keys,
+ * the hottest keys and how records and keys spread over the partitions, to spot hot keys and
+ * skewed partitions. Stopping the scan shows the profile of the records read so far.
+ */
+public class TopicTabKeysController extends AbstractController {
+
+    private static final int TOP_KEYS = 100;
+
+    public ComboBox<Integer> comboBoxRecords;
+    public Button buttonRun;
+    public Button buttonStop;
+    public Label labelProgress;
+    public Label labelSummary;
+    public TableView<KeyProfile.HotKey> tableViewHotKeys;
+    public Label labelEmptyTableViewHotKeys;
+    public TableView<KeyProfile.Partition> tableViewPartitions;
+    public Label labelEmptyTableViewPartitions;
+    public ProgressIndicator progressIndicator;
+
+    private final KeyProfileService keyProfileService;
+    private String topicName;
+    private long records;
+
+    @Inject
+    public TopicTabKeysController(KeyProfileService keyProfileService) {
+        this.keyProfileService = keyProfileService;
+    }
+
+    public void setTopicName(String topicName) {
+        this.topicName = topicName;
+    }
+
+    @Override
+    public void initFxml() {
+        comboBoxRecords.getItems().setAll(10_000, 100_000, 1_000_000, Integer.MAX_VALUE);
+        comboBoxRecords.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Integer value) {
+                if (value == null) return null;
+                return value == Integer.MAX_VALUE ? i18nService.get("common.all") : String.format(i18nService.get("topicTabKeysView.newestRecords"), value);
+            }
+
+            @Override
+            public Integer fromString(String string) {
+                return null;
+            }
+        });
+
+        var columnKey = JavaFXUtils.<KeyProfile.HotKey, Label>tableColumn(i18nService.get("common.key"));
+        columnKey.setCellValueFactory(it -> new SimpleObjectProperty<>(JavaFXUtils.label(it.getValue().key(), "font-code")));
+        columnKey.setSortable(false);
+        columnKey.setPrefWidth(400);
+        tableViewHotKeys.getColumns().add(columnKey);
+        tableViewHotKeys.getColumns().add(numberColumn(i18nService.get("common.partition"), KeyProfile.HotKey::partition));
+        tableViewHotKeys.getColumns().add(numberColumn(i18nService.get("common.records"), KeyProfile.HotKey::count));
+        var columnShare = JavaFXUtils.<KeyProfile.HotKey, NumberLabel>tableColumn(i18nService.get("topicTabKeysView.share"));
+        columnShare.setCellValueFactory(it -> new SimpleObjectProperty<>(JavaFXUtils.numberLabelText(
+                it.getValue().count(), String.format("%.2f%%", it.getValue().count() * 100.0 / Math.max(records, 1)), "font-code")));
+        columnShare.setComparator(NumberLabel.COMPARATOR);
+        columnShare.setPrefWidth(140);
+        tableViewHotKeys.getColumns().add(columnShare);
+
+        tableViewPartitions.getColumns().add(numberColumn(i18nService.get("common.partition"), KeyProfile.Partition::id));
+        tableViewPartitions.getColumns().add(numberColumn(i18nService.get("common.records"), KeyProfile.Partition::records));
+        tableViewPartitions.getColumns().add(numberColumn(i18nService.get("topicTabKeysView.nullKeys"), KeyProfile.Partition::nullKeys));
+        tableViewPartitions.getColumns().add(numberColumn(i18nService.get("topicTabKeysView.distinctKeys"), KeyProfile.Partition::distinctKeys));
+        var columnKeySize = JavaFXUtils.<KeyProfile.Partition, NumberLabel>tableColumn(i18nService.get("topicTabKeysView.keySize"));
+        columnKeySize.setCellValueFactory(it -> new SimpleObjectProperty<>(JavaFXUtils.numberLabelText(
+                it.getValue().keyBytes(), FormatUtils.prettySizeInBytes(it.getValue().keyBytes()), "font-code")));
+        columnKeySize.setComparator(NumberLabel.COMPARATOR);
+        columnKeySize.setPrefWidth(140);
+        tableViewPartitions.getColumns().add(columnKeySize);
+        var columnHotKey = JavaFXUtils.<KeyProfile.Partition, Label>tableColumn(i18nService.get("topicTabKeysView.hotKey"));
+        columnHotKey.setCellValueFactory(it -> new SimpleObjectProperty<>(JavaFXUtils.label(Optional.ofNullable(it.getValue().hotKey()).orElse(""), "font-code")));
+        columnHotKey.setSortable(false);
+        columnHotKey.setPrefWidth(300);
+        tableViewPartitions.getColumns().add(columnHotKey);
+        tableViewPartitions.getColumns().add(numberColumn(i18nService.get("topicTabKeysView.hotKeyRecords"), KeyProfile.Partition::hotKeyCount));
+
+        buttonRun.setOnAction(it -> runProfile());
+    }
+
+    private static <S> TableColumn<S, NumberLabel> numberColumn(String text, Function<S, Number> value) {
+        var column = JavaFXUtils.<S, NumberLabel>tableColumn(text);
+        column.setCellValueFactory(it -> new SimpleObjectProperty<>(JavaFXUtils.numberLabel(value.apply(it.getValue()), "font-code")));
+        column.setComparator(NumberLabel.COMPARATOR);
+        column.setPrefWidth(140);
+        return column;
+    }
+
+    @Override
+    public void initUi() {
+        comboBoxRecords.getSelectionModel().select(1);
+        tableViewHotKeys.getItems().clear();
+        tableViewPartitions.getItems().clear();
+        labelEmptyTableViewHotKeys.setText("");
+        labelEmptyTableViewPartitions.setText("");
+        labelProgress.setText("");
+        labelSummary.setText("");
+        progressIndicator.setVisible(false);
+        buttonStop.setDisable(true);
+    }
+
+    private void runProfile() {
+        JavaFXUtils.clearTasks(futureTasks);
+        if (disableLoadData) return;
+
+        var maxRecords = comboBoxRecords.getValue();
+        var from = maxRecords == Integer.MAX_VALUE ? ConsumeFilter.From.Type.BEGIN : ConsumeFilter.From.Type.END;
+        var filter = ConsumeFilter.builder()
+                .from(new ConsumeFilter.From(from, Optional.empty(), Optional.empty()))
+                .maxResults(maxRecords)
+                .partitions(List.of())
+                .build();
+
+        tableViewHotKeys.getItems().clear();
+        tableViewPartitions.getItems().clear();
+        labelEmptyTableViewHotKeys.setText("");
+        labelEmptyTableViewPartitions.setText("");
+        labelProgress.setText("");
+        labelSummary.setText("");
+        progressIndicator.setVisible(true);
+        buttonStop.setDisable(false);
+
+        var cancel = new AtomicBoolean();
+        var profileTask = futureTask(() -> keyProfileService.profile(clusterId(), topicName, filter, TOP_KEYS, this::onScanProgress, cancel), cancel)
+                .onSuccess(this::showProfile)
+                .onError(it -> {
+                    onCompletedProfile();
+                    loadDataError(it);
+                })
+                .startNow();
+        futureTasks.add(profileTask);
+
+        // stopping only ends the scan, the profile of the records read so far is still shown
+        buttonStop.setOnAction(it -> cancel.set(true));
+    }
+
+    private void showProfile(KeyProfile profile) {
+        records = profile.records();
+        labelSummary.setText(String.format(
+                i18nService.get("topicTabKeysView.summary"),
+                profile.records(),
+                profile.distinctKeys(),
+                profile.distinctKeysError() * 100,
+                profile.nullKeys(),
+                profile.countError()
+        ));
+        tableViewHotKeys.getItems().setAll(profile.hotKeys());
+        tableViewPartitions.getItems().setAll(profile.partitions());
+        labelProgress.setText("");
+        onCompletedProfile();
+    }
+
+    private void onScanProgress(ScanProgress progress) {
+        var text = String.format(
+                i18nService.get("topicTabConsumeView.scanProgress"),
+                progress.scannedOffsets(),
+                progress.totalOffsets(),
+                progress.percent(),
+                progress.recordsPerSecond(),
+                FormatUtils.prettySizeInBytes(progress.bytesPerSecond())
+        );
+        Platform.runLater(() -> labelProgress.setText(text));
+    }
+
+    private void onCompletedProfile() {
+        progressIndicator.setVisible(false);
+        buttonStop.setDisable(true);
+        if (tableViewHotKeys.getItems().isEmpty()) {
+            labelEmptyTableViewHotKeys.setText(i18nService.get("common.noData"));
+        }
+        if (tableViewPartitions.getItems().isEmpty()) {
+            labelEmptyTableViewPartitions.setText(i18nService.get("common.noData"));
+        }
+    }
+}
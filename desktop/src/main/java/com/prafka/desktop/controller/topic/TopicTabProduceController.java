@@ -1,8 +1,14 @@
 package com.prafka.desktop.controller.topic;
 
+import com.prafka.core.model.ImportOptions;
+import com.prafka.core.model.ImportProgress;
+import com.prafka.core.model.LoadOptions;
+import com.prafka.core.model.LoadProgress;
 import com.prafka.core.model.NewRecord;
 import com.prafka.core.model.Record;
 import com.prafka.core.model.SerdeType;
+import com.prafka.core.service.RecordImportService;
+import com.prafka.core.service.RecordLoadService;
 import com.prafka.core.service.RecordRandomService;
 import com.prafka.core.service.RecordService;
 import com.prafka.core.service.SchemaRegistryService;
@@ -12,19 +18,25 @@ import com.prafka.desktop.util.CodeHighlight;
 import com.prafka.desktop.util.FormatUtils;
 import com.prafka.desktop.util.JavaFXUtils;
 import com.prafka.desktop.util.control.NumberLabel;
+import com.prafka.desktop.util.control.RetentionFileChooser;
 import jakarta.inject.Inject;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.prafka.core.util.StreamUtils.tryOrEmpty;
@@ -37,7 +49,9 @@ import static com.prafka.desktop.util.JavaFXUtils.numberLabelText;
  *
  * <p>Provides editors for key and value with format selection (String, JSON, Schema Registry, etc.),
  * custom headers, partition selection, compression, and acknowledgment settings. Displays
- * recently produced messages with their metadata.
+ * recently produced messages with their metadata. Records exported to NDJSON can be imported in bulk
+ * with the selected formats and producer settings, showing live throughput and error counts. The flow
+ * section generates load on the topic and reports throughput and send-to-ack latency percentiles.
  */
 public class TopicTabProduceController extends AbstractController {
 
@@ -56,9 +70,18 @@ public class TopicTabProduceController extends AbstractController {
     public ComboBox<NewRecord.CompressionType> comboBoxCompression;
     public ComboBox<NewRecord.Asks> comboBoxAsks;
     public CheckBox checkBoxIdempotence;
+    public TextField textFieldFlowThreads;
+    public TextField textFieldFlowRate;
+    public TextField textFieldFlowRecords;
+    public TextField textFieldFlowDuration;
+    public CheckBox checkBoxFlowTemplate;
+    public Button buttonFlow;
+    public Label labelFlowProgress;
     public TableView<RecordModelView> tableViewProducedRecords;
     public Label labelEmptyTableView;
     public Button buttonProduce;
+    public Button buttonImport;
+    public Label labelImportProgress;
     public ProgressIndicator progressIndicatorProduce;
     public Pane paneAlert;
 
@@ -66,15 +89,21 @@ public class TopicTabProduceController extends AbstractController {
     private final SchemaRegistryService schemaRegistryService;
     private final RecordService recordService;
     private final RecordRandomService recordRandomService;
+    private final RecordImportService recordImportService;
+    private final RecordLoadService recordLoadService;
     private final List<HeaderModelView> headerModelList = new ArrayList<>();
     private String topicName;
+    private boolean importing;
+    private boolean flowing;
 
     @Inject
-    public TopicTabProduceController(TopicService topicService, SchemaRegistryService schemaRegistryService, RecordService recordService, RecordRandomService recordRandomService) {
+    public TopicTabProduceController(TopicService topicService, SchemaRegistryService schemaRegistryService, RecordService recordService, RecordRandomService recordRandomService, RecordImportService recordImportService, RecordLoadService recordLoadService) {
         this.topicService = topicService;
         this.schemaRegistryService = schemaRegistryService;
         this.recordService = recordService;
         this.recordRandomService = recordRandomService;
+        this.recordImportService = recordImportService;
+        this.recordLoadService = recordLoadService;
     }
 
     public void setTopicName(String topicName) {
@@ -89,6 +118,7 @@ public class TopicTabProduceController extends AbstractController {
         initAdditionalProperties();
         initFlow();
         initProducedRecords();
+        initImport();
 
         buttonProduce.setOnAction(actionEvent -> {
             paneAlert.getChildren().clear();
@@ -210,6 +240,9 @@ public class TopicTabProduceController extends AbstractController {
 
         tableViewProducedRecords.getItems().clear();
 
+        labelImportProgress.setText("");
+        labelFlowProgress.setText("");
+
         paneAlert.getChildren().clear();
     }
 
@@ -299,7 +332,68 @@ public class TopicTabProduceController extends AbstractController {
     }
 
     private void initFlow() {
-        // todo add support for flow
+        textFieldFlowThreads.setTextFormatter(JavaFXUtils.positiveLongTextFormatter(1L));
+        textFieldFlowRate.setTextFormatter(JavaFXUtils.positiveLongTextFormatter(0L));
+        textFieldFlowRecords.setTextFormatter(JavaFXUtils.positiveLongTextFormatter(LoadOptions.DEFAULT.maxRecords()));
+        textFieldFlowDuration.setTextFormatter(JavaFXUtils.positiveLongTextFormatter(0L));
+        checkBoxFlowTemplate.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabProduceView.useTemplateDescription")));
+        buttonFlow.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabProduceView.flowDescription")));
+
+        var cancel = new AtomicBoolean();
+        buttonFlow.setOnAction(actionEvent -> {
+            if (flowing) {
+                cancel.set(true);
+                return;
+            }
+            var useTemplate = checkBoxFlowTemplate.isSelected();
+            var options = LoadOptions.DEFAULT.toBuilder()
+                    .keySerde(comboBoxKeyFormat.getValue())
+                    .valueSerde(comboBoxValueFormat.getValue())
+                    .keyTemplate(useTemplate ? codeAreaKey.getText() : null)
+                    .valueTemplate(useTemplate ? codeAreaValue.getText() : null)
+                    .threads(tryOrEmpty(() -> Integer.parseInt(textFieldFlowThreads.getText())).orElse(1))
+                    .targetRate(tryOrEmpty(() -> Long.parseLong(textFieldFlowRate.getText())).orElse(0L))
+                    .maxRecords(tryOrEmpty(() -> Long.parseLong(textFieldFlowRecords.getText())).orElse(0L))
+                    .durationMs(tryOrEmpty(() -> Long.parseLong(textFieldFlowDuration.getText()) * 1000).orElse(0L))
+                    .compression(comboBoxCompression.getValue())
+                    .asks(comboBoxAsks.getValue())
+                    .idempotence(checkBoxIdempotence.isSelected())
+                    .build();
+            cancel.set(false);
+            flowing = true;
+            buttonFlow.setText(i18nService.get("common.stop"));
+            labelFlowProgress.setText("");
+            var flowTask = futureTask(() -> recordLoadService.generate(clusterId(), topicName, options, this::onFlowProgress, cancel), cancel);
+            futureTasks.add(flowTask);
+            flowTask
+                    .onSuccess(progress -> {
+                        flowing = false;
+                        buttonFlow.setText(i18nService.get("topicTabProduceView.startFlow"));
+                    })
+                    .onError(throwable -> {
+                        flowing = false;
+                        buttonFlow.setText(i18nService.get("topicTabProduceView.startFlow"));
+                        sceneService.showSnackbarError(JavaFXUtils.getStage(buttonFlow), Pos.BOTTOM_RIGHT, i18nService.get("common.error"), throwable);
+                        logError(throwable);
+                    })
+                    .start();
+        });
+    }
+
+    private void onFlowProgress(LoadProgress progress) {
+        var text = String.format(
+                i18nService.get("topicTabProduceView.flowProgress"),
+                progress.sentRecords(),
+                progress.ackedRecords(),
+                progress.failedRecords(),
+                progress.recordsPerSecond(),
+                FormatUtils.prettySizeInBytes(progress.bytesPerSecond()),
+                progress.latency().p50() / 1000.0,
+                progress.latency().p99() / 1000.0,
+                progress.latency().p999() / 1000.0,
+                progress.latency().max() / 1000.0
+        );
+        Platform.runLater(() -> labelFlowProgress.setText(text));
     }
 
     private void initAdditionalProperties() {
@@ -317,6 +411,66 @@ public class TopicTabProduceController extends AbstractController {
         });
     }
 
+    private void initImport() {
+        buttonImport.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabProduceView.importDescription")));
+        var cancel = new AtomicBoolean();
+        buttonImport.setOnAction(actionEvent -> {
+            if (importing) {
+                cancel.set(true);
+                return;
+            }
+            var fileChooser = new RetentionFileChooser();
+            fileChooser.addExtensionFilter(new FileChooser.ExtensionFilter("ndjson", "*.ndjson", "*.ndjson.gz", "*.ndjson.zst"));
+            var file = fileChooser.showOpenDialog(JavaFXUtils.getStage(actionEvent));
+            if (file == null) return;
+            var options = ImportOptions.DEFAULT.toBuilder()
+                    .keySerde(comboBoxKeyFormat.getValue())
+                    .valueSerde(comboBoxValueFormat.getValue())
+                    .compression(comboBoxCompression.getValue())
+                    .asks(comboBoxAsks.getValue())
+                    .idempotence(checkBoxIdempotence.isSelected())
+                    .build();
+            cancel.set(false);
+            importing = true;
+            buttonImport.setText(i18nService.get("common.stop"));
+            buttonProduce.setDisable(true);
+            labelImportProgress.setText("");
+            var importTask = futureTask(() -> recordImportService.importFromFile(clusterId(), topicName, Path.of(file.getAbsolutePath()), options, this::onImportProgress, cancel), cancel);
+            futureTasks.add(importTask);
+            importTask
+                    .onSuccess(progress -> {
+                        importing = false;
+                        buttonImport.setText(i18nService.get("common.import"));
+                        buttonProduce.setDisable(false);
+                        if (progress.failedRecords() == 0) {
+                            sceneService.showSnackbarSuccess(JavaFXUtils.getStage(buttonImport), Pos.BOTTOM_RIGHT, i18nService.get("common.imported"));
+                        } else {
+                            sceneService.showSnackbarError(JavaFXUtils.getStage(buttonImport), Pos.BOTTOM_RIGHT, i18nService.get("common.error"), new RuntimeException(progress.lastError()));
+                        }
+                    })
+                    .onError(throwable -> {
+                        importing = false;
+                        buttonImport.setText(i18nService.get("common.import"));
+                        buttonProduce.setDisable(false);
+                        sceneService.showSnackbarError(JavaFXUtils.getStage(buttonImport), Pos.BOTTOM_RIGHT, i18nService.get("common.error"), throwable);
+                        logError(throwable);
+                    })
+                    .start();
+        });
+    }
+
+    private void onImportProgress(ImportProgress progress) {
+        var text = String.format(
+                i18nService.get("topicTabProduceView.importProgress"),
+                progress.readRecords(),
+                progress.sentRecords(),
+                progress.failedRecords(),
+                progress.recordsPerSecond(),
+                FormatUtils.prettySizeInBytes(progress.bytesPerSecond())
+        );
+        Platform.runLater(() -> labelImportProgress.setText(text));
+    }
+
     private void initProducedRecords() {
         var columnTimestamp = JavaFXUtils.<RecordModelView, NumberLabel>tableColumn(i18nService.get("common.timestamp"));
         columnTimestamp.setCellValueFactory(it -> it.getValue().timestampProperty());
@@ -0,0 +1,172 @@
+package com.prafka.desktop.controller.topic;
+
+import com.prafka.core.model.ScanProgress;
+import com.prafka.core.model.SerdeType;
+import com.prafka.core.model.TopicQuery;
+import com.prafka.core.model.TopicQueryResult;
+import com.prafka.core.service.TopicQueryService;
+import com.prafka.core.util.TopicQueryParser;
+import com.prafka.desktop.controller.AbstractController;
+import com.prafka.desktop.util.FormatUtils;
+import com.prafka.desktop.util.JavaFXUtils;
+import jakarta.inject.Inject;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.prafka.desktop.concurrent.FutureServiceAdapter.futureTask;
+
+/**
+ * Controller for the topic query tab running SQL-like queries over the records of the topic.
+ *
+ * <p>The query is parsed and run as a scan of the topic, and only its result table is shown:
+ * selected fields, or aggregates of them per group. Stopping the scan shows the result of the
+ * records read so far.
+ */
+public class TopicTabQueryController extends AbstractController {
+
+    public TextArea textAreaQuery;
+    public ComboBox<SerdeType> comboBoxKeyFormat;
+    public ComboBox<SerdeType> comboBoxValueFormat;
+    public Button buttonRun;
+    public Button buttonStop;
+    public Label labelProgress;
+    public TableView<List<Label>> tableView;
+    public Label labelEmptyTableView;
+    public ProgressIndicator progressIndicator;
+
+    private final TopicQueryService topicQueryService;
+    private String topicName;
+
+    @Inject
+    public TopicTabQueryController(TopicQueryService topicQueryService) {
+        this.topicQueryService = topicQueryService;
+    }
+
+    public void setTopicName(String topicName) {
+        this.topicName = topicName;
+    }
+
+    @Override
+    public void initFxml() {
+        textAreaQuery.setTooltip(JavaFXUtils.tooltip(i18nService.get("topicTabQueryView.queryDescription")));
+        textAreaQuery.addEventFilter(KeyEvent.KEY_PRESSED, it -> {
+            if (it.getCode() == KeyCode.ENTER && it.isShortcutDown()) {
+                it.consume();
+                runQuery();
+            }
+        });
+
+        var serdeTypes = List.of(
+                SerdeType.AUTO,
+                SerdeType.STRING,
+                SerdeType.BYTES,
+                SerdeType.SHORT,
+                SerdeType.INTEGER,
+                SerdeType.LONG,
+                SerdeType.FLOAT,
+                SerdeType.DOUBLE,
+                SerdeType.UUID,
+                SerdeType.AVRO
+        );
+        comboBoxKeyFormat.getItems().setAll(serdeTypes);
+        comboBoxKeyFormat.setConverter(JavaFXUtils.prettyEnumStringConverter());
+        comboBoxValueFormat.getItems().setAll(serdeTypes);
+        comboBoxValueFormat.setConverter(JavaFXUtils.prettyEnumStringConverter());
+
+        buttonRun.setOnAction(it -> runQuery());
+    }
+
+    @Override
+    public void initUi() {
+        comboBoxKeyFormat.getSelectionModel().select(0);
+        comboBoxValueFormat.getSelectionModel().select(0);
+        tableView.getColumns().clear();
+        tableView.getItems().clear();
+        labelEmptyTableView.setText("");
+        labelProgress.setText("");
+        progressIndicator.setVisible(false);
+        buttonStop.setDisable(true);
+    }
+
+    private void runQuery() {
+        JavaFXUtils.clearTasks(futureTasks);
+        if (disableLoadData) return;
+
+        TopicQuery query;
+        try {
+            query = TopicQueryParser.parse(textAreaQuery.getText());
+        } catch (IllegalArgumentException e) {
+            sceneService.showSnackbarError(JavaFXUtils.getStage(paneRoot), Pos.BOTTOM_RIGHT, i18nService.get("topicTabQueryView.invalidQuery"), e);
+            return;
+        }
+        var keySerde = comboBoxKeyFormat.getValue();
+        var valueSerde = comboBoxValueFormat.getValue();
+
+        tableView.getColumns().clear();
+        tableView.getItems().clear();
+        labelEmptyTableView.setText("");
+        labelProgress.setText("");
+        progressIndicator.setVisible(true);
+        buttonStop.setDisable(false);
+
+        var cancel = new AtomicBoolean();
+        var queryTask = futureTask(() -> topicQueryService.execute(clusterId(), topicName, query, keySerde, valueSerde, this::onScanProgress, cancel), cancel)
+                .onSuccess(this::showResult)
+                .onError(it -> {
+                    onCompletedQuery();
+                    loadDataError(it);
+                })
+                .startNow();
+        futureTasks.add(queryTask);
+
+        // stopping only ends the scan, the result of the records read so far is still shown
+        buttonStop.setOnAction(it -> cancel.set(true));
+    }
+
+    private void showResult(TopicQueryResult result) {
+        for (int i = 0; i < result.columns().size(); i++) {
+            var index = i;
+            var column = JavaFXUtils.<List<Label>, Label>tableColumn(result.columns().get(i));
+            column.setCellValueFactory(it -> new SimpleObjectProperty<>(it.getValue().get(index)));
+            column.setComparator(JavaFXUtils.VALUE_LABEL_COMPARATOR);
+            column.setPrefWidth(200);
+            tableView.getColumns().add(column);
+        }
+        tableView.getItems().setAll(result.rows().stream().map(row -> row.stream().map(value -> {
+            var label = JavaFXUtils.label(value, "font-code");
+            label.setUserData(value);
+            return label;
+        }).toList()).toList());
+        var text = String.format(i18nService.get("topicTabQueryView.result"), result.rows().size(), result.matchedRecords(), result.scannedRecords());
+        if (result.truncated()) text += ". " + String.format(i18nService.get("topicTabQueryView.truncated"), result.rows().size());
+        labelProgress.setText(text);
+        onCompletedQuery();
+    }
+
+    private void onScanProgress(ScanProgress progress) {
+        var text = String.format(
+                i18nService.get("topicTabConsumeView.scanProgress"),
+                progress.scannedOffsets(),
+                progress.totalOffsets(),
+                progress.percent(),
+                progress.recordsPerSecond(),
+                FormatUtils.prettySizeInBytes(progress.bytesPerSecond())
+        );
+        Platform.runLater(() -> labelProgress.setText(text));
+    }
+
+    private void onCompletedQuery() {
+        progressIndicator.setVisible(false);
+        buttonStop.setDisable(true);
+        if (tableView.getItems().isEmpty()) {
+            labelEmptyTableView.setText(i18nService.get("common.noData"));
+        }
+    }
+}
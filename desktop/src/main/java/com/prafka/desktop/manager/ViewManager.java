@@ -198,6 +198,14 @@ public class ViewManager {
         return this.<TopicTabProduceController>getView("/view/topic/TopicTabProduceView.fxml", it -> it.setTopicName(topicName), true, true).root();
     }
 
+    public Node loadTopicTabQueryView(String topicName) {
+        return this.<TopicTabQueryController>getView("/view/topic/TopicTabQueryView.fxml", it -> it.setTopicName(topicName), true, true).root();
+    }
+
+    public Node loadTopicTabKeysView(String topicName) {
+        return this.<TopicTabKeysController>getView("/view/topic/TopicTabKeysView.fxml", it -> it.setTopicName(topicName), true, true).root();
+    }
+
     public Node loadTopicTabPartitionsView(String topicName) {
         return this.<TopicTabPartitionsController>getView("/view/topic/TopicTabPartitionsView.fxml", it -> it.setTopicName(topicName), true, true).root();
     }
@@ -665,6 +673,8 @@ public class ViewManager {
         getView("/view/topic/TopicView.fxml", false);
         getView("/view/topic/TopicTabConsumeView.fxml", false);
         getView("/view/topic/TopicTabProduceView.fxml", false);
+        getView("/view/topic/TopicTabQueryView.fxml", false);
+        getView("/view/topic/TopicTabKeysView.fxml", false);
         getView("/view/topic/TopicTabPartitionsView.fxml", false);
         getView("/view/topic/TopicTabConfigurationView.fxml", false);
         getView("/view/topic/TopicTabConsumerGroupView.fxml", false);
@@ -35,6 +35,7 @@ import java.util.EventObject;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
@@ -51,6 +52,12 @@ public class JavaFXUtils {
 
     public static final Comparator<Label> LABEL_COMPARATOR = Comparator.comparing(Labeled::getText);
 
+    // by the value in user data: numbers sort numerically and before other values, which sort by text, absent values first
+    public static final Comparator<Label> VALUE_LABEL_COMPARATOR = Comparator.comparing(Label::getUserData, Comparator.nullsFirst((a, b) -> {
+        if (a instanceof Number x) return b instanceof Number y ? Double.compare(x.doubleValue(), y.doubleValue()) : -1;
+        return b instanceof Number ? 1 : a.toString().compareTo(b.toString());
+    }));
+
     public static final Comparator<Node> BORDER_PANE_LEFT_LABEL_COMPARATOR =
             Comparator.comparing(it -> {
                 if (it instanceof BorderPane pane) {
@@ -103,6 +110,21 @@ public class JavaFXUtils {
         return label;
     }
 
+    /**
+     * Label whose tooltip text is only computed when the tooltip is about to be shown.
+     */
+    public static <T> Label labelWithLazyTooltip(T value, Supplier<String> tooltipText, String... styleClass) {
+        var label = label(value, styleClass);
+        if (value != null && isNotBlank(value.toString())) {
+            var tooltip = tooltip(null);
+            tooltip.setOnShowing(it -> {
+                if (tooltip.getText() == null) tooltip.setText(tooltipText.get());
+            });
+            label.setTooltip(tooltip);
+        }
+        return label;
+    }
+
     public static Label labelLoader(Image image) {
         return new Label("", new ImageView(image));
     }